@@ -40,7 +40,8 @@ dependencies {
     implementation("ch.qos.logback:logback-classic:1.2.3")
     implementation("org.apache.poi:poi-ooxml:5.2.5")
     implementation("org.apache.logging.log4j:log4j-to-slf4j:2.8.2")
-    implementation("org.xerial:sqlite-jdbc:3.30.1")
+    // FTS5 с токенизатором trigram есть только в SQLite 3.34 и новее
+    implementation("org.xerial:sqlite-jdbc:3.45.3.0")
     implementation("de.jensd:fontawesomefx-fontawesome:4.7.0-9.1.2")
     compileOnly("org.projectlombok:lombok:1.18.32")
     annotationProcessor("org.projectlombok:lombok:1.18.32")
@@ -62,4 +63,49 @@ tasks.test {
 
 application {
     mainClass = "programmingLanguagesJava.laboratories.GUI.Main"
-}
\ No newline at end of file
+}
+
+// Импорт клиентов из CSV/JSON-lines без интерфейса: gradlew bulkImport --args="clients.csv"
+tasks.register<JavaExec>("bulkImport") {
+    group = "application"
+    description = "Импорт клиентов в базу данных из CSV или JSON-lines файла"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer.BulkImporter"
+    workingDir = rootDir
+}
+
+// Адреса района для геокодера без интернета: gradlew importAddresses --args="addresses.csv"
+tasks.register<JavaExec>("importAddresses") {
+    group = "application"
+    description = "Импорт адресов с координатами из CSV или выгрузки OpenStreetMap для геокодера без интернета"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer.AddressImporter"
+    workingDir = rootDir
+}
+
+// Пакетная генерация договоров: gradlew generateContracts --args="clients.jsonl --save"
+tasks.register<JavaExec>("generateContracts") {
+    group = "application"
+    description = "Генерация договоров для списка клиентов из JSON-lines файла"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing.BatchContractGenerator"
+    workingDir = rootDir
+}
+
+// Перевод базы данных на хранилище файлов без дубликатов: gradlew compactBlobs
+tasks.register<JavaExec>("compactBlobs") {
+    group = "application"
+    description = "Сжатие базы данных: перенос файлов в общее хранилище и удаление дубликатов"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "programmingLanguagesJava.laboratories.GUI.controllers.project.database.BlobCompactor"
+    workingDir = rootDir
+}
+
+// Сравнение способов сжатия файлов: gradlew codecBenchmark --args="папка_с_планами"
+tasks.register<JavaExec>("codecBenchmark") {
+    group = "application"
+    description = "Сравнение способов сжатия на настоящих файлах"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec.CodecBenchmark"
+    workingDir = rootDir
+}
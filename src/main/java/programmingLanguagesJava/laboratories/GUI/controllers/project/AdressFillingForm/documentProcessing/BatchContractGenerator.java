@@ -0,0 +1,346 @@
+/**
+ * Пакетная генерация договоров, например для ежегодного продления у всех клиентов.
+ * Раньше договор можно было сделать только по одному из формы.
+ * Запуск: gradlew generateContracts --args="clients.jsonl [--save] [потоки]"
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer.JsonClientLineParser;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Класс BatchContractGenerator генерирует договоры для списка клиентов через DocxProcessor.
+ * Работает конвейером: сборка договора (работа процессора) идет на ограниченном числе потоков,
+ * запись файла в documents_for_database - на виртуальных потоках, а запись клиентов в базу данных
+ * (если она нужна) - пачками по одной транзакции в вызывающем потоке, потому что писатель в базе данных один.
+ * Одновременно в работе не больше нескольких договоров на поток, поэтому конвейер не убегает вперед записи.
+ * Ошибка одного клиента не останавливает остальных, а попадает в отчет.
+ */
+public class BatchContractGenerator {
+
+    // Сколько договоров на один поток сборки может быть в работе одновременно
+    static final int IN_FLIGHT_PER_WORKER = 4;
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private final Consumer<List<ClientRecord>> saver;
+    private final int parallelism;
+    private final int batchSize;
+    private final Consumer<BatchContractProgress> progressListener;
+    private final Function<Map<String, String>, byte[]> renderer;
+    private final Function<byte[], String> writer;
+
+    /**
+     * @param dataBase         База данных, куда записываются клиенты с новыми договорами, или null, если нужны только файлы.
+     * @param parallelism      Сколько потоков собирают договоры.
+     * @param batchSize        Сколько клиентов записывать в базу данных одной транзакцией, и как часто сообщать о ходе.
+     * @param progressListener Вызывается после каждой пачки и в конце.
+     */
+    public BatchContractGenerator(DataBaseSQLite dataBase, int parallelism, int batchSize,
+                                  Consumer<BatchContractProgress> progressListener) {
+
+        this(dataBase == null ? null : dataBase::insertRecords, parallelism, batchSize, progressListener,
+                BatchContractGenerator::render, BatchContractGenerator::write);
+    }
+
+    // Сборку договора, запись файла и запись пачки в базу данных тесты подставляют свои
+    BatchContractGenerator(Consumer<List<ClientRecord>> saver, int parallelism, int batchSize,
+                           Consumer<BatchContractProgress> progressListener,
+                           Function<Map<String, String>, byte[]> renderer, Function<byte[], String> writer) {
+
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Количество потоков и размер пачки должны быть положительными");
+        }
+
+        this.saver = saver;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.progressListener = progressListener;
+        this.renderer = renderer;
+        this.writer = writer;
+    }
+
+    /**
+     * Метод generate() генерирует договоры для всех клиентов.
+     *
+     * @param clients Данные клиентов в том же виде, в каком их собирает форма
+     *                (addressField, mainPerson, allPeople, buildingPlan).
+     * @return Отчет о генерации.
+     * @throws RuntimeException Если генерация была прервана.
+     */
+    public BatchContractReport generate(List<Map<String, String>> clients) {
+        var renderers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("contract-render-", 0).daemon(true).factory());
+        var writers = Executors.newVirtualThreadPerTaskExecutor();
+
+        var inFlight = new Semaphore(parallelism * IN_FLIGHT_PER_WORKER);
+        var results = new LinkedBlockingQueue<Result>();
+
+        var submitter = Thread.ofPlatform()
+                .name("contract-batch-submitter")
+                .daemon(true)
+                .start(() -> submit(clients, renderers, writers, inFlight, results));
+
+        var start = System.nanoTime();
+        var latencies = new long[clients.size()];
+        var errors = new ArrayList<String>();
+        var batch = new Batch();
+        long done = 0, generated = 0, failed = 0;
+
+        try {
+
+            while (done < clients.size()) {
+                var result = results.take();
+                inFlight.release();
+                done++;
+
+                if (result.error() != null) {
+                    failed++;
+                    errors.add(String.format("Клиент %d: %s", result.index() + 1, result.error()));
+                } else {
+                    latencies[(int) generated++] = result.latencyNanos();
+
+                    if (saver != null) {
+                        failed += batch.add(result, clients.get(result.index()), errors);
+                    }
+                }
+
+                if (batch.records.size() == batchSize) {
+                    failed += batch.save(errors);
+                }
+                if (done % batchSize == 0) {
+                    progressListener.accept(new BatchContractProgress(
+                            done, clients.size(), generated, batch.saved, failed, System.nanoTime() - start));
+                }
+            }
+
+            failed += batch.save(errors);
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Генерация договоров была прервана", e);
+
+        } finally {
+            submitter.interrupt();
+            renderers.shutdownNow();
+            writers.shutdownNow();
+        }
+
+        var progress = new BatchContractProgress(
+                done, clients.size(), generated, batch.saved, failed, System.nanoTime() - start);
+        progressListener.accept(progress);
+
+        var sorted = Arrays.copyOf(latencies, (int) generated);
+        Arrays.sort(sorted);
+
+        return new BatchContractReport(progress, errors,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    // Постановка договоров в работу: новый договор берется, только когда освободилось место в конвейере
+    private void submit(List<Map<String, String>> clients, ExecutorService renderers, ExecutorService writers,
+                        Semaphore inFlight, BlockingQueue<Result> results) {
+
+        try {
+
+            for (int i = 0; i < clients.size(); i++) {
+                inFlight.acquire();
+
+                var index = i;
+                var client = clients.get(i);
+                var start = System.nanoTime();
+
+                CompletableFuture.supplyAsync(() -> renderer.apply(client), renderers)
+                        .thenApplyAsync(writer, writers)
+                        .whenComplete((path, error) -> results.add(
+                                new Result(index, path, error == null ? null : message(error), System.nanoTime() - start)));
+            }
+
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // Генерация закончилась раньше времени, дальше ставить договоры незачем
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Сборка договора в памяти
+    private static byte[] render(Map<String, String> client) {
+        var document = new ByteArrayOutputStream(BUFFER_SIZE);
+
+        try {
+            new DocxProcessor(client).render(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return document.toByteArray();
+    }
+
+    // Запись готового договора в documents_for_database
+    private static String write(byte[] document) {
+        var path = DocxProcessor.createNewDocx();
+
+        try {
+            Files.write(Paths.get(path), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не получилось записать договор " + path, e);
+        }
+
+        return path;
+    }
+
+    private static String message(Throwable error) {
+        var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    // Процентиль по уже отсортированным значениям
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Ближайший ранг: наименьшее значение, не меньше которого fraction всех значений
+        return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private record Result(int index, String path, String error, long latencyNanos) {
+    }
+
+    /**
+     * Пачка клиентов с готовыми договорами, которая записывается в базу данных одной транзакцией.
+     */
+    private final class Batch {
+
+        private final List<ClientRecord> records = new ArrayList<>(batchSize);
+        private final List<Integer> indexes = new ArrayList<>(batchSize);
+        private long saved;
+
+        // Возвращает 1, если клиента не получилось подготовить к записи
+        private int add(Result result, Map<String, String> client, List<String> errors) {
+            try {
+
+                var people = Person.createPeoples(client.get("allPeople"), client.get("mainPerson"));
+                records.add(new ClientRecord(result.path(), client.get("buildingPlan"), people));
+                indexes.add(result.index());
+                return 0;
+
+            } catch (RuntimeException e) {
+
+                errors.add(String.format("Клиент %d: договор записан в %s, но люди не разобраны: %s",
+                        result.index() + 1, result.path(), message(e)));
+                return 1;
+
+            }
+        }
+
+        // Возвращает количество клиентов, которых не получилось записать
+        private int save(List<String> errors) {
+            if (records.isEmpty()) {
+                return 0;
+            }
+
+            var count = records.size();
+
+            try {
+
+                saver.accept(records);
+                saved += count;
+                count = 0;
+
+            } catch (RuntimeException e) {
+
+                errors.add(String.format("Клиенты %s не записаны в базу данных (договоры остались на диске): %s",
+                        indexes.stream().map(index -> String.valueOf(index + 1)).collect(Collectors.joining(", ")),
+                        message(e)));
+
+            }
+
+            records.clear();
+            indexes.clear();
+            return count;
+        }
+    }
+
+    /**
+     * Точка запуска пакетной генерации из консоли.
+     *
+     * @param args JSON-lines файл с клиентами, затем необязательные --save (записать клиентов в базу данных)
+     *             и количество потоков сборки (по числу ядер).
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length == 0) {
+            System.err.println("Использование: BatchContractGenerator <клиенты.jsonl> [--save] [потоки]");
+            System.exit(1);
+        }
+
+        var isSaved = Arrays.asList(args).contains("--save");
+        var parallelism = Arrays.stream(args, 1, args.length)
+                .filter(arg -> !arg.equals("--save"))
+                .mapToInt(Integer::parseInt)
+                .findFirst()
+                .orElse(Runtime.getRuntime().availableProcessors());
+
+        var clients = readClients(Paths.get(args[0]));
+
+        var generator = new BatchContractGenerator(isSaved ? DataBaseSQLite.getInstance() : null, parallelism, 500,
+                progress -> System.out.println("Договоры: " + progress));
+
+        var report = generator.generate(clients);
+
+        report.errors().forEach(System.err::println);
+        System.out.println("Готово: " + report);
+    }
+
+    // Клиенты в JSON-lines: {"addressField": "...", "mainPerson": "...", "allPeople": [...] или "...", "buildingPlan": "..."}
+    private static List<Map<String, String>> readClients(Path file) throws IOException {
+        var parser = new JsonClientLineParser();
+        var clients = new ArrayList<Map<String, String>>();
+
+        try (var lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            var lineNumber = 0;
+
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    clients.add(parser.fields(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Строка " + lineNumber + " не является JSON объектом", e);
+                }
+            }
+        }
+
+        return clients;
+    }
+}
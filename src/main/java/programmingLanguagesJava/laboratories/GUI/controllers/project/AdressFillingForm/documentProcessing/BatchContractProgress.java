@@ -0,0 +1,29 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Состояние пакетной генерации договоров на текущий момент.
+ *
+ * @param done         Сколько клиентов обработано (с ошибкой или без).
+ * @param total        Сколько всего клиентов.
+ * @param generated    Сколько договоров записано на диск.
+ * @param saved        Сколько клиентов записано в базу данных.
+ * @param failed       Сколько клиентов не обработано из-за ошибки.
+ * @param elapsedNanos Сколько времени прошло с начала генерации.
+ */
+public record BatchContractProgress(long done, long total, long generated, long saved, long failed, long elapsedNanos) {
+
+    /**
+     * @return Скорость генерации в договорах в секунду.
+     */
+    public double contractsPerSecond() {
+        return elapsedNanos == 0 ? 0 : generated * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("обработано %d из %d, договоров %d, в базе данных %d, ошибок %d, %.1f договоров/с",
+                done, total, generated, saved, failed, contractsPerSecond());
+    }
+}
@@ -0,0 +1,23 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import java.util.List;
+
+/**
+ * Итог пакетной генерации договоров.
+ *
+ * @param progress    Итоговые счетчики.
+ * @param errors      Ошибки по клиентам (номер клиента в списке и причина).
+ * @param p50Nanos    Медиана времени одного договора от постановки в очередь до записи на диск.
+ * @param p95Nanos    95-й процентиль того же времени.
+ * @param p99Nanos    99-й процентиль того же времени.
+ * @param maxNanos    Самый долгий договор.
+ */
+public record BatchContractReport(BatchContractProgress progress, List<String> errors,
+                                  long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+
+    @Override
+    public String toString() {
+        return String.format("%s; задержка p50 %.1f мс, p95 %.1f мс, p99 %.1f мс, максимум %.1f мс",
+                progress, p50Nanos / 1e6, p95Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+    }
+}
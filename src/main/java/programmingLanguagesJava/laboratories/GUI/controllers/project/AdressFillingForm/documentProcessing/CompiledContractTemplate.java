@@ -0,0 +1,241 @@
+/**
+ * Скомпилированный бланк договора для массовой генерации.
+ * Раньше на каждый договор бланк заново читался с диска, разбирался POI и обходился целиком,
+ * а на тысячах договоров это почти все время генерации.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SequencedMap;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Класс CompiledContractTemplate один раз разбирает бланк договора через POI и находит в нем пропуски тем же
+ * PlaceholderReplacer, что и обычная замена: подчеркивания и именованные пропуски ({{city}}) в абзацах, таблицах
+ * и колонтитулах. Каждый пропуск заменяется меткой, документ один раз сохраняется,
+ * и части docx с метками (word/document.xml, колонтитулы) режутся по меткам на готовые куски.
+ * Договор собирается из этих кусков и значений, остальные части docx копируются как есть,
+ * поэтому на каждый договор нет ни чтения с диска, ни разбора XML.
+ * Объект неизменяемый, договоры можно генерировать из нескольких потоков одновременно.
+ */
+public final class CompiledContractTemplate {
+
+    // Метка пропуска: символы из области для частного использования, которых нет в обычном тексте
+    private static final char MARKER_START = '\uE000';
+    private static final char MARKER_END = '\uE001';
+
+    private static CompiledContractTemplate instance;
+
+    private final List<Slot> slots;
+    private final List<Part> parts;
+
+    /**
+     * Метод getInstance() возвращает бланк договора, скомпилированный при первом обращении (Singleton pattern).
+     *
+     * @return Скомпилированный бланк договора.
+     */
+    public static synchronized CompiledContractTemplate getInstance() {
+        if (instance == null) {
+            instance = compile(DocxProcessor.PATH_BLANK);
+        }
+        return instance;
+    }
+
+    private CompiledContractTemplate(List<Slot> slots, List<Part> parts) {
+        this.slots = slots;
+        this.parts = parts;
+    }
+
+    /**
+     * Метод compile() разбирает бланк договора и запоминает положение пропусков.
+     *
+     * @param blank Путь к бланку договора в формате DOCX.
+     * @return Скомпилированный бланк.
+     * @throws RuntimeException Если бланк не удалось прочитать или в нем не нашлись метки после сохранения.
+     */
+    public static CompiledContractTemplate compile(Path blank) {
+        try (var doc = new XWPFDocument(new ByteArrayInputStream(Files.readAllBytes(blank)))) {
+
+            var slots = new ArrayList<Slot>();
+
+            new PlaceholderReplacer((name, number, placeholder) -> {
+                slots.add(new Slot(name, number, placeholder));
+                return MARKER_START + String.valueOf(slots.size() - 1) + MARKER_END;
+            }).replaceUnderlines(doc);
+
+            var outputStream = new ByteArrayOutputStream();
+            doc.write(outputStream);
+
+            var found = new boolean[slots.size()];
+            var parts = readParts(outputStream.toByteArray(), found);
+
+            for (int i = 0; i < found.length; i++) {
+                if (!found[i]) {
+                    throw new IllegalStateException("В сохраненном бланке не нашлась метка пропуска " + slots.get(i));
+                }
+            }
+
+            return new CompiledContractTemplate(List.copyOf(slots), parts);
+
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Не получилось скомпилировать бланк договора " + blank, e);
+        }
+    }
+
+    /**
+     * Метод generate() записывает договор с подставленными значениями.
+     * Именованные пропуски заполняются по имени, подчеркивания - значениями по порядку.
+     * Пропуск без значения остается в договоре видимым (подчеркиванием или {{имя}}).
+     *
+     * @param values       Значения по именам, их порядок - порядок подчеркиваний в бланке.
+     * @param outputStream Поток, куда пишется DOCX. Не закрывается.
+     * @throws IOException Если не удалось записать договор.
+     */
+    public void generate(SequencedMap<String, String> values, OutputStream outputStream) throws IOException {
+        var texts = texts(values);
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = escapeXml(texts[i]);
+        }
+
+        var zip = new ZipOutputStream(outputStream);
+        // Договоры генерируются тысячами, поэтому быстрое сжатие важнее нескольких килобайтов размера
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        for (var part : parts) {
+            zip.putNextEntry(new ZipEntry(part.name()));
+
+            write(part, texts, zip);
+            zip.closeEntry();
+        }
+
+        zip.finish();
+    }
+
+    /**
+     * @return Пропуски бланка в том порядке, в каком их нашел PlaceholderReplacer.
+     */
+    public List<Slot> getSlots() {
+        return slots;
+    }
+
+    // Текст каждого пропуска: значение или сам пропуск, если значения нет
+    private String[] texts(SequencedMap<String, String> values) {
+        var replacementValues = PlaceholderReplacer.valuesOf(values);
+
+        var texts = new String[slots.size()];
+        for (int i = 0; i < texts.length; i++) {
+            var slot = slots.get(i);
+            var value = replacementValues.valueFor(slot.name(), slot.number(), slot.placeholder());
+
+            texts[i] = value != null ? value : slot.placeholder();
+        }
+
+        return texts;
+    }
+
+    // Запись части: куски между метками вперемешку с текстом пропусков
+    private static void write(Part part, String[] texts, OutputStream outputStream) throws IOException {
+        for (int i = 0; i < part.slots().length; i++) {
+            outputStream.write(part.fragments().get(i));
+            outputStream.write(texts[part.slots()[i]].getBytes(StandardCharsets.UTF_8));
+        }
+        outputStream.write(part.fragments().getLast());
+    }
+
+    // Все части docx в исходном порядке ([Content_Types].xml должен остаться первым), части с метками разрезаны по ним
+    private static List<Part> readParts(byte[] docx, boolean[] found) throws IOException {
+        var parts = new ArrayList<Part>();
+
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(docx))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                parts.add(split(entry.getName(), zip.readAllBytes(), found));
+            }
+        }
+
+        return Collections.unmodifiableList(parts);
+    }
+
+    // Разрезание части по меткам. Каждая метка должна встретиться во всем документе ровно один раз
+    private static Part split(String name, byte[] content, boolean[] found) {
+        var xml = new String(content, StandardCharsets.UTF_8);
+
+        if (xml.indexOf(MARKER_START) < 0) {
+            return new Part(name, List.of(content), new int[0]);
+        }
+
+        var fragments = new ArrayList<byte[]>();
+        var partSlots = new ArrayList<Integer>();
+        var from = 0;
+        int start;
+
+        while ((start = xml.indexOf(MARKER_START, from)) >= 0) {
+            var end = xml.indexOf(MARKER_END, start);
+            var slot = Integer.parseInt(xml, start + 1, end, 10);
+
+            if (found[slot]) {
+                throw new IllegalStateException("Метка пропуска " + slot + " встретилась в бланке дважды");
+            }
+            found[slot] = true;
+
+            fragments.add(xml.substring(from, start).getBytes(StandardCharsets.UTF_8));
+            partSlots.add(slot);
+            from = end + 1;
+        }
+
+        fragments.add(xml.substring(from).getBytes(StandardCharsets.UTF_8));
+
+        return new Part(name, List.copyOf(fragments), partSlots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static String escapeXml(String value) {
+        var escaped = new StringBuilder(value.length() + 16);
+
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // Управляющие символы кроме табуляции и переводов строки в XML 1.0 запрещены
+                    if (c >= ' ' || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+
+        return escaped.toString();
+    }
+
+    /**
+     * Пропуск бланка.
+     *
+     * @param name        Имя пропуска вида {{name}} или null для подчеркивания.
+     * @param number      Номер подчеркивания по порядку или -1 для именованного пропуска.
+     * @param placeholder Сам пропуск в бланке, он остается в договоре, если значения нет.
+     */
+    public record Slot(String name, int number, String placeholder) {
+    }
+
+    // Часть docx (запись ZIP-архива): куски текста между метками и номера пропусков между ними
+    private record Part(String name, List<byte[]> fragments, int[] slots) {
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Перевод docx в HTML для просмотра договора прямо в приложении.
+ * Раньше договор можно было посмотреть только через Word (Desktop.open), который запускается на каждый договор.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Класс DocxHtmlRenderer переводит документ в упрощенный HTML: абзацы с выравниванием и отступами,
+ * жирный, курсив, подчеркивание, размер и шрифт текста, таблицы (в том числе вложенные), верхний и нижний колонтитулы.
+ * HTML пишется в Writer по ходу обхода документа и не собирается в памяти целиком.
+ * Оформление страницы (лист A4, поля, шрифт по умолчанию) задано один раз в стилях, а у абзацев и фрагментов
+ * указывается только то, что от него отличается.
+ * Разбивки на страницы нет: Apache POI не умеет раскладывать документ по страницам, поэтому договор идет одним листом.
+ */
+public final class DocxHtmlRenderer {
+
+    private static final String HEAD = """
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><style>
+            body { margin: 0; background: #e8e8e8; }
+            .page { box-sizing: border-box; width: 21cm; min-height: 29.7cm; margin: 16px auto; padding: 2cm;
+                    background: white; box-shadow: 0 0 6px rgba(0, 0, 0, 0.3); font: 12pt 'Times New Roman', serif; }
+            p { margin: 0 0 4pt; white-space: pre-wrap; tab-size: 4; }
+            table { width: 100%; border-collapse: collapse; }
+            td { border: 1px solid #999; padding: 2pt 4pt; vertical-align: top; }
+            .header, .footer { color: #666; font-size: 10pt; }
+            .header { margin-bottom: 12pt; }
+            .footer { margin-top: 12pt; }
+            </style></head><body><div class="page">
+            """;
+
+    private static final String TAIL = "</div></body></html>\n";
+
+    // В docx отступы хранятся в двадцатых долях пункта
+    private static final double TWIPS_PER_POINT = 20;
+
+    private DocxHtmlRenderer() {
+    }
+
+    /**
+     * Метод render() записывает документ в виде HTML.
+     *
+     * @param doc    Документ.
+     * @param writer Куда пишется HTML. Не закрывается.
+     * @throws IOException Если не удалось записать HTML.
+     */
+    public static void render(XWPFDocument doc, Writer writer) throws IOException {
+        writer.write(HEAD);
+
+        var policy = doc.getHeaderFooterPolicy();
+
+        if (policy != null && policy.getDefaultHeader() != null) {
+            renderHeaderFooter(policy.getDefaultHeader(), "header", writer);
+        }
+
+        renderBody(doc, writer);
+
+        if (policy != null && policy.getDefaultFooter() != null) {
+            renderHeaderFooter(policy.getDefaultFooter(), "footer", writer);
+        }
+
+        writer.write(TAIL);
+    }
+
+    /**
+     * Метод escapeHtml() экранирует текст для HTML.
+     *
+     * @param text Текст.
+     * @return Текст, который можно вставить в HTML как есть.
+     */
+    private static String escapeHtml(String text) {
+        var escaped = new StringBuilder(text.length() + 16);
+
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+
+        return escaped.toString();
+    }
+
+    private static void renderHeaderFooter(XWPFHeaderFooter headerFooter, String cssClass, Writer writer) throws IOException {
+        writer.write("<div class=\"" + cssClass + "\">");
+        renderBody(headerFooter, writer);
+        writer.write("</div>\n");
+    }
+
+    private static void renderBody(IBody body, Writer writer) throws IOException {
+        for (var element : body.getBodyElements()) {
+            if (element instanceof XWPFParagraph paragraph) {
+                renderParagraph(paragraph, writer);
+            } else if (element instanceof XWPFTable table) {
+                renderTable(table, writer);
+            }
+        }
+    }
+
+    private static void renderTable(XWPFTable table, Writer writer) throws IOException {
+        writer.write("<table>\n");
+
+        for (var row : table.getRows()) {
+            writer.write("<tr>");
+            for (var cell : row.getTableCells()) {
+                writer.write("<td>");
+                renderBody(cell, writer);
+                writer.write("</td>");
+            }
+            writer.write("</tr>\n");
+        }
+
+        writer.write("</table>\n");
+    }
+
+    private static void renderParagraph(XWPFParagraph paragraph, Writer writer) throws IOException {
+        var style = new StringBuilder();
+
+        switch (paragraph.getAlignment()) {
+            case CENTER -> style.append("text-align: center; ");
+            case RIGHT, END -> style.append("text-align: right; ");
+            case BOTH, DISTRIBUTE -> style.append("text-align: justify; ");
+            default -> {
+            }
+        }
+        if (paragraph.getIndentationFirstLine() > 0) {
+            style.append("text-indent: ").append(points(paragraph.getIndentationFirstLine())).append("pt; ");
+        }
+        if (paragraph.getIndentationLeft() > 0) {
+            style.append("margin-left: ").append(points(paragraph.getIndentationLeft())).append("pt; ");
+        }
+
+        writer.write(style.isEmpty() ? "<p>" : "<p style=\"" + style.toString().strip() + "\">");
+
+        var isEmpty = true;
+
+        for (var run : paragraph.getRuns()) {
+            var text = run.text();
+            if (!text.isEmpty()) {
+                renderRun(run, text, writer);
+                isEmpty = false;
+            }
+        }
+
+        // Пустой абзац в документе дает пустую строку, а пустой <p> схлопнулся бы
+        writer.write(isEmpty ? "&nbsp;</p>\n" : "</p>\n");
+    }
+
+    // Табуляции и переводы строк остаются в тексте, их показывает white-space: pre-wrap
+    private static void renderRun(XWPFRun run, String text, Writer writer) throws IOException {
+        var style = new StringBuilder();
+
+        if (run.isBold()) {
+            style.append("font-weight: bold; ");
+        }
+        if (run.isItalic()) {
+            style.append("font-style: italic; ");
+        }
+        if (run.getUnderline() != UnderlinePatterns.NONE) {
+            style.append("text-decoration: underline; ");
+        }
+        if (run.getFontSizeAsDouble() != null) {
+            style.append("font-size: ").append(run.getFontSizeAsDouble()).append("pt; ");
+        }
+        if (run.getFontFamily() != null) {
+            style.append("font-family: '").append(escapeHtml(run.getFontFamily())).append("'; ");
+        }
+
+        if (style.isEmpty()) {
+            writer.write(escapeHtml(text));
+        } else {
+            writer.write("<span style=\"" + style.toString().strip() + "\">" + escapeHtml(text) + "</span>");
+        }
+    }
+
+    private static double points(int twips) {
+        return twips / TWIPS_PER_POINT;
+    }
+}
@@ -12,22 +12,32 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
-
-import lombok.RequiredArgsConstructor;
+import java.util.SequencedMap;
 
 /**
  * Класс DocxProcessor обрабатывает документы в формате DOCX.
  */
-@RequiredArgsConstructor
 public class DocxProcessor {
 
-    private final String PATH_TO_PROJECT = "src/main/resources/projectFiles";
-    private final Path PATH_TO_DIR = Paths.get(PATH_TO_PROJECT, "documents_for_database").toAbsolutePath();
-    private final Path PATH_BLANK = Paths.get(PATH_TO_PROJECT, "blank-dogovora-okazanija-ohrannyh-uslug.docx").toAbsolutePath();
+    private static final String PATH_TO_PROJECT = "src/main/resources/projectFiles";
+    private static final Path PATH_TO_DIR = Paths.get(PATH_TO_PROJECT, "documents_for_database").toAbsolutePath();
+    static final Path PATH_BLANK = Paths.get(PATH_TO_PROJECT, "blank-dogovora-okazanija-ohrannyh-uslug.docx").toAbsolutePath();
+
+    // Договор собирается из скомпилированного бланка (CompiledContractTemplate), а не разбором бланка каждый раз.
+    // Старый способ можно вернуть через -Dcontracts.compiledTemplate=false
+    private static final boolean IS_COMPILED_TEMPLATE =
+            Boolean.parseBoolean(System.getProperty("contracts.compiledTemplate", "true"));
 
-    private final Map<String, String> jsonData;
-    private volatile String result;
+    // Значения пропусков считаются один раз при создании объекта: стоимость выбирается случайно,
+    // а повторная сборка договора этим же объектом должна давать тот же договор
+    private final SequencedMap<String, String> values;
 
+    /**
+     * @param jsonData Данные из формы.
+     */
+    public DocxProcessor(Map<String, String> jsonData) {
+        this.values = NumberedUnderlineReplacer.documentValues(jsonData);
+    }
 
     /**
      * Метод event() обрабатывает документ, заменяя подчеркивания на данные из JSON.
@@ -36,36 +46,39 @@ public class DocxProcessor {
      * @throws RuntimeException Если произошла ошибка при обработке документа.
      */
     public String event() {
+        var newFilePath = createNewDocx();
 
-        Thread thread = new Thread(() -> {
-            try {
-                var originalDoc = openOriginalDoc();
+        try (var fos = new BufferedOutputStream(new FileOutputStream(newFilePath))) {
 
-                var replacer = new NumberedUnderlineReplacer(this.jsonData);
-                replacer.replaceUnderlines(originalDoc);
+            render(fos);
 
-                var newFilePath = createNewDocx();
+        } catch (IOException e) {
 
-                saveResult(originalDoc, newFilePath);
+            throw new RuntimeException("Не получилось сохранить результат изменения в документ", e);
 
-                // Сохраняем результат в общей переменной
-                result = newFilePath;
+        }
 
-            } catch (Exception e) {
-                throw new RuntimeException("Ошибка при обработке документа", e);
-            }
-        });
+        return newFilePath;
+    }
 
-        thread.start();
+    /**
+     * Метод render() записывает договор в поток, не создавая файла.
+     * Нужен для пакетной генерации (BatchContractGenerator), где договор собирается в памяти и пишется на диск отдельно.
+     *
+     * @param outputStream Поток, куда пишется договор в формате DOCX. Не закрывается.
+     * @throws IOException Если не удалось записать договор.
+     */
+    public void render(OutputStream outputStream) throws IOException {
+        if (IS_COMPILED_TEMPLATE) {
+            CompiledContractTemplate.getInstance().generate(values, outputStream);
+        } else {
+            try (var originalDoc = openOriginalDoc()) {
 
-        try {
-            thread.join();  // Ждем, пока поток не завершится
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Поток был прерван", e);
-        }
+                new PlaceholderReplacer(values).replaceUnderlines(originalDoc);
 
-        return result;
+                originalDoc.write(outputStream);
+            }
+        }
     }
 
     /**
@@ -89,26 +102,6 @@ public class DocxProcessor {
 
     }
 
-    /**
-     * Метод saveResult() сохраняет измененный документ в формате XWPFDocument по указанному пути.
-     *
-     * @param doc XWPFDocument - объект, представляющий измененный документ.
-     * @param filePath String - путь, по которому следует сохранить измененный документ.
-     * @throws RuntimeException если не удалось сохранить результат изменения в документ.
-     */
-    private void saveResult(XWPFDocument doc, String filePath) {
-
-        try (var fos = new BufferedOutputStream(new FileOutputStream(filePath))) {
-
-            doc.write(fos);
-
-        } catch (IOException e) {
-
-            throw new RuntimeException("Не получилось сохранить результат изменения в документ", e);
-
-        }
-    }
-
     /**
      * Метод createNewDocx() создает новый документ в формате DOCX с указанным именем.
      * Имя файла формируется на основе базового имени и расширения файла.
@@ -116,7 +109,7 @@ public class DocxProcessor {
      * @return String - путь к созданному временному файлу в формате DOCX.
      * @throws RuntimeException если возникает ошибка при создании нового файла.
      */
-    private String createNewDocx() {
+    static String createNewDocx() {
 
         final var NAME_OF_FILE = "blank-dogovora-okazanija-ohrannyh-uslug.docx";
         var baseName = NAME_OF_FILE.substring(0, NAME_OF_FILE.lastIndexOf('.'));
@@ -5,20 +5,20 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFRun;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.SequencedMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Класс NumberedUnderlineReplacer реализует интерфейс UnderlineReplacer.
  * Он заменяет подчеркивания в документе на данные из JSON.
+ * Сама замена делается через PlaceholderReplacer, а здесь только готовятся значения для бланка договора.
  */
 class NumberedUnderlineReplacer implements UnderlineReplacer {
-    private final Iterator<String> jsonData;
+    private final PlaceholderReplacer replacer;
 
     /**
      * Конструктор класса NumberedUnderlineReplacer.
@@ -26,33 +26,28 @@ class NumberedUnderlineReplacer implements UnderlineReplacer {
      * @param jsonData Данные в формате JSON, которые будут использоваться для замены подчеркиваний.
      */
     public NumberedUnderlineReplacer(Map<String, String> jsonData) {
-        this.jsonData = convertJsonForDocument(new HashMap<>(jsonData)).values().iterator();
+        this.replacer = new PlaceholderReplacer(documentValues(jsonData));
     }
 
     /**
-     * Заменяет все подчеркивания в документе на данные из JSON.
+     * Метод documentValues() готовит значения для пропусков договора.
+     * Имена подходят для пропусков вида {{city}}, а порядок - тот, в каком подчеркивания идут в бланке.
      *
-     * @param doc Документ, в котором будут заменены подчеркивания.
+     * @param jsonData Данные из формы.
+     * @return Значения для пропусков договора по именам.
      */
-    @Override
-    public void replaceUnderlines(XWPFDocument doc) {
-        doc.getParagraphs().forEach(xwpfParagraph ->
-                xwpfParagraph.getRuns().forEach(xwpfRun ->
-                        parseRow(xwpfRun, xwpfRun.getText(0))));
-
+    static SequencedMap<String, String> documentValues(Map<String, String> jsonData) {
+        return convertJsonForDocument(new HashMap<>(jsonData));
     }
 
     /**
-     * Заменяет подчеркивания в тексте на данные из JSON.
+     * Заменяет все подчеркивания в документе на данные из JSON.
      *
-     * @param run Объект XWPFRun, содержащий текст.
-     * @param text Текст, в котором будут заменены подчеркивания.
+     * @param doc Документ, в котором будут заменены подчеркивания.
      */
-    void parseRow(XWPFRun run, String text) {
-        while (text != null && text.contains("_")) {
-            text = text.replaceFirst("_+", jsonData.next());
-            run.setText(text, 0);
-        }
+    @Override
+    public void replaceUnderlines(XWPFDocument doc) {
+        replacer.replaceUnderlines(doc);
     }
 
     /**
@@ -61,9 +56,11 @@ class NumberedUnderlineReplacer implements UnderlineReplacer {
      * @param jsonData Исходные данные в формате JSON.
      * @return Данные в формате JSON, преобразованные для документа.
      */
-    private LinkedHashMap<String, String> convertJsonForDocument(HashMap<String, String> jsonData) {
+    private static LinkedHashMap<String, String> convertJsonForDocument(HashMap<String, String> jsonData) {
         var result = new LinkedHashMap<String, String>();
-        result.put("city", jsonData.getOrDefault("addressField", "").split(",")[4]);
+        // Адрес от Nominatim длинный, город в нем пятый; у адресов геокодера без интернета город последний
+        var addressParts = jsonData.getOrDefault("addressField", "").split(",");
+        result.put("city", addressParts[Math.min(4, addressParts.length - 1)]);
         result.put("year", "2024");
         result.put("mainPerson", jsonData.getOrDefault("mainPerson", ""));
         result.put("addressField", jsonData.getOrDefault("addressField", ""));
@@ -0,0 +1,225 @@
+/**
+ * Замена пропусков в docx за один проход по каждому абзацу.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.SequencedMap;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Класс PlaceholderReplacer заменяет в документе пропуски двух видов:
+ * именованные ({{city}}, {{cost}}) - по имени, и подчеркивания (_+) - по порядку, как их заполнял NumberedUnderlineReplacer.
+ * Текст абзаца собирается из всех его фрагментов (run) и один раз проходится заранее скомпилированным выражением,
+ * поэтому пропуск, который Word разбил на несколько фрагментов, заменяется целиком и не сдвигает следующие пропуски.
+ * Замена попадает во фрагмент, где пропуск начинается (и берет его оформление), остальная часть пропуска
+ * из следующих фрагментов убирается.
+ * Обрабатываются абзацы документа и таблиц (в том числе вложенных) в порядке документа, затем верхние и нижние колонтитулы.
+ * Если значения для пропуска нет, пропуск остается в документе как есть, чтобы его было видно, а не молча сдвигало поля.
+ */
+public class PlaceholderReplacer implements UnderlineReplacer {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*(\\w+)\\s*}}|_+");
+
+    private final Values values;
+
+    // Номер следующего подчеркивания в документе
+    private int nextBlank;
+
+    /**
+     * @param values Значения по именам. Подчеркивания заполняются значениями по порядку: первое - первым значением и т.д.
+     */
+    public PlaceholderReplacer(SequencedMap<String, String> values) {
+        this(valuesOf(values));
+    }
+
+    /**
+     * @param values Откуда брать значения для пропусков.
+     */
+    PlaceholderReplacer(Values values) {
+        this.values = values;
+    }
+
+    /**
+     * Метод valuesOf() дает значения по именам, а подчеркиваниям - по порядку.
+     *
+     * @param values Значения по именам в порядке подчеркиваний.
+     * @return Значения для пропусков.
+     */
+    static Values valuesOf(SequencedMap<String, String> values) {
+        var byIndex = new ArrayList<>(values.sequencedValues());
+
+        return (name, number, placeholder) -> name != null
+                ? values.get(name)
+                : number < byIndex.size() ? byIndex.get(number) : null;
+    }
+
+    /**
+     * Заменяет все пропуски в документе.
+     *
+     * @param doc Документ, в котором будут заменены пропуски.
+     */
+    @Override
+    public void replaceUnderlines(XWPFDocument doc) {
+        replaceIn(doc);
+        headersAndFooters(doc).forEach(this::replaceInHeaderFooter);
+    }
+
+    // Колонтитулы, созданные через createHeader()/createFooter(), POI хранит только в XWPFHeaderFooterPolicy,
+    // а прочитанные из файла - в списках документа. Каждый колонтитул берется один раз, иначе номера пропусков съедутся
+    private static Set<XWPFHeaderFooter> headersAndFooters(XWPFDocument doc) {
+        var result = Collections.newSetFromMap(new IdentityHashMap<XWPFHeaderFooter, Boolean>());
+        result.addAll(doc.getHeaderList());
+        result.addAll(doc.getFooterList());
+
+        var policy = doc.getHeaderFooterPolicy();
+        if (policy != null) {
+            Stream.of(policy.getFirstPageHeader(), policy.getDefaultHeader(), policy.getEvenPageHeader(),
+                            policy.getFirstPageFooter(), policy.getDefaultFooter(), policy.getEvenPageFooter())
+                    .filter(Objects::nonNull)
+                    .forEach(result::add);
+        }
+
+        return result;
+    }
+
+    // Абзацы, созданные через createParagraph() колонтитула, POI не добавляет в getBodyElements()
+    private void replaceInHeaderFooter(XWPFHeaderFooter headerFooter) {
+        headerFooter.getParagraphs().forEach(this::replaceIn);
+        headerFooter.getTables().forEach(table -> table.getRows().forEach(row -> row.getTableCells().forEach(this::replaceIn)));
+    }
+
+    private void replaceIn(IBody body) {
+        for (var element : body.getBodyElements()) {
+            if (element instanceof XWPFParagraph paragraph) {
+                replaceIn(paragraph);
+            } else if (element instanceof XWPFTable table) {
+                table.getRows().forEach(row -> row.getTableCells().forEach(this::replaceIn));
+            }
+        }
+    }
+
+    /**
+     * Замена пропусков в одном абзаце за один проход.
+     *
+     * @param paragraph Абзац документа.
+     */
+    void replaceIn(XWPFParagraph paragraph) {
+        var runs = paragraph.getRuns();
+        if (runs.isEmpty()) {
+            return;
+        }
+
+        // Текст абзаца и начало каждого фрагмента в нем
+        var starts = new int[runs.size() + 1];
+        var text = new StringBuilder();
+
+        for (int i = 0; i < runs.size(); i++) {
+            starts[i] = text.length();
+            var runText = runs.get(i).getText(0);
+            if (runText != null) {
+                text.append(runText);
+            }
+        }
+        starts[runs.size()] = text.length();
+
+        var matcher = PLACEHOLDER.matcher(text);
+        if (!matcher.find()) {
+            return;
+        }
+
+        var newTexts = new ArrayList<StringBuilder>(runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            newTexts.add(new StringBuilder());
+        }
+
+        var changed = new boolean[runs.size()];
+        var position = 0;
+
+        do {
+            var name = matcher.group(1);
+            var value = values.valueFor(name, name != null ? -1 : nextBlank++, matcher.group());
+
+            if (value == null) {
+                continue;
+            }
+
+            copy(text, starts, position, matcher.start(), newTexts);
+
+            var first = runAt(starts, matcher.start());
+            var last = runAt(starts, matcher.end() - 1);
+
+            newTexts.get(first).append(value);
+            for (int i = first; i <= last; i++) {
+                changed[i] = true;
+            }
+
+            position = matcher.end();
+
+        } while (matcher.find());
+
+        copy(text, starts, position, text.length(), newTexts);
+
+        for (int i = 0; i < runs.size(); i++) {
+            if (changed[i]) {
+                runs.get(i).setText(newTexts.get(i).toString(), 0);
+            }
+        }
+    }
+
+    // Копирование текста абзаца [from, to) в новые тексты тех фрагментов, которым он принадлежит
+    private static void copy(CharSequence text, int[] starts, int from, int to, List<StringBuilder> newTexts) {
+        while (from < to) {
+            var run = runAt(starts, from);
+            var end = Math.min(to, starts[run + 1]);
+
+            newTexts.get(run).append(text, from, end);
+            from = end;
+        }
+    }
+
+    // Номер фрагмента, которому принадлежит символ абзаца (пустые фрагменты пропускаются)
+    private static int runAt(int[] starts, int offset) {
+        var low = 0;
+        var high = starts.length - 2;
+
+        while (low < high) {
+            var middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Источник значений для пропусков.
+     */
+    @FunctionalInterface
+    interface Values {
+
+        /**
+         * @param name        Имя пропуска вида {{name}} или null для подчеркивания.
+         * @param number      Номер подчеркивания по порядку или -1 для именованного пропуска.
+         * @param placeholder Сам пропуск, как он написан в документе.
+         * @return Значение или null, если пропуск нужно оставить как есть.
+         */
+        String valueFor(String name, int number, String placeholder);
+    }
+}
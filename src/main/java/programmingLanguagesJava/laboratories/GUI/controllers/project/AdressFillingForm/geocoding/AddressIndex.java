@@ -0,0 +1,218 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.AddressRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Класс AddressIndex ищет по адресам района в памяти, без сети и без базы данных.
+ * Для поиска адреса по координатам адреса разложены по сетке из ячеек: проверяются только ячейки
+ * вокруг точки, а не все адреса. Для поиска координат по тексту адреса используется индекс триграмм
+ * (по три буквы каждого слова): так находится и адрес с опечаткой, и адрес со словами в другом порядке.
+ * После создания индекс не меняется, поэтому искать в нем можно из любых потоков.
+ */
+public final class AddressIndex {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    // Размер ячейки сетки в градусах, около 550 метров по широте
+    private static final double CELL_DEGREES = 0.005;
+
+    // Доля триграмм запроса, которые должны найтись в адресе: одна опечатка в слове портит до трех его триграмм
+    private static final double MIN_MATCH = 0.4;
+
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final String[] addresses;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double maxDistanceMeters;
+
+    // Номера адресов по ячейкам сетки
+    private final HashMap<Long, int[]> grid = new HashMap<>();
+
+    // Номера адресов по триграммам и число разных триграмм каждого адреса
+    private final HashMap<String, int[]> trigrams = new HashMap<>();
+    private final int[] trigramCounts;
+
+    /**
+     * @param records           Адреса с координатами.
+     * @param maxDistanceMeters Дальше какого расстояния от точки адрес уже не считается адресом этой точки.
+     */
+    public AddressIndex(List<AddressRecord> records, double maxDistanceMeters) {
+        var size = records.size();
+
+        this.addresses = new String[size];
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.trigramCounts = new int[size];
+        this.maxDistanceMeters = maxDistanceMeters;
+
+        var cells = new HashMap<Long, List<Integer>>();
+        var postings = new HashMap<String, List<Integer>>();
+
+        for (var i = 0; i < size; i++) {
+            var record = records.get(i);
+            addresses[i] = record.address();
+            latitudes[i] = record.latitude();
+            longitudes[i] = record.longitude();
+
+            cells.computeIfAbsent(cell(record.latitude(), record.longitude()), key -> new ArrayList<>()).add(i);
+
+            var addressTrigrams = trigramsOf(record.address());
+            trigramCounts[i] = addressTrigrams.size();
+            for (var trigram : addressTrigrams) {
+                postings.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Списки превращаются в массивы: они в разы меньше и быстрее обходятся
+        cells.forEach((key, ids) -> grid.put(key, toArray(ids)));
+        postings.forEach((key, ids) -> trigrams.put(key, toArray(ids)));
+    }
+
+    /**
+     * @return Сколько адресов в индексе.
+     */
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * Метод nearest() ищет ближайший к точке адрес.
+     *
+     * @param latitude  Широта.
+     * @param longitude Долгота.
+     * @return Ближайший адрес или null, если ближе заданного расстояния адресов нет.
+     */
+    public String nearest(double latitude, double longitude) {
+        var latitudeRadius = maxDistanceMeters / METERS_PER_DEGREE;
+        var longitudeRadius = latitudeRadius / Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+
+        var best = -1;
+        var bestDistance = maxDistanceMeters;
+
+        for (var row = cellOf(latitude - latitudeRadius); row <= cellOf(latitude + latitudeRadius); row++) {
+            for (var column = cellOf(longitude - longitudeRadius); column <= cellOf(longitude + longitudeRadius); column++) {
+
+                var ids = grid.get(key(row, column));
+                if (ids == null) {
+                    continue;
+                }
+
+                for (var id : ids) {
+                    var distance = distanceMeters(latitude, longitude, latitudes[id], longitudes[id]);
+                    if (distance <= bestDistance) {
+                        best = id;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return best < 0 ? null : addresses[best];
+    }
+
+    /**
+     * Метод find() ищет адрес, больше всего похожий на текст запроса.
+     * Из адресов, в которых нашлись все слова запроса, выбирается тот, в котором меньше лишнего:
+     * на запрос "Ленина 10" найдется дом 10, а не дом 100.
+     *
+     * @param query Текст адреса, как его ввел оператор.
+     * @return Координаты адреса в виде "широта долгота" или null, если похожего адреса нет.
+     */
+    public String find(String query) {
+        var queryTrigrams = trigramsOf(query);
+        if (queryTrigrams.isEmpty()) {
+            return null;
+        }
+
+        var matches = new int[addresses.length];
+        for (var trigram : queryTrigrams) {
+            var ids = trigrams.get(trigram);
+            if (ids != null) {
+                for (var id : ids) {
+                    matches[id]++;
+                }
+            }
+        }
+
+        var best = -1;
+        var bestMatch = MIN_MATCH;
+        var bestSimilarity = 0d;
+
+        for (var id = 0; id < matches.length; id++) {
+            if (matches[id] == 0) {
+                continue;
+            }
+
+            var match = (double) matches[id] / queryTrigrams.size();
+            var similarity = (double) matches[id] / (queryTrigrams.size() + trigramCounts[id] - matches[id]);
+
+            if (match > bestMatch || match == bestMatch && similarity > bestSimilarity) {
+                best = id;
+                bestMatch = match;
+                bestSimilarity = similarity;
+            }
+        }
+
+        return best < 0 ? null : latitudes[best] + " " + longitudes[best];
+    }
+
+    /**
+     * Приводит текст к виду, в котором его сравнивает индекс: строчные буквы, "ё" как "е", без знаков препинания.
+     *
+     * @param text Исходный текст.
+     * @return Слова текста через один пробел.
+     */
+    static String normalize(String text) {
+        return NOT_WORD.matcher(text.toLowerCase(Locale.ROOT).replace('ё', 'е')).replaceAll(" ").strip();
+    }
+
+    // Триграммы каждого слова с пробелами по краям: так начало и конец слова весят больше середины
+    private static Set<String> trigramsOf(String text) {
+        var result = new LinkedHashSet<String>();
+
+        for (var word : normalize(text).split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            var padded = " " + word + " ";
+            for (var i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+
+        return result;
+    }
+
+    private static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        // В пределах района Земля почти плоская, поэтому хватает равнопромежуточной проекции
+        var x = Math.toRadians(longitude2 - longitude1) * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        var y = Math.toRadians(latitude2 - latitude1);
+        return Math.sqrt(x * x + y * y) * 6_371_000;
+    }
+
+    private static long cell(double latitude, double longitude) {
+        return key(cellOf(latitude), cellOf(longitude));
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return (long) row << 32 | column & 0xFFFFFFFFL;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,52 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Общий интерфейс геокодеров: клик по карте и поиск адреса не знают, кто им отвечает.
+ * Какой геокодер используется, задается через -Dgeocoding.provider при запуске:
+ * nominatim (по умолчанию) - сервис Nominatim через интернет,
+ * offline - адреса, заранее загруженные в базу данных (AddressImporter), для компьютеров без интернета.
+ */
+public interface Geocoder {
+
+    String PROVIDER = System.getProperty("geocoding.provider", "nominatim");
+
+    /**
+     * Метод getInstance() возвращает геокодер, выбранный при запуске.
+     *
+     * @return Геокодер приложения.
+     */
+    static Geocoder getInstance() {
+        return switch (PROVIDER) {
+            case "nominatim" -> NominatimClient.getInstance();
+            case "offline" -> OfflineGeocoder.getInstance();
+            default -> throw new IllegalStateException("Неизвестный геокодер: " + PROVIDER + " (ожидается nominatim или offline)");
+        };
+    }
+
+    /**
+     * Метод reverse() ищет адрес места по координатам.
+     *
+     * @param latitude  Широта.
+     * @param longitude Долгота.
+     * @return Адрес или null, если по этим координатам адреса нет.
+     */
+    CompletableFuture<String> reverse(double latitude, double longitude);
+
+    /**
+     * Метод search() ищет координаты по тексту адреса.
+     *
+     * @param address Текст адреса, как его ввел оператор.
+     * @return Координаты места в виде "широта долгота" или null, если ничего не нашлось.
+     */
+    CompletableFuture<String> search(String address);
+
+    /**
+     * Метод isLocal() сообщает, отвечает ли геокодер без сети.
+     * Ответы локального геокодера не кешируются (GeocodingCache): он и так отвечает быстрее кеша в базе данных.
+     *
+     * @return true, если геокодер работает без сети.
+     */
+    boolean isLocal();
+}
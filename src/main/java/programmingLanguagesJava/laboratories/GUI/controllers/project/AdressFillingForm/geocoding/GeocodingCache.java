@@ -0,0 +1,178 @@
+/**
+ * Кеш ответов геокодера (Nominatim) для клика по карте и поиска адреса.
+ * Раньше каждый клик, даже по тому же зданию, и каждый повторный поиск шли в Nominatim заново.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.GeocodingEntry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Класс GeocodingCache хранит ответы геокодера в двух уровнях: в памяти (самые свежие по использованию)
+ * и в базе данных (таблица Geocoding_cache), поэтому ответы переживают перезапуск приложения.
+ * Адрес по координатам хранится по геохешу точки (см. Geohash): все клики внутри одной клетки, то есть
+ * по одному зданию, получают один адрес. Координаты по тексту поиска хранятся по тексту без лишних пробелов и регистра.
+ * Ответ старше срока жизни считается устаревшим, и его нужно спросить у геокодера заново.
+ * Методы можно вызывать из нескольких потоков, база данных читается и пишется вне блокировки.
+ */
+public class GeocodingCache {
+
+    // Размер кеша в памяти, длина геохеша и срок жизни ответа, можно поменять через -D при запуске
+    private static final int CAPACITY = Integer.getInteger("geocoding.cache.size", 10_000);
+    private static final int PRECISION = Integer.getInteger("geocoding.cache.precision", 8);
+    private static final Duration TTL = Duration.ofDays(Long.getLong("geocoding.cache.ttlDays", 30));
+
+    private static final String ADDRESS_PREFIX = "address:";
+    private static final String PLACE_PREFIX = "place:";
+
+    private static GeocodingCache instance;
+
+    private final DataBaseSQLite dataBase;
+    private final int capacity;
+    private final int precision;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Порядок доступа: первым идет ответ, который дольше всех не запрашивали
+    private final LinkedHashMap<String, GeocodingEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Метод getInstance() возвращает единственный кеш на приложение (Singleton pattern).
+     * При первом обращении из базы данных удаляются устаревшие ответы.
+     *
+     * @return Кеш ответов геокодера.
+     */
+    public static synchronized GeocodingCache getInstance() {
+        if (instance == null) {
+            instance = new GeocodingCache(DataBaseSQLite.getInstance(), CAPACITY, PRECISION, TTL, System::currentTimeMillis);
+            instance.dataBase.deleteExpiredGeocoding(System.currentTimeMillis() - instance.ttlMillis);
+        }
+        return instance;
+    }
+
+    /**
+     * @param dataBase  База данных для ответов, переживающих перезапуск, или null, если ответы нужны только в памяти.
+     * @param capacity  Сколько ответов держать в памяти.
+     * @param precision Длина геохеша: чем длиннее, тем меньше клетка с одним адресом.
+     * @param ttl       Срок жизни ответа.
+     * @param clock     Текущее время в миллисекундах.
+     */
+    public GeocodingCache(DataBaseSQLite dataBase, int capacity, int precision, Duration ttl, LongSupplier clock) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Размер кеша должен быть положительным, а передано: " + capacity);
+        }
+
+        // Проверка длины геохеша сразу, а не при первом клике
+        Geohash.encode(0, 0, precision);
+
+        this.dataBase = dataBase;
+        this.capacity = capacity;
+        this.precision = precision;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Метод findAddress() ищет сохраненный адрес места.
+     *
+     * @param latitude  Широта.
+     * @param longitude Долгота.
+     * @return Адрес или null, если место еще не искали или ответ устарел.
+     */
+    public String findAddress(double latitude, double longitude) {
+        return find(addressKey(latitude, longitude));
+    }
+
+    /**
+     * Метод putAddress() сохраняет адрес места для всей его клетки.
+     *
+     * @param latitude  Широта.
+     * @param longitude Долгота.
+     * @param address   Адрес, который вернул геокодер.
+     */
+    public void putAddress(double latitude, double longitude, String address) {
+        put(addressKey(latitude, longitude), address);
+    }
+
+    /**
+     * Метод findPlace() ищет сохраненные координаты по тексту поиска.
+     *
+     * @param query Текст поиска, как его ввел оператор.
+     * @return Координаты в виде "широта долгота" или null, если такой текст еще не искали или ответ устарел.
+     */
+    public String findPlace(String query) {
+        return find(placeKey(query));
+    }
+
+    /**
+     * Метод putPlace() сохраняет координаты, найденные по тексту поиска.
+     *
+     * @param query       Текст поиска, как его ввел оператор.
+     * @param coordinates Координаты в виде "широта долгота".
+     */
+    public void putPlace(String query, String coordinates) {
+        put(placeKey(query), coordinates);
+    }
+
+    // Сначала память, затем база данных: найденный в базе ответ поднимается в память
+    private String find(String key) {
+        var notBefore = clock.getAsLong() - ttlMillis;
+
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry != null) {
+                if (entry.savedAt() >= notBefore) {
+                    return entry.value();
+                }
+                entries.remove(key);
+            }
+        }
+
+        if (dataBase == null) {
+            return null;
+        }
+
+        var entry = dataBase.loadGeocoding(key, notBefore);
+        if (entry == null) {
+            return null;
+        }
+
+        remember(key, entry);
+        return entry.value();
+    }
+
+    private void put(String key, String value) {
+        var savedAt = clock.getAsLong();
+
+        remember(key, new GeocodingEntry(value, savedAt));
+
+        if (dataBase != null) {
+            dataBase.saveGeocoding(key, value, savedAt);
+        }
+    }
+
+    private synchronized void remember(String key, GeocodingEntry entry) {
+        entries.put(key, entry);
+
+        var iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private String addressKey(double latitude, double longitude) {
+        return ADDRESS_PREFIX + Geohash.encode(latitude, longitude, precision);
+    }
+
+    private static String placeKey(String query) {
+        return PLACE_PREFIX + query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Снимок метрик клиента Nominatim.
+ *
+ * @param completed          Сколько запросов клиента завершилось (успешно или нет), без присоединившихся к чужим.
+ * @param coalesced          Сколько запросов присоединилось к такому же запросу, который уже выполнялся.
+ * @param sent               Сколько HTTP-запросов отправлено, включая повторы.
+ * @param retries            Сколько раз запрос повторялся после ошибки.
+ * @param failures           Сколько запросов так и не получили ответа.
+ * @param totalLatencyNanos  Суммарное время запросов в наносекундах, с ожиданием очереди и повторами.
+ * @param maxLatencyNanos    Самый долгий запрос в наносекундах.
+ * @param totalThrottleNanos Суммарное ожидание из-за ограничения частоты в наносекундах.
+ */
+public record GeocodingMetrics(
+        long completed,
+        long coalesced,
+        long sent,
+        long retries,
+        long failures,
+        long totalLatencyNanos,
+        long maxLatencyNanos,
+        long totalThrottleNanos
+) {
+
+    /**
+     * @return Среднее время запроса в миллисекундах.
+     */
+    public double averageLatencyMillis() {
+        return completed == 0 ? 0 : (double) totalLatencyNanos / completed / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
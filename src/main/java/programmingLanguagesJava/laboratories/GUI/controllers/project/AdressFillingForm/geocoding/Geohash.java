@@ -0,0 +1,73 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+/**
+ * Класс Geohash переводит координаты в геохеш: строку, у которой каждый следующий символ уточняет клетку на карте.
+ * Все точки одной клетки дают один и тот же геохеш, поэтому он годится ключом кеша для кликов по одному зданию.
+ * Размер клетки по длине геохеша: 7 символов - около 150 на 150 метров, 8 - около 38 на 19 метров, 9 - около 5 метров.
+ */
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int MAX_PRECISION = 12;
+
+    private Geohash() {
+    }
+
+    /**
+     * Метод encode() строит геохеш клетки, в которую попадает точка.
+     *
+     * @param latitude  Широта от -90 до 90.
+     * @param longitude Долгота от -180 до 180.
+     * @param precision Длина геохеша от 1 до 12.
+     * @return Геохеш.
+     * @throws IllegalArgumentException Если координаты или длина вне допустимых значений.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Длина геохеша должна быть от 1 до " + MAX_PRECISION + ", а передано: " + precision);
+        }
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Координаты вне допустимых значений: " + latitude + ", " + longitude);
+        }
+
+        double minLatitude = -90, maxLatitude = 90;
+        double minLongitude = -180, maxLongitude = 180;
+
+        var hash = new char[precision];
+        // Биты идут по очереди: четные делят долготу, нечетные - широту
+        var isLongitude = true;
+
+        for (int i = 0; i < precision; i++) {
+            var index = 0;
+
+            for (int bit = 0; bit < 5; bit++) {
+                index <<= 1;
+
+                if (isLongitude) {
+                    var middle = (minLongitude + maxLongitude) / 2;
+                    if (longitude >= middle) {
+                        index |= 1;
+                        minLongitude = middle;
+                    } else {
+                        maxLongitude = middle;
+                    }
+                } else {
+                    var middle = (minLatitude + maxLatitude) / 2;
+                    if (latitude >= middle) {
+                        index |= 1;
+                        minLatitude = middle;
+                    } else {
+                        maxLatitude = middle;
+                    }
+                }
+
+                isLongitude = !isLongitude;
+            }
+
+            hash[i] = BASE32[index];
+        }
+
+        return new String(hash);
+    }
+}
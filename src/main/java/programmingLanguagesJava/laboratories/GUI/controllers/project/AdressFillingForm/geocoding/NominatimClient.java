@@ -0,0 +1,275 @@
+/**
+ * Общий клиент Nominatim для клика по карте и поиска адреса.
+ * Раньше каждый запрос открывал новое HttpURLConnection без таймаутов и без ограничения частоты,
+ * хотя Nominatim разрешает не больше одного запроса в секунду и блокирует тех, кто чаще.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Класс NominatimClient отправляет запросы к Nominatim через один HttpClient, поэтому соединения
+ * переиспользуются, а не открываются на каждый запрос.
+ * Одинаковые запросы, пока первый из них не завершился, не отправляются второй раз, а получают его ответ.
+ * Частота запросов ограничена (TokenBucket): лишние запросы ждут своей очереди, а не получают отказ от сервиса.
+ * Запрос, на который сервис не ответил, ответил 429 или 5xx, повторяется с растущей паузой (и не раньше,
+ * чем просит заголовок Retry-After). Все методы асинхронные и потокобезопасные.
+ */
+public class NominatimClient implements Geocoder {
+
+    // Адрес сервиса, частота, повторы и таймауты, можно поменять через -D при запуске
+    private static final String BASE_URL = System.getProperty("geocoding.url", "https://nominatim.openstreetmap.org");
+    private static final double RATE_PER_SECOND = Double.parseDouble(System.getProperty("geocoding.ratePerSecond", "1"));
+    private static final int RETRIES = Integer.getInteger("geocoding.retries", 3);
+    private static final Duration BACKOFF = Duration.ofMillis(Long.getLong("geocoding.backoffMillis", 1_000));
+    private static final Duration TIMEOUT = Duration.ofMillis(Long.getLong("geocoding.timeoutMillis", 10_000));
+
+    // Nominatim требует, чтобы приложение представлялось в User-Agent
+    private static final String USER_AGENT = System.getProperty("geocoding.userAgent", "security-contracts-desktop/1.0");
+
+    private static NominatimClient instance;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final TokenBucket rateLimiter;
+    private final int retries;
+    private final Duration backoff;
+    private final Duration timeout;
+
+    // Запросы, которые сейчас выполняются, по адресу запроса
+    private final ConcurrentHashMap<URI, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    // Метрики клиента
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LongAdder totalThrottleNanos = new LongAdder();
+
+    /**
+     * Метод getInstance() возвращает единственный клиент на приложение (Singleton pattern).
+     *
+     * @return Клиент Nominatim.
+     */
+    public static synchronized NominatimClient getInstance() {
+        if (instance == null) {
+            instance = new NominatimClient(BASE_URL, RATE_PER_SECOND, RETRIES, BACKOFF, TIMEOUT);
+        }
+        return instance;
+    }
+
+    /**
+     * @param baseUrl          Адрес Nominatim без пути, например https://nominatim.openstreetmap.org
+     * @param permitsPerSecond Сколько запросов в секунду можно отправлять.
+     * @param retries          Сколько раз повторять запрос после ошибки.
+     * @param backoff          Пауза перед первым повтором, дальше она удваивается.
+     * @param timeout          Сколько ждать соединения и ответа.
+     */
+    public NominatimClient(String baseUrl, double permitsPerSecond, int retries, Duration backoff, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.rateLimiter = new TokenBucket(permitsPerSecond, 1, System::nanoTime);
+        this.retries = retries;
+        this.backoff = backoff;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Метод reverse() ищет адрес места по координатам.
+     *
+     * @param latitude  Широта.
+     * @param longitude Долгота.
+     * @return Адрес или null, если по этим координатам адреса нет (море, поле).
+     */
+    @Override
+    public CompletableFuture<String> reverse(double latitude, double longitude) {
+        // Locale.ROOT, чтобы дробная часть отделялась точкой, а не запятой, как в русской локали
+        var query = String.format(Locale.ROOT, "/reverse?format=json&lat=%.7f&lon=%.7f", latitude, longitude);
+
+        return get(query).thenApply(json -> {
+            var jsonObject = (JSONObject) parse(json);
+            return (String) jsonObject.get("display_name");
+        });
+    }
+
+    /**
+     * Метод search() ищет координаты по тексту адреса.
+     *
+     * @param address Текст адреса, как его ввел оператор.
+     * @return Координаты первого найденного места в виде "широта долгота" или null, если ничего не нашлось.
+     */
+    @Override
+    public CompletableFuture<String> search(String address) {
+        var query = "/search?format=json&limit=1&q=" + URLEncoder.encode(address, StandardCharsets.UTF_8);
+
+        return get(query).thenApply(json -> {
+            var jsonArray = (JSONArray) parse(json);
+
+            if (jsonArray.isEmpty()) {
+                return null;
+            }
+
+            var jsonObject = (JSONObject) jsonArray.getFirst();
+            return String.format("%s %s", jsonObject.get("lat"), jsonObject.get("lon"));
+        });
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * Метод getMetrics() возвращает снимок метрик клиента.
+     *
+     * @return Метрики клиента на текущий момент.
+     */
+    public GeocodingMetrics getMetrics() {
+        return new GeocodingMetrics(
+                completed.sum(),
+                coalesced.sum(),
+                sent.sum(),
+                retried.sum(),
+                failures.sum(),
+                totalLatencyNanos.sum(),
+                maxLatencyNanos.get(),
+                totalThrottleNanos.sum()
+        );
+    }
+
+    // Запрос с объединением одинаковых: каждый вызывающий получает свою копию, чтобы его отмена не задела других
+    CompletableFuture<String> get(String pathAndQuery) {
+        var uri = URI.create(baseUrl + pathAndQuery);
+        var future = new CompletableFuture<String>();
+
+        var existing = inFlight.putIfAbsent(uri, future);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+
+        var start = System.nanoTime();
+
+        send(uri, 0).whenComplete((body, error) -> {
+            inFlight.remove(uri, future);
+            recordLatency(start);
+
+            if (error != null) {
+                failures.increment();
+                future.completeExceptionally(unwrap(error));
+            } else {
+                future.complete(body);
+            }
+        });
+
+        return future.copy();
+    }
+
+    // Одна попытка: очередь ограничения частоты, запрос и, если нужно, повтор после паузы
+    private CompletableFuture<String> send(URI uri, int attempt) {
+        var throttle = rateLimiter.reserve();
+        totalThrottleNanos.add(throttle);
+
+        var request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return after(throttle)
+                .thenCompose(ignored -> {
+                    sent.increment();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                })
+                .handle((response, error) -> {
+
+                    if (error == null && response.statusCode() == 200) {
+                        return CompletableFuture.completedFuture(response.body());
+                    }
+
+                    var isRetryable = error != null
+                            ? unwrap(error) instanceof IOException
+                            : response.statusCode() == 429 || response.statusCode() >= 500;
+
+                    if (isRetryable && attempt < retries) {
+                        retried.increment();
+                        return after(pauseBeforeRetry(attempt, response)).thenCompose(ignored -> send(uri, attempt + 1));
+                    }
+
+                    return CompletableFuture.<String>failedFuture(error != null
+                            ? unwrap(error)
+                            : new IOException("Nominatim ответил " + response.statusCode() + " на запрос " + uri));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    // Пауза удваивается с каждым повтором, к ней добавляется случайная часть, чтобы повторы не шли строем
+    private long pauseBeforeRetry(int attempt, HttpResponse<String> response) {
+        var pause = backoff.toNanos() << attempt;
+        pause += ThreadLocalRandom.current().nextLong(pause / 2 + 1);
+
+        if (response != null) {
+            var retryAfter = response.headers().firstValue("Retry-After");
+            if (retryAfter.isPresent() && retryAfter.get().strip().matches("\\d+")) {
+                pause = Math.max(pause, TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.get().strip())));
+            }
+        }
+
+        return pause;
+    }
+
+    private void recordLatency(long startNanos) {
+        var latency = System.nanoTime() - startNanos;
+        completed.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    private static CompletableFuture<Void> after(long delayNanos) {
+        return delayNanos <= 0
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // JSONParser хранит состояние разбора, поэтому на каждый ответ свой
+    private static Object parse(String json) {
+        try {
+            return new JSONParser().parse(json);
+        } catch (ParseException e) {
+            throw new RuntimeException("Не удалось разобрать ответ Nominatim", e);
+        }
+    }
+}
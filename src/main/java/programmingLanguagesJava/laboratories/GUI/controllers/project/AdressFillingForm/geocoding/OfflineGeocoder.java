@@ -0,0 +1,65 @@
+/**
+ * Геокодер без интернета для постов охраны, где Nominatim недоступен.
+ * Адреса района заранее загружаются в базу данных (AddressImporter), а при запуске читаются в память.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Класс OfflineGeocoder отвечает по адресам из таблицы Addresses через AddressIndex.
+ * Ответ готов сразу, поэтому возвращаются уже завершенные CompletableFuture.
+ */
+public class OfflineGeocoder implements Geocoder {
+
+    // Дальше какого расстояния от клика ближайший дом уже не считается адресом клика
+    private static final double MAX_DISTANCE_METERS = Double.parseDouble(System.getProperty("geocoding.offline.maxDistanceMeters", "150"));
+
+    private static OfflineGeocoder instance;
+
+    private final AddressIndex index;
+
+    /**
+     * Метод getInstance() возвращает единственный геокодер на приложение (Singleton pattern).
+     * При первом вызове загружает адреса из базы данных.
+     *
+     * @return Геокодер без интернета.
+     */
+    public static synchronized OfflineGeocoder getInstance() {
+        if (instance == null) {
+            var addresses = DataBaseSQLite.getInstance().loadAddresses();
+
+            if (addresses.isEmpty()) {
+                throw new IllegalStateException("В базе данных нет адресов для геокодера без интернета, загрузите их через AddressImporter");
+            }
+
+            instance = new OfflineGeocoder(new AddressIndex(addresses, MAX_DISTANCE_METERS));
+        }
+        return instance;
+    }
+
+    /**
+     * @param index Индекс адресов района.
+     */
+    public OfflineGeocoder(AddressIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public CompletableFuture<String> reverse(double latitude, double longitude) {
+        return CompletableFuture.completedFuture(index.nearest(latitude, longitude));
+    }
+
+    @Override
+    public CompletableFuture<String> search(String address) {
+        return CompletableFuture.completedFuture(index.find(address));
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+}
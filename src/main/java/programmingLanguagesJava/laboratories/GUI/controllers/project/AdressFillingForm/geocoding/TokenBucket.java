@@ -0,0 +1,52 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Класс TokenBucket ограничивает частоту запросов: жетоны копятся с заданной скоростью до размера ведра,
+ * и каждый запрос забирает один жетон. Если жетонов нет, запрос не отклоняется, а получает время ожидания,
+ * поэтому запросы встают в очередь и уходят ровно с разрешенной частотой, никого не блокируя.
+ */
+final class TokenBucket {
+
+    private final double nanosPerPermit;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    // Может быть отрицательным: это жетоны, уже обещанные запросам в очереди
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param permitsPerSecond Сколько запросов в секунду разрешено.
+     * @param burst            Сколько запросов можно отправить сразу после простоя.
+     * @param nanoClock        Текущее время в наносекундах.
+     */
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Частота и размер ведра должны быть положительными");
+        }
+
+        this.nanosPerPermit = 1_000_000_000d / permitsPerSecond;
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Метод reserve() забирает жетон для одного запроса.
+     *
+     * @return Сколько наносекунд подождать перед отправкой запроса, 0 - можно отправлять сразу.
+     */
+    synchronized long reserve() {
+        var now = nanoClock.getAsLong();
+
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerPermit);
+        lastRefillNanos = now;
+        tokens -= 1;
+
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerPermit);
+    }
+}
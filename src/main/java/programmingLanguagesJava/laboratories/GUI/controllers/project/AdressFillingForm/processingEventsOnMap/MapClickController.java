@@ -18,8 +18,14 @@ import org.jetbrains.annotations.NotNull;
 import lombok.Setter;
 
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class MapClickController {
+    // Фоновый поток для запросов адреса: ответы все равно приходят не чаще, чем разрешает NominatimClient
+    private static final ExecutorService GEOCODER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("map-geocoder").daemon(true).factory());
+
     // Карта, к которой мы хотим применить наш контроллер
     private final MapView mapView;
     // TextField, к которому мы обращаемся для заполнения.
@@ -27,6 +33,8 @@ class MapClickController {
     private TextField addressField = null;
     // Именно сам маркер
     private final Marker markerClick = Marker.createProvided(Marker.Provided.BLUE).setVisible(true);
+    // Запрос адреса по последнему клику: при новом клике старый уже не нужен
+    private Task<String> currentTask;
 
     MapClickController(MapView mapView) {
         this.mapView = mapView;
@@ -42,8 +50,12 @@ class MapClickController {
             final Coordinate oldPosition = markerClick.getPosition();
 
             // Создаем новую задачу для выполнения запроса к API в отдельном потоке.
-            // Запускаем задачу в новом потоке
-            new Thread(setNameByCoords(newPosition)).start();
+            // Запрос по прошлому клику, если он еще ждет очереди, отменяется, чтобы не затереть адрес
+            if (currentTask != null) {
+                currentTask.cancel();
+            }
+            currentTask = setNameByCoords(newPosition);
+            GEOCODER.execute(currentTask);
 
             if (oldPosition != null) {
                 animateClickMarker(oldPosition, newPosition);
@@ -2,23 +2,31 @@
  * Здесь происходит обработка запросов с помощью сервиса: nominatim.openstreetmap
  * mapjfx возвращает только координаты, а для оператора нужно распознавание объекта (страна, улица, город, ...)
  * Мы же в Google картах не вбиваем координаты, а только название. Здесь реализован именно функционал.
+ * Без интернета вместо nominatim отвечает геокодер по загруженным адресам (-Dgeocoding.provider=offline).
  */
 
 package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.processingEventsOnMap;
 
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding.Geocoder;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding.GeocodingCache;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URI;
+import java.util.concurrent.CompletionException;
 
 class ReverseGeocoding {
-    private static final String NOMINATIM_API_URL = "https://nominatim.openstreetmap.org/reverse";
-    private static final JSONParser jsonParser = new JSONParser();
+
+    private static ReverseGeocoding instance;
+
+    private final Geocoder geocoder;
+    private final GeocodingCache cache;
+
+    /**
+     * @param geocoder Геокодер: общий клиент Nominatim или геокодер без интернета.
+     * @param cache    Кеш ответов: адрес берется из него, если это место уже искали. Не нужен локальному геокодеру.
+     */
+    ReverseGeocoding(Geocoder geocoder, GeocodingCache cache) {
+        this.geocoder = geocoder;
+        this.cache = cache;
+    }
 
     /**
      * Метод, с помощью которого происходит взаимодействие (интерфейс образный).
@@ -28,84 +36,45 @@ class ReverseGeocoding {
      * @return возвращает строку с подробным описанием здания.
      */
     static String getAddressByCoordinates(double latitude, double longitude) {
-        HttpURLConnection connection = null;
-
-        try {
-
-            connection = makeRequest(latitude, longitude);
-            String jsonData = collectInfo(connection);
-            return getDisplayName(jsonData);
-
-        } catch (IOException e) {
-
-            throw new RuntimeException("Ошибка при подключении к адресу: " + e.getMessage(), e);
-
-        } finally {
+        return getInstance().addressByCoordinates(latitude, longitude);
+    }
 
-            if (connection != null) {
-                connection.disconnect();
-            }
+    private static synchronized ReverseGeocoding getInstance() {
+        if (instance == null) {
+            var geocoder = Geocoder.getInstance();
+            instance = new ReverseGeocoding(geocoder, geocoder.isLocal() ? null : GeocodingCache.getInstance());
         }
-
+        return instance;
     }
 
     /**
-     * Здесь мы соединяемся с сервером, чтобы получить JSON файл, который описывает адрес по широте и долготе
+     * Адрес места: из кеша, если по этому зданию уже кликали, иначе от геокодера с сохранением в кеш.
+     * Вызывается из фонового потока: ждет ответа, если запрос стоит в очереди ограничения частоты.
      * @param latitude координаты по широте
      * @param longitude координаты по долготе
-     * @return возвращает подключение, с помощью которого
+     * @return возвращает строку с подробным описанием здания.
      */
-    private static HttpURLConnection makeRequest(double latitude, double longitude) throws IOException {
-        try {
-
-            var uri = new URI(String.format("%s?format=json&lat=%f&lon=%f", NOMINATIM_API_URL, latitude, longitude));
-            var url = uri.toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.connect();
-            return connection;
-
-        } catch (Exception e) {
-
-            throw new IOException("Невозможно подключиться к серверу", e);
-
+    String addressByCoordinates(double latitude, double longitude) {
+        var cached = cache == null ? null : cache.findAddress(latitude, longitude);
+        if (cached != null) {
+            return cached;
         }
-    }
 
-    // Сбор информации в строку, чтобы можно было десериализовать JSON
-    private static String collectInfo(HttpURLConnection connection) {
-        var result = new StringBuilder();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+        try {
 
-            var line = "";
+            var address = geocoder.reverse(latitude, longitude).join();
 
-            while ((line = reader.readLine()) != null) {
-                result.append(line);
+            // Место без адреса (море, поле) не сохраняется, чтобы не путать его с ошибкой сервиса
+            if (address != null && cache != null) {
+                cache.putAddress(latitude, longitude, address);
             }
 
-            return result.toString();
+            return address;
 
-        } catch (IOException e) {
+        } catch (CompletionException e) {
 
-            throw new RuntimeException("Не удалось считать JSON данные", e);
+            throw new RuntimeException("Ошибка при подключении к адресу: " + e.getCause().getMessage(), e.getCause());
 
         }
     }
-
-    // Получаем информацию о месте
-    private static String getDisplayName(String jsonData) {
-
-        try {
-
-            var jsonObject = (JSONObject) jsonParser.parse(jsonData);
-            return (String) jsonObject.get("display_name");
-
-        } catch (ParseException e) {
-
-            throw new RuntimeException("Не удалось распарсить данные", e);
-
-        }
-
-    }
 }
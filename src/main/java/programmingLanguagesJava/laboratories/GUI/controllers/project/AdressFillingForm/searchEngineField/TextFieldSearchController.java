@@ -1,7 +1,7 @@
 /**
  * Данный файл описывает взаимодействие с TextField для поиска информации. Попытался сделать аналогичный поиск, как в Google.
  * Единственная проблема, что работает не совсем идеально из-за сервиса. Возможен вылет просто по приколу, поэтому надо быть аккуратным.
- * Тут есть дублирование логики с другим классом, где есть запросы к API, но мне исправлять это не особо хочется сейчас.
+ * Запросы к сервису идут через общий геокодер (Geocoder), как и у клика по карте: Nominatim или адреса без интернета.
  */
 
 package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.searchEngineField;
@@ -11,21 +11,14 @@ import com.sothawo.mapjfx.MapView;
 import com.sothawo.mapjfx.Marker;
 import javafx.concurrent.Task;
 import javafx.scene.control.TextField;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.ElementAddressFillingForm;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding.Geocoder;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding.GeocodingCache;
 import lombok.RequiredArgsConstructor;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RequiredArgsConstructor
 public class TextFieldSearchController implements ElementAddressFillingForm {
@@ -33,21 +26,48 @@ public class TextFieldSearchController implements ElementAddressFillingForm {
     private final MapView mapView;
     private final TextField textField;
 
-    private final JSONParser parser = new JSONParser();
+    private static final String NOT_FOUND = "Не удалось найти адрес.";
+
+    // Фоновый поток для поиска: ответы Nominatim все равно приходят не чаще, чем разрешает NominatimClient
+    private static final ExecutorService SEARCHER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("address-search").daemon(true).factory());
+
     private static final Marker markerClick = Marker.createProvided(Marker.Provided.BLUE).setVisible(true);
 
     /**
      * Обработчик событий, чтобы запускать логику методов.
+     * Если такой адрес уже искали, координаты берутся из кеша (GeocodingCache) без запроса к сервису.
+     * Геокодер без интернета отвечает сразу, поэтому его ответы не кешируются.
      */
     @Override
     public void event() {
+        var query = textField.getText();
+
         // Создаем новую задачу для выполнения запроса к API в отдельном потоке
         var task = new Task<String>() {
             @Override
             protected String call() {
-                var connection = connect(textField.getText());
-                var data = parseJson(readInfo(connection));
-                connection.disconnect();
+                var geocoder = Geocoder.getInstance();
+
+                if (geocoder.isLocal()) {
+                    var data = geocoder.search(query).join();
+                    return data == null ? NOT_FOUND : data;
+                }
+
+                var cache = GeocodingCache.getInstance();
+
+                var cached = cache.findPlace(query);
+                if (cached != null) {
+                    return cached;
+                }
+
+                var data = geocoder.search(query).join();
+
+                if (data == null) {
+                    return NOT_FOUND;
+                }
+
+                cache.putPlace(query, data);
                 return data;
             }
         };
@@ -55,7 +75,7 @@ public class TextFieldSearchController implements ElementAddressFillingForm {
         // Обновляем поле адреса после завершения задачи
         task.setOnSucceeded(workerStateEvent -> {
             String data = task.getValue();
-            if (data.equals("Не удалось найти адрес.")) {
+            if (data.equals(NOT_FOUND)) {
                 textField.setText("Не удалось найти адрес. Проверьте корректность");
             } else {
                 var iteratorData = Arrays.stream(data.split("\\s+")).map(Double::parseDouble).iterator();
@@ -65,85 +85,8 @@ public class TextFieldSearchController implements ElementAddressFillingForm {
                 mapView.setCenter(coords);
             }
         });
+        task.setOnFailed(workerStateEvent -> textField.setText("Сервис поиска адресов недоступен. Попробуйте позже"));
 
-        // Запускаем задачу в новом потоке
-        new Thread(task).start();
-    }
-
-
-    /**
-     * Здесь происходит подключение к серверу, чтобы собрать информацию.
-     * @param address адрес, который ввел пользователь в TextField
-     * @return возвращает удачное подключение к серверу.
-     */
-    private HttpURLConnection connect(String address) {
-
-        var NOMINATIM_API = "https://nominatim.openstreetmap.org/search?format=json&q=";
-        var encodedAddress = java.net.URLEncoder.encode(address, StandardCharsets.UTF_8);
-        var url = NOMINATIM_API + encodedAddress;
-
-        try {
-
-            var uri = new URI(url);
-            return (HttpURLConnection) uri.toURL().openConnection();
-
-        } catch (IOException | URISyntaxException e) {
-
-            throw new RuntimeException("Невозможно обработать запрос к API", e);
-
-        }
-
-    }
-
-    /**
-     * Обрабатываем информацию, считываем данные
-     * @param connection подключение к серверу
-     * @return возвращает информацию с сервера в виде строки.
-     */
-    private StringBuilder readInfo(HttpURLConnection connection) {
-        var response = new StringBuilder();
-
-        // Буферно считываю информацию
-        try (var in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                response.append(inputLine);
-            }
-
-            return response;
-
-        } catch (IOException e) {
-
-            throw new RuntimeException("Невозможно считать JSON файл с сервера", e);
-
-        }
-
+        SEARCHER.execute(task);
     }
-
-    /**
-     * Здесь происходит парсинг JSON, чтобы получить информацию
-     * @param jsonData json в виде строки, который мы хотим обработать
-     * @return возвращает строку, где (широта, долгота), а в ином случае возвращает ошибку.
-     */
-    private String parseJson(StringBuilder jsonData) {
-
-        try {
-            var jsonArray = (JSONArray) parser.parse(jsonData.toString());
-
-            if (!jsonArray.isEmpty()) {
-                var jsonObject = (JSONObject) jsonArray.getFirst();
-                return String.format("%s %s", jsonObject.get("lat"), jsonObject.get("lon"));
-            }
-
-            return "Не удалось найти адрес.";
-
-        } catch (ParseException e) {
-
-            throw new RuntimeException("Невозможно обработать JSON файл", e);
-
-        }
-
-    }
-
 }
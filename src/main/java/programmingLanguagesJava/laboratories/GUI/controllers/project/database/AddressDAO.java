@@ -0,0 +1,80 @@
+/**
+ * DAO для адресов геокодера без интернета.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.AddressRecord;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс AddressDAO предоставляет методы для взаимодействия с таблицей Addresses в базе данных.
+ * Адреса не меняются по одному: импорт заменяет их все сразу, а геокодер читает их все при запуске.
+ */
+@RequiredArgsConstructor
+public class AddressDAO {
+    private final ConnectionPool pool;
+
+    /**
+     * Метод replaceAll() заменяет все адреса новыми одной транзакцией:
+     * если импорт не удался, остаются старые адреса.
+     *
+     * @param addresses Новые адреса.
+     * @return Сколько адресов записано.
+     * @throws RuntimeException Если произошла ошибка при записи в базу данных.
+     */
+    public int replaceAll(List<AddressRecord> addresses) {
+        try {
+
+            return pool.inTransaction(connection -> {
+                try (var deleteStatement = connection.prepareStatement(SQLQuery.DELETE_ADDRESSES);
+                     var insertStatement = connection.prepareStatement(SQLQuery.INSERT_ADDRESS)) {
+
+                    deleteStatement.executeUpdate();
+
+                    for (var address : addresses) {
+                        insertStatement.setString(1, address.address());
+                        insertStatement.setDouble(2, address.latitude());
+                        insertStatement.setDouble(3, address.longitude());
+                        insertStatement.addBatch();
+                    }
+
+                    insertStatement.executeBatch();
+                    return addresses.size();
+                }
+            });
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при вставке данных в таблицу Addresses", e);
+        }
+    }
+
+    /**
+     * Метод findAll() загружает все адреса.
+     *
+     * @return Адреса в порядке импорта.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных.
+     */
+    public List<AddressRecord> findAll() {
+        var addresses = new ArrayList<AddressRecord>();
+
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_ADDRESSES);
+             var resultSet = preparedStatement.executeQuery()) {
+
+            while (resultSet.next()) {
+                addresses.add(new AddressRecord(resultSet.getString(1), resultSet.getDouble(2), resultSet.getDouble(3)));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении данных из таблицы Addresses", e);
+        }
+
+        return addresses;
+    }
+}
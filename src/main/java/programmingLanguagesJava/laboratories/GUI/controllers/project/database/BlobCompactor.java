@@ -0,0 +1,205 @@
+/**
+ * Сжатие базы данных: перевод старых строк на общее хранилище файлов без дубликатов.
+ * Запуск: gradlew compactBlobs
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.CompactionReport;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.io.ByteArrayInputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс BlobCompactor переписывает базу данных в вид без дубликатов файлов.
+ * Работает в четыре шага:
+ * 1. файлы, которые еще лежат прямо в строках Remaining_info, переносятся в Blobs;
+ * 2. для файлов без хеша считается SHA-256, одинаковые файлы сливаются в один;
+ * 3. счетчики ссылок пересчитываются по Remaining_info, файлы без ссылок удаляются;
+ * 4. VACUUM возвращает освободившееся место файловой системе.
+ * Каждая строка переносится своей транзакцией, поэтому прерванное сжатие можно просто запустить еще раз.
+ */
+@RequiredArgsConstructor
+public class BlobCompactor {
+    private final ConnectionPool pool;
+    private final BlobDAO blobDAO;
+
+
+    /**
+     * Метод compact() сжимает базу данных.
+     *
+     * @return Итог сжатия.
+     * @throws RuntimeException Если произошла ошибка при изменении базы данных.
+     */
+    public CompactionReport compact() {
+        try {
+
+            var sizeBefore = databaseSize();
+
+            var moved = 0;
+            for (var column : BlobColumn.values()) {
+                moved += moveLegacyFiles(column);
+            }
+
+            var merged = mergeDuplicates();
+            var deleted = deleteOrphans();
+
+            try (var pooled = pool.borrowWriter();
+                 var statement = pooled.connection().createStatement()) {
+                statement.execute(SQLQuery.VACUUM);
+            }
+
+            return new CompactionReport(moved, merged, deleted, sizeBefore, databaseSize());
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при сжатии базы данных", e);
+        }
+    }
+
+    // Перенос файлов из столбца Remaining_info в Blobs, повторяющиеся файлы пишутся один раз
+    private int moveLegacyFiles(BlobColumn column) throws SQLException {
+        var rowIds = selectIds(String.format(SQLQuery.SELECT_LEGACY_BLOB_ROWS,
+                column.getColumnName(), column.getBlobIdColumnName()));
+
+        var selectQuery = String.format(SQLQuery.SELECT_BLOB, column.getColumnName());
+        var moveQuery = String.format(SQLQuery.MOVE_LEGACY_BLOB, column.getBlobIdColumnName(), column.getColumnName());
+
+        for (var rowId : rowIds) {
+            pool.inTransaction(connection -> {
+
+                byte[] content;
+                try (var preparedStatement = connection.prepareStatement(selectQuery)) {
+                    preparedStatement.setInt(1, rowId);
+
+                    try (var resultSet = preparedStatement.executeQuery()) {
+                        resultSet.next();
+                        content = resultSet.getBytes(1);
+                    }
+                }
+
+                var blobId = blobDAO.write(new ByteArrayInputStream(content));
+
+                try (var preparedStatement = connection.prepareStatement(moveQuery)) {
+                    preparedStatement.setInt(1, blobId);
+                    preparedStatement.setInt(2, rowId);
+                    preparedStatement.executeUpdate();
+                }
+
+                return null;
+            });
+        }
+
+        return rowIds.size();
+    }
+
+    // Подсчет хеша у файлов, записанных до дедупликации, и слияние одинаковых (тесты вызывают этот шаг отдельно)
+    int mergeDuplicates() throws SQLException {
+        var merged = 0;
+
+        for (var blobId : selectIds(SQLQuery.SELECT_UNHASHED_BLOBS)) {
+            var hash = blobDAO.hash(blobId);
+
+            boolean isDuplicate = pool.inTransaction(connection -> {
+
+                int existingId = 0;
+                try (var preparedStatement = connection.prepareStatement(SQLQuery.SELECT_BLOB_BY_HASH)) {
+                    preparedStatement.setString(1, hash);
+
+                    try (var resultSet = preparedStatement.executeQuery()) {
+                        if (resultSet.next()) {
+                            existingId = resultSet.getInt(1);
+                        }
+                    }
+                }
+
+                if (existingId == 0) {
+                    try (var preparedStatement = connection.prepareStatement(SQLQuery.UPDATE_BLOB_HASH)) {
+                        preparedStatement.setString(1, hash);
+                        preparedStatement.setInt(2, blobId);
+                        preparedStatement.executeUpdate();
+                    }
+                    return false;
+                }
+
+                for (var column : BlobColumn.values()) {
+                    var query = String.format(SQLQuery.REPOINT_BLOB_REFS, column.getBlobIdColumnName());
+
+                    try (var preparedStatement = connection.prepareStatement(query)) {
+                        preparedStatement.setInt(1, existingId);
+                        preparedStatement.setInt(2, blobId);
+                        preparedStatement.executeUpdate();
+                    }
+                }
+
+                // Ссылки перешли на оригинал вместе со счетчиком: иначе освобождение файла до пересчета
+                // в deleteOrphans() (или прерванное сжатие) удалило бы оригинал, на который еще ссылаются
+                try (var preparedStatement = connection.prepareStatement(SQLQuery.MERGE_BLOB_REF_COUNT)) {
+                    preparedStatement.setInt(1, blobId);
+                    preparedStatement.setInt(2, existingId);
+                    preparedStatement.executeUpdate();
+                }
+
+                BlobDAO.delete(connection, blobId);
+                return true;
+            });
+
+            if (isDuplicate) {
+                merged++;
+            }
+        }
+
+        return merged;
+    }
+
+    // Пересчет счетчиков ссылок и удаление файлов, на которые никто не ссылается
+    private int deleteOrphans() throws SQLException {
+        return pool.inTransaction(connection -> {
+            try (var statement = connection.createStatement()) {
+
+                statement.executeUpdate(SQLQuery.RECOUNT_BLOB_REFS);
+                statement.executeUpdate(SQLQuery.DELETE_ORPHAN_BLOB_THUMBNAILS);
+                statement.executeUpdate(SQLQuery.DELETE_ORPHAN_BLOB_CHUNKS);
+                return statement.executeUpdate(SQLQuery.DELETE_ORPHAN_BLOBS);
+
+            }
+        });
+    }
+
+    private List<Integer> selectIds(String query) throws SQLException {
+        var ids = new ArrayList<Integer>();
+
+        try (var pooled = pool.borrowReader();
+             var statement = pooled.connection().createStatement();
+             var resultSet = statement.executeQuery(query)) {
+
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+
+        return ids;
+    }
+
+    private long databaseSize() throws SQLException {
+        try (var pooled = pool.borrowReader();
+             var statement = pooled.connection().createStatement();
+             var resultSet = statement.executeQuery(SQLQuery.DATABASE_SIZE)) {
+
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Точка запуска сжатия из консоли. Приложение во время сжатия лучше закрыть.
+     *
+     * @param args не используются.
+     */
+    public static void main(String[] args) {
+        System.out.println("Сжатие: " + DataBaseSQLite.getInstance().compactBlobs());
+    }
+}
@@ -0,0 +1,485 @@
+/**
+ * Класс, который реализует паттерн DAO для файлов в базе данных.
+ * sqlite-jdbc не умеет писать BLOB по частям, поэтому файл сам режется на куски ограниченного размера.
+ * Файлы адресуются по содержимому: одинаковые файлы (например, план одного дома у разных клиентов) хранятся один раз.
+ * Перед записью файл сжимается способом, подходящим для его типа, при чтении распаковывается.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec.BlobCodec;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec.BlobFormat;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec.CodecSelector;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PreparedFile;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+
+/**
+ * Класс BlobDAO предоставляет методы для взаимодействия с таблицами Blobs и Blob_chunks.
+ * Файл хранится как последовательность частей по CHUNK_SIZE байт, поэтому при записи и чтении
+ * в памяти находится не больше одной части, сколько бы ни весил план здания.
+ * У каждого файла есть SHA-256 и счетчик ссылок: повторная запись того же файла только увеличивает счетчик,
+ * а release() удаляет файл, когда на него больше никто не ссылается.
+ */
+@RequiredArgsConstructor
+public class BlobDAO {
+    // Размер одной части файла в байтах
+    static final int CHUNK_SIZE = 1024 * 1024;
+    // Сколько первых байтов файла смотреть при выборе способа сжатия
+    private static final int HEAD_SIZE = 16;
+
+    private final ConnectionPool pool;
+
+
+    /**
+     * Метод write() потоково записывает файл в базу данных.
+     *
+     * @param filePath Путь к файлу, который нужно записать.
+     * @return ID записанного файла в таблице Blobs.
+     * @throws RuntimeException Если произошла ошибка при чтении файла или записи в базу данных.
+     */
+    public int write(String filePath) {
+        try (var writer = openWriter()) {
+            return writer.write(filePath);
+        }
+    }
+
+    /**
+     * Метод write() потоково записывает данные из потока в базу данных.
+     *
+     * @param inputStream Поток с данными файла.
+     * @return ID записанного файла в таблице Blobs.
+     * @throws RuntimeException Если произошла ошибка при чтении потока или записи в базу данных.
+     */
+    public int write(InputStream inputStream) {
+        try (var writer = openWriter()) {
+            return writer.write(inputStream);
+        }
+    }
+
+    /**
+     * Метод openWriter() открывает писателя файлов, который держит подготовленные запросы.
+     * Нужен, когда файлов много: запросы подготавливаются один раз, а не на каждый файл.
+     *
+     * @return Писатель, который нужно закрыть после использования.
+     * @throws RuntimeException Если не удалось подготовить запросы.
+     */
+    public Writer openWriter() {
+        try {
+            return new Writer(pool.borrowWriter());
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при подготовке записи файлов в базу данных", e);
+        }
+    }
+
+    /**
+     * Метод copyTo() потоково копирует файл из базы данных в выходной поток, часть за частью.
+     * Сжатый файл распаковывается на лету, несжатый копируется как есть.
+     *
+     * @param blobId       ID файла в таблице Blobs.
+     * @param outputStream Поток, куда нужно записать файл.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных или записи в поток.
+     */
+    public void copyTo(int blobId, OutputStream outputStream) {
+        read(blobId, inputStream -> inputStream.transferTo(outputStream));
+    }
+
+    /**
+     * Метод read() отдает файл из базы данных читателю потоком, часть за частью.
+     * Сжатый файл распаковывается на лету, в памяти держится только текущая часть.
+     *
+     * @param blobId ID файла в таблице Blobs.
+     * @param reader Что сделать с потоком файла.
+     * @return Результат читателя.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных или в самом читателе.
+     */
+    public <T> T read(int blobId, BlobReader<T> reader) {
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_BLOB_CHUNKS)) {
+
+            preparedStatement.setInt(1, blobId);
+
+            try (var resultSet = preparedStatement.executeQuery();
+                 var inputStream = BlobFormat.decode(new ChunkInputStream(resultSet))) {
+                return reader.read(inputStream);
+            }
+
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Ошибка при чтении файла из базы данных", e);
+        }
+    }
+
+    /**
+     * Метод hash() считает SHA-256 файла, хранящегося в базе данных, читая его часть за частью.
+     *
+     * @param blobId ID файла в таблице Blobs.
+     * @return SHA-256 содержимого файла в шестнадцатеричном виде.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных.
+     */
+    public String hash(int blobId) {
+        var digest = newDigest();
+
+        try (var outputStream = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            copyTo(blobId, outputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при подсчете хеша файла", e);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Метод findHash() возвращает сохраненный SHA-256 файла, не читая сам файл.
+     *
+     * @param blobId ID файла в таблице Blobs.
+     * @return SHA-256 в шестнадцатеричном виде или null, если хеш еще не посчитан.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных.
+     */
+    public String findHash(int blobId) {
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_BLOB_HASH)) {
+
+            preparedStatement.setInt(1, blobId);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении хеша файла из базы данных", e);
+        }
+    }
+
+    /**
+     * Метод release() уменьшает счетчик ссылок на файл и удаляет файл, если ссылок не осталось.
+     * Вызывается, когда строка Remaining_info перестает ссылаться на файл.
+     *
+     * @param blobId ID файла в таблице Blobs.
+     * @throws RuntimeException Если произошла ошибка при изменении базы данных.
+     */
+    public void release(int blobId) {
+        try {
+            pool.inTransaction(connection -> {
+
+                retain(connection, blobId, -1);
+
+                try (var preparedStatement = connection.prepareStatement(SQLQuery.SELECT_BLOB_REF_COUNT)) {
+                    preparedStatement.setInt(1, blobId);
+
+                    try (var resultSet = preparedStatement.executeQuery()) {
+                        if (resultSet.next() && resultSet.getInt(1) <= 0) {
+                            delete(connection, blobId);
+                        }
+                    }
+                }
+
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при освобождении файла в базе данных", e);
+        }
+    }
+
+    /**
+     * Метод delete() удаляет файл со всеми частями и уменьшенными копиями, не глядя на счетчик ссылок.
+     *
+     * @param connection Соединение-писатель.
+     * @param blobId     ID файла в таблице Blobs.
+     * @throws SQLException Если произошла ошибка при удалении.
+     */
+    static void delete(Connection connection, int blobId) throws SQLException {
+        try (var deleteThumbnails = connection.prepareStatement(SQLQuery.DELETE_BLOB_THUMBNAILS);
+             var deleteChunks = connection.prepareStatement(SQLQuery.DELETE_BLOB_CHUNKS);
+             var deleteBlob = connection.prepareStatement(SQLQuery.DELETE_BLOB)) {
+
+            deleteThumbnails.setInt(1, blobId);
+            deleteThumbnails.executeUpdate();
+
+            deleteChunks.setInt(1, blobId);
+            deleteChunks.executeUpdate();
+
+            deleteBlob.setInt(1, blobId);
+            deleteBlob.executeUpdate();
+        }
+    }
+
+    // Изменение счетчика ссылок на delta
+    private static void retain(Connection connection, int blobId, int delta) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(SQLQuery.RETAIN_BLOB)) {
+            preparedStatement.setInt(1, delta);
+            preparedStatement.setInt(2, blobId);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Метод prepare() читает файл один раз, считает его SHA-256 и выбирает способ сжатия.
+     * Базу данных не трогает, поэтому его можно вызывать из любого потока заранее,
+     * чтобы писатель (он в базе данных один) не читал файлы ради хеша, держа соединение.
+     *
+     * @param filePath Путь к файлу.
+     * @return Подготовленный файл для Writer.write().
+     * @throws RuntimeException Если файл не удалось прочитать.
+     */
+    public static PreparedFile prepare(String filePath) {
+        try {
+
+            var path = Paths.get(filePath);
+            var digest = newDigest();
+            var buffer = new byte[64 * 1024];
+            byte[] head;
+
+            try (var inputStream = new DigestInputStream(Files.newInputStream(path), digest)) {
+                head = inputStream.readNBytes(HEAD_SIZE);
+                while (inputStream.read(buffer) != -1) {
+                    // Файл читается только ради хеша
+                }
+            }
+
+            return new PreparedFile(filePath, HexFormat.of().formatHex(digest.digest()),
+                    CodecSelector.select(path.getFileName().toString(), head));
+
+        } catch (IOException | NullPointerException e) {
+            throw new RuntimeException("Ошибка при чтении файла, а возможно и не найден " + filePath, e);
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 должен поддерживаться любой JVM", e);
+        }
+    }
+
+    /**
+     * Класс Writer пишет файлы в базу данных частями через одни и те же подготовленные запросы.
+     * Один буфер переиспользуется для всех частей и всех файлов, поэтому память не зависит от их размера.
+     */
+    public static class Writer implements AutoCloseable {
+
+        private final PooledConnection pooled;
+        private final PreparedStatement insertBlob;
+        private final PreparedStatement insertChunk;
+        private final PreparedStatement updateSize;
+        private final PreparedStatement updateHash;
+        private final PreparedStatement selectByHash;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+
+        private Writer(PooledConnection pooled) throws SQLException {
+            this.pooled = pooled;
+
+            var connection = pooled.connection();
+            this.insertBlob = connection.prepareStatement(SQLQuery.INSERT_BLOB, Statement.RETURN_GENERATED_KEYS);
+            this.insertChunk = connection.prepareStatement(SQLQuery.INSERT_BLOB_CHUNK);
+            this.updateSize = connection.prepareStatement(SQLQuery.UPDATE_BLOB_SIZE);
+            this.updateHash = connection.prepareStatement(SQLQuery.UPDATE_BLOB_HASH);
+            this.selectByHash = connection.prepareStatement(SQLQuery.SELECT_BLOB_BY_HASH);
+        }
+
+        /**
+         * Метод write() потоково записывает файл в базу данных.
+         * Сначала считается SHA-256 файла: если такой файл уже есть, он не пишется повторно,
+         * а только получает еще одну ссылку. Способ сжатия выбирается по расширению файла.
+         *
+         * @param filePath Путь к файлу, который нужно записать.
+         * @return ID записанного (или уже имевшегося) файла в таблице Blobs.
+         * @throws RuntimeException Если произошла ошибка при чтении файла или записи в базу данных.
+         */
+        public int write(String filePath) {
+            return write(prepare(filePath));
+        }
+
+        /**
+         * Метод write() записывает файл, хеш и способ сжатия которого уже посчитаны через BlobDAO.prepare().
+         * Если такой файл уже есть, он не читается вовсе, а только получает еще одну ссылку.
+         *
+         * @param file Подготовленный файл.
+         * @return ID записанного (или уже имевшегося) файла в таблице Blobs.
+         * @throws RuntimeException Если произошла ошибка при чтении файла или записи в базу данных.
+         */
+        public int write(PreparedFile file) {
+            try {
+
+                var existingId = findByHash(file.hash());
+
+                if (existingId != 0) {
+                    retain(pooled.connection(), existingId, 1);
+                    return existingId;
+                }
+
+                try (var inputStream = Files.newInputStream(Paths.get(file.path()))) {
+                    return writeChunks(inputStream, file.hash(), file.codec());
+                }
+
+            } catch (IOException e) {
+                throw new RuntimeException("Ошибка при чтении файла, а возможно и не найден " + file.path(), e);
+            } catch (SQLException e) {
+                throw new RuntimeException("Ошибка при записи файла в базу данных", e);
+            }
+        }
+
+        /**
+         * Метод write() потоково записывает данные из потока в базу данных.
+         * Хеш становится известен только в конце потока, поэтому дубликат сначала записывается,
+         * а затем удаляется в пользу уже имевшегося файла. Способ сжатия выбирается по первым байтам.
+         *
+         * @param inputStream Поток с данными файла.
+         * @return ID записанного (или уже имевшегося) файла в таблице Blobs.
+         * @throws RuntimeException Если произошла ошибка при чтении потока или записи в базу данных.
+         */
+        public int write(InputStream inputStream) {
+            try {
+
+                var buffered = new BufferedInputStream(inputStream);
+                buffered.mark(HEAD_SIZE);
+                var head = buffered.readNBytes(HEAD_SIZE);
+                buffered.reset();
+
+                var digest = newDigest();
+                var blobId = writeChunks(new DigestInputStream(buffered, digest), null, CodecSelector.select(null, head));
+
+                var hash = HexFormat.of().formatHex(digest.digest());
+                var existingId = findByHash(hash);
+
+                if (existingId != 0) {
+                    delete(pooled.connection(), blobId);
+                    retain(pooled.connection(), existingId, 1);
+                    return existingId;
+                }
+
+                updateHash.setString(1, hash);
+                updateHash.setInt(2, blobId);
+                updateHash.executeUpdate();
+
+                return blobId;
+
+            } catch (SQLException | IOException e) {
+                throw new RuntimeException("Ошибка при записи файла в базу данных", e);
+            }
+        }
+
+        // Запись новой строки Blobs и всех частей сжатого файла
+        private int writeChunks(InputStream inputStream, String hash, BlobCodec codec) throws SQLException, IOException {
+            insertBlob.setString(1, hash);
+            insertBlob.executeUpdate();
+
+            int blobId;
+            try (var keys = insertBlob.getGeneratedKeys()) {
+                keys.next();
+                blobId = keys.getInt(1);
+            }
+
+            var chunks = new ChunkOutputStream(blobId);
+
+            try (var encoded = BlobFormat.encode(chunks, codec)) {
+                inputStream.transferTo(encoded);
+            }
+
+            updateSize.setLong(1, chunks.size);
+            updateSize.setInt(2, blobId);
+            updateSize.executeUpdate();
+
+            return blobId;
+        }
+
+        /**
+         * Поток, который складывает байты в общий буфер и пишет в Blob_chunks каждую заполненную часть.
+         * Ошибки базы данных пробрасываются как IOException, потому что их бросает метод OutputStream.
+         */
+        private class ChunkOutputStream extends OutputStream {
+            private final int blobId;
+            private int position;
+            private int seq;
+            private long size;
+
+            private ChunkOutputStream(int blobId) {
+                this.blobId = blobId;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                if (position == buffer.length) {
+                    writeChunk();
+                }
+                buffer[position++] = (byte) b;
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                while (length > 0) {
+                    if (position == buffer.length) {
+                        writeChunk();
+                    }
+
+                    var count = Math.min(length, buffer.length - position);
+                    System.arraycopy(bytes, offset, buffer, position, count);
+                    position += count;
+                    offset += count;
+                    length -= count;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (position > 0) {
+                    writeChunk();
+                }
+            }
+
+            private void writeChunk() throws IOException {
+                try {
+
+                    insertChunk.setInt(1, blobId);
+                    insertChunk.setInt(2, seq++);
+                    insertChunk.setBinaryStream(3, new ByteArrayInputStream(buffer, 0, position), position);
+                    insertChunk.executeUpdate();
+
+                } catch (SQLException e) {
+                    throw new IOException("Ошибка при записи части файла в базу данных", e);
+                }
+
+                size += position;
+                position = 0;
+            }
+        }
+
+        // ID файла с таким хешем или 0, если такого файла нет
+        private int findByHash(String hash) throws SQLException {
+            selectByHash.setString(1, hash);
+
+            try (var resultSet = selectByHash.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        }
+
+        /**
+         * Метод close() закрывает подготовленные запросы и возвращает соединение в пул.
+         */
+        @Override
+        public void close() {
+            try (pooled; insertBlob; insertChunk; updateSize; updateHash; selectByHash) {
+                // Все ресурсы закрываются автоматически
+            } catch (SQLException e) {
+                throw new RuntimeException("Ошибка при закрытии записи файлов", e);
+            }
+        }
+    }
+}
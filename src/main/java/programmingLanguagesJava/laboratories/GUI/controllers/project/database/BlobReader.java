@@ -0,0 +1,15 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Функциональный интерфейс для чтения файла из базы данных потоком, который может бросить IOException.
+ * Поток открыт, только пока выполняется read(): за ним стоит соединение из пула, поэтому сохранять его нельзя.
+ *
+ * @param <T> Тип результата чтения.
+ */
+@FunctionalInterface
+public interface BlobReader<T> {
+    T read(InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,72 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Поток, который читает файл из результата запроса SELECT_BLOB_CHUNKS, загружая по одной части за раз.
+ * Результат запроса закрывает вызывающий код.
+ */
+class ChunkInputStream extends InputStream {
+
+    private final ResultSet resultSet;
+    private byte[] chunk = new byte[0];
+    private int position;
+    private boolean finished;
+
+    ChunkInputStream(ResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == chunk.length && !nextChunk()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == chunk.length && !nextChunk()) {
+            return -1;
+        }
+
+        var count = Math.min(length, chunk.length - position);
+        System.arraycopy(chunk, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    // Переход к следующей непустой части, false - если частей больше нет
+    private boolean nextChunk() throws IOException {
+        try {
+
+            while (!finished) {
+                if (!resultSet.next()) {
+                    finished = true;
+                    break;
+                }
+
+                chunk = resultSet.getBytes(1);
+                position = 0;
+
+                if (chunk != null && chunk.length > 0) {
+                    return true;
+                }
+            }
+
+            chunk = new byte[0];
+            position = 0;
+            return false;
+
+        } catch (SQLException e) {
+            throw new IOException("Ошибка при чтении части файла из базы данных", e);
+        }
+    }
+}
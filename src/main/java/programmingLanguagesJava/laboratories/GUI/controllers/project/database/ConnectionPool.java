@@ -0,0 +1,240 @@
+/**
+ * Пул соединений с базой данных.
+ * SQLite в режиме WAL позволяет читать параллельно с записью, но писать может только одно соединение,
+ * поэтому здесь один писатель и несколько читателей.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PoolMetrics;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс ConnectionPool выдает соединения DAO-классам на время одной операции.
+ * Соединения привязываются к потоку: повторный запрос из того же потока возвращает то же соединение,
+ * поэтому вложенные вызовы DAO не занимают лишних соединений и видят незакоммиченные изменения друг друга.
+ * Если поток держит писателя, то и читать он будет через писателя.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+    // Кеш страниц на каждое соединение в килобайтах, можно поменять через -D при запуске
+    private static final int CACHE_SIZE_KIB = Integer.getInteger("database.pool.cacheSizeKib", 16 * 1024);
+
+    private final Connection writer;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+
+    private final List<Connection> readers = new ArrayList<>();
+    private final BlockingQueue<Connection> idleReaders;
+    private final ThreadLocal<PooledConnection> currentReader = new ThreadLocal<>();
+    private final long borrowTimeoutMillis;
+
+    // Метрики пула
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger activeReaders = new AtomicInteger();
+
+    /**
+     * Конструктор открывает соединение-писатель и заданное количество соединений-читателей.
+     * База данных должна быть в режиме WAL (его включает MigrationRunner), иначе читатели будут ждать писателя.
+     *
+     * @param url                 Адрес базы данных для JDBC.
+     * @param readersCount        Количество соединений-читателей.
+     * @param borrowTimeoutMillis Сколько миллисекунд ждать свободного соединения, прежде чем бросить исключение.
+     * @throws SQLException Если не удалось открыть соединения.
+     */
+    public ConnectionPool(String url, int readersCount, long borrowTimeoutMillis) throws SQLException {
+
+        if (readersCount < 1) {
+            throw new IllegalArgumentException("Нужен хотя бы один читатель, а передано: " + readersCount);
+        }
+
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleReaders = new ArrayBlockingQueue<>(readersCount);
+
+        this.writer = DriverManager.getConnection(url);
+
+        configure(writer);
+
+        for (int i = 0; i < readersCount; i++) {
+            var reader = DriverManager.getConnection(url);
+
+            configure(reader);
+
+            try (var statement = reader.createStatement()) {
+                statement.execute("PRAGMA query_only = ON");
+            }
+
+            readers.add(reader);
+            idleReaders.add(reader);
+        }
+    }
+
+    /**
+     * Метод borrowWriter() выдает соединение-писатель. Пока оно не закрыто, другие потоки писать не могут.
+     *
+     * @return Соединение, которое нужно закрыть (вернуть в пул) после использования.
+     * @throws SQLException Если писатель не освободился за отведенное время или поток был прерван.
+     */
+    public PooledConnection borrowWriter() throws SQLException {
+        var start = System.nanoTime();
+
+        try {
+
+            if (!writerLock.tryLock(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Не дождались соединения для записи за " + borrowTimeoutMillis + " мс");
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Поток был прерван во время ожидания соединения", e);
+        }
+
+        recordBorrow(start);
+        return new PooledConnection(writer, writerLock::unlock);
+    }
+
+    /**
+     * Метод borrowReader() выдает соединение только для чтения.
+     * Если текущий поток уже держит писателя или читателя, возвращается именно оно.
+     *
+     * @return Соединение, которое нужно закрыть (вернуть в пул) после использования.
+     * @throws SQLException Если свободный читатель не появился за отведенное время или поток был прерван.
+     */
+    public PooledConnection borrowReader() throws SQLException {
+
+        if (writerLock.isHeldByCurrentThread()) {
+            return borrowWriter();
+        }
+
+        var current = currentReader.get();
+        if (current != null) {
+            current.retain();
+            return current;
+        }
+
+        var start = System.nanoTime();
+        Connection reader;
+
+        try {
+
+            reader = idleReaders.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Поток был прерван во время ожидания соединения", e);
+        }
+
+        if (reader == null) {
+            throw new SQLException("Не дождались соединения для чтения за " + borrowTimeoutMillis + " мс");
+        }
+
+        recordBorrow(start);
+        activeReaders.incrementAndGet();
+
+        var pooled = new PooledConnection(reader, () -> {
+            currentReader.remove();
+            activeReaders.decrementAndGet();
+            idleReaders.add(reader);
+        });
+
+        currentReader.set(pooled);
+        return pooled;
+    }
+
+    /**
+     * Метод inTransaction() выполняет действие на писателе в одной транзакции.
+     * Все вызовы DAO внутри действия в этом потоке получают то же соединение и попадают в ту же транзакцию.
+     * Если транзакция уже открыта выше по стеку, действие просто выполняется внутри нее.
+     *
+     * @param action Действие, которое нужно выполнить.
+     * @param <T>    Тип результата действия.
+     * @return Результат действия.
+     * @throws SQLException Если действие или фиксация транзакции не удались. Транзакция при этом откатывается.
+     */
+    public <T> T inTransaction(SQLAction<T> action) throws SQLException {
+        try (var pooled = borrowWriter()) {
+
+            var connection = pooled.connection();
+
+            if (!connection.getAutoCommit()) {
+                return action.execute(connection);
+            }
+
+            connection.setAutoCommit(false);
+
+            try {
+
+                var result = action.execute(connection);
+                connection.commit();
+                return result;
+
+            } catch (SQLException | RuntimeException e) {
+
+                connection.rollback();
+                throw e;
+
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Метод getMetrics() возвращает снимок метрик пула.
+     *
+     * @return Метрики пула на текущий момент.
+     */
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(
+                borrowCount.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get(),
+                activeReaders.get(),
+                idleReaders.size(),
+                writerLock.isLocked()
+        );
+    }
+
+    /**
+     * Метод close() закрывает все соединения пула.
+     *
+     * @throws SQLException Если не удалось закрыть какое-то соединение.
+     */
+    @Override
+    public void close() throws SQLException {
+        for (var reader : readers) {
+            reader.close();
+        }
+        writer.close();
+    }
+
+    // Настройки, которые действуют только на одно соединение и не сохраняются в файле
+    private static void configure(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            statement.execute("PRAGMA cache_size = " + -CACHE_SIZE_KIB);
+        }
+    }
+
+    // Учет количества выдач и времени ожидания соединения
+    private void recordBorrow(long startNanos) {
+        var waited = System.nanoTime() - startNanos;
+        borrowCount.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+}
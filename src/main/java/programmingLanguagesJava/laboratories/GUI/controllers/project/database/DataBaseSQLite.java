@@ -5,14 +5,18 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
 
 import lombok.Getter;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration.MigrationRunner;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.AddressRecord;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.CompactionReport;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.GeocodingEntry;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PeopleChanges;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
+import java.io.OutputStream;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -28,15 +32,33 @@ public class DataBaseSQLite {
             "/src/main/resources/projectFiles/data/security_information_db.db"
     );
 
+    // Количество соединений-читателей и время ожидания соединения, можно поменять через -D при запуске
+    private static final int POOL_READERS = Integer.getInteger("database.pool.readers", 4);
+    private static final long POOL_TIMEOUT_MILLIS = Long.getLong("database.pool.timeoutMillis", 30_000);
+
     @Getter
-    private final Connection connection;
+    private final ConnectionPool pool;
+    private final BlobDAO blobDAO;
     private final RemainingInfoDAO remainingInfoDAO;
     private final PeoplesDAO peoplesDAO;
+    private final ThumbnailDAO thumbnailDAO;
+    private final GeocodingCacheDAO geocodingCacheDAO;
+    private final AddressDAO addressDAO;
     private static DataBaseSQLite instance;
 
+    // Сколько последних записей журнала изменений Peoples хранить, можно поменять через -D при запуске
+    private static final long CHANGES_RETAINED = Long.getLong("database.changes.retained", 100_000);
+
+    // Сколько можно отменить удаление и как часто окончательно удалять людей, можно поменять через -D при запуске
+    private static final long UNDO_WINDOW_MILLIS = Long.getLong("database.delete.undoWindowMillis", 10 * 60_000);
+    private static final long PURGE_PERIOD_MILLIS = Long.getLong("database.delete.purgePeriodMillis", 60_000);
+
     /**
      * Конструктор класса DataBaseSQLite.
-     * Он устанавливает соединение с базой данных и инициализирует DAO для таблиц Peoples и Remaining_info.
+     * Он открывает пул соединений с базой данных и инициализирует DAO для таблиц Peoples и Remaining_info.
+     * Перед этим схема базы данных обновляется до последней версии (см. MigrationRunner),
+     * а после из журнала изменений Peoples удаляются старые записи
+     * и запускается фоновое окончательное удаление людей (см. DeletedPeoplePurger).
      *
      * @throws RuntimeException Если не удалось подключиться к базе данных.
      */
@@ -44,9 +66,18 @@ public class DataBaseSQLite {
 
         try {
 
-            connection = DriverManager.getConnection(DATABASE_URL);
-            remainingInfoDAO = new RemainingInfoDAO(connection);
-            peoplesDAO = new PeoplesDAO(connection);
+            new MigrationRunner(DATABASE_URL).migrate();
+
+            pool = new ConnectionPool(DATABASE_URL, POOL_READERS, POOL_TIMEOUT_MILLIS);
+            blobDAO = new BlobDAO(pool);
+            remainingInfoDAO = new RemainingInfoDAO(pool, blobDAO);
+            peoplesDAO = new PeoplesDAO(pool);
+            thumbnailDAO = new ThumbnailDAO(pool);
+            geocodingCacheDAO = new GeocodingCacheDAO(pool);
+            addressDAO = new AddressDAO(pool);
+            peoplesDAO.trimChanges(CHANGES_RETAINED);
+
+            new DeletedPeoplePurger(pool, peoplesDAO, remainingInfoDAO).start(UNDO_WINDOW_MILLIS, PURGE_PERIOD_MILLIS);
 
         } catch (SQLException e) {
 
@@ -71,45 +102,262 @@ public class DataBaseSQLite {
 
     /**
      * Метод insert() вставляет данные о человеке в базу данных.
-     * Он использует DAO для вставки данных в таблицы Peoples и Remaining_info.
+     * Вставка в Remaining_info и Peoples идет одной транзакцией: либо клиент записан целиком, либо никак.
      *
      * @param personData Данные о человеке в формате HashMap.
      */
     public void insert(Map<String, String> personData) {
-        remainingInfoDAO.insert(personData.get("pathToFile"), personData.get("buildingPlan"));
-        var remainingInfoId = remainingInfoDAO.getLastIndex();
-        var listOfPersons = Person.createPeoples(personData.get("allPeople"), personData.get("mainPerson"));
-        peoplesDAO.insert(listOfPersons, remainingInfoId);
+        insertAll(List.of(personData));
     }
 
     /**
-     * Метод loadPersonInfos() загружает информацию о людях из базы данных.
-     * Он выполняет SQL-запрос JOIN_TABLES, чтобы получить данные из нескольких таблиц,
-     * затем создает объекты PersonInfo на основе этих данных и добавляет их в список.
+     * Метод insertAll() вставляет сразу много клиентов в одной транзакции.
+     * На каждую таблицу используется один подготовленный запрос, а fsync происходит один раз на всю пачку,
+     * а не на каждую строку, как в режиме автокоммита.
      *
-     * @return Список объектов PersonInfo, содержащий информацию о людях из базы данных.
-     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса или обработке результатов.
+     * @param personsData Данные о клиентах в формате HashMap, как их собирает форма.
      */
-    public List<PersonInfo> loadPersonInfos() {
-        var personInfos = new LinkedList<PersonInfo>();
-
-        try (var resultSet = this.connection.createStatement().executeQuery(SQLQuery.JOIN_TABLES)) {
+    public void insertAll(Collection<Map<String, String>> personsData) {
+        insertRecords(personsData.stream().map(ClientRecord::fromPersonData).toList());
+    }
 
-            while (resultSet.next()) {
-                var firstName = resultSet.getString("first_name");
-                var lastName = resultSet.getString("last_name");
-                var patronymic = resultSet.getString("patronymic");
-                var planOfHouse = resultSet.getBytes("plan_of_house");
-                var document = resultSet.getBytes("document");
+    /**
+     * Метод insertRecords() вставляет готовые записи о клиентах в одной транзакции.
+     *
+     * @param clients Записи о клиентах.
+     * @throws RuntimeException Если вставка не удалась. В этом случае в базу данных не попадает ни один клиент.
+     */
+    public void insertRecords(List<ClientRecord> clients) {
+        try {
 
-                personInfos.add(new PersonInfo(firstName, lastName, patronymic, planOfHouse, document));
-            }
+            pool.inTransaction(connection -> {
+                var remainingInfoIds = remainingInfoDAO.insertAll(clients);
+                peoplesDAO.insertAll(clients.stream().map(ClientRecord::people).toList(), remainingInfoIds);
+                return null;
+            });
 
         } catch (SQLException e) {
-            throw new RuntimeException("Не получилось соединить данные таблиц", e);
+            throw new RuntimeException("Не получилось записать клиентов в базу данных", e);
         }
+    }
+
+    /**
+     * Метод loadPersonInfosPage() загружает одну страницу людей без файлов.
+     * Используется keyset-пагинация: следующая страница начинается после последнего id предыдущей,
+     * поэтому запрос не деградирует на дальних страницах, как OFFSET.
+     *
+     * @param afterId ID человека, после которого начинается страница (0 - с самого начала).
+     * @param limit   Максимальное количество строк на странице.
+     * @return Список объектов PersonInfo, отсортированный по id.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public List<PersonInfo> loadPersonInfosPage(int afterId, int limit) {
+        return peoplesDAO.loadPage(afterId, limit);
+    }
+
+    /**
+     * Метод lastPersonChange() возвращает номер последнего изменения людей в базе данных.
+     *
+     * @return Номер изменения, после которого loadPersonChanges() вернет только новые изменения.
+     */
+    public long lastPersonChange() {
+        return peoplesDAO.lastChange();
+    }
+
+    /**
+     * Метод loadPersonChanges() загружает только тех людей, которые добавились, изменились или удалились
+     * после заданного номера изменения.
+     *
+     * @param afterChange Номер изменения из lastPersonChange() или прошлого PeopleChanges.lastChange().
+     * @return Изменения после afterChange.
+     */
+    public PeopleChanges loadPersonChanges(long afterChange) {
+        return peoplesDAO.loadChanges(afterChange);
+    }
+
+    /**
+     * Метод countPersonInfos() возвращает количество людей в базе данных.
+     *
+     * @return Количество людей.
+     */
+    public int countPersonInfos() {
+        return peoplesDAO.count();
+    }
+
+    /**
+     * Метод searchPersonInfos() ищет людей по фамилии, имени или отчеству на стороне базы данных.
+     * Возвращается только одна страница результатов, вся таблица в память не загружается.
+     *
+     * @param keyword Строка поиска, не пустая.
+     * @param afterId ID человека, после которого начинается страница (0 - с самого начала).
+     * @param limit   Максимальное количество строк на странице.
+     * @return Список найденных людей, отсортированный по id.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public List<PersonInfo> searchPersonInfos(String keyword, int afterId, int limit) {
+        return peoplesDAO.search(keyword, afterId, limit);
+    }
+
+    /**
+     * Метод deletePersonInfos() удаляет людей так, что удаление еще можно отменить через restorePersonInfos().
+     * Окончательно люди вместе с файлами удаляются в фоне, когда пройдет database.delete.undoWindowMillis.
+     *
+     * @param ids ID людей.
+     * @return Сколько людей удалено.
+     */
+    public int deletePersonInfos(List<Integer> ids) {
+        return peoplesDAO.markDeleted(ids, System.currentTimeMillis());
+    }
+
+    /**
+     * Метод restorePersonInfos() отменяет удаление людей, если они еще не удалены окончательно.
+     *
+     * @param ids ID людей.
+     * @return Сколько людей восстановлено.
+     */
+    public int restorePersonInfos(List<Integer> ids) {
+        return peoplesDAO.restore(ids);
+    }
+
+    /**
+     * Метод loadBlob() загружает файл из таблицы Remaining_info по запросу.
+     * Его вызывает LazyBlob, когда оператор открывает договор или план здания.
+     *
+     * @param remainingInfoId ID строки в таблице Remaining_info.
+     * @param column          Столбец с файлом.
+     * @return Массив байтов файла (пустой, если файла нет).
+     */
+    public byte[] loadBlob(int remainingInfoId, BlobColumn column) {
+        return remainingInfoDAO.loadBlob(remainingInfoId, column);
+    }
+
+    /**
+     * Метод copyBlobTo() потоково копирует файл из таблицы Remaining_info в выходной поток,
+     * не загружая его в память целиком.
+     *
+     * @param remainingInfoId ID строки в таблице Remaining_info.
+     * @param column          Столбец с файлом.
+     * @param outputStream    Поток, куда нужно записать файл.
+     */
+    public void copyBlobTo(int remainingInfoId, BlobColumn column, OutputStream outputStream) {
+        remainingInfoDAO.copyBlobTo(remainingInfoId, column, outputStream);
+    }
+
+    /**
+     * Метод readBlob() отдает файл из таблицы Remaining_info читателю потоком,
+     * не загружая его в память целиком.
+     *
+     * @param remainingInfoId ID строки в таблице Remaining_info.
+     * @param column          Столбец с файлом.
+     * @param reader          Что сделать с потоком файла.
+     * @return Результат читателя или null, если файла нет.
+     */
+    public <T> T readBlob(int remainingInfoId, BlobColumn column, BlobReader<T> reader) {
+        return remainingInfoDAO.readBlob(remainingInfoId, column, reader);
+    }
+
+    /**
+     * Метод blobId() возвращает ID файла в общем хранилище Blobs, одинаковые файлы имеют один ID.
+     *
+     * @param remainingInfoId ID строки в таблице Remaining_info.
+     * @param column          Столбец с файлом.
+     * @return ID файла или 0, если файла нет или он хранится по-старому прямо в строке.
+     */
+    public int blobId(int remainingInfoId, BlobColumn column) {
+        return remainingInfoDAO.blobId(remainingInfoId, column);
+    }
+
+    /**
+     * Метод blobHash() возвращает сохраненный SHA-256 файла: одинаковое содержимое - одинаковый хеш.
+     *
+     * @param blobId ID файла в Blobs.
+     * @return Хеш в шестнадцатеричном виде или null, если он еще не посчитан.
+     */
+    public String blobHash(int blobId) {
+        return blobDAO.findHash(blobId);
+    }
+
+    /**
+     * Метод loadThumbnail() загружает сохраненную уменьшенную копию файла.
+     *
+     * @param blobId ID файла в Blobs.
+     * @param size   Размер копии в пикселях.
+     * @return PNG-изображение или null, если копии еще нет.
+     */
+    public byte[] loadThumbnail(int blobId, int size) {
+        return thumbnailDAO.find(blobId, size);
+    }
 
-        return personInfos;
+    /**
+     * Метод saveThumbnail() сохраняет уменьшенную копию файла.
+     *
+     * @param blobId ID файла в Blobs.
+     * @param size   Размер копии в пикселях.
+     * @param image  PNG-изображение.
+     */
+    public void saveThumbnail(int blobId, int size, byte[] image) {
+        thumbnailDAO.save(blobId, size, image);
+    }
+
+    /**
+     * Метод loadGeocoding() загружает сохраненный ответ геокодера.
+     *
+     * @param key       Ключ ответа.
+     * @param notBefore Самое раннее время ответа в миллисекундах.
+     * @return Ответ или null, если его нет или он устарел.
+     */
+    public GeocodingEntry loadGeocoding(String key, long notBefore) {
+        return geocodingCacheDAO.find(key, notBefore);
+    }
+
+    /**
+     * Метод saveGeocoding() сохраняет ответ геокодера.
+     *
+     * @param key     Ключ ответа.
+     * @param value   Ответ.
+     * @param savedAt Время ответа в миллисекундах.
+     */
+    public void saveGeocoding(String key, String value, long savedAt) {
+        geocodingCacheDAO.save(key, value, savedAt);
+    }
+
+    /**
+     * Метод deleteExpiredGeocoding() удаляет устаревшие ответы геокодера.
+     *
+     * @param notBefore Ответы раньше этого времени в миллисекундах удаляются.
+     * @return Сколько ответов удалено.
+     */
+    public int deleteExpiredGeocoding(long notBefore) {
+        return geocodingCacheDAO.deleteExpired(notBefore);
+    }
+
+    /**
+     * Метод replaceAddresses() заменяет адреса геокодера без интернета новыми.
+     *
+     * @param addresses Новые адреса.
+     * @return Сколько адресов записано.
+     */
+    public int replaceAddresses(List<AddressRecord> addresses) {
+        return addressDAO.replaceAll(addresses);
+    }
+
+    /**
+     * Метод loadAddresses() загружает все адреса геокодера без интернета.
+     *
+     * @return Адреса в порядке импорта.
+     */
+    public List<AddressRecord> loadAddresses() {
+        return addressDAO.findAll();
+    }
+
+    /**
+     * Метод compactBlobs() переписывает базу данных так, чтобы каждый файл хранился один раз.
+     * Может занять много времени, поэтому вызывается отдельной командой, а не при запуске приложения.
+     *
+     * @return Итог сжатия.
+     */
+    public CompactionReport compactBlobs() {
+        return new BlobCompactor(pool, blobDAO).compact();
     }
 
 }
@@ -0,0 +1,108 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс DeletedPeoplePurger окончательно удаляет мягко удаленных людей и возвращает место в файле базы данных.
+ * Люди удаляются одной транзакцией вместе со строками Remaining_info, на которые больше никто не ссылается,
+ * и их файлами. Освободившиеся страницы отдаются файловой системе понемногу через PRAGMA incremental_vacuum,
+ * и между порциями писатель отпускается, поэтому большое удаление не останавливает запись из интерфейса.
+ */
+@RequiredArgsConstructor
+public class DeletedPeoplePurger {
+
+    // Сколько страниц возвращать за одно занятие писателя
+    private static final int VACUUM_STEP_PAGES = 256;
+
+    private final ConnectionPool pool;
+    private final PeoplesDAO peoplesDAO;
+    private final RemainingInfoDAO remainingInfoDAO;
+
+    /**
+     * Метод purge() окончательно удаляет людей, помеченных удаленными не позже заданного времени.
+     *
+     * @param deletedBefore Время в миллисекундах с начала эпохи.
+     * @return Сколько строк Remaining_info удалено вместе с людьми.
+     * @throws RuntimeException Если удаление не удалось. В этом случае ничего не удаляется.
+     */
+    public int purge(long deletedBefore) {
+        try {
+
+            return pool.inTransaction(connection ->
+                    remainingInfoDAO.deleteOrphans(peoplesDAO.purgeDeleted(deletedBefore)));
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Не получилось окончательно удалить людей из базы данных", e);
+        }
+    }
+
+    /**
+     * Метод reclaimFreePages() возвращает файловой системе часть свободных страниц базы данных.
+     *
+     * @param maxPages Сколько страниц вернуть за раз.
+     * @return Сколько свободных страниц осталось.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public int reclaimFreePages(int maxPages) {
+        try (var pooled = pool.borrowWriter();
+             var statement = pooled.connection().createStatement();
+             var vacuumStatement = pooled.connection().prepareStatement(SQLQuery.INCREMENTAL_VACUUM)) {
+
+            var freePages = freePages(statement);
+
+            for (int i = 0; i < Math.min(freePages, maxPages); i++) {
+                vacuumStatement.execute();
+            }
+
+            return freePages(statement);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при освобождении места в базе данных", e);
+        }
+    }
+
+    /**
+     * Метод start() запускает фоновый поток, который раз в period окончательно удаляет людей,
+     * удаленных раньше, чем undoWindow назад, и затем возвращает освободившееся место.
+     *
+     * @param undoWindowMillis Сколько миллисекунд удаление можно отменить.
+     * @param periodMillis     Как часто проверять.
+     */
+    public void start(long undoWindowMillis, long periodMillis) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("database-purger").daemon(true).factory());
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+
+                purge(System.currentTimeMillis() - undoWindowMillis);
+
+                // Если страниц не становится меньше (база не в режиме INCREMENTAL), дальше пробовать бесполезно
+                var freePages = Integer.MAX_VALUE;
+                int left;
+                while ((left = reclaimFreePages(VACUUM_STEP_PAGES)) > 0 && left < freePages) {
+                    freePages = left;
+                }
+
+            } catch (RuntimeException e) {
+                // Исключение, выброшенное из задачи, остановило бы все следующие запуски и пропало бы в ее Future,
+                // поэтому оно целиком (со стеком и причиной) отдается обработчику неперехваченных исключений потока
+                var thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static int freePages(Statement statement) throws SQLException {
+        try (var resultSet = statement.executeQuery(SQLQuery.FREELIST_COUNT)) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * DAO для сохраненных ответов геокодера.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.GeocodingEntry;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.SQLException;
+
+/**
+ * Класс GeocodingCacheDAO предоставляет методы для взаимодействия с таблицей Geocoding_cache в базе данных.
+ * Устаревшие ответы не возвращаются, а удаляются отдельно через deleteExpired().
+ */
+@RequiredArgsConstructor
+public class GeocodingCacheDAO {
+    private final ConnectionPool pool;
+
+    /**
+     * Метод find() загружает сохраненный ответ геокодера.
+     *
+     * @param key       Ключ ответа.
+     * @param notBefore Самое раннее время ответа в миллисекундах, более старые ответы считаются устаревшими.
+     * @return Ответ или null, если его нет или он устарел.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных.
+     */
+    public GeocodingEntry find(String key, long notBefore) {
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_GEOCODING)) {
+
+            preparedStatement.setString(1, key);
+            preparedStatement.setLong(2, notBefore);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? new GeocodingEntry(resultSet.getString(1), resultSet.getLong(2)) : null;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении данных из таблицы Geocoding_cache", e);
+        }
+    }
+
+    /**
+     * Метод save() сохраняет ответ геокодера, заменяя старый с тем же ключом.
+     *
+     * @param key     Ключ ответа.
+     * @param value   Ответ.
+     * @param savedAt Время ответа в миллисекундах.
+     * @throws RuntimeException Если произошла ошибка при записи в базу данных.
+     */
+    public void save(String key, String value, long savedAt) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.INSERT_GEOCODING)) {
+
+            preparedStatement.setString(1, key);
+            preparedStatement.setString(2, value);
+            preparedStatement.setLong(3, savedAt);
+            preparedStatement.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при вставке данных в таблицу Geocoding_cache", e);
+        }
+    }
+
+    /**
+     * Метод deleteExpired() удаляет устаревшие ответы.
+     *
+     * @param notBefore Ответы раньше этого времени в миллисекундах удаляются.
+     * @return Сколько ответов удалено.
+     * @throws RuntimeException Если произошла ошибка при удалении из базы данных.
+     */
+    public int deleteExpired(long notBefore) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.DELETE_EXPIRED_GEOCODING)) {
+
+            preparedStatement.setLong(1, notBefore);
+            return preparedStatement.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при удалении данных из таблицы Geocoding_cache", e);
+        }
+    }
+}
@@ -5,19 +5,30 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
 
 import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PeopleChanges;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
 
-import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Класс PeoplesDAO предоставляет методы для взаимодействия с таблицей Peoples в базе данных.
  */
 @RequiredArgsConstructor
 public class PeoplesDAO {
-    private final Connection connection;
+    // Триграммный индекс не находит строки короче трех символов
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private final ConnectionPool pool;
 
 
     /**
@@ -28,18 +39,34 @@ public class PeoplesDAO {
      * @throws RuntimeException Если произошла ошибка при вставке людей в базу данных.
      */
     public void insert(List<Person> people, int remainingInfoId) {
+        insertAll(List.of(people), new int[]{remainingInfoId});
+    }
+
+    /**
+     * Метод insertAll() вставляет людей нескольких клиентов одним пакетом через один подготовленный запрос.
+     * Транзакцией управляет вызывающий код, здесь ее нет.
+     *
+     * @param peopleGroups     Списки людей, по одному на клиента.
+     * @param remainingInfoIds ID строк Remaining_info для каждого списка людей (в том же порядке).
+     * @throws RuntimeException Если произошла ошибка при вставке людей в базу данных.
+     */
+    public void insertAll(List<List<Person>> peopleGroups, int[] remainingInfoIds) {
 
-        try (var preparedStatement = connection.prepareStatement(SQLQuery.INSERT_HUMAN)) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.INSERT_HUMAN)) {
 
-            for (Person person : people) {
+            for (int i = 0; i < remainingInfoIds.length; i++) {
 
-                preparedStatement.setString(1, person.getSecondName());
-                preparedStatement.setString(2, person.getFirstName());
-                preparedStatement.setString(3, person.getPatronymic());
-                preparedStatement.setInt(4, person.getPost());
-                preparedStatement.setInt(5, remainingInfoId);
+                for (Person person : peopleGroups.get(i)) {
 
-                preparedStatement.addBatch();
+                    preparedStatement.setString(1, person.getSecondName());
+                    preparedStatement.setString(2, person.getFirstName());
+                    preparedStatement.setString(3, person.getPatronymic());
+                    preparedStatement.setInt(4, person.getPost());
+                    preparedStatement.setInt(5, remainingInfoIds[i]);
+
+                    preparedStatement.addBatch();
+                }
             }
 
             preparedStatement.executeBatch();
@@ -49,4 +76,341 @@ public class PeoplesDAO {
         }
     }
 
+    /**
+     * Метод markDeleted() мягко удаляет людей: помечает их временем удаления, после чего они пропадают из всех выборок.
+     * Файлы и сами строки остаются, пока их не удалит purgeDeleted(), поэтому удаление можно отменить через restore().
+     *
+     * @param ids       ID людей.
+     * @param deletedAt Время удаления в миллисекундах с начала эпохи.
+     * @return Сколько людей помечено (уже помеченные не считаются).
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public int markDeleted(List<Integer> ids, long deletedAt) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.MARK_PEOPLES_DELETED)) {
+
+            for (var id : ids) {
+                preparedStatement.setLong(1, deletedAt);
+                preparedStatement.setInt(2, id);
+                preparedStatement.addBatch();
+            }
+
+            return Arrays.stream(preparedStatement.executeBatch()).sum();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при удалении людей из базы данных", e);
+        }
+    }
+
+    /**
+     * Метод restore() снимает с людей пометку об удалении. Окончательно удаленных людей вернуть уже нельзя.
+     *
+     * @param ids ID людей.
+     * @return Сколько людей возвращено.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public int restore(List<Integer> ids) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.RESTORE_PEOPLES)) {
+
+            for (var id : ids) {
+                preparedStatement.setInt(1, id);
+                preparedStatement.addBatch();
+            }
+
+            return Arrays.stream(preparedStatement.executeBatch()).sum();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при восстановлении людей в базе данных", e);
+        }
+    }
+
+    /**
+     * Метод purgeDeleted() окончательно удаляет людей, помеченных удаленными не позже заданного времени.
+     * Транзакцией управляет вызывающий код: в ней же нужно удалить ставшие ненужными строки Remaining_info.
+     *
+     * @param deletedBefore Время в миллисекундах с начала эпохи.
+     * @return ID строк Remaining_info, на которые ссылались удаленные люди.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public List<Integer> purgeDeleted(long deletedBefore) {
+        var remainingInfoIds = new ArrayList<Integer>();
+
+        try (var pooled = pool.borrowWriter()) {
+
+            try (var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_PURGED_REMAINING_INFO)) {
+                preparedStatement.setLong(1, deletedBefore);
+
+                try (var resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        remainingInfoIds.add(resultSet.getInt(1));
+                    }
+                }
+            }
+
+            try (var preparedStatement = pooled.connection().prepareStatement(SQLQuery.PURGE_PEOPLES)) {
+                preparedStatement.setLong(1, deletedBefore);
+                preparedStatement.executeUpdate();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при окончательном удалении людей из базы данных", e);
+        }
+
+        return remainingInfoIds;
+    }
+
+    /**
+     * Метод loadPage() загружает одну страницу людей без файлов.
+     * Используется keyset-пагинация: следующая страница начинается после последнего id предыдущей,
+     * поэтому запрос не деградирует на дальних страницах, как OFFSET.
+     *
+     * @param afterId ID человека, после которого начинается страница (0 - с самого начала).
+     * @param limit   Максимальное количество строк на странице.
+     * @return Список объектов PersonInfo, отсортированный по id.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public List<PersonInfo> loadPage(int afterId, int limit) {
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.JOIN_TABLES_PAGE)) {
+
+            preparedStatement.setInt(1, afterId);
+            preparedStatement.setInt(2, limit);
+
+            return readPersonInfos(preparedStatement, limit);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Не получилось соединить данные таблиц", e);
+        }
+    }
+
+    /**
+     * Метод count() возвращает количество людей в таблице Peoples.
+     *
+     * @return Количество людей.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public int count() {
+        try (var pooled = pool.borrowReader();
+             var statement = pooled.connection().createStatement();
+             var resultSet = statement.executeQuery(SQLQuery.COUNT_PEOPLES)) {
+
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при подсчете людей в базе данных", e);
+        }
+    }
+
+    /**
+     * Метод search() ищет людей по фамилии, имени или отчеству и возвращает одну страницу результатов.
+     * Слова от трех символов ищутся как подстроки через триграммный индекс Peoples_search (все слова должны найтись),
+     * более короткий запрос ищется как начало ФИО через обычные индексы Peoples.
+     * В обоих случаях просматриваются только подходящие строки, а не вся таблица. Ё и е не различаются.
+     *
+     * @param keyword Строка поиска.
+     * @param afterId ID человека, после которого начинается страница (0 - с самого начала).
+     * @param limit   Максимальное количество строк на странице.
+     * @return Список найденных людей, отсортированный по id.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public List<PersonInfo> search(String keyword, int afterId, int limit) {
+        if (keyword.isBlank()) {
+            return List.of();
+        }
+
+        var words = keyword.strip().split("\\s+");
+
+        var substrings = Arrays.stream(words)
+                .filter(word -> word.codePointCount(0, word.length()) >= MIN_SUBSTRING_LENGTH)
+                .toList();
+
+        try (var pooled = pool.borrowReader()) {
+
+            if (substrings.isEmpty()) {
+                try (var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SEARCH_PEOPLES_PREFIX)) {
+
+                    // ФИО в Peoples хранятся как есть, поэтому начало с е ищется и с е, и с ё, а страницы сливаются по id
+                    var found = new TreeMap<Integer, PersonInfo>();
+
+                    for (var prefix : yoVariants(capitalize(words[0]))) {
+                        bindPrefix(preparedStatement, prefix, afterId, limit);
+                        readPersonInfos(preparedStatement, limit).forEach(personInfo -> found.putIfAbsent(personInfo.getId(), personInfo));
+                    }
+
+                    return found.values().stream().limit(limit).toList();
+                }
+            }
+
+            try (var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SEARCH_PEOPLES_SUBSTRING)) {
+
+                preparedStatement.setString(1, toMatchQuery(substrings));
+                preparedStatement.setInt(2, afterId);
+                preparedStatement.setInt(3, limit);
+
+                return readPersonInfos(preparedStatement, limit);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при поиске людей в базе данных", e);
+        }
+    }
+
+    /**
+     * Метод lastChange() возвращает номер последнего изменения таблицы Peoples из журнала Peoples_changes.
+     * Его запоминают перед полной загрузкой, чтобы потом запрашивать только более поздние изменения.
+     *
+     * @return Номер последнего изменения (0, если изменений не было).
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public long lastChange() {
+        try (var pooled = pool.borrowReader();
+             var statement = pooled.connection().createStatement();
+             var resultSet = statement.executeQuery(SQLQuery.LAST_PEOPLES_CHANGE)) {
+
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении журнала изменений Peoples", e);
+        }
+    }
+
+    /**
+     * Метод loadChanges() загружает людей, которые изменились после заданного номера изменения.
+     * Несколько изменений одного человека схлопываются в одно: возвращается его текущее состояние
+     * или его id среди удаленных, поэтому объем выборки зависит от числа изменившихся людей, а не от размера таблицы.
+     *
+     * @param afterChange Номер изменения, после которого нужны изменения.
+     * @return Изменения после afterChange.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public PeopleChanges loadChanges(long afterChange) {
+        var changed = new ArrayList<PersonInfo>();
+        var deletedIds = new ArrayList<Integer>();
+        var lastChange = afterChange;
+        var complete = true;
+
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_PEOPLES_CHANGES)) {
+
+            preparedStatement.setLong(1, afterChange);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+
+                while (resultSet.next()) {
+                    lastChange = Math.max(lastChange, resultSet.getLong("seq"));
+                    // Записи между afterChange и самой старой записью журнала уже удалены
+                    complete &= resultSet.getLong("first_seq") <= afterChange + 1;
+
+                    if (resultSet.getObject("id") == null) {
+                        deletedIds.add(resultSet.getInt("people_id"));
+                        continue;
+                    }
+
+                    changed.add(new PersonInfo(
+                            resultSet.getInt("id"),
+                            resultSet.getInt("remaining_info"),
+                            resultSet.getString("first_name"),
+                            resultSet.getString("last_name"),
+                            resultSet.getString("patronymic")
+                    ));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении изменений таблицы Peoples", e);
+        }
+
+        return new PeopleChanges(lastChange, complete, changed, deletedIds);
+    }
+
+    /**
+     * Метод trimChanges() удаляет из журнала Peoples_changes все записи, кроме последних.
+     * Тот, кто отстал больше чем на retained изменений, узнает об этом из PeopleChanges.complete()
+     * и перечитывает таблицу целиком.
+     *
+     * @param retained Сколько последних записей оставить.
+     * @throws RuntimeException Если произошла ошибка при выполнении SQL-запроса.
+     */
+    public void trimChanges(long retained) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.TRIM_PEOPLES_CHANGES)) {
+
+            preparedStatement.setLong(1, retained);
+            preparedStatement.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при очистке журнала изменений Peoples", e);
+        }
+    }
+
+    // ФИО хранятся с заглавной буквы, а индекс чувствителен к регистру
+    private static String capitalize(String word) {
+        return word.substring(0, 1).toUpperCase(Locale.ROOT) + word.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    // Все написания начала ФИО через е и ё: ё идет в алфавите Unicode после я, поэтому в диапазон с е она не попадает
+    static List<String> yoVariants(String prefix) {
+        var variants = List.of(foldYo(prefix));
+
+        for (int i = 0; i < prefix.length(); i++) {
+            var position = i;
+            var letter = variants.getFirst().charAt(position);
+
+            if (letter == 'е' || letter == 'Е') {
+                var yo = letter == 'е' ? 'ё' : 'Ё';
+                variants = variants.stream()
+                        .flatMap(variant -> Stream.of(variant,
+                                variant.substring(0, position) + yo + variant.substring(position + 1)))
+                        .toList();
+            }
+        }
+
+        return variants;
+    }
+
+    // Индекс Peoples_search хранит ФИО, где ё заменена на е, поэтому и запрос приводится к е
+    static String foldYo(String text) {
+        return text.replace('ё', 'е').replace('Ё', 'Е');
+    }
+
+    // Диапазон [prefix, следующий за prefix) по каждому столбцу ФИО
+    private static void bindPrefix(PreparedStatement preparedStatement,
+                                   String prefix, int afterId, int limit) throws SQLException {
+        var upperBound = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+
+        for (int column = 0; column < 3; column++) {
+            preparedStatement.setString(column * 2 + 1, prefix);
+            preparedStatement.setString(column * 2 + 2, upperBound);
+        }
+        preparedStatement.setInt(7, afterId);
+        preparedStatement.setInt(8, limit);
+    }
+
+    // Каждое слово - отдельная фраза в кавычках, FTS5 ищет строки, где есть все фразы
+    private static String toMatchQuery(List<String> substrings) {
+        return substrings.stream()
+                .map(word -> '"' + foldYo(word).replace("\"", "\"\"") + '"')
+                .collect(Collectors.joining(" "));
+    }
+
+    private static List<PersonInfo> readPersonInfos(PreparedStatement preparedStatement, int limit) throws SQLException {
+        var personInfos = new ArrayList<PersonInfo>(limit);
+
+        try (var resultSet = preparedStatement.executeQuery()) {
+
+            while (resultSet.next()) {
+                var id = resultSet.getInt("id");
+                var remainingInfoId = resultSet.getInt("remaining_info");
+                var firstName = resultSet.getString("first_name");
+                var lastName = resultSet.getString("last_name");
+                var patronymic = resultSet.getString("patronymic");
+
+                personInfos.add(new PersonInfo(id, remainingInfoId, firstName, lastName, patronymic));
+            }
+        }
+
+        return personInfos;
+    }
+
 }
@@ -0,0 +1,42 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import java.sql.Connection;
+
+/**
+ * Класс PooledConnection - соединение, выданное пулом на время операции.
+ * Его нужно закрывать через try-with-resources: при закрытии соединение не закрывается, а возвращается в пул.
+ * Повторная выдача в том же потоке увеличивает счетчик, и в пул соединение вернется после последнего закрытия.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private final Connection connection;
+    private final Runnable release;
+    private int holds = 1;
+
+    PooledConnection(Connection connection, Runnable release) {
+        this.connection = connection;
+        this.release = release;
+    }
+
+    /**
+     * @return Само соединение с базой данных. Закрывать его напрямую нельзя.
+     */
+    public Connection connection() {
+        return connection;
+    }
+
+    // Повторная выдача того же соединения в том же потоке
+    void retain() {
+        holds++;
+    }
+
+    /**
+     * Метод close() возвращает соединение в пул, когда его отпустил последний владелец в потоке.
+     */
+    @Override
+    public void close() {
+        if (--holds == 0) {
+            release.run();
+        }
+    }
+}
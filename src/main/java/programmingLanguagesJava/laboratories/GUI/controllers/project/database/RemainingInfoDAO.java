@@ -5,54 +5,233 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
 
 import lombok.RequiredArgsConstructor;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.FileUtil;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
 
-import java.sql.Connection;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.SQLException;
-import java.util.OptionalInt;
+import java.sql.Statement;
+import java.util.List;
 
 /**
  * Класс RemainingInfoDAO предоставляет методы для взаимодействия с таблицей Remaining_info в базе данных.
  */
 @RequiredArgsConstructor
 public class RemainingInfoDAO {
-    private final Connection connection;
+    private final ConnectionPool pool;
+    private final BlobDAO blobDAO;
 
 
     /**
      * Метод insert() вставляет данные в таблицу Remaining_info в базе данных.
+     * Файлы не читаются в память целиком, а потоково пишутся частями через BlobDAO.
      *
      * @param pathToFile   Путь к файлу, который нужно вставить в таблицу.
      * @param buildingPlan План здания, который нужно вставить в таблицу.
+     * @return ID вставленной строки, который вернула сама база данных.
      * @throws RuntimeException Если произошла ошибка при вставке данных в базу данных.
      */
-    public void insert(String pathToFile, String buildingPlan) {
-        try (var preparedStatement = connection.prepareStatement(SQLQuery.INSERT_REMAINING)) {
+    public int insert(String pathToFile, String buildingPlan) {
+        return insertAll(List.of(new ClientRecord(pathToFile, buildingPlan, List.of())))[0];
+    }
+
+    /**
+     * Метод insertAll() вставляет строки для нескольких клиентов через один подготовленный запрос.
+     * Если файлы клиента подготовлены заранее (ClientRecord.prepared()), они не читаются ради хеша повторно.
+     * ID каждой строки берется из getGeneratedKeys(), а не угадывается через MAX(id).
+     * Транзакцией управляет вызывающий код, здесь ее нет.
+     *
+     * @param clients Клиенты, для которых нужно вставить договор и план здания.
+     * @return ID вставленных строк в том же порядке, что и клиенты.
+     * @throws RuntimeException Если произошла ошибка при вставке данных в базу данных.
+     */
+    public int[] insertAll(List<ClientRecord> clients) {
+        var ids = new int[clients.size()];
+
+        try (var blobWriter = blobDAO.openWriter();
+             var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.INSERT_REMAINING, Statement.RETURN_GENERATED_KEYS)) {
 
-            preparedStatement.setBytes(1, FileUtil.readBytesFromFile(pathToFile));
-            preparedStatement.setBytes(2, FileUtil.readBytesFromFile(buildingPlan));
-            preparedStatement.executeUpdate();
+            for (int i = 0; i < ids.length; i++) {
+                var client = clients.get(i);
+
+                preparedStatement.setInt(1, client.document() != null
+                        ? blobWriter.write(client.document()) : blobWriter.write(client.pathToFile()));
+                preparedStatement.setInt(2, client.plan() != null
+                        ? blobWriter.write(client.plan()) : blobWriter.write(client.buildingPlan()));
+                preparedStatement.executeUpdate();
+
+                try (var keys = preparedStatement.getGeneratedKeys()) {
+                    keys.next();
+                    ids[i] = keys.getInt(1);
+                }
+            }
 
         } catch (SQLException e) {
             throw new RuntimeException("Ошибка при вставке данных в таблицу Remaining_info", e);
         }
+
+        return ids;
+    }
+
+    /**
+     * Метод deleteOrphans() удаляет строки Remaining_info, на которые больше не ссылается ни один человек,
+     * и освобождает их файлы (файл удаляется, когда на него не осталось ссылок, см. BlobDAO.release()).
+     * Транзакцией управляет вызывающий код, здесь ее нет.
+     *
+     * @param ids ID строк Remaining_info, которые нужно проверить.
+     * @return Сколько строк удалено.
+     * @throws RuntimeException Если произошла ошибка при удалении данных из базы данных.
+     */
+    public int deleteOrphans(List<Integer> ids) {
+        var deleted = 0;
+
+        try (var pooled = pool.borrowWriter();
+             var selectStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_ORPHAN_REMAINING_INFO);
+             var deleteStatement = pooled.connection().prepareStatement(SQLQuery.DELETE_REMAINING_INFO)) {
+
+            for (var id : ids) {
+                selectStatement.setInt(1, id);
+
+                int documentBlobId, planBlobId;
+                try (var resultSet = selectStatement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        continue;
+                    }
+                    documentBlobId = resultSet.getInt(1);
+                    planBlobId = resultSet.getInt(2);
+                }
+
+                deleteStatement.setInt(1, id);
+                deleted += deleteStatement.executeUpdate();
+
+                // 0 - старая строка, где файл лежал прямо в ней и удалился вместе с ней
+                if (documentBlobId != 0) {
+                    blobDAO.release(documentBlobId);
+                }
+                if (planBlobId != 0) {
+                    blobDAO.release(planBlobId);
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при удалении данных из таблицы Remaining_info", e);
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Метод loadBlob() загружает один файл из таблицы Remaining_info целиком.
+     * Для больших файлов лучше использовать copyBlobTo(), который не держит файл в памяти.
+     *
+     * @param id     ID строки в таблице Remaining_info.
+     * @param column Столбец, из которого нужно достать файл.
+     * @return Массив байтов файла.
+     * @throws RuntimeException Если произошла ошибка при чтении файла из базы данных.
+     */
+    public byte[] loadBlob(int id, BlobColumn column) {
+        var outputStream = new ByteArrayOutputStream();
+        copyBlobTo(id, column, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Метод copyBlobTo() потоково копирует файл строки Remaining_info в выходной поток.
+     * Новые строки читаются по частям из Blob_chunks, старые строки - из столбца самой таблицы.
+     *
+     * @param id           ID строки в таблице Remaining_info.
+     * @param column       Столбец, из которого нужно достать файл.
+     * @param outputStream Поток, куда нужно записать файл.
+     * @throws RuntimeException Если произошла ошибка при чтении файла из базы данных.
+     */
+    public void copyBlobTo(int id, BlobColumn column, OutputStream outputStream) {
+        readBlob(id, column, inputStream -> inputStream.transferTo(outputStream));
+    }
+
+    /**
+     * Метод readBlob() отдает файл строки Remaining_info читателю потоком, не загружая его в память целиком.
+     * Новые строки читаются по частям из Blob_chunks, старые строки - из столбца самой таблицы.
+     *
+     * @param id     ID строки в таблице Remaining_info.
+     * @param column Столбец, из которого нужно достать файл.
+     * @param reader Что сделать с потоком файла.
+     * @return Результат читателя или null, если файла нет.
+     * @throws RuntimeException Если произошла ошибка при чтении файла из базы данных или в самом читателе.
+     */
+    public <T> T readBlob(int id, BlobColumn column, BlobReader<T> reader) {
+        var query = String.format(SQLQuery.SELECT_BLOB_REF, column.getBlobIdColumnName(), column.getColumnName());
+
+        int blobId;
+        boolean isLegacy;
+
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(query)) {
+
+            preparedStatement.setInt(1, id);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                blobId = resultSet.getInt(1);
+                isLegacy = resultSet.getBoolean(2);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении файла из таблицы Remaining_info", e);
+        }
+
+        if (blobId != 0) {
+            return blobDAO.read(blobId, reader);
+        }
+        return isLegacy ? readLegacyBlob(id, column, reader) : null;
     }
 
     /**
-     * Метод getLastIndex() возвращает последний индекс из таблицы Remaining_info.
+     * Метод blobId() возвращает ID файла строки Remaining_info в таблице Blobs.
      *
-     * @return Последний индекс из таблицы Remaining_info.
-     * @throws RuntimeException Если произошла ошибка при получении последнего индекса из базы данных.
+     * @param id     ID строки в таблице Remaining_info.
+     * @param column Столбец с файлом.
+     * @return ID файла в Blobs или 0, если файла нет или он еще лежит прямо в строке.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных.
      */
-    public int getLastIndex() {
-        try (var resultSet = connection.createStatement().executeQuery(SQLQuery.MAX_ID)) {
+    public int blobId(int id, BlobColumn column) {
+        var query = String.format(SQLQuery.SELECT_BLOB_REF, column.getBlobIdColumnName(), column.getColumnName());
+
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(query)) {
 
-            return OptionalInt.of(resultSet.getInt(1)).orElse(0);
+            preparedStatement.setInt(1, id);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
 
         } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении данных из таблицы Remaining_info", e);
+        }
+    }
+
+    // Старые строки хранят файл целиком в самой таблице, поэтому здесь он читается за один раз
+    private <T> T readLegacyBlob(int id, BlobColumn column, BlobReader<T> reader) {
+        var query = String.format(SQLQuery.SELECT_BLOB, column.getColumnName());
+
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(query)) {
+
+            preparedStatement.setInt(1, id);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? reader.read(new ByteArrayInputStream(resultSet.getBytes(1))) : null;
+            }
 
-            throw new RuntimeException("Ошибка при получении последнего индекса из таблицы Remaining_info", e);
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Ошибка при чтении файла из таблицы Remaining_info", e);
         }
     }
 }
@@ -0,0 +1,15 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Функциональный интерфейс для действия с соединением, которое может бросить SQLException.
+ * Используется для выполнения нескольких запросов в одной транзакции.
+ *
+ * @param <T> Тип результата действия.
+ */
+@FunctionalInterface
+public interface SQLAction<T> {
+    T execute(Connection connection) throws SQLException;
+}
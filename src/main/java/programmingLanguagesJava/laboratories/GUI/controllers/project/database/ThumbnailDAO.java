@@ -0,0 +1,65 @@
+/**
+ * DAO для уменьшенных копий файлов, которые показываются прямо в таблице.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.SQLException;
+
+/**
+ * Класс ThumbnailDAO предоставляет методы для взаимодействия с таблицей Thumbnails в базе данных.
+ * Копии хранятся по ID файла в Blobs и размеру, удаляются вместе с файлом (см. BlobDAO.delete()).
+ */
+@RequiredArgsConstructor
+public class ThumbnailDAO {
+    private final ConnectionPool pool;
+
+    /**
+     * Метод find() загружает сохраненную уменьшенную копию файла.
+     *
+     * @param blobId ID файла в таблице Blobs.
+     * @param size   Размер копии в пикселях (по большей стороне).
+     * @return PNG-изображение или null, если копии такого размера еще нет.
+     * @throws RuntimeException Если произошла ошибка при чтении из базы данных.
+     */
+    public byte[] find(int blobId, int size) {
+        try (var pooled = pool.borrowReader();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.SELECT_THUMBNAIL)) {
+
+            preparedStatement.setInt(1, blobId);
+            preparedStatement.setInt(2, size);
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getBytes(1) : null;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при чтении данных из таблицы Thumbnails", e);
+        }
+    }
+
+    /**
+     * Метод save() сохраняет уменьшенную копию файла, заменяя старую того же размера.
+     *
+     * @param blobId ID файла в таблице Blobs.
+     * @param size   Размер копии в пикселях (по большей стороне).
+     * @param image  PNG-изображение.
+     * @throws RuntimeException Если произошла ошибка при записи в базу данных.
+     */
+    public void save(int blobId, int size, byte[] image) {
+        try (var pooled = pool.borrowWriter();
+             var preparedStatement = pooled.connection().prepareStatement(SQLQuery.INSERT_THUMBNAIL)) {
+
+            preparedStatement.setInt(1, blobId);
+            preparedStatement.setInt(2, size);
+            preparedStatement.setBytes(3, image);
+            preparedStatement.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при вставке данных в таблицу Thumbnails", e);
+        }
+    }
+}
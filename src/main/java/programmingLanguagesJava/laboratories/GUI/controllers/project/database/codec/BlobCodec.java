@@ -0,0 +1,95 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Способы сжатия файлов, которые хранятся в базе данных.
+ * Номер способа записывается в заголовок файла (см. BlobFormat), поэтому менять номера нельзя.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BlobCodec {
+
+    // Без сжатия: после заголовка файл хранится как есть
+    NONE(0) {
+        @Override
+        public OutputStream encode(OutputStream outputStream) {
+            return outputStream;
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return inputStream;
+        }
+    },
+
+    // Deflate из JDK: сжимает лучше, но медленнее
+    DEFLATE(1) {
+        @Override
+        public OutputStream encode(OutputStream outputStream) {
+            return new DeflaterOutputStream(outputStream, true);
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return new InflaterInputStream(inputStream);
+        }
+    },
+
+    // Блочный LZ: сжимает хуже deflate, но распаковывается в разы быстрее
+    LZ(2) {
+        @Override
+        public OutputStream encode(OutputStream outputStream) {
+            return new LzOutputStream(outputStream);
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return new LzInputStream(inputStream);
+        }
+    };
+
+    private final int id;
+
+
+    /**
+     * Метод encode() оборачивает поток так, что все записанное в обертку сжимается.
+     * Закрытие обертки дописывает остаток данных и закрывает исходный поток.
+     *
+     * @param outputStream Поток, куда пишутся сжатые данные.
+     * @return Поток, в который нужно писать исходные данные.
+     * @throws IOException Если не удалось начать запись.
+     */
+    public abstract OutputStream encode(OutputStream outputStream) throws IOException;
+
+    /**
+     * Метод decode() оборачивает поток сжатых данных так, что из обертки читаются исходные данные.
+     *
+     * @param inputStream Поток со сжатыми данными.
+     * @return Поток с исходными данными.
+     * @throws IOException Если не удалось начать чтение.
+     */
+    public abstract InputStream decode(InputStream inputStream) throws IOException;
+
+    /**
+     * Метод byId() возвращает способ сжатия по номеру из заголовка.
+     *
+     * @param id Номер способа сжатия.
+     * @return Способ сжатия или null, если такого номера нет.
+     */
+    public static BlobCodec byId(int id) {
+        for (var codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
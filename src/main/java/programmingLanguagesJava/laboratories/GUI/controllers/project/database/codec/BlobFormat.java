@@ -0,0 +1,64 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Класс BlobFormat отвечает за заголовок сжатого файла в базе данных.
+ * Заголовок - это сигнатура и номер способа сжатия. Новые файлы пишутся с заголовком всегда, даже несжатые:
+ * иначе несжатый файл, который сам начинается с сигнатуры, читался бы как сжатый.
+ * Без заголовка остались только старые строки, записанные до появления сжатия, они читаются как есть.
+ */
+public final class BlobFormat {
+
+    // Нулевой байт в начале не встречается в docx, png и других форматах, поэтому старые файлы без заголовка с ней не путаются
+    private static final byte[] MAGIC = {0, 'B', 'L', 'C'};
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+
+    private BlobFormat() {
+    }
+
+    /**
+     * Метод encode() пишет заголовок (и для BlobCodec.NONE тоже) и оборачивает поток выбранным способом сжатия.
+     *
+     * @param outputStream Поток, куда пишется файл в базе данных.
+     * @param codec        Способ сжатия.
+     * @return Поток, в который нужно писать исходный файл.
+     * @throws IOException Если не удалось записать заголовок.
+     */
+    public static OutputStream encode(OutputStream outputStream, BlobCodec codec) throws IOException {
+        outputStream.write(MAGIC);
+        outputStream.write(codec.getId());
+        return codec.encode(outputStream);
+    }
+
+    /**
+     * Метод decode() читает заголовок и возвращает поток с исходным файлом.
+     * Если заголовка нет, это старый несжатый файл, и он возвращается как есть.
+     *
+     * @param inputStream Поток с файлом из базы данных.
+     * @return Поток с исходным файлом.
+     * @throws IOException Если файл не удалось прочитать или способ сжатия неизвестен.
+     */
+    public static InputStream decode(InputStream inputStream) throws IOException {
+        var buffered = new BufferedInputStream(inputStream);
+        buffered.mark(HEADER_SIZE);
+
+        var header = buffered.readNBytes(HEADER_SIZE);
+
+        if (header.length < HEADER_SIZE || !Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            buffered.reset();
+            return buffered;
+        }
+
+        var codec = BlobCodec.byId(header[MAGIC.length]);
+        if (codec == null) {
+            throw new IOException("Неизвестный способ сжатия файла: " + header[MAGIC.length]);
+        }
+
+        return codec.decode(buffered);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Сравнение способов сжатия на настоящих файлах.
+ * Запуск: gradlew codecBenchmark --args="папка_с_планами [повторов]"
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Класс CodecBenchmark сжимает и распаковывает файлы каждым способом и печатает
+ * степень сжатия и скорость. Для каждого способа берется лучшее время из нескольких повторов,
+ * чтобы не мерить прогрев JIT.
+ */
+public class CodecBenchmark {
+
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    /**
+     * Точка запуска сравнения из консоли.
+     *
+     * @param args файл или папка с файлами, затем необязательное количество повторов (5).
+     * @throws IOException Если не удалось прочитать файлы.
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length == 0) {
+            System.err.println("Использование: CodecBenchmark <файл|папка> [повторов]");
+            System.exit(1);
+        }
+
+        var repeats = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        var files = collectFiles(Paths.get(args[0]));
+
+        System.out.printf("%-40s %-8s %12s %12s %8s %10s %10s%n",
+                "Файл", "Способ", "Исходный", "Сжатый", "Доля", "Сжатие", "Распаковка");
+
+        for (var file : files) {
+            var content = Files.readAllBytes(file);
+
+            for (var codec : BlobCodec.values()) {
+                var result = measure(codec, content, repeats);
+
+                System.out.printf("%-40s %-8s %12d %12d %7.1f%% %7.1f МБ/с %7.1f МБ/с%n",
+                        file.getFileName(), codec, content.length, result.compressedSize(),
+                        100.0 * result.compressedSize() / Math.max(content.length, 1),
+                        throughput(content.length, result.encodeNanos()),
+                        throughput(content.length, result.decodeNanos()));
+            }
+
+            System.out.printf("%-40s выбран способ %s%n", file.getFileName(),
+                    CodecSelector.select(file.getFileName().toString(), content));
+        }
+    }
+
+    private static Result measure(BlobCodec codec, byte[] content, int repeats) throws IOException {
+        long bestEncode = Long.MAX_VALUE;
+        long bestDecode = Long.MAX_VALUE;
+        byte[] encoded = new byte[0];
+
+        for (int i = 0; i < repeats; i++) {
+            var outputStream = new ByteArrayOutputStream(content.length);
+
+            var start = System.nanoTime();
+            try (var encoder = BlobFormat.encode(outputStream, codec)) {
+                encoder.write(content);
+            }
+            bestEncode = Math.min(bestEncode, System.nanoTime() - start);
+            encoded = outputStream.toByteArray();
+
+            start = System.nanoTime();
+            try (var decoder = BlobFormat.decode(new ByteArrayInputStream(encoded))) {
+                decoder.transferTo(OutputStream.nullOutputStream());
+            }
+            bestDecode = Math.min(bestDecode, System.nanoTime() - start);
+        }
+
+        return new Result(encoded.length, bestEncode, bestDecode);
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        return bytes / MEGABYTE / (nanos / 1e9);
+    }
+
+    private static List<Path> collectFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+
+        try (Stream<Path> walk = Files.walk(path)) {
+            return walk.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    private record Result(int compressedSize, long encodeNanos, long decodeNanos) {
+    }
+}
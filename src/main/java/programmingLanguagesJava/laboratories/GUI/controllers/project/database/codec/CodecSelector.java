@@ -0,0 +1,88 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Класс CodecSelector выбирает способ сжатия по типу файла.
+ * Уже сжатые форматы (docx, png, zip) повторно не сжимаются: выигрыша нет, а время тратится.
+ * Способ можно задать для всех файлов через -Ddatabase.blob.codec=NONE|DEFLATE|LZ.
+ */
+public final class CodecSelector {
+
+    private static final String FORCED_CODEC = System.getProperty("database.blob.codec");
+
+    private static final Map<String, BlobCodec> BY_EXTENSION = Map.ofEntries(
+            // Уже сжатые форматы
+            Map.entry("docx", BlobCodec.NONE),
+            Map.entry("xlsx", BlobCodec.NONE),
+            Map.entry("zip", BlobCodec.NONE),
+            Map.entry("png", BlobCodec.NONE),
+            Map.entry("jpg", BlobCodec.NONE),
+            Map.entry("jpeg", BlobCodec.NONE),
+            Map.entry("gif", BlobCodec.NONE),
+            Map.entry("gz", BlobCodec.NONE),
+            Map.entry("7z", BlobCodec.NONE),
+            Map.entry("pdf", BlobCodec.NONE),
+            // Планы зданий: большие и открываются часто, важна скорость распаковки
+            Map.entry("dwg", BlobCodec.LZ),
+            Map.entry("rvt", BlobCodec.LZ),
+            Map.entry("ifc", BlobCodec.LZ),
+            Map.entry("bmp", BlobCodec.LZ),
+            // Текстовые форматы хорошо сжимаются deflate
+            Map.entry("dxf", BlobCodec.DEFLATE),
+            Map.entry("svg", BlobCodec.DEFLATE),
+            Map.entry("xml", BlobCodec.DEFLATE),
+            Map.entry("txt", BlobCodec.DEFLATE),
+            Map.entry("csv", BlobCodec.DEFLATE)
+    );
+
+    private CodecSelector() {
+    }
+
+    /**
+     * Метод select() выбирает способ сжатия по расширению файла, а если оно неизвестно - по первым байтам.
+     *
+     * @param fileName Имя файла, может быть null, если файл пришел потоком.
+     * @param head     Первые байты файла.
+     * @return Способ сжатия.
+     */
+    public static BlobCodec select(String fileName, byte[] head) {
+
+        if (FORCED_CODEC != null) {
+            return BlobCodec.valueOf(FORCED_CODEC.toUpperCase(Locale.ROOT));
+        }
+
+        if (fileName != null) {
+            var dot = fileName.lastIndexOf('.');
+            var codec = dot < 0 ? null : BY_EXTENSION.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+
+            if (codec != null) {
+                return codec;
+            }
+        }
+
+        return isCompressed(head) ? BlobCodec.NONE : BlobCodec.LZ;
+    }
+
+    // Сигнатуры zip (в том числе docx), png, jpeg, gzip и pdf
+    private static boolean isCompressed(byte[] head) {
+        return startsWith(head, 'P', 'K', 3, 4)
+                || startsWith(head, 0x89, 'P', 'N', 'G')
+                || startsWith(head, 0xFF, 0xD8, 0xFF)
+                || startsWith(head, 0x1F, 0x8B)
+                || startsWith(head, '%', 'P', 'D', 'F');
+    }
+
+    private static boolean startsWith(byte[] head, int... signature) {
+        if (head.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
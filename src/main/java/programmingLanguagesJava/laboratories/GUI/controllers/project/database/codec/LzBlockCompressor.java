@@ -0,0 +1,184 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Класс LzBlockCompressor сжимает один блок данных алгоритмом семейства LZ77 (по мотивам LZ4).
+ * Блок - это последовательность команд: токен, литералы (байты как есть) и ссылка на уже распакованные
+ * данные (смещение назад и длина совпадения). Токен хранит длины литералов и совпадения по 4 бита,
+ * большие длины дописываются байтами по 255.
+ * Поиск совпадений жадный через хеш-таблицу по 4 байтам, поэтому сжатие и распаковка линейные.
+ */
+final class LzBlockCompressor {
+
+    // Максимальный размер блока: смещение хранится в 2 байтах
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_BITS = 14;
+
+    private final int[] table = new int[1 << HASH_BITS];
+
+    /**
+     * @param length Размер исходного блока.
+     * @return Размер буфера, в который гарантированно поместится сжатый блок.
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Метод compress() сжимает блок.
+     *
+     * @param source      Исходные данные.
+     * @param length      Сколько байтов из source сжимать, не больше BLOCK_SIZE.
+     * @param destination Буфер размером не меньше maxCompressedLength(length).
+     * @return Размер сжатых данных.
+     */
+    int compress(byte[] source, int length, byte[] destination) {
+        Arrays.fill(table, -1);
+
+        int position = 0;
+        int anchor = 0;
+        int out = 0;
+
+        while (position <= length - MIN_MATCH) {
+            var value = readInt(source, position);
+            var hash = (value * -1640531535) >>> (32 - HASH_BITS);
+            var candidate = table[hash];
+            table[hash] = position;
+
+            if (candidate < 0 || position - candidate > MAX_OFFSET || readInt(source, candidate) != value) {
+                position++;
+                continue;
+            }
+
+            var matchLength = MIN_MATCH;
+            while (position + matchLength < length && source[candidate + matchLength] == source[position + matchLength]) {
+                matchLength++;
+            }
+
+            var token = out;
+            out = writeSequence(source, anchor, position - anchor, destination, out);
+
+            var offset = position - candidate;
+            destination[out++] = (byte) offset;
+            destination[out++] = (byte) (offset >>> 8);
+
+            var extra = matchLength - MIN_MATCH;
+            if (extra >= 15) {
+                out = writeLength(extra - 15, destination, out);
+            }
+            // Длина совпадения хранится в младших 4 битах токена
+            destination[token] |= (byte) Math.min(extra, 15);
+
+            position += matchLength;
+            anchor = position;
+        }
+
+        // Оставшиеся байты записываются литералами без совпадения
+        return writeSequence(source, anchor, length - anchor, destination, out);
+    }
+
+    // Токен с длиной литералов и сами литералы
+    private static int writeSequence(byte[] source, int from, int literals, byte[] destination, int out) {
+        destination[out++] = (byte) (Math.min(literals, 15) << 4);
+
+        if (literals >= 15) {
+            out = writeLength(literals - 15, destination, out);
+        }
+
+        System.arraycopy(source, from, destination, out, literals);
+        return out + literals;
+    }
+
+    private static int writeLength(int length, byte[] destination, int out) {
+        while (length >= 255) {
+            destination[out++] = (byte) 255;
+            length -= 255;
+        }
+        destination[out++] = (byte) length;
+        return out;
+    }
+
+    /**
+     * Метод decompress() распаковывает блок.
+     *
+     * @param source      Сжатые данные.
+     * @param length      Размер сжатых данных.
+     * @param destination Буфер для исходных данных.
+     * @param rawLength   Размер исходного блока.
+     * @throws IOException Если сжатые данные повреждены.
+     */
+    static void decompress(byte[] source, int length, byte[] destination, int rawLength) throws IOException {
+        int in = 0;
+        int out = 0;
+
+        try {
+
+            while (in < length) {
+                var token = source[in++] & 0xFF;
+
+                var literals = token >>> 4;
+                if (literals == 15) {
+                    int next;
+                    do {
+                        next = source[in++] & 0xFF;
+                        literals += next;
+                    } while (next == 255);
+                }
+
+                if (out + literals > rawLength || in + literals > length) {
+                    throw new IOException("Сжатый блок поврежден: литералы выходят за границы блока");
+                }
+
+                System.arraycopy(source, in, destination, out, literals);
+                in += literals;
+                out += literals;
+
+                if (in >= length) {
+                    break;
+                }
+
+                var offset = (source[in] & 0xFF) | (source[in + 1] & 0xFF) << 8;
+                in += 2;
+
+                var matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int next;
+                    do {
+                        next = source[in++] & 0xFF;
+                        matchLength += next;
+                    } while (next == 255);
+                }
+                matchLength += MIN_MATCH;
+
+                var reference = out - offset;
+                if (offset == 0 || reference < 0 || out + matchLength > rawLength) {
+                    throw new IOException("Сжатый блок поврежден: неверная ссылка на совпадение");
+                }
+
+                // Совпадение может перекрываться с тем, что сейчас пишется, поэтому копирование побайтовое
+                for (int i = 0; i < matchLength; i++) {
+                    destination[out++] = destination[reference++];
+                }
+            }
+
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Сжатый блок поврежден: данные оборваны", e);
+        }
+
+        if (out != rawLength) {
+            throw new IOException("Сжатый блок поврежден: распаковано " + out + " байт вместо " + rawLength);
+        }
+    }
+
+    private static int readInt(byte[] source, int position) {
+        return (source[position] & 0xFF)
+                | (source[position + 1] & 0xFF) << 8
+                | (source[position + 2] & 0xFF) << 16
+                | (source[position + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,82 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток, который распаковывает данные, записанные LzOutputStream, блок за блоком.
+ */
+public class LzInputStream extends InputStream {
+
+    private final DataInputStream inputStream;
+    private final byte[] block = new byte[LzBlockCompressor.BLOCK_SIZE];
+    private final byte[] compressed = new byte[LzBlockCompressor.maxCompressedLength(LzBlockCompressor.BLOCK_SIZE)];
+    private int position;
+    private int limit;
+    private boolean finished;
+
+    public LzInputStream(InputStream inputStream) {
+        this.inputStream = new DataInputStream(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !readBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == limit && !readBlock()) {
+            return -1;
+        }
+
+        var count = Math.min(length, limit - position);
+        System.arraycopy(block, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    // Чтение и распаковка следующего блока, false - если блоков больше нет
+    private boolean readBlock() throws IOException {
+        if (finished) {
+            return false;
+        }
+
+        var first = inputStream.read();
+        if (first < 0) {
+            finished = true;
+            return false;
+        }
+
+        var rawLength = first << 24 | inputStream.readUnsignedByte() << 16
+                | inputStream.readUnsignedByte() << 8 | inputStream.readUnsignedByte();
+        var storedLength = inputStream.readInt();
+
+        if (rawLength <= 0 || rawLength > block.length || storedLength <= 0 || storedLength > rawLength) {
+            throw new IOException("Сжатый файл поврежден: неверный размер блока");
+        }
+
+        if (storedLength == rawLength) {
+            inputStream.readFully(block, 0, rawLength);
+        } else {
+            inputStream.readFully(compressed, 0, storedLength);
+            LzBlockCompressor.decompress(compressed, storedLength, block, rawLength);
+        }
+
+        position = 0;
+        limit = rawLength;
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Поток, который сжимает данные блоками по LzBlockCompressor.BLOCK_SIZE.
+ * Каждый блок записывается как размер исходного блока, размер сохраненного блока и сами данные.
+ * Если блок не сжался, он сохраняется как есть (размеры совпадают).
+ */
+public class LzOutputStream extends OutputStream {
+
+    private final DataOutputStream outputStream;
+    private final LzBlockCompressor compressor = new LzBlockCompressor();
+    private final byte[] block = new byte[LzBlockCompressor.BLOCK_SIZE];
+    private final byte[] compressed = new byte[LzBlockCompressor.maxCompressedLength(LzBlockCompressor.BLOCK_SIZE)];
+    private int position;
+    private boolean closed;
+
+    public LzOutputStream(OutputStream outputStream) {
+        this.outputStream = new DataOutputStream(outputStream);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == block.length) {
+            writeBlock();
+        }
+        block[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == block.length) {
+                writeBlock();
+            }
+
+            var count = Math.min(length, block.length - position);
+            System.arraycopy(bytes, offset, block, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try (outputStream) {
+            if (position > 0) {
+                writeBlock();
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        var compressedLength = compressor.compress(block, position, compressed);
+
+        outputStream.writeInt(position);
+
+        if (compressedLength < position) {
+            outputStream.writeInt(compressedLength);
+            outputStream.write(compressed, 0, compressedLength);
+        } else {
+            outputStream.writeInt(position);
+            outputStream.write(block, 0, position);
+        }
+
+        position = 0;
+    }
+}
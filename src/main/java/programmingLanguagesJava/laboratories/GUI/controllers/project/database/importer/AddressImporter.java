@@ -0,0 +1,257 @@
+/**
+ * Импорт адресов района для геокодера без интернета (-Dgeocoding.provider=offline).
+ * Запуск: gradlew importAddresses --args="addresses.csv" или --args="region.osm"
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.AddressRecord;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Класс AddressImporter читает адреса с координатами из файла и заменяет ими таблицу Addresses.
+ * Поддерживаются два формата:
+ * CSV с разделителем ; и колонками "адрес;широта;долгота" (строка заголовка необязательна);
+ * выгрузка OpenStreetMap в XML (.osm): адреса берутся из тегов addr:* у точек и у контуров зданий,
+ * координаты здания - центр его точек.
+ */
+public class AddressImporter {
+
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Метод read() читает адреса из файла, формат определяется по расширению.
+     * Строки CSV с ошибками пропускаются и попадают в список ошибок (getErrors()).
+     *
+     * @param file CSV или OSM XML файл.
+     * @return Прочитанные адреса.
+     * @throws RuntimeException Если файл не удалось прочитать.
+     */
+    public List<AddressRecord> read(Path file) {
+        var name = file.getFileName().toString().toLowerCase();
+
+        try {
+
+            return name.endsWith(".osm") || name.endsWith(".xml") ? readOsm(file) : readCsv(file);
+
+        } catch (IOException | XMLStreamException e) {
+            throw new RuntimeException("Ошибка при чтении адресов из файла " + file, e);
+        }
+    }
+
+    /**
+     * @return Ошибки последнего чтения: номер строки и причина.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    private List<AddressRecord> readCsv(Path file) throws IOException {
+        var addresses = new ArrayList<AddressRecord>();
+        var lineNumber = 0;
+
+        try (var lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                var fields = CsvClientLineParser.split(line);
+
+                try {
+
+                    if (fields.size() != 3 || fields.getFirst().isBlank()) {
+                        throw new IllegalArgumentException("ожидается 3 поля: адрес;широта;долгота");
+                    }
+
+                    addresses.add(new AddressRecord(fields.get(0).strip(),
+                            Double.parseDouble(fields.get(1).strip()), Double.parseDouble(fields.get(2).strip())));
+
+                } catch (IllegalArgumentException e) {
+                    // Первая строка без чисел - это заголовок
+                    if (lineNumber > 1 || fields.size() != 3) {
+                        errors.add("Строка " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        return addresses;
+    }
+
+    /*
+     * В выгрузке OSM точки идут раньше контуров, а у контура есть только номера его точек.
+     * Поэтому файл читается дважды: сначала адреса и номера нужных точек, потом координаты только этих точек,
+     * чтобы не держать в памяти координаты всех точек района.
+     */
+    private List<AddressRecord> readOsm(Path file) throws IOException, XMLStreamException {
+        var addresses = new ArrayList<AddressRecord>();
+        var buildings = new ArrayList<OsmBuilding>();
+        var coordinates = new HashMap<Long, double[]>();
+
+        try (var input = Files.newInputStream(file)) {
+            var xml = open(input);
+
+            Map<String, String> tags = null;
+            List<Long> nodes = null;
+            double latitude = 0;
+            double longitude = 0;
+
+            while (xml.hasNext()) {
+                var event = xml.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "node" -> {
+                            tags = new HashMap<>();
+                            nodes = null;
+                            latitude = Double.parseDouble(xml.getAttributeValue(null, "lat"));
+                            longitude = Double.parseDouble(xml.getAttributeValue(null, "lon"));
+                        }
+                        case "way" -> {
+                            tags = new HashMap<>();
+                            nodes = new ArrayList<>();
+                        }
+                        case "nd" -> {
+                            if (nodes != null) {
+                                nodes.add(Long.parseLong(xml.getAttributeValue(null, "ref")));
+                            }
+                        }
+                        case "tag" -> {
+                            if (tags != null) {
+                                tags.put(xml.getAttributeValue(null, "k"), xml.getAttributeValue(null, "v"));
+                            }
+                        }
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && tags != null
+                        && (xml.getLocalName().equals("node") || xml.getLocalName().equals("way"))) {
+
+                    var address = addressOf(tags);
+                    if (address != null) {
+                        if (nodes == null) {
+                            addresses.add(new AddressRecord(address, latitude, longitude));
+                        } else if (!nodes.isEmpty()) {
+                            buildings.add(new OsmBuilding(address, nodes));
+                            nodes.forEach(id -> coordinates.put(id, null));
+                        }
+                    }
+
+                    tags = null;
+                    nodes = null;
+                }
+            }
+
+            xml.close();
+        }
+
+        if (buildings.isEmpty()) {
+            return addresses;
+        }
+
+        try (var input = Files.newInputStream(file)) {
+            var xml = open(input);
+
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("node")) {
+                    var id = Long.parseLong(xml.getAttributeValue(null, "id"));
+
+                    if (coordinates.containsKey(id)) {
+                        coordinates.put(id, new double[]{
+                                Double.parseDouble(xml.getAttributeValue(null, "lat")),
+                                Double.parseDouble(xml.getAttributeValue(null, "lon"))
+                        });
+                    }
+                }
+            }
+
+            xml.close();
+        }
+
+        for (var building : buildings) {
+            double latitudeSum = 0;
+            double longitudeSum = 0;
+            var count = 0;
+
+            for (var id : building.nodes()) {
+                var point = coordinates.get(id);
+                if (point != null) {
+                    latitudeSum += point[0];
+                    longitudeSum += point[1];
+                    count++;
+                }
+            }
+
+            if (count == 0) {
+                errors.add("Здание " + building.address() + ": в файле нет его точек");
+            } else {
+                addresses.add(new AddressRecord(building.address(), latitudeSum / count, longitudeSum / count));
+            }
+        }
+
+        return addresses;
+    }
+
+    // Адрес в том же порядке, что у Nominatim: дом, улица, город
+    private static String addressOf(Map<String, String> tags) {
+        var houseNumber = tags.get("addr:housenumber");
+        var street = tags.getOrDefault("addr:street", tags.get("addr:place"));
+
+        if (houseNumber == null || street == null) {
+            return null;
+        }
+
+        var address = new StringJoiner(", ").add(houseNumber).add(street);
+        if (tags.containsKey("addr:city")) {
+            address.add(tags.get("addr:city"));
+        }
+
+        return address.toString();
+    }
+
+    private static XMLStreamReader open(InputStream input) throws XMLStreamException {
+        var factory = XMLInputFactory.newFactory();
+        // Выгрузке не нужны внешние сущности, а их загрузка - известная уязвимость XML
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory.createXMLStreamReader(input);
+    }
+
+    private record OsmBuilding(String address, List<Long> nodes) {
+    }
+
+    public static void main(String[] args) {
+
+        if (args.length == 0) {
+            System.err.println("Использование: AddressImporter <файл.csv|файл.osm>");
+            System.exit(1);
+        }
+
+        var importer = new AddressImporter();
+        var addresses = importer.read(Paths.get(args[0]));
+
+        importer.getErrors().forEach(System.err::println);
+
+        var saved = DataBaseSQLite.getInstance().replaceAddresses(addresses);
+        System.out.println("Готово: загружено адресов " + saved + ", ошибок " + importer.getErrors().size());
+    }
+}
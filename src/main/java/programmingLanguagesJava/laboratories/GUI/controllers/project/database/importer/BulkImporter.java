@@ -0,0 +1,239 @@
+/**
+ * Импорт клиентов из файла без интерфейса. Раньше клиентов можно было добавить только по одному через форму,
+ * а архив из сотни тысяч клиентов так не перенести.
+ * Запуск: gradlew bulkImport --args="clients.csv [размер пачки] [потоки разбора]"
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Класс BulkImporter импортирует клиентов из CSV или JSON-lines файла.
+ * Работает конвейером: один поток читает строки и режет их на пачки, пачки параллельно разбираются и
+ * проверяются (люди, наличие файлов), там же файлы клиентов читаются и хешируются и выбирается способ их сжатия,
+ * а единственный писатель только записывает каждую пачку одной транзакцией.
+ * Очередь между разбором и записью ограничена, поэтому чтение не убегает вперед записи и память не растет.
+ */
+public class BulkImporter {
+
+    private final DataBaseSQLite dataBase;
+    private final int batchSize;
+    private final int parallelism;
+    private final Consumer<ImportProgress> progressListener;
+
+    /**
+     * @param dataBase         База данных, куда пишутся клиенты.
+     * @param batchSize        Сколько клиентов записывать одной транзакцией.
+     * @param parallelism      Сколько потоков разбирают строки.
+     * @param progressListener Вызывается после записи каждой пачки.
+     */
+    public BulkImporter(DataBaseSQLite dataBase, int batchSize, int parallelism, Consumer<ImportProgress> progressListener) {
+
+        if (batchSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Размер пачки и количество потоков должны быть положительными");
+        }
+
+        this.dataBase = dataBase;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Метод importFile() импортирует всех клиентов из файла.
+     * Строки с ошибками пропускаются и попадают в отчет, остальные записываются.
+     * Если не удалась запись пачки, в отчет попадает вся пачка, а импорт продолжается со следующей.
+     *
+     * @param file CSV (разделитель ;) или JSON-lines (.jsonl) файл.
+     * @return Отчет об импорте.
+     * @throws RuntimeException Если файл не удалось прочитать или импорт был прерван.
+     */
+    public ImportReport importFile(Path file) {
+        return importFile(file, ClientLineParser.forFile(file));
+    }
+
+    // Импорт с заданным разборщиком строк, тесты подставляют свой
+    ImportReport importFile(Path file, ClientLineParser parser) {
+        var baseDir = file.toAbsolutePath().getParent();
+
+        var executor = Executors.newFixedThreadPool(parallelism);
+        var pending = new ArrayBlockingQueue<Future<ParsedBatch>>(parallelism * 2);
+
+        var reader = Thread.ofPlatform()
+                .name("bulk-import-reader")
+                .daemon(true)
+                .start(() -> readBatches(file, parser, baseDir, executor, pending));
+
+        var start = System.nanoTime();
+        var errors = new ArrayList<String>();
+        long linesRead = 0, imported = 0, failed = 0;
+
+        try {
+
+            while (true) {
+                var batch = pending.take().get();
+
+                if (batch.last()) {
+                    break;
+                }
+
+                linesRead += batch.lines();
+                failed += batch.errors().size();
+                errors.addAll(batch.errors());
+
+                if (!batch.records().isEmpty()) {
+                    try {
+
+                        dataBase.insertRecords(batch.records());
+                        imported += batch.records().size();
+
+                    } catch (RuntimeException e) {
+
+                        failed += batch.records().size();
+                        errors.add(String.format("Строки %d-%d не записаны: %s",
+                                batch.firstLine(), batch.firstLine() + batch.lines() - 1, e.getMessage()));
+
+                    }
+                }
+
+                progressListener.accept(new ImportProgress(linesRead, imported, failed, System.nanoTime() - start));
+            }
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Импорт был прерван", e);
+
+        } catch (ExecutionException e) {
+
+            throw new RuntimeException("Не получилось прочитать файл импорта " + file, e.getCause());
+
+        } finally {
+            reader.interrupt();
+            executor.shutdownNow();
+        }
+
+        return new ImportReport(new ImportProgress(linesRead, imported, failed, System.nanoTime() - start), errors);
+    }
+
+    // Чтение файла и нарезка строк на пачки для параллельного разбора
+    private void readBatches(Path file, ClientLineParser parser, Path baseDir,
+                             ExecutorService executor, BlockingQueue<Future<ParsedBatch>> pending) {
+
+        try (var lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            var batch = new ArrayList<String>(batchSize);
+            long lineNumber = 0, firstLine = 1;
+            String line;
+
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+
+                if (lineNumber == 1 && parser.isHeader(line)) {
+                    firstLine = 2;
+                    continue;
+                }
+
+                batch.add(line);
+
+                if (batch.size() == batchSize) {
+                    pending.put(submit(executor, parser, baseDir, batch, firstLine));
+                    batch = new ArrayList<>(batchSize);
+                    firstLine = lineNumber + 1;
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                pending.put(submit(executor, parser, baseDir, batch, firstLine));
+            }
+
+            pending.put(CompletableFuture.completedFuture(ParsedBatch.LAST));
+
+        } catch (IOException | RuntimeException e) {
+
+            // Ошибка должна дойти до писателя даже при полной очереди, иначе он вечно ждет конца файла
+            try {
+                pending.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+        } catch (InterruptedException e) {
+            // Писатель закончил раньше времени, дальше читать незачем
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Future<ParsedBatch> submit(ExecutorService executor, ClientLineParser parser, Path baseDir,
+                                       List<String> lines, long firstLine) {
+        return executor.submit(() -> parse(parser, baseDir, lines, firstLine));
+    }
+
+    // Разбор пачки строк и подготовка файлов: плохие строки не ломают пачку, а попадают в список ошибок
+    private static ParsedBatch parse(ClientLineParser parser, Path baseDir, List<String> lines, long firstLine) {
+        var records = new ArrayList<ClientRecord>(lines.size());
+        var errors = new ArrayList<String>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                records.add(parser.parse(line, baseDir).prepared());
+            } catch (RuntimeException e) {
+                errors.add(String.format("Строка %d: %s", firstLine + i, e.getMessage()));
+            }
+        }
+
+        return new ParsedBatch(records, errors, firstLine, lines.size(), false);
+    }
+
+    private record ParsedBatch(List<ClientRecord> records, List<String> errors, long firstLine, int lines, boolean last) {
+        private static final ParsedBatch LAST = new ParsedBatch(List.of(), List.of(), 0, 0, true);
+    }
+
+    /**
+     * Точка запуска импорта из консоли.
+     *
+     * @param args путь к файлу, затем необязательные размер пачки (500) и количество потоков разбора (по числу ядер).
+     */
+    public static void main(String[] args) {
+
+        if (args.length == 0) {
+            System.err.println("Использование: BulkImporter <файл.csv|файл.jsonl> [размер пачки] [потоки разбора]");
+            System.exit(1);
+        }
+
+        var batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        var parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        var importer = new BulkImporter(DataBaseSQLite.getInstance(), batchSize, parallelism,
+                progress -> System.out.println("Импорт: " + progress));
+
+        var report = importer.importFile(Paths.get(args[0]));
+
+        report.errors().forEach(System.err::println);
+        System.out.println("Готово: " + report.progress());
+    }
+}
@@ -0,0 +1,43 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+
+import java.nio.file.Path;
+
+/**
+ * Интерфейс ClientLineParser определяет разбор одной строки файла импорта в запись о клиенте.
+ * Реализации должны быть потокобезопасными, так как строки разбираются параллельно.
+ */
+public interface ClientLineParser {
+
+    /**
+     * Метод isHeader() проверяет, является ли строка заголовком, который нужно пропустить.
+     *
+     * @param line Первая строка файла.
+     * @return true, если строка - заголовок.
+     */
+    default boolean isHeader(String line) {
+        return false;
+    }
+
+    /**
+     * Метод parse() разбирает строку файла импорта.
+     *
+     * @param line    Строка файла.
+     * @param baseDir Папка файла импорта, относительно нее ищутся договоры и планы с относительными путями.
+     * @return Запись о клиенте.
+     * @throws IllegalArgumentException Если строка не соответствует формату.
+     */
+    ClientRecord parse(String line, Path baseDir);
+
+    /**
+     * Метод forFile() выбирает разборщик по расширению файла: .jsonl/.json - JSON-lines, иначе CSV.
+     *
+     * @param file Файл импорта.
+     * @return Разборщик строк для этого файла.
+     */
+    static ClientLineParser forFile(Path file) {
+        var name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".json") ? new JsonClientLineParser() : new CsvClientLineParser();
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Разбор CSV для импорта клиентов.
+ * Разделитель - точка с запятой, потому что в списке людей уже есть запятые.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс CsvClientLineParser разбирает строки вида:
+ * address;allPeople;mainPerson;buildingPlan;pathToFile
+ * Поля можно брать в двойные кавычки, кавычка внутри поля удваивается. Первая строка с address считается заголовком.
+ * Адрес в базе данных не хранится (он есть только в договоре), поэтому здесь он только пропускается.
+ */
+public class CsvClientLineParser implements ClientLineParser {
+
+    private static final char DELIMITER = ';';
+    private static final int COLUMNS = 5;
+
+    @Override
+    public boolean isHeader(String line) {
+        return line.toLowerCase().startsWith("address");
+    }
+
+    @Override
+    public ClientRecord parse(String line, Path baseDir) {
+        var fields = split(line);
+
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException("Ожидалось " + COLUMNS + " полей, а найдено " + fields.size());
+        }
+
+        var people = Person.createPeoples(fields.get(1), fields.get(2));
+        var buildingPlan = ImportFiles.resolve(baseDir, fields.get(3));
+        var pathToFile = ImportFiles.resolve(baseDir, fields.get(4));
+
+        return new ClientRecord(pathToFile, buildingPlan, people);
+    }
+
+    // Разбиение строки на поля с учетом кавычек, нужно и импорту адресов (AddressImporter)
+    static List<String> split(String line) {
+        var fields = new ArrayList<String>(COLUMNS);
+        var field = new StringBuilder();
+        var quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == DELIMITER) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке");
+        }
+
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
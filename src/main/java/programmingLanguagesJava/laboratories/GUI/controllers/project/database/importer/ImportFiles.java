@@ -0,0 +1,31 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Проверка файлов договора и плана здания во время импорта.
+ * Файл проверяется еще до записи в базу данных, чтобы одна битая строка не откатывала всю пачку.
+ */
+final class ImportFiles {
+
+    private ImportFiles() {}
+
+    /**
+     * Метод resolve() находит файл относительно папки импорта и проверяет, что его можно прочитать.
+     *
+     * @param baseDir Папка файла импорта.
+     * @param path    Путь из строки импорта (абсолютный или относительный).
+     * @return Абсолютный путь к файлу.
+     * @throws IllegalArgumentException Если файла нет или его нельзя прочитать.
+     */
+    static String resolve(Path baseDir, String path) {
+        var resolved = baseDir.resolve(path).toAbsolutePath().normalize();
+
+        if (!Files.isRegularFile(resolved) || !Files.isReadable(resolved)) {
+            throw new IllegalArgumentException("Файл не найден или недоступен: " + resolved);
+        }
+
+        return resolved.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Состояние импорта на текущий момент.
+ *
+ * @param linesRead    Сколько строк файла прочитано.
+ * @param imported     Сколько клиентов записано в базу данных.
+ * @param failed       Сколько строк не удалось разобрать или записать.
+ * @param elapsedNanos Сколько времени прошло с начала импорта.
+ */
+public record ImportProgress(long linesRead, long imported, long failed, long elapsedNanos) {
+
+    /**
+     * @return Скорость импорта в клиентах в секунду.
+     */
+    public double clientsPerSecond() {
+        return elapsedNanos == 0 ? 0 : imported * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("прочитано %d, записано %d, ошибок %d, %.1f клиентов/с",
+                linesRead, imported, failed, clientsPerSecond());
+    }
+}
@@ -0,0 +1,11 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import java.util.List;
+
+/**
+ * Итог импорта.
+ *
+ * @param progress Итоговые счетчики импорта.
+ * @param errors   Ошибки по строкам файла (номер строки и причина).
+ */
+public record ImportReport(ImportProgress progress, List<String> errors) {}
@@ -0,0 +1,85 @@
+/**
+ * Разбор JSON-lines для импорта клиентов: одна строка - один JSON объект.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Класс JsonClientLineParser разбирает строки вида:
+ * {"address": "...", "allPeople": ["Иванов Иван Иванович", ...], "mainPerson": "...", "buildingPlan": "...", "pathToFile": "..."}
+ * allPeople можно передать и строкой через запятую, как это делает форма.
+ */
+public class JsonClientLineParser implements ClientLineParser {
+
+    @Override
+    public ClientRecord parse(String line, Path baseDir) {
+        var fields = fields(line);
+
+        var people = Person.createPeoples(required(fields, "allPeople"), required(fields, "mainPerson"));
+        var buildingPlan = ImportFiles.resolve(baseDir, required(fields, "buildingPlan"));
+        var pathToFile = ImportFiles.resolve(baseDir, required(fields, "pathToFile"));
+
+        return new ClientRecord(pathToFile, buildingPlan, people);
+    }
+
+    /**
+     * Метод fields() разбирает строку в поля клиента в том виде, в каком их собирает форма:
+     * массивы склеиваются в строку через запятую, остальные значения приводятся к строке, null пропускаются.
+     *
+     * @param line Строка с JSON объектом.
+     * @return Поля клиента.
+     * @throws IllegalArgumentException Если строка не является JSON объектом.
+     */
+    public Map<String, String> fields(String line) {
+        Map<?, ?> json;
+
+        try {
+            // JSONParser хранит состояние, поэтому на каждую строку свой - строки разбираются параллельно
+            json = (JSONObject) new JSONParser().parse(line);
+        } catch (ParseException | ClassCastException e) {
+            throw new IllegalArgumentException("Строка не является JSON объектом", e);
+        }
+
+        var fields = new HashMap<String, String>();
+
+        for (var entry : json.entrySet()) {
+            if (entry.getValue() != null) {
+                fields.put(String.valueOf(entry.getKey()), text(entry.getValue()));
+            }
+        }
+
+        return fields;
+    }
+
+    // Массив (например, список людей) склеивается через запятую, как его собирает форма
+    private String text(Object value) {
+        if (value instanceof JSONArray array) {
+            // JSONArray - сырой ArrayList, поэтому он один раз приводится к List<?>
+            List<?> values = array;
+            return values.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        }
+        return String.valueOf(value);
+    }
+
+    private String required(Map<String, String> fields, String key) {
+        var value = fields.get(key);
+
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Нет поля " + key);
+        }
+        return value;
+    }
+}
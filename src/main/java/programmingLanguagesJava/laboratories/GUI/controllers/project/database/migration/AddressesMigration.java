@@ -0,0 +1,31 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 10: таблица Addresses с адресами и координатами для геокодера без интернета.
+ * На постах охраны без доступа в интернет Nominatim недоступен, поэтому адреса района
+ * загружаются заранее (см. AddressImporter), а ищутся по ним локально.
+ */
+class AddressesMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 10;
+    }
+
+    @Override
+    public String description() {
+        return "Таблица адресов Addresses для геокодера без интернета";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(SQLQuery.CREATE_ADDRESSES);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 1: хранилище файлов по частям без дубликатов и ссылки на него из Remaining_info.
+ * Раньше эти таблицы создавались при каждом запуске, поэтому шаг проверяет, что уже есть,
+ * и в базах, где все создано, ничего не меняет.
+ */
+class BlobStorageMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public String description() {
+        return "Таблицы Blobs и Blob_chunks, ссылки на них из Remaining_info";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            statement.execute(SQLQuery.CREATE_BLOBS);
+            statement.execute(SQLQuery.CREATE_BLOB_CHUNKS);
+
+            var blobColumns = MigrationRunner.columns(connection, "Blobs");
+
+            if (!blobColumns.contains("hash")) {
+                statement.execute(SQLQuery.ADD_BLOB_HASH_COLUMN);
+            }
+            if (!blobColumns.contains("ref_count")) {
+                statement.execute(SQLQuery.ADD_BLOB_REF_COUNT_COLUMN);
+            }
+
+            statement.execute(SQLQuery.CREATE_BLOBS_HASH_INDEX);
+
+            var remainingInfoColumns = MigrationRunner.columns(connection, "Remaining_info");
+
+            for (var column : BlobColumn.values()) {
+                if (!remainingInfoColumns.contains(column.getBlobIdColumnName())) {
+                    statement.execute(String.format(SQLQuery.ADD_BLOB_REF_COLUMN, column.getBlobIdColumnName()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 9: таблица Geocoding_cache с ответами геокодера.
+ * Каждый клик по карте и каждый поиск адреса шли в Nominatim, даже если это место уже искали,
+ * поэтому ответы сохраняются и переживают перезапуск приложения (см. GeocodingCache).
+ */
+class GeocodingCacheMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 9;
+    }
+
+    @Override
+    public String description() {
+        return "Таблица ответов геокодера Geocoding_cache";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(SQLQuery.CREATE_GEOCODING_CACHE);
+        }
+    }
+}
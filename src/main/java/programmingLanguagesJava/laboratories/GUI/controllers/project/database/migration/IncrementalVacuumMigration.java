@@ -0,0 +1,49 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 7: режим auto_vacuum = INCREMENTAL.
+ * Без него страницы удаленных файлов остаются в файле базы данных навсегда, а полный VACUUM переписывает всю базу.
+ * В этом режиме свободные страницы можно отдавать понемногу через PRAGMA incremental_vacuum в фоне.
+ * Режим включается только через VACUUM, поэтому на большой базе шаг займет время, но выполняется один раз.
+ */
+class IncrementalVacuumMigration implements Migration {
+
+    // Значение PRAGMA auto_vacuum для режима INCREMENTAL
+    private static final int INCREMENTAL = 2;
+
+    @Override
+    public int version() {
+        return 7;
+    }
+
+    @Override
+    public String description() {
+        return "Режим auto_vacuum = INCREMENTAL";
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            int currentMode;
+            try (var resultSet = statement.executeQuery(SQLQuery.AUTO_VACUUM)) {
+                currentMode = resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+
+            if (currentMode != INCREMENTAL) {
+                statement.execute(String.format(SQLQuery.SET_AUTO_VACUUM, "INCREMENTAL"));
+                statement.execute(SQLQuery.VACUUM);
+            }
+        }
+    }
+}
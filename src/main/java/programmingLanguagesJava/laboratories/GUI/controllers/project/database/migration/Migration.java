@@ -0,0 +1,39 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Интерфейс одного шага изменения схемы базы данных.
+ * Номер версии записывается в таблицу Schema_version, поэтому каждый шаг выполняется ровно один раз.
+ * Номера уже выпущенных шагов менять нельзя, новые шаги добавляются в конец списка в MigrationRunner.
+ */
+public interface Migration {
+
+    /**
+     * @return Номер версии схемы, которую дает этот шаг.
+     */
+    int version();
+
+    /**
+     * @return Описание шага, попадает в таблицу Schema_version.
+     */
+    String description();
+
+    /**
+     * Метод apply() изменяет схему.
+     *
+     * @param connection Соединение, через которое идет обновление схемы.
+     * @throws SQLException Если изменение не удалось.
+     */
+    void apply(Connection connection) throws SQLException;
+
+    /**
+     * Некоторые команды (VACUUM, смена журнала) нельзя выполнять внутри транзакции.
+     *
+     * @return Выполнять ли шаг в транзакции.
+     */
+    default boolean isTransactional() {
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Обновление схемы базы данных при запуске приложения.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Класс MigrationRunner применяет к базе данных шаги изменения схемы, которых в ней еще нет.
+ * Работает через отдельное соединение до открытия пула, потому что часть шагов (смена размера страницы)
+ * требует, чтобы с базой никто больше не работал.
+ */
+@RequiredArgsConstructor
+public class MigrationRunner {
+
+    // Все шаги по порядку, новые добавляются в конец
+    public static final List<Migration> MIGRATIONS = List.of(
+            new BlobStorageMigration(),
+            new PeoplesIndexesMigration(),
+            new PageSizeMigration(),
+            new PeoplesSearchMigration(),
+            new PeoplesChangesMigration(),
+            new PeoplesSoftDeleteMigration(),
+            new IncrementalVacuumMigration(),
+            new ThumbnailsMigration(),
+            new GeocodingCacheMigration(),
+            new AddressesMigration()
+    );
+
+    private final String url;
+    private final List<Migration> migrations;
+
+    public MigrationRunner(String url) {
+        this(url, MIGRATIONS);
+    }
+
+    /**
+     * Метод migrate() применяет все шаги, которые еще не записаны в таблицу Schema_version.
+     *
+     * @return Сколько шагов было применено.
+     * @throws RuntimeException Если какой-то шаг не удался. Шаги после него не применяются.
+     */
+    public int migrate() {
+        try (var connection = DriverManager.getConnection(url)) {
+
+            try (var statement = connection.createStatement()) {
+                statement.execute(SQLQuery.CREATE_SCHEMA_VERSION);
+            }
+
+            var applied = appliedVersions(connection);
+            var count = 0;
+
+            for (var migration : migrations.stream().sorted(Comparator.comparingInt(Migration::version)).toList()) {
+                if (!applied.contains(migration.version())) {
+                    apply(connection, migration);
+                    count++;
+                }
+            }
+
+            return count;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при подключении к базе данных для обновления схемы", e);
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) {
+        try {
+
+            if (!migration.isTransactional()) {
+                migration.apply(connection);
+                recordVersion(connection, migration);
+                return;
+            }
+
+            connection.setAutoCommit(false);
+
+            try {
+
+                migration.apply(connection);
+                recordVersion(connection, migration);
+                connection.commit();
+
+            } catch (SQLException | RuntimeException e) {
+
+                connection.rollback();
+                throw e;
+
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException(String.format("Ошибка при обновлении схемы базы данных до версии %d (%s)",
+                    migration.version(), migration.description()), e);
+        }
+    }
+
+    private static Set<Integer> appliedVersions(Connection connection) throws SQLException {
+        var versions = new HashSet<Integer>();
+
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(SQLQuery.SELECT_SCHEMA_VERSIONS)) {
+
+            while (resultSet.next()) {
+                versions.add(resultSet.getInt(1));
+            }
+        }
+
+        return versions;
+    }
+
+    private static void recordVersion(Connection connection, Migration migration) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(SQLQuery.INSERT_SCHEMA_VERSION)) {
+            preparedStatement.setInt(1, migration.version());
+            preparedStatement.setString(2, migration.description());
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Метод columns() возвращает имена столбцов таблицы, нужен шагам, которые добавляют столбцы.
+     *
+     * @param connection Соединение с базой данных.
+     * @param table      Имя таблицы.
+     * @return Имена столбцов.
+     * @throws SQLException Если не удалось прочитать схему.
+     */
+    static Set<String> columns(Connection connection, String table) throws SQLException {
+        var columns = new HashSet<String>();
+
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(String.format(SQLQuery.TABLE_COLUMNS, table))) {
+
+            while (resultSet.next()) {
+                columns.add(resultSet.getString("name"));
+            }
+        }
+
+        return columns;
+    }
+}
@@ -0,0 +1,52 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 3: страницы по 8 КБ и журнал WAL.
+ * Части файлов занимают по мегабайту, и с большими страницами у них короче цепочки переполнения.
+ * Размер страницы меняется только через VACUUM и только вне WAL, поэтому журнал временно выключается.
+ * На большой базе шаг может занять время, но выполняется один раз.
+ */
+class PageSizeMigration implements Migration {
+
+    private static final int PAGE_SIZE = 8192;
+
+    @Override
+    public int version() {
+        return 3;
+    }
+
+    @Override
+    public String description() {
+        return "Размер страницы " + PAGE_SIZE + " байт и журнал WAL";
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            int currentPageSize;
+            try (var resultSet = statement.executeQuery(SQLQuery.PAGE_SIZE)) {
+                currentPageSize = resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+
+            if (currentPageSize != PAGE_SIZE) {
+                statement.execute(String.format(SQLQuery.SET_JOURNAL_MODE, "DELETE"));
+                statement.execute(String.format(SQLQuery.SET_PAGE_SIZE, PAGE_SIZE));
+                statement.execute(SQLQuery.VACUUM);
+            }
+
+            // Режим WAL сохраняется в самом файле базы данных
+            statement.execute(String.format(SQLQuery.SET_JOURNAL_MODE, "WAL"));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 5: журнал изменений Peoples_changes.
+ * Триггеры записывают id каждого вставленного, измененного или удаленного человека,
+ * поэтому таблица в окне может подтянуть только изменения, а не перечитывать всю базу.
+ */
+class PeoplesChangesMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 5;
+    }
+
+    @Override
+    public String description() {
+        return "Журнал изменений Peoples_changes";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            statement.execute(SQLQuery.CREATE_PEOPLES_CHANGES);
+            statement.execute(SQLQuery.CREATE_PEOPLES_CHANGES_INSERT_TRIGGER);
+            statement.execute(SQLQuery.CREATE_PEOPLES_CHANGES_DELETE_TRIGGER);
+            statement.execute(SQLQuery.CREATE_PEOPLES_CHANGES_UPDATE_TRIGGER);
+        }
+    }
+}
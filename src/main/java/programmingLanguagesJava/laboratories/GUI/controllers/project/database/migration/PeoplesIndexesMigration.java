@@ -0,0 +1,38 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 2: индексы для соединения Peoples с Remaining_info и для поиска по ФИО и должности.
+ * Без них каждый JOIN и каждый поиск по фамилии проходит всю таблицу Peoples.
+ */
+class PeoplesIndexesMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public String description() {
+        return "Индексы Peoples по remaining_info, ФИО и должности";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            statement.execute(SQLQuery.CREATE_PEOPLES_REMAINING_INFO_INDEX);
+            statement.execute(SQLQuery.CREATE_PEOPLES_LAST_NAME_INDEX);
+            statement.execute(SQLQuery.CREATE_PEOPLES_FIRST_NAME_INDEX);
+            statement.execute(SQLQuery.CREATE_PEOPLES_PATRONYMIC_INDEX);
+            statement.execute(SQLQuery.CREATE_PEOPLES_POST_INDEX);
+
+            // Статистика для планировщика, чтобы он выбирал индексы осознанно
+            statement.execute(SQLQuery.ANALYZE);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 4: полнотекстовый индекс Peoples_search по ФИО для поиска по подстроке.
+ * Индекс строится на триграммах, поэтому находит любую подстроку от трех символов без учета регистра,
+ * не просматривая всю таблицу. Триггеры обновляют его при любом изменении Peoples.
+ * Триграммный токенизатор FTS5 считает ё отдельной буквой, а не е с диакритикой, поэтому в индекс попадают ФИО,
+ * где ё заменена на е, а запрос так же приводится к е в PeoplesDAO. Сами ФИО в Peoples не меняются.
+ */
+class PeoplesSearchMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 4;
+    }
+
+    @Override
+    public String description() {
+        return "Полнотекстовый индекс Peoples_search по ФИО";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            statement.execute(SQLQuery.CREATE_PEOPLES_SEARCH);
+            statement.execute(SQLQuery.CREATE_PEOPLES_SEARCH_INSERT_TRIGGER);
+            statement.execute(SQLQuery.CREATE_PEOPLES_SEARCH_DELETE_TRIGGER);
+            statement.execute(SQLQuery.CREATE_PEOPLES_SEARCH_UPDATE_TRIGGER);
+            statement.execute(SQLQuery.FILL_PEOPLES_SEARCH);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 6: столбец Peoples.deleted_at для мягкого удаления.
+ * Удаленный человек сначала только помечается и пропадает из выборок, поэтому удаление можно отменить,
+ * а окончательно он удаляется позже вместе с файлами. Частичный индекс хранит только помеченных людей.
+ */
+class PeoplesSoftDeleteMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 6;
+    }
+
+    @Override
+    public String description() {
+        return "Мягкое удаление людей через Peoples.deleted_at";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+
+            if (!MigrationRunner.columns(connection, "Peoples").contains("deleted_at")) {
+                statement.execute(SQLQuery.ADD_PEOPLES_DELETED_AT_COLUMN);
+            }
+
+            statement.execute(SQLQuery.CREATE_PEOPLES_DELETED_AT_INDEX);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Шаг 8: таблица Thumbnails с уменьшенными копиями планов и договоров.
+ * Построить копию - значит прочитать и разобрать весь файл, поэтому готовые копии сохраняются
+ * и при следующем запуске таблица показывает их сразу.
+ */
+class ThumbnailsMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 8;
+    }
+
+    @Override
+    public String description() {
+        return "Таблица уменьшенных копий файлов Thumbnails";
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(SQLQuery.CREATE_THUMBNAILS);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+/**
+ * Адрес с координатами для геокодера без интернета.
+ *
+ * @param address   Адрес в том виде, в каком он попадет в форму и договор.
+ * @param latitude  Широта.
+ * @param longitude Долгота.
+ */
+public record AddressRecord(String address, double latitude, double longitude) {
+}
@@ -0,0 +1,24 @@
+/**
+ * Перечисление BLOB-столбцов таблицы Remaining_info, чтобы не писать имена столбцов строками по всему коду.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Столбцы таблицы Remaining_info, в которых лежат файлы.
+ * Имя столбца подставляется в SQL напрямую, поэтому его нельзя брать из пользовательского ввода - только отсюда.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BlobColumn {
+    DOCUMENT("document", "document_blob"),
+    PLAN_OF_HOUSE("plan_of_house", "plan_of_house_blob");
+
+    // Старый столбец, где файл лежит целиком
+    private final String columnName;
+    // Столбец со ссылкой на файл в таблице Blobs
+    private final String blobIdColumnName;
+}
@@ -0,0 +1,55 @@
+/**
+ * Данные одного клиента для записи в базу данных.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.BlobDAO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись о клиенте: договор, план здания и люди, которые к ним относятся.
+ *
+ * @param pathToFile   Путь к договору (.docx).
+ * @param buildingPlan Путь к плану здания.
+ * @param people       Люди, которые относятся к клиенту.
+ * @param document     Договор, подготовленный к записи через prepared(), или null.
+ * @param plan         План здания, подготовленный к записи через prepared(), или null.
+ */
+public record ClientRecord(String pathToFile, String buildingPlan, List<Person> people,
+                           PreparedFile document, PreparedFile plan) {
+
+    /**
+     * Запись, файлы которой еще не подготовлены: они прочитаются при записи в базу данных.
+     */
+    public ClientRecord(String pathToFile, String buildingPlan, List<Person> people) {
+        this(pathToFile, buildingPlan, people, null, null);
+    }
+
+    /**
+     * Метод prepared() читает оба файла и считает их хеши заранее (см. BlobDAO.prepare()),
+     * чтобы при записи в базу данных на это не тратилось время писателя.
+     *
+     * @return Та же запись с подготовленными файлами.
+     * @throws RuntimeException Если файл не удалось прочитать.
+     */
+    public ClientRecord prepared() {
+        return new ClientRecord(pathToFile, buildingPlan, people, BlobDAO.prepare(pathToFile), BlobDAO.prepare(buildingPlan));
+    }
+
+    /**
+     * Метод fromPersonData() собирает запись из данных формы, которые заполняет оператор.
+     *
+     * @param personData Данные о клиенте в формате HashMap (pathToFile, buildingPlan, allPeople, mainPerson).
+     * @return Запись о клиенте.
+     */
+    public static ClientRecord fromPersonData(Map<String, String> personData) {
+        return new ClientRecord(
+                personData.get("pathToFile"),
+                personData.get("buildingPlan"),
+                Person.createPeoples(personData.get("allPeople"), personData.get("mainPerson"))
+        );
+    }
+}
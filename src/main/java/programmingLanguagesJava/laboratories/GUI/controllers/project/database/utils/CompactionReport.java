@@ -0,0 +1,25 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+/**
+ * Итог сжатия базы данных.
+ *
+ * @param movedLegacyFiles Сколько файлов перенесено из строк Remaining_info в общее хранилище.
+ * @param mergedDuplicates Сколько одинаковых файлов слито в один.
+ * @param deletedOrphans   Сколько файлов удалено, потому что на них никто не ссылался.
+ * @param sizeBefore       Размер базы данных до сжатия в байтах.
+ * @param sizeAfter        Размер базы данных после сжатия в байтах.
+ */
+public record CompactionReport(
+        int movedLegacyFiles,
+        int mergedDuplicates,
+        int deletedOrphans,
+        long sizeBefore,
+        long sizeAfter
+) {
+
+    @Override
+    public String toString() {
+        return String.format("перенесено %d, слито дубликатов %d, удалено лишних %d, размер %d -> %d байт",
+                movedLegacyFiles, mergedDuplicates, deletedOrphans, sizeBefore, sizeAfter);
+    }
+}
@@ -0,0 +1,10 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+/**
+ * Сохраненный ответ геокодера.
+ *
+ * @param value   Ответ: адрес места или координаты по тексту поиска.
+ * @param savedAt Время ответа в миллисекундах, по нему ответ считается устаревшим.
+ */
+public record GeocodingEntry(String value, long savedAt) {
+}
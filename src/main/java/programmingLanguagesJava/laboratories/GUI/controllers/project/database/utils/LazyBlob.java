@@ -0,0 +1,43 @@
+/**
+ * Ленивая ссылка на файл в базе данных.
+ * Раньше все BLOB-ы грузились сразу вместе с таблицей, а это гигабайты памяти ради трех столбцов с ФИО.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+
+import java.io.OutputStream;
+
+/**
+ * Класс LazyBlob хранит только координаты файла (id строки Remaining_info и столбец),
+ * а сами байты достает из базы данных в момент, когда их действительно открывают.
+ * Байты не кэшируются, чтобы память таблицы не зависела от размера документов.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LazyBlob {
+
+    private final int remainingInfoId;
+    private final BlobColumn column;
+
+    /**
+     * Метод load() загружает содержимое файла из базы данных.
+     *
+     * @return Массив байтов файла (пустой, если файла в базе данных нет).
+     */
+    public byte[] load() {
+        return DataBaseSQLite.getInstance().loadBlob(remainingInfoId, column);
+    }
+
+    /**
+     * Метод copyTo() потоково копирует файл из базы данных в выходной поток, не держа его в памяти целиком.
+     *
+     * @param outputStream Поток, куда нужно записать файл.
+     */
+    public void copyTo(OutputStream outputStream) {
+        DataBaseSQLite.getInstance().copyBlobTo(remainingInfoId, column, outputStream);
+    }
+}
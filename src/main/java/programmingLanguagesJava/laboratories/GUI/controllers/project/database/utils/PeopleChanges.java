@@ -0,0 +1,19 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+import java.util.List;
+
+/**
+ * Изменения таблицы Peoples после заданного номера изменения.
+ *
+ * @param lastChange Номер последнего вошедшего сюда изменения, с него начинается следующая выборка.
+ * @param complete   false, если часть изменений уже удалена из журнала и данные нужно перечитать целиком.
+ * @param changed    Добавленные и измененные люди в их текущем состоянии.
+ * @param deletedIds ID удаленных людей.
+ */
+public record PeopleChanges(
+        long lastChange,
+        boolean complete,
+        List<PersonInfo> changed,
+        List<Integer> deletedIds
+) {
+}
@@ -1,13 +1,37 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
 
-import lombok.Data;
 import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Класс PersonInfo - легкая проекция строки из базы данных для таблицы.
+ * Здесь лежат только ФИО и идентификаторы, а файлы подгружаются через LazyBlob, когда их открывают.
+ */
 @AllArgsConstructor
 @Data
 public class PersonInfo {
+    private int id;
+    private int remainingInfoId;
     private String firstName;
     private String lastName;
     private String patronymic;
-    private byte[] planOfHouse;
-    private byte[] document;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private LazyBlob planOfHouse;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private LazyBlob document;
+
+    /**
+     * Конструктор для строки из базы данных, где ссылки на файлы строятся по id строки Remaining_info.
+     */
+    public PersonInfo(int id, int remainingInfoId, String firstName, String lastName, String patronymic) {
+        this(id, remainingInfoId, firstName, lastName, patronymic,
+                new LazyBlob(remainingInfoId, BlobColumn.PLAN_OF_HOUSE),
+                new LazyBlob(remainingInfoId, BlobColumn.DOCUMENT));
+    }
 }
@@ -0,0 +1,30 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Снимок метрик пула соединений.
+ *
+ * @param borrowCount    Сколько раз соединения выдавались из пула (без повторных выдач в том же потоке).
+ * @param totalWaitNanos Суммарное время ожидания соединений в наносекундах.
+ * @param maxWaitNanos   Самое долгое ожидание соединения в наносекундах.
+ * @param activeReaders  Сколько читателей сейчас занято.
+ * @param idleReaders    Сколько читателей сейчас свободно.
+ * @param writerBusy     Занят ли сейчас писатель.
+ */
+public record PoolMetrics(
+        long borrowCount,
+        long totalWaitNanos,
+        long maxWaitNanos,
+        int activeReaders,
+        int idleReaders,
+        boolean writerBusy
+) {
+
+    /**
+     * @return Среднее время ожидания соединения в миллисекундах.
+     */
+    public double averageWaitMillis() {
+        return borrowCount == 0 ? 0 : (double) totalWaitNanos / borrowCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
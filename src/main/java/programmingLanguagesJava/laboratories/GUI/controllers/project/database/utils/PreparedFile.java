@@ -0,0 +1,18 @@
+/**
+ * Файл, подготовленный к записи в базу данных заранее, вне писателя.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec.BlobCodec;
+
+/**
+ * Файл с уже посчитанным SHA-256 и выбранным способом сжатия (см. BlobDAO.prepare()).
+ * Писателю остается только найти файл по хешу или скопировать его части в базу данных.
+ *
+ * @param path  Путь к файлу.
+ * @param hash  SHA-256 содержимого в шестнадцатеричном виде.
+ * @param codec Способ сжатия.
+ */
+public record PreparedFile(String path, String hash, BlobCodec codec) {
+}
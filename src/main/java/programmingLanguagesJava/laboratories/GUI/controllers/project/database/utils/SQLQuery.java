@@ -11,23 +11,336 @@ package programmingLanguagesJava.laboratories.GUI.controllers.project.database.u
  */
 public enum SQLQuery {
     ;
-    // Вставка в таблицу Remaining_info
-    public static final String INSERT_REMAINING = "INSERT INTO Remaining_info (document, plan_of_house) VALUES (?, ?)";
+    // Вставка в таблицу Remaining_info, сами файлы лежат в Blobs и Blob_chunks
+    public static final String INSERT_REMAINING = "INSERT INTO Remaining_info (document_blob, plan_of_house_blob) VALUES (?, ?)";
     // Вставка в таблицу Peoples
     public static final String INSERT_HUMAN = "INSERT INTO Peoples (last_name, first_name, patronymic, post, remaining_info) VALUES (?, ?, ?, ?, ?)";
-    // Поиск максимального индекса в базе данных
-    public static final String MAX_ID = "SELECT MAX(id) FROM Remaining_info";
 
-    public static final String JOIN_TABLES = """
-            SELECT Peoples.first_name,
+    // Постраничная выборка людей без BLOB-ов (keyset-пагинация по Peoples.id)
+    public static final String JOIN_TABLES_PAGE = """
+            SELECT Peoples.id,
+                   Peoples.remaining_info,
+                   Peoples.first_name,
+                   Peoples.last_name,
+                   Peoples.patronymic
+
+            FROM Peoples
+
+            JOIN Remaining_info ON Peoples.remaining_info = Remaining_info.id
+
+            WHERE Peoples.id > ?
+              AND Peoples.deleted_at IS NULL
+
+            ORDER BY Peoples.id
+
+            LIMIT ?
+            """;
+
+    // Количество людей, нужно только для индикатора загрузки
+    public static final String COUNT_PEOPLES = "SELECT COUNT(*) FROM Peoples WHERE deleted_at IS NULL";
+
+    // Изменения Peoples после заданного номера: по одной строке на человека, у удаленных (в том числе помеченных) людей
+    // столбцы Peoples пустые.
+    // first_seq - самая старая запись журнала, по ней видно, не удалены ли уже нужные записи
+    public static final String SELECT_PEOPLES_CHANGES = """
+            SELECT changes.people_id,
+                   changes.seq,
+                   Peoples.id,
+                   Peoples.remaining_info,
+                   Peoples.first_name,
                    Peoples.last_name,
                    Peoples.patronymic,
-                   Remaining_info.plan_of_house,
-                   Remaining_info.document
+                   (SELECT MIN(seq) FROM Peoples_changes) AS first_seq
+
+            FROM (SELECT people_id, MAX(seq) AS seq
+                  FROM Peoples_changes
+                  WHERE seq > ?
+                  GROUP BY people_id) AS changes
+
+            LEFT JOIN Peoples ON Peoples.id = changes.people_id AND Peoples.deleted_at IS NULL
+            LEFT JOIN Remaining_info ON Peoples.remaining_info = Remaining_info.id
+            """;
+    // Номер последнего изменения Peoples
+    public static final String LAST_PEOPLES_CHANGE = "SELECT COALESCE(MAX(seq), 0) FROM Peoples_changes";
+    // Удаление старых записей журнала, вместо ? подставляется, сколько последних записей оставить
+    public static final String TRIM_PEOPLES_CHANGES = "DELETE FROM Peoples_changes WHERE seq <= (SELECT MAX(seq) FROM Peoples_changes) - ?";
+
+    // Поиск по началу фамилии, имени или отчества через индексы: вместо ? подставляются границы диапазона [от, до)
+    public static final String SEARCH_PEOPLES_PREFIX = """
+            SELECT Peoples.id,
+                   Peoples.remaining_info,
+                   Peoples.first_name,
+                   Peoples.last_name,
+                   Peoples.patronymic
 
             FROM Peoples
 
             JOIN Remaining_info ON Peoples.remaining_info = Remaining_info.id
 
+            WHERE ((Peoples.last_name >= ? AND Peoples.last_name < ?)
+                OR (Peoples.first_name >= ? AND Peoples.first_name < ?)
+                OR (Peoples.patronymic >= ? AND Peoples.patronymic < ?))
+              AND Peoples.id > ?
+              AND Peoples.deleted_at IS NULL
+
+            ORDER BY Peoples.id
+
+            LIMIT ?
+            """;
+
+    // Поиск по подстроке через полнотекстовый индекс Peoples_search (FTS5, триграммы)
+    public static final String SEARCH_PEOPLES_SUBSTRING = """
+            SELECT Peoples.id,
+                   Peoples.remaining_info,
+                   Peoples.first_name,
+                   Peoples.last_name,
+                   Peoples.patronymic
+
+            FROM Peoples_search
+
+            JOIN Peoples ON Peoples.id = Peoples_search.rowid
+            JOIN Remaining_info ON Peoples.remaining_info = Remaining_info.id
+
+            WHERE Peoples_search MATCH ?
+              AND Peoples_search.rowid > ?
+              AND Peoples.deleted_at IS NULL
+
+            ORDER BY Peoples_search.rowid
+
+            LIMIT ?
+            """;
+
+    // Ссылка на файл в Blobs и признак старого файла прямо в строке, вместо %s подставляются столбцы из BlobColumn
+    public static final String SELECT_BLOB_REF = "SELECT %s, %s IS NOT NULL FROM Remaining_info WHERE id = ?";
+
+    // Старые строки хранят файл прямо в Remaining_info, вместо %s подставляется имя столбца из BlobColumn
+    public static final String SELECT_BLOB = "SELECT %s FROM Remaining_info WHERE id = ?";
+
+    // Таблица с файлами, которые хранятся по частям
+    public static final String CREATE_BLOBS = """
+            CREATE TABLE IF NOT EXISTS Blobs (
+                id        INTEGER PRIMARY KEY AUTOINCREMENT,
+                size      INTEGER NOT NULL,
+                hash      TEXT,
+                ref_count INTEGER NOT NULL DEFAULT 1
+            )
+            """;
+
+    // Части файлов ограниченного размера, чтобы ни запись, ни чтение не держали файл целиком в памяти
+    public static final String CREATE_BLOB_CHUNKS = """
+            CREATE TABLE IF NOT EXISTS Blob_chunks (
+                blob_id INTEGER NOT NULL REFERENCES Blobs (id),
+                seq     INTEGER NOT NULL,
+                data    BLOB    NOT NULL,
+                PRIMARY KEY (blob_id, seq)
+            )
+            """;
+
+    // Одинаковые файлы (по SHA-256) хранятся один раз
+    public static final String CREATE_BLOBS_HASH_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS Blobs_hash ON Blobs (hash)";
+
+    // Добавление столбца-ссылки на Blobs в Remaining_info, вместо %s подставляется имя столбца
+    public static final String ADD_BLOB_REF_COLUMN = "ALTER TABLE Remaining_info ADD COLUMN %s INTEGER REFERENCES Blobs (id)";
+
+    // Столбцы для дедупликации в таблицах, созданных до нее
+    public static final String ADD_BLOB_HASH_COLUMN = "ALTER TABLE Blobs ADD COLUMN hash TEXT";
+    public static final String ADD_BLOB_REF_COUNT_COLUMN = "ALTER TABLE Blobs ADD COLUMN ref_count INTEGER NOT NULL DEFAULT 1";
+
+    // Список столбцов таблицы, вместо %s подставляется имя таблицы
+    public static final String TABLE_COLUMNS = "PRAGMA table_info(%s)";
+
+    public static final String INSERT_BLOB = "INSERT INTO Blobs (size, hash, ref_count) VALUES (0, ?, 1)";
+    public static final String UPDATE_BLOB_SIZE = "UPDATE Blobs SET size = ? WHERE id = ?";
+    public static final String UPDATE_BLOB_HASH = "UPDATE Blobs SET hash = ? WHERE id = ?";
+    public static final String SELECT_BLOB_BY_HASH = "SELECT id FROM Blobs WHERE hash = ?";
+    public static final String SELECT_BLOB_HASH = "SELECT hash FROM Blobs WHERE id = ?";
+    public static final String RETAIN_BLOB = "UPDATE Blobs SET ref_count = ref_count + ? WHERE id = ?";
+    public static final String SELECT_BLOB_REF_COUNT = "SELECT ref_count FROM Blobs WHERE id = ?";
+    public static final String DELETE_BLOB_CHUNKS = "DELETE FROM Blob_chunks WHERE blob_id = ?";
+    public static final String DELETE_BLOB = "DELETE FROM Blobs WHERE id = ?";
+    public static final String INSERT_BLOB_CHUNK = "INSERT INTO Blob_chunks (blob_id, seq, data) VALUES (?, ?, ?)";
+    public static final String SELECT_BLOB_CHUNKS = "SELECT data FROM Blob_chunks WHERE blob_id = ? ORDER BY seq";
+
+    // Строки Remaining_info, где файл еще лежит прямо в строке, вместо %s подставляются столбцы из BlobColumn
+    public static final String SELECT_LEGACY_BLOB_ROWS = "SELECT id FROM Remaining_info WHERE %s IS NOT NULL AND %s IS NULL";
+    // Перенос файла из строки в Blobs, вместо %s подставляются столбцы из BlobColumn
+    public static final String MOVE_LEGACY_BLOB = "UPDATE Remaining_info SET %s = ?, %s = NULL WHERE id = ?";
+    // Файлы, у которых еще не посчитан хеш
+    public static final String SELECT_UNHASHED_BLOBS = "SELECT id FROM Blobs WHERE hash IS NULL";
+    // Перенаправление ссылок с дубликата на оригинал, вместо %s подставляется столбец-ссылка из BlobColumn
+    public static final String REPOINT_BLOB_REFS = "UPDATE Remaining_info SET %1$s = ? WHERE %1$s = ?";
+    // Перенос счетчика ссылок с дубликата (второй параметр) на оригинал (первый параметр)
+    public static final String MERGE_BLOB_REF_COUNT =
+            "UPDATE Blobs SET ref_count = ref_count + (SELECT ref_count FROM Blobs WHERE id = ?) WHERE id = ?";
+    // Пересчет счетчиков ссылок по фактическим ссылкам из Remaining_info
+    public static final String RECOUNT_BLOB_REFS = """
+            UPDATE Blobs SET ref_count =
+                (SELECT count(*) FROM Remaining_info WHERE document_blob = Blobs.id) +
+                (SELECT count(*) FROM Remaining_info WHERE plan_of_house_blob = Blobs.id)
+            """;
+    // Файлы, на которые никто не ссылается
+    public static final String DELETE_ORPHAN_BLOB_CHUNKS = "DELETE FROM Blob_chunks WHERE blob_id IN (SELECT id FROM Blobs WHERE ref_count <= 0)";
+    public static final String DELETE_ORPHAN_BLOBS = "DELETE FROM Blobs WHERE ref_count <= 0";
+    public static final String VACUUM = "VACUUM";
+    // Размер файла базы данных в байтах
+    public static final String DATABASE_SIZE = "SELECT page_count * page_size FROM pragma_page_count(), pragma_page_size()";
+
+    // Таблица примененных шагов обновления схемы
+    public static final String CREATE_SCHEMA_VERSION = """
+            CREATE TABLE IF NOT EXISTS Schema_version (
+                version     INTEGER PRIMARY KEY,
+                description TEXT NOT NULL,
+                applied_at  TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+    public static final String SELECT_SCHEMA_VERSIONS = "SELECT version FROM Schema_version";
+    public static final String INSERT_SCHEMA_VERSION = "INSERT INTO Schema_version (version, description) VALUES (?, ?)";
+
+    // Индексы для JOIN с Remaining_info и поиска по ФИО и должности
+    public static final String CREATE_PEOPLES_REMAINING_INFO_INDEX = "CREATE INDEX IF NOT EXISTS Peoples_remaining_info ON Peoples (remaining_info)";
+    public static final String CREATE_PEOPLES_LAST_NAME_INDEX = "CREATE INDEX IF NOT EXISTS Peoples_last_name ON Peoples (last_name)";
+    public static final String CREATE_PEOPLES_FIRST_NAME_INDEX = "CREATE INDEX IF NOT EXISTS Peoples_first_name ON Peoples (first_name)";
+    public static final String CREATE_PEOPLES_PATRONYMIC_INDEX = "CREATE INDEX IF NOT EXISTS Peoples_patronymic ON Peoples (patronymic)";
+    public static final String CREATE_PEOPLES_POST_INDEX = "CREATE INDEX IF NOT EXISTS Peoples_post ON Peoples (post)";
+    public static final String ANALYZE = "ANALYZE";
+
+    // Настройки файла базы данных, вместо %s и %d подставляются значения
+    public static final String PAGE_SIZE = "PRAGMA page_size";
+    public static final String SET_PAGE_SIZE = "PRAGMA page_size = %d";
+    public static final String SET_JOURNAL_MODE = "PRAGMA journal_mode = %s";
+
+    // Полнотекстовый индекс по ФИО: хранит только триграммы, сами ФИО берутся из Peoples по rowid.
+    // Триграммный токенизатор считает ё отдельной буквой, а не е с диакритикой, поэтому индекс строится по ФИО,
+    // где ё уже заменена на е. Индекс без содержимого (content = ''): его строки не совпадают с Peoples
+    public static final String CREATE_PEOPLES_SEARCH = """
+            CREATE VIRTUAL TABLE IF NOT EXISTS Peoples_search USING fts5(
+                last_name, first_name, patronymic,
+                content = '',
+                tokenize = 'trigram remove_diacritics 1'
+            )
+            """;
+    // Триггеры, которые держат Peoples_search в согласии с Peoples
+    public static final String CREATE_PEOPLES_SEARCH_INSERT_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS Peoples_search_insert AFTER INSERT ON Peoples BEGIN
+                INSERT INTO Peoples_search (rowid, last_name, first_name, patronymic)
+                VALUES (new.id, replace(replace(new.last_name, 'ё', 'е'), 'Ё', 'Е'),
+                                replace(replace(new.first_name, 'ё', 'е'), 'Ё', 'Е'),
+                                replace(replace(new.patronymic, 'ё', 'е'), 'Ё', 'Е'));
+            END
+            """;
+    public static final String CREATE_PEOPLES_SEARCH_DELETE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS Peoples_search_delete AFTER DELETE ON Peoples BEGIN
+                INSERT INTO Peoples_search (Peoples_search, rowid, last_name, first_name, patronymic)
+                VALUES ('delete', old.id, replace(replace(old.last_name, 'ё', 'е'), 'Ё', 'Е'),
+                                          replace(replace(old.first_name, 'ё', 'е'), 'Ё', 'Е'),
+                                          replace(replace(old.patronymic, 'ё', 'е'), 'Ё', 'Е'));
+            END
+            """;
+    public static final String CREATE_PEOPLES_SEARCH_UPDATE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS Peoples_search_update AFTER UPDATE OF last_name, first_name, patronymic ON Peoples BEGIN
+                INSERT INTO Peoples_search (Peoples_search, rowid, last_name, first_name, patronymic)
+                VALUES ('delete', old.id, replace(replace(old.last_name, 'ё', 'е'), 'Ё', 'Е'),
+                                          replace(replace(old.first_name, 'ё', 'е'), 'Ё', 'Е'),
+                                          replace(replace(old.patronymic, 'ё', 'е'), 'Ё', 'Е'));
+                INSERT INTO Peoples_search (rowid, last_name, first_name, patronymic)
+                VALUES (new.id, replace(replace(new.last_name, 'ё', 'е'), 'Ё', 'Е'),
+                                replace(replace(new.first_name, 'ё', 'е'), 'Ё', 'Е'),
+                                replace(replace(new.patronymic, 'ё', 'е'), 'Ё', 'Е'));
+            END
+            """;
+    // Заполнение индекса по уже существующим людям
+    public static final String FILL_PEOPLES_SEARCH = """
+            INSERT INTO Peoples_search (rowid, last_name, first_name, patronymic)
+            SELECT id, replace(replace(last_name, 'ё', 'е'), 'Ё', 'Е'),
+                       replace(replace(first_name, 'ё', 'е'), 'Ё', 'Е'),
+                       replace(replace(patronymic, 'ё', 'е'), 'Ё', 'Е')
+            FROM Peoples
+            """;
+
+    // Журнал изменений Peoples: номер изменения и id человека, текущее состояние берется из самой Peoples
+    public static final String CREATE_PEOPLES_CHANGES = """
+            CREATE TABLE IF NOT EXISTS Peoples_changes (
+                seq       INTEGER PRIMARY KEY AUTOINCREMENT,
+                people_id INTEGER NOT NULL
+            )
+            """;
+    // Триггеры, которые пишут в журнал каждое изменение Peoples
+    public static final String CREATE_PEOPLES_CHANGES_INSERT_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS Peoples_changes_insert AFTER INSERT ON Peoples BEGIN
+                INSERT INTO Peoples_changes (people_id) VALUES (new.id);
+            END
+            """;
+    public static final String CREATE_PEOPLES_CHANGES_DELETE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS Peoples_changes_delete AFTER DELETE ON Peoples BEGIN
+                INSERT INTO Peoples_changes (people_id) VALUES (old.id);
+            END
+            """;
+    public static final String CREATE_PEOPLES_CHANGES_UPDATE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS Peoples_changes_update AFTER UPDATE ON Peoples BEGIN
+                INSERT INTO Peoples_changes (people_id) SELECT old.id WHERE old.id <> new.id;
+                INSERT INTO Peoples_changes (people_id) VALUES (new.id);
+            END
+            """;
+
+    // Мягкое удаление: человек помечается временем удаления и пропадает из выборок, но его еще можно вернуть
+    public static final String ADD_PEOPLES_DELETED_AT_COLUMN = "ALTER TABLE Peoples ADD COLUMN deleted_at INTEGER";
+    public static final String CREATE_PEOPLES_DELETED_AT_INDEX = "CREATE INDEX IF NOT EXISTS Peoples_deleted_at ON Peoples (deleted_at) WHERE deleted_at IS NOT NULL";
+    public static final String MARK_PEOPLES_DELETED = "UPDATE Peoples SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL";
+    public static final String RESTORE_PEOPLES = "UPDATE Peoples SET deleted_at = NULL WHERE id = ?";
+    // Окончательное удаление помеченных людей, удаленных не позже заданного времени
+    public static final String SELECT_PURGED_REMAINING_INFO = "SELECT DISTINCT remaining_info FROM Peoples WHERE deleted_at <= ?";
+    public static final String PURGE_PEOPLES = "DELETE FROM Peoples WHERE deleted_at <= ?";
+    // Ссылки на файлы строки Remaining_info, если на нее больше не ссылается ни один человек
+    public static final String SELECT_ORPHAN_REMAINING_INFO = """
+            SELECT document_blob, plan_of_house_blob
+            FROM Remaining_info
+            WHERE id = ?
+              AND NOT EXISTS (SELECT 1 FROM Peoples WHERE Peoples.remaining_info = Remaining_info.id)
+            """;
+    public static final String DELETE_REMAINING_INFO = "DELETE FROM Remaining_info WHERE id = ?";
+
+    // Постепенное возвращение свободных страниц файлу: один запуск освобождает одну страницу
+    public static final String AUTO_VACUUM = "PRAGMA auto_vacuum";
+    public static final String SET_AUTO_VACUUM = "PRAGMA auto_vacuum = %s";
+    public static final String INCREMENTAL_VACUUM = "PRAGMA incremental_vacuum(1)";
+    public static final String FREELIST_COUNT = "PRAGMA freelist_count";
+
+    // Уменьшенные копии планов и договоров для таблицы. Ключ - файл в Blobs, поэтому одинаковые файлы делят одну копию
+    public static final String CREATE_THUMBNAILS = """
+            CREATE TABLE IF NOT EXISTS Thumbnails (
+                blob_id INTEGER NOT NULL REFERENCES Blobs (id),
+                size    INTEGER NOT NULL,
+                image   BLOB    NOT NULL,
+                PRIMARY KEY (blob_id, size)
+            ) WITHOUT ROWID
+            """;
+    public static final String SELECT_THUMBNAIL = "SELECT image FROM Thumbnails WHERE blob_id = ? AND size = ?";
+    public static final String INSERT_THUMBNAIL = "INSERT OR REPLACE INTO Thumbnails (blob_id, size, image) VALUES (?, ?, ?)";
+    public static final String DELETE_BLOB_THUMBNAILS = "DELETE FROM Thumbnails WHERE blob_id = ?";
+    public static final String DELETE_ORPHAN_BLOB_THUMBNAILS = "DELETE FROM Thumbnails WHERE blob_id IN (SELECT id FROM Blobs WHERE ref_count <= 0)";
+
+    // Ответы геокодера: адрес по геохешу места или координаты по тексту поиска, saved_at - время ответа в миллисекундах
+    public static final String CREATE_GEOCODING_CACHE = """
+            CREATE TABLE IF NOT EXISTS Geocoding_cache (
+                key      TEXT    PRIMARY KEY,
+                value    TEXT    NOT NULL,
+                saved_at INTEGER NOT NULL
+            ) WITHOUT ROWID
+            """;
+    public static final String SELECT_GEOCODING = "SELECT value, saved_at FROM Geocoding_cache WHERE key = ? AND saved_at >= ?";
+    public static final String INSERT_GEOCODING = "INSERT OR REPLACE INTO Geocoding_cache (key, value, saved_at) VALUES (?, ?, ?)";
+    public static final String DELETE_EXPIRED_GEOCODING = "DELETE FROM Geocoding_cache WHERE saved_at < ?";
+
+    // Адреса для геокодера без интернета, загружаются целиком импортом (AddressImporter)
+    public static final String CREATE_ADDRESSES = """
+            CREATE TABLE IF NOT EXISTS Addresses (
+                id        INTEGER PRIMARY KEY,
+                address   TEXT    NOT NULL,
+                latitude  REAL    NOT NULL,
+                longitude REAL    NOT NULL
+            )
             """;
+    public static final String SELECT_ADDRESSES = "SELECT address, latitude, longitude FROM Addresses ORDER BY id";
+    public static final String INSERT_ADDRESS = "INSERT INTO Addresses (address, latitude, longitude) VALUES (?, ?, ?)";
+    public static final String DELETE_ADDRESSES = "DELETE FROM Addresses";
 }
@@ -19,7 +19,7 @@ class AlertService extends Thread {
     // уже так.
 
     private final Stage stage = SceneController.getInstance().getStage();
-    private final PersonInfo personInfo = DataBaseSQLite.getInstance().loadPersonInfos().get(new Random().nextInt(0, 10));
+    private final PersonInfo personInfo = DataBaseSQLite.getInstance().loadPersonInfosPage(0, 10).get(new Random().nextInt(0, 10));
     private final String text = String.format(
             "Произошла кража у '%s'! Полиция уведомлена!",
             String.join(" ", personInfo.getLastName(), personInfo.getFirstName(), personInfo.getPatronymic())
@@ -5,16 +5,16 @@
 
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase;
 
-import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import programmingLanguagesJava.laboratories.GUI.controllers.BaseController;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase.PersonSorting;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategy.*;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.RadioButtonContext;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.TableViewContext;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.tableViewStart.PersonTableModel;
 
 import java.net.URL;
 import java.util.ResourceBundle;
@@ -31,10 +31,12 @@ public class ViewData extends BaseController {
     @FXML
     private TableColumn<PersonInfo, Image> planColumn, pactColumn;
     @FXML
-    private Button addHumanButton, updateTableButton, planOfhouseButton, contractButton, deleteRowButton;
+    private Button addHumanButton, updateTableButton, planOfhouseButton, contractButton, deleteRowButton, exportButton;
     @FXML
     private TextField keywordTextField;
     @FXML
+    private ProgressBar loadingProgressBar, exportProgressBar;
+    @FXML
     private RadioButton lastNameRadioButton, firstNameRadioButton, patronymicRadioButton;
 
 
@@ -58,18 +60,26 @@ public class ViewData extends BaseController {
         );
 
 
-        var listDataBase = FXCollections.observableArrayList(DataBaseSQLite.getInstance().loadPersonInfos());
+        // Один список людей на все время жизни окна, кнопка обновления только применяет к нему изменения.
+        // Люди загружаются в фоне, когда окно открывают (см. LoadingActionViewingDatabase)
+        var tableModel = new PersonTableModel();
+
+        var listDataBase = tableModel.getPersonInfos();
+
+        // Порядок сортировки общий для всех людей и для найденных
+        var personSorting = new PersonSorting();
 
         Stream.of(
                 new AddHumanButtonActionViewingDatabase(addHumanButton),
+                new LoadingActionViewingDatabase(tableModel, context, loadingProgressBar),
                 new TableViewConfActionViewingDatabase(listDataBase, context),
-                new KeyWordTextFieldActionViewingDatabase(listDataBase, context, keywordTextField),
-                new RadioButtonsActionViewingDatabase(listDataBase, radioButtonContext),
-                new UpdateTableButtonActionViewingDatabase(listDataBase, context, radioButtonContext,
-                        updateTableButton, keywordTextField),
+                new KeyWordTextFieldActionViewingDatabase(listDataBase, context, keywordTextField, personSorting),
+                new RadioButtonsActionViewingDatabase(context, radioButtonContext, personSorting),
+                new UpdateTableButtonActionViewingDatabase(tableModel, updateTableButton),
                 new ReaderActionViewingDataBase(context, contractButton),
                 new ReaderPlanActionViewDatabase(context, planOfhouseButton),
-                new DeleteRowActionViewingDatabase(context, deleteRowButton)
+                new DeleteRowActionViewingDatabase(context, deleteRowButton, tableModel),
+                new ExportActionViewingDatabase(context, exportButton, exportProgressBar)
 
         ).forEach(ActionViewingDatabase::execute);
 
@@ -1,33 +1,87 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.deleteRowFromTableView;
 
-import javafx.collections.transformation.FilteredList;
 import javafx.scene.control.Button;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import lombok.RequiredArgsConstructor;
 import programmingLanguagesJava.laboratories.GUI.config.ButtonConfigurator;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.ElementDatabaseView;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.tableViewStart.PersonTableModel;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 
 /**
  * Класс, который отвечает за удаление строк из TableView.
- * Времени нет, чтобы делать удаление из БД, поэтому такое вот сделал.
+ * Удаляет сразу всех выбранных людей из базы данных, а не только прячет их в таблице.
+ * Удаление мягкое: последние удаления можно отменить через Ctrl+Z, пока фон не удалил людей окончательно.
  */
 @RequiredArgsConstructor
 public class Deleter implements ElementDatabaseView {
 
+    // Сколько последних удалений можно отменить
+    private static final int UNDO_DEPTH = 20;
+    private static final KeyCombination UNDO = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+
     private final ButtonConfigurator buttonConfigurator = ButtonConfigurator.getInstance();
     private final TableView<PersonInfo> customersTableView;
     private final Button button;
+    private final PersonTableModel tableModel;
+
+    // ID людей из последних удалений, последнее удаление сверху
+    private final Deque<List<Integer>> undoStack = new ArrayDeque<>();
 
     /**
      * Точка запуска.
      */
     @Override
     public void event() {
-        buttonConfigurator.setupButtonEvent(button, event -> {
-            var selectedItem = customersTableView.getSelectionModel().getSelectedItem();
-            FilteredList<PersonInfo> filteredData = new FilteredList<>(customersTableView.getItems(), p -> !p.equals(selectedItem));
-            customersTableView.setItems(filteredData);
+        customersTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        button.setTooltip(new Tooltip("Удалить выбранных (Delete), вернуть удаленных (Ctrl+Z)"));
+
+        buttonConfigurator.setupButtonEvent(button, event -> deleteSelected());
+
+        customersTableView.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.DELETE) {
+                deleteSelected();
+                event.consume();
+            } else if (UNDO.match(event)) {
+                undo();
+                event.consume();
+            }
         });
     }
+
+    private void deleteSelected() {
+        var ids = customersTableView.getSelectionModel().getSelectedItems().stream()
+                .map(PersonInfo::getId)
+                .toList();
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        customersTableView.getSelectionModel().clearSelection();
+        tableModel.delete(ids);
+
+        undoStack.push(ids);
+        if (undoStack.size() > UNDO_DEPTH) {
+            undoStack.removeLast();
+        }
+    }
+
+    private void undo() {
+        var ids = undoStack.poll();
+
+        if (ids != null) {
+            tableModel.restore(ids);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+/**
+ * Абстрактный класс AttachmentSink - место, куда при выгрузке копируются договоры и планы людей.
+ * Файлы копируются из базы данных потоково, по одному, и в памяти не держатся.
+ * У людей одного заказчика общие файлы, поэтому каждый файл записывается один раз, а остальные строки на него ссылаются.
+ * Путь к файлу строится по id строки Remaining_info: folder/id/имя файла.
+ */
+public abstract class AttachmentSink {
+
+    private final String folder;
+
+    // Какие файлы уже записаны и какие из них не пустые, по номеру id * количество столбцов + столбец
+    private final BitSet written = new BitSet();
+    private final BitSet present = new BitSet();
+
+    private long bytes;
+
+    protected AttachmentSink(String folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Метод put() копирует файл, если он еще не записан.
+     *
+     * @param blob     Ленивая ссылка на файл в базе данных.
+     * @param fileName Имя файла с расширением.
+     * @return Относительный путь к файлу или пустая строка, если файла в базе данных нет.
+     * @throws IOException Если не удалось записать файл.
+     */
+    public String put(LazyBlob blob, String fileName) throws IOException {
+        var bit = blob.getRemainingInfoId() * BlobColumn.values().length + blob.getColumn().ordinal();
+        var path = folder + "/" + blob.getRemainingInfoId() + "/" + fileName;
+
+        if (!written.get(bit)) {
+            var size = write(path, blob);
+
+            written.set(bit);
+            present.set(bit, size > 0);
+            bytes += size;
+        }
+
+        return present.get(bit) ? path : "";
+    }
+
+    /**
+     * @return Сколько байтов файлов записано.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Метод write() записывает один файл.
+     *
+     * @param path Относительный путь к файлу.
+     * @param blob Ленивая ссылка на файл в базе данных.
+     * @return Сколько байтов записано. Если 0, файл можно не оставлять.
+     * @throws IOException Если не удалось записать файл.
+     */
+    protected abstract long write(String path, LazyBlob blob) throws IOException;
+
+    /**
+     * Поток, который считает записанные байты и не закрывает поток под собой.
+     */
+    protected static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        public CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+}
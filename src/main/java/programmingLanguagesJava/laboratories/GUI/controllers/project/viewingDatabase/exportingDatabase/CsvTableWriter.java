@@ -0,0 +1,69 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Класс CsvTableWriter пишет таблицу в CSV в том же виде, который понимает импорт (CsvClientLineParser):
+ * разделитель - точка с запятой, поле с разделителем, кавычкой или переводом строки берется в кавычки,
+ * кавычка внутри поля удваивается.
+ * В начало файла пишется BOM, иначе Excel открывает UTF-8 с кириллицей кракозябрами.
+ */
+public class CsvTableWriter implements TableWriter {
+
+    private static final char DELIMITER = ';';
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    /**
+     * @param outputStream Поток, куда пишется CSV. Закрывается вместе с CsvTableWriter.
+     * @throws IOException Если не удалось записать BOM.
+     */
+    public CsvTableWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeRow(List<String> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                writer.write(DELIMITER);
+            }
+            writeCell(cells.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeCell(String cell) throws IOException {
+        if (cell == null) {
+            return;
+        }
+
+        var isQuoted = false;
+        for (int i = 0; i < cell.length() && !isQuoted; i++) {
+            var c = cell.charAt(i);
+            isQuoted = c == DELIMITER || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!isQuoted) {
+            writer.write(cell);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(cell.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
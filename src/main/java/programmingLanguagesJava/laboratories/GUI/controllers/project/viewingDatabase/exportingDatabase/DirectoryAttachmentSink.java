@@ -0,0 +1,45 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Класс DirectoryAttachmentSink пишет файлы людей в папку рядом с выгруженной таблицей,
+ * а в таблицу попадают пути относительно нее - так же, как их понимает импорт (ImportFiles).
+ */
+public class DirectoryAttachmentSink extends AttachmentSink {
+
+    private final Path baseDir;
+
+    /**
+     * @param baseDir Папка выгруженной таблицы.
+     * @param folder  Папка для файлов внутри baseDir.
+     */
+    public DirectoryAttachmentSink(Path baseDir, String folder) {
+        super(folder);
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    protected long write(String path, LazyBlob blob) throws IOException {
+        var file = baseDir.resolve(path);
+        Files.createDirectories(file.getParent());
+
+        try (var outputStream = Files.newOutputStream(file);
+             var countingStream = new CountingOutputStream(outputStream)) {
+
+            blob.copyTo(countingStream);
+
+            if (countingStream.count() > 0) {
+                return countingStream.count();
+            }
+        }
+
+        // Файла в базе данных нет, пустой файл оставлять незачем
+        Files.delete(file);
+        return 0;
+    }
+}
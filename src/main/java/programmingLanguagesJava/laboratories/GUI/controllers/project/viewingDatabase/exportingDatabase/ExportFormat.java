@@ -0,0 +1,41 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Форматы выгрузки людей из таблицы.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("CSV (разделитель ;)", ".csv"),
+    XLSX("Книга Excel", ".xlsx"),
+    // Таблица и файлы людей одним архивом
+    ZIP("ZIP-архив с договорами и планами", ".zip");
+
+    private final String description;
+    private final String extension;
+
+    /**
+     * Метод forFile() выбирает формат по расширению файла.
+     *
+     * @param file     Файл, куда нужно выгрузить людей.
+     * @param fallback Формат для файла без известного расширения.
+     * @return Формат выгрузки.
+     */
+    public static ExportFormat forFile(Path file, ExportFormat fallback) {
+        var name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        for (var format : values()) {
+            if (name.endsWith(format.extension)) {
+                return format;
+            }
+        }
+
+        return fallback;
+    }
+}
@@ -0,0 +1,34 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Состояние выгрузки на текущий момент.
+ *
+ * @param exported     Сколько людей уже записано.
+ * @param total        Сколько людей нужно записать.
+ * @param fileBytes    Сколько байтов договоров и планов скопировано.
+ * @param elapsedNanos Сколько времени прошло с начала выгрузки.
+ */
+public record ExportProgress(long exported, long total, long fileBytes, long elapsedNanos) {
+
+    /**
+     * @return Доля записанных людей от 0 до 1.
+     */
+    public double fraction() {
+        return total == 0 ? 1 : (double) exported / total;
+    }
+
+    /**
+     * @return Скорость выгрузки в людях в секунду.
+     */
+    public double peoplePerSecond() {
+        return elapsedNanos == 0 ? 0 : exported * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("записано %d из %d, файлов %.1f МБ, %.1f людей/с",
+                exported, total, fileBytes / (1024.0 * 1024.0), peoplePerSecond());
+    }
+}
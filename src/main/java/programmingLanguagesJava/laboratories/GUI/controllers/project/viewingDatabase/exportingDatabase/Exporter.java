@@ -0,0 +1,164 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import javafx.concurrent.Task;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
+import lombok.RequiredArgsConstructor;
+import org.controlsfx.control.Notifications;
+import programmingLanguagesJava.laboratories.GUI.config.ButtonConfigurator;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.ElementDatabaseView;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Класс, который отвечает за выгрузку людей из TableView в файл.
+ * Выгружаются выбранные люди, если выбрано больше одного, иначе все, что сейчас видно в таблице,
+ * с учетом поиска и в том же порядке сортировки.
+ * Выгрузка идет в фоне, ход показывается на индикаторе, а повторное нажатие на кнопку ее отменяет.
+ */
+@RequiredArgsConstructor
+public class Exporter implements ElementDatabaseView {
+
+    private static final String TOOLTIP = "Выгрузить выбранных или всех в таблице (CSV, Excel, ZIP с файлами)";
+
+    // Фоновый поток для выгрузки, выгрузки выполняются по одной
+    private static final ExecutorService EXPORTER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("person-exporter").daemon(true).factory());
+
+    private final ButtonConfigurator buttonConfigurator = ButtonConfigurator.getInstance();
+    private final TableView<PersonInfo> customersTableView;
+    private final Button button;
+    private final ProgressBar progressBar;
+
+    private final FileChooser fileChooser = createFileChooser();
+
+    // Выгрузка, которая сейчас выполняется
+    private Task<ExportProgress> currentTask;
+
+    /**
+     * Точка запуска.
+     */
+    @Override
+    public void event() {
+        button.setTooltip(new Tooltip(TOOLTIP));
+        progressBar.setVisible(false);
+
+        buttonConfigurator.setupButtonEvent(button, event -> {
+            if (currentTask != null) {
+                currentTask.cancel();
+            } else {
+                chooseAndExport(event);
+            }
+        });
+    }
+
+    private void chooseAndExport(MouseEvent event) {
+        var window = ((Node) event.getSource()).getScene().getWindow();
+        var file = fileChooser.showSaveDialog(window);
+
+        if (file == null) {
+            return;
+        }
+
+        fileChooser.setInitialDirectory(file.getParentFile());
+
+        // Не на всех системах окно выбора само дописывает расширение, тогда формат берется из выбранного фильтра
+        var filterIndex = fileChooser.getExtensionFilters().indexOf(fileChooser.getSelectedExtensionFilter());
+        var format = ExportFormat.forFile(file.toPath(), ExportFormat.values()[Math.max(filterIndex, 0)]);
+
+        var target = file.getName().toLowerCase(Locale.ROOT).endsWith(format.getExtension())
+                ? file
+                : new File(file.getPath() + format.getExtension());
+
+        // В ZIP-архив файлы кладутся всегда, ради этого он и нужен
+        var withFiles = format == ExportFormat.ZIP || askWithFiles();
+
+        // Снимок строк: таблица может меняться, пока идет выгрузка
+        var selected = customersTableView.getSelectionModel().getSelectedItems();
+        var people = List.copyOf(selected.size() > 1 ? selected : customersTableView.getItems());
+
+        export(people, target, format, withFiles);
+    }
+
+    private void export(List<PersonInfo> people, File target, ExportFormat format, boolean withFiles) {
+        var task = new Task<ExportProgress>() {
+            @Override
+            protected ExportProgress call() throws Exception {
+                var exporter = new PersonExporter(
+                        progress -> updateProgress(progress.exported(), progress.total()),
+                        this::isCancelled);
+
+                return exporter.export(people, target.toPath(), format, withFiles);
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            finish();
+            Notifications.create()
+                    .title("Выгрузка готова")
+                    .text(target.getName() + ": " + task.getValue())
+                    .hideAfter(Duration.seconds(7))
+                    .position(Pos.TOP_CENTER)
+                    .showInformation();
+        });
+        task.setOnCancelled(event -> finish());
+        task.setOnFailed(event -> {
+            finish();
+            throw new RuntimeException("Не получилось выгрузить людей в " + target, task.getException());
+        });
+
+        currentTask = task;
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressBar.setVisible(true);
+        button.getTooltip().setText("Отменить выгрузку");
+
+        EXPORTER.execute(task);
+    }
+
+    private void finish() {
+        currentTask = null;
+        progressBar.progressProperty().unbind();
+        progressBar.setVisible(false);
+        button.getTooltip().setText(TOOLTIP);
+    }
+
+    private static boolean askWithFiles() {
+        var onlyNames = new ButtonType("Только ФИО", ButtonBar.ButtonData.NO);
+        var withFiles = new ButtonType("С договорами и планами", ButtonBar.ButtonData.YES);
+
+        var alert = new Alert(Alert.AlertType.CONFIRMATION, "Выгрузить вместе с таблицей договоры и планы зданий? "
+                + "Они будут записаны в папку рядом с таблицей.", onlyNames, withFiles);
+        alert.setHeaderText(null);
+
+        return alert.showAndWait().filter(withFiles::equals).isPresent();
+    }
+
+    private static FileChooser createFileChooser() {
+        var fileChooser = new FileChooser();
+        fileChooser.setTitle("Куда выгрузить людей");
+        fileChooser.setInitialFileName("clients");
+        fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
+
+        Arrays.stream(ExportFormat.values())
+                .map(format -> new FileChooser.ExtensionFilter(format.getDescription(), "*" + format.getExtension()))
+                .forEach(fileChooser.getExtensionFilters()::add);
+
+        return fileChooser;
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Выгрузка людей из таблицы в файл. Раньше заказчиков приходилось переписывать из таблицы руками.
+ */
+
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Класс PersonExporter выгружает людей в CSV, XLSX или ZIP-архив.
+ * Люди пишутся по одному прямо в файл, а договоры и планы копируются из базы данных потоково,
+ * поэтому память не растет ни с количеством людей, ни с размером файлов.
+ * Файл пишется рядом с нужным под временным именем и переименовывается в конце,
+ * поэтому прерванная выгрузка не оставляет файл, похожий на готовый.
+ * Если нужны файлы людей, то для CSV и XLSX они пишутся в папку рядом с таблицей, а для ZIP - в сам архив.
+ */
+public class PersonExporter {
+
+    private static final List<String> HEADER = List.of("ID", "Фамилия", "Имя", "Отчество");
+    private static final List<String> HEADER_WITH_FILES = List.of("ID", "Фамилия", "Имя", "Отчество", "План здания", "Договор");
+
+    // Таблица внутри ZIP-архива
+    private static final String MANIFEST = "clients.csv";
+    private static final String ZIP_FILES_FOLDER = "files";
+    private static final String PART = ".part";
+
+    private static final String PLAN_FILE_NAME = "plan.png";
+    private static final String DOCUMENT_FILE_NAME = "contract.docx";
+
+    // Как часто сообщать о ходе выгрузки
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Consumer<ExportProgress> progressListener;
+    private final BooleanSupplier isCancelled;
+
+    /**
+     * @param progressListener Вызывается из потока выгрузки не чаще раза в 100 мс и один раз в конце.
+     * @param isCancelled      Проверяется перед каждым человеком, true прерывает выгрузку.
+     */
+    public PersonExporter(Consumer<ExportProgress> progressListener, BooleanSupplier isCancelled) {
+        this.progressListener = progressListener;
+        this.isCancelled = isCancelled;
+    }
+
+    /**
+     * Метод export() выгружает людей в том порядке, в каком они переданы.
+     *
+     * @param people    Люди для выгрузки (например, то, что сейчас видно в таблице).
+     * @param target    Файл, куда нужно выгрузить людей.
+     * @param format    Формат выгрузки.
+     * @param withFiles Нужно ли выгружать договоры и планы.
+     * @return Итог выгрузки.
+     * @throws IOException           Если не удалось записать файл.
+     * @throws CancellationException Если выгрузку отменили.
+     */
+    public ExportProgress export(List<PersonInfo> people, Path target, ExportFormat format, boolean withFiles)
+            throws IOException {
+
+        var part = target.resolveSibling(target.getFileName() + PART);
+
+        try {
+            ExportProgress progress;
+
+            // Файл закрывается на выходе из try, и только после этого переносится на место target
+            try (var outputStream = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+                progress = format == ExportFormat.ZIP
+                        ? exportZip(people, outputStream, withFiles)
+                        : exportTable(people, outputStream, format, withFiles ? directorySink(target) : null);
+            }
+
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return progress;
+
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+
+    // CSV или XLSX, файлы людей (если нужны) - в папку рядом
+    private ExportProgress exportTable(List<PersonInfo> people, OutputStream outputStream, ExportFormat format,
+                                       AttachmentSink attachments) throws IOException {
+
+        try (var table = format == ExportFormat.XLSX
+                ? new XlsxTableWriter(outputStream)
+                : new CsvTableWriter(outputStream)) {
+
+            return writePeople(people, table, attachments);
+        }
+    }
+
+    // Файлы людей пишутся в архив по мере выгрузки, а таблица копится во временном файле и дописывается последней,
+    // потому что в ZIP нельзя писать две записи одновременно
+    private ExportProgress exportZip(List<PersonInfo> people, OutputStream outputStream, boolean withFiles)
+            throws IOException {
+
+        var manifest = Files.createTempFile("export-", ".csv");
+
+        try (var zip = new ZipOutputStream(outputStream)) {
+
+            ExportProgress progress;
+            try (var table = new CsvTableWriter(new BufferedOutputStream(Files.newOutputStream(manifest), BUFFER_SIZE))) {
+                progress = writePeople(people, table, withFiles ? new ZipAttachmentSink(zip, ZIP_FILES_FOLDER) : null);
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST));
+            Files.copy(manifest, zip);
+            zip.closeEntry();
+
+            return progress;
+
+        } finally {
+            Files.deleteIfExists(manifest);
+        }
+    }
+
+    private ExportProgress writePeople(List<PersonInfo> people, TableWriter table, AttachmentSink attachments)
+            throws IOException {
+
+        var start = System.nanoTime();
+        var lastReport = start;
+
+        table.writeRow(attachments == null ? HEADER : HEADER_WITH_FILES);
+
+        for (int i = 0; i < people.size(); i++) {
+            if (isCancelled.getAsBoolean()) {
+                throw new CancellationException("Выгрузка отменена");
+            }
+
+            table.writeRow(row(people.get(i), attachments));
+
+            var now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                progressListener.accept(progress(i + 1, people.size(), attachments, now - start));
+                lastReport = now;
+            }
+        }
+
+        var progress = progress(people.size(), people.size(), attachments, System.nanoTime() - start);
+        progressListener.accept(progress);
+
+        return progress;
+    }
+
+    private static List<String> row(PersonInfo personInfo, AttachmentSink attachments) throws IOException {
+        var cells = new ArrayList<String>(HEADER_WITH_FILES.size());
+
+        cells.add(String.valueOf(personInfo.getId()));
+        cells.add(personInfo.getLastName());
+        cells.add(personInfo.getFirstName());
+        cells.add(personInfo.getPatronymic());
+
+        if (attachments != null) {
+            cells.add(attachments.put(personInfo.getPlanOfHouse(), PLAN_FILE_NAME));
+            cells.add(attachments.put(personInfo.getDocument(), DOCUMENT_FILE_NAME));
+        }
+
+        return cells;
+    }
+
+    private static ExportProgress progress(long exported, long total, AttachmentSink attachments, long elapsedNanos) {
+        return new ExportProgress(exported, total, attachments == null ? 0 : attachments.bytes(), elapsedNanos);
+    }
+
+    // Папка для файлов рядом с таблицей: clients.csv -> clients_files
+    private static AttachmentSink directorySink(Path target) {
+        var name = target.getFileName().toString();
+        var dot = name.lastIndexOf('.');
+        var folder = (dot > 0 ? name.substring(0, dot) : name) + "_files";
+
+        return new DirectoryAttachmentSink(target.toAbsolutePath().getParent(), folder);
+    }
+}
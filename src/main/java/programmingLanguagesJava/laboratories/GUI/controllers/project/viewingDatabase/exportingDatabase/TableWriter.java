@@ -0,0 +1,27 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Интерфейс TableWriter записывает таблицу построчно в конкретный формат.
+ * Строка уходит в поток сразу после записи, поэтому память не зависит от количества строк.
+ */
+public interface TableWriter extends AutoCloseable {
+
+    /**
+     * Метод writeRow() записывает одну строку таблицы.
+     *
+     * @param cells Значения ячеек слева направо.
+     * @throws IOException Если не удалось записать строку.
+     */
+    void writeRow(List<String> cells) throws IOException;
+
+    /**
+     * Метод close() дописывает то, что формат пишет в конце, и закрывает поток.
+     *
+     * @throws IOException Если не удалось дописать файл.
+     */
+    @Override
+    void close() throws IOException;
+}
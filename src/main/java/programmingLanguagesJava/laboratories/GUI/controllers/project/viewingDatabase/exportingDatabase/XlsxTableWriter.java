@@ -0,0 +1,80 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Класс XlsxTableWriter пишет таблицу в книгу Excel через потоковый SXSSFWorkbook из Apache POI.
+ * В памяти держится только окно из последних строк, остальные сбрасываются во временный файл POI,
+ * а строки пишутся прямо в ячейки (inline), без общей таблицы строк, которая росла бы вместе с книгой.
+ * Если строк больше, чем помещается на лист Excel, выгрузка продолжается на следующем листе с тем же заголовком.
+ */
+public class XlsxTableWriter implements TableWriter {
+
+    // Сколько строк держать в памяти до сброса на диск
+    private static final int ROW_WINDOW = 200;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final OutputStream outputStream;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(null, ROW_WINDOW, true, false);
+
+    private List<String> header;
+    private SXSSFSheet sheet;
+    private int nextRow;
+
+    /**
+     * @param outputStream Поток, куда пишется книга. Закрывается вместе с XlsxTableWriter.
+     */
+    public XlsxTableWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Первая строка считается заголовком и повторяется на каждом новом листе.
+     */
+    @Override
+    public void writeRow(List<String> cells) {
+        if (sheet == null || nextRow == MAX_ROWS) {
+            var isFirstSheet = sheet == null;
+
+            sheet = workbook.createSheet("Заказчики " + (workbook.getNumberOfSheets() + 1));
+            nextRow = 0;
+
+            if (!isFirstSheet) {
+                fill(header);
+            }
+        }
+
+        if (header == null) {
+            header = List.copyOf(cells);
+        }
+
+        fill(cells);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (outputStream) {
+            workbook.write(outputStream);
+        } finally {
+            // Временные файлы POI не удаляются сами при закрытии книги
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void fill(List<String> cells) {
+        var row = sheet.createRow(nextRow++);
+
+        for (int i = 0; i < cells.size(); i++) {
+            if (cells.get(i) != null) {
+                row.createCell(i).setCellValue(cells.get(i));
+            }
+        }
+    }
+}
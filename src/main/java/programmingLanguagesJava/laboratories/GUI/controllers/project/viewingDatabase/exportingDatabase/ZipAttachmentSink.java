@@ -0,0 +1,40 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
+
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Класс ZipAttachmentSink пишет файлы людей записями ZIP-архива.
+ * Договоры (docx) и планы (png) уже сжаты, поэтому они кладутся без сжатия и не тратят время процессора.
+ */
+public class ZipAttachmentSink extends AttachmentSink {
+
+    private final ZipOutputStream zip;
+
+    /**
+     * @param zip    Архив, в который пишутся файлы. Закрывает его вызывающий код.
+     * @param folder Папка внутри архива.
+     */
+    public ZipAttachmentSink(ZipOutputStream zip, String folder) {
+        super(folder);
+        this.zip = zip;
+    }
+
+    @Override
+    protected long write(String path, LazyBlob blob) throws IOException {
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        zip.putNextEntry(new ZipEntry(path));
+
+        var outputStream = new CountingOutputStream(zip);
+        blob.copyTo(outputStream);
+
+        zip.closeEntry();
+        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+
+        return outputStream.count();
+    }
+}
@@ -3,13 +3,12 @@ package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDat
 import javafx.scene.control.Button;
 import javafx.scene.control.TableView;
 import programmingLanguagesJava.laboratories.GUI.config.ButtonConfigurator;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.ElementDatabaseView;
 
 import java.awt.*;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,23 +24,21 @@ public abstract class FileOpener implements ElementDatabaseView {
 
 
     /**
-     * Метод, который позволяет создавать временные файл для просмотра фото или Word документов.
+     * Метод, который позволяет открывать фото или Word документы из базы данных.
+     * Файл берется из кеша открытых файлов (см. OpenedFileCache): повторное открытие того же файла
+     * не копирует его заново, а новый файл копируется из базы данных на диск по частям, не загружаясь в память целиком.
+     * Если файл хранится сжатым, он распаковывается на лету при копировании.
      * Сам процесс открытия делается за счет Desktop, который сам определяет возможные приложения.
-     * @param fileContent массив байтов из базы данных, который мы достали
-     * @param extension расширение файла, в которое мы временно хотим создать.
+     * @param fileContent ленивая ссылка на файл в базе данных
+     * @param extension расширение файла, с которым файл будет записан на диск.
      */
-    protected void openFile(byte[] fileContent, String extension) {
+    protected void openFile(LazyBlob fileContent, String extension) {
         try {
 
-            var tempFile = Files.createTempFile("document", extension).toFile();
+            var file = OpenedFileCache.getInstance().materialize(fileContent, extension);
 
-            tempFile.deleteOnExit();
+            Desktop.getDesktop().open(file.toFile());
 
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                fos.write(fileContent);
-            }
-
-            Desktop.getDesktop().open(tempFile);
         } catch (IOException e) {
             throw new RuntimeException("Ошибка при открытии файла", e);
         }
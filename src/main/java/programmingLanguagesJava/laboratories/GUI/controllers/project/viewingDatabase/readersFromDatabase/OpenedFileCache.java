@@ -0,0 +1,265 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.readersFromDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * Класс OpenedFileCache хранит на диске файлы из базы данных, которые открывали через Desktop.
+ * Раньше каждое нажатие кнопки писало новый временный файл, который удалялся только при выходе,
+ * поэтому папка временных файлов росла всю сессию, а повторное открытие снова копировало весь файл.
+ * Теперь файл называется по SHA-256 содержимого (одинаковые файлы разных строк - один файл на диске)
+ * и повторное открытие берет уже записанный файл. Общий размер ограничен, лишние файлы удаляются,
+ * начиная с тех, что дольше всех не открывали. Файлы только для чтения, чтобы правка в Word не испортила кеш,
+ * а если файл все-таки изменился (по размеру или времени изменения), он записывается заново.
+ * Папка живет между запусками, при запуске из нее убираются недописанные файлы.
+ * В файлах договоры и планы клиентов, поэтому папка лежит в домашней папке пользователя, а не в общей папке
+ * временных файлов, и в POSIX доступна только владельцу (rwx------), как и файлы в ней (rw-------).
+ * Папку, которую создал кто-то другой или которая оказалась ссылкой, кеш не использует.
+ */
+public class OpenedFileCache {
+
+    // Папка и размер кеша, можно поменять через -D при запуске
+    private static final Path DIRECTORY = Path.of(System.getProperty("documents.cacheDir",
+            Path.of(System.getProperty("user.home"), ".security-contracts", "documents").toString()));
+    private static final long CAPACITY_BYTES = Long.getLong("documents.cacheMib", 256) * 1024 * 1024;
+
+    // Расширение недописанного файла: он переименовывается в готовый только после полной записи
+    private static final String PART = ".part";
+
+    // В Windows права задает ACL домашней папки пользователя, POSIX-права есть только в Linux и macOS
+    private static final boolean IS_POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> OWNER_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private static OpenedFileCache instance;
+
+    // Файлы в порядке открытия: первым идет тот, что дольше всех не открывали
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    /**
+     * Метод getInstance() возвращает единственный кеш на все окна (Singleton pattern).
+     *
+     * @return Кеш открытых файлов.
+     */
+    public static synchronized OpenedFileCache getInstance() {
+        if (instance == null) {
+            instance = new OpenedFileCache();
+        }
+        return instance;
+    }
+
+    private OpenedFileCache() {
+        try {
+
+            createPrivateDirectory(DIRECTORY);
+
+            try (var files = Files.list(DIRECTORY)) {
+                files.filter(Files::isRegularFile)
+                        .sorted(Comparator.comparing(OpenedFileCache::lastModified))
+                        .forEach(this::register);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не получилось открыть папку для файлов из базы данных " + DIRECTORY, e);
+        }
+
+        evict(null);
+    }
+
+    /**
+     * Метод materialize() возвращает файл на диске с содержимым из базы данных.
+     * Если файл уже записан и не изменен, он возвращается сразу, иначе копируется из базы данных.
+     *
+     * @param blob      Ленивая ссылка на файл в базе данных.
+     * @param extension Расширение файла, например ".docx".
+     * @return Путь к файлу, который можно открыть.
+     * @throws IOException Если не удалось записать файл.
+     */
+    public synchronized Path materialize(LazyBlob blob, String extension) throws IOException {
+        var path = DIRECTORY.resolve(fileName(blob) + extension);
+        var entry = entries.get(path);
+
+        if (entry != null && entry.matches(path)) {
+            return path;
+        }
+
+        remove(path);
+        write(blob, path);
+        register(path);
+        evict(path);
+
+        return path;
+    }
+
+    // Имя по хешу содержимого, а для старых файлов прямо в строке (у них нет хеша) - по строке и столбцу
+    private static String fileName(LazyBlob blob) {
+        var dataBase = DataBaseSQLite.getInstance();
+        var blobId = dataBase.blobId(blob.getRemainingInfoId(), blob.getColumn());
+        var hash = blobId != 0 ? dataBase.blobHash(blobId) : null;
+
+        return hash != null
+                ? hash
+                : "row-" + blob.getRemainingInfoId() + "-" + blob.getColumn().getColumnName();
+    }
+
+    /**
+     * Создает папку кеша, доступную только владельцу, или проверяет уже существующую.
+     * Права существующей папки сужаются до владельца, а чужая папка или ссылка вместо папки - ошибка.
+     *
+     * @param directory Папка кеша.
+     * @throws IOException Если папку не удалось создать или ей нельзя доверять.
+     */
+    static void createPrivateDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory.toAbsolutePath().getParent());
+
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                if (IS_POSIX) {
+                    Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_DIRECTORY));
+                } else {
+                    Files.createDirectory(directory);
+                }
+            } catch (FileAlreadyExistsException e) {
+                // Папку создали одновременно с нами, ниже она проверяется как любая существующая
+            }
+        }
+
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Вместо папки для файлов из базы данных лежит ссылка или файл: " + directory);
+        }
+
+        var currentUser = directory.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS).equals(currentUser)) {
+            throw new IOException("Папка для файлов из базы данных принадлежит другому пользователю: " + directory);
+        }
+
+        if (IS_POSIX && !Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS).equals(OWNER_DIRECTORY)) {
+            Files.setPosixFilePermissions(directory, OWNER_DIRECTORY);
+        }
+    }
+
+    /**
+     * Пишет файл через FileChannel рядом с готовым и переименовывает, поэтому недописанный файл не откроется.
+     * Недописанный файл создается заново (CREATE_NEW) с правами только для владельца, а не под umask,
+     * поэтому и готовый файл никто, кроме владельца, не прочитает.
+     *
+     * @param blob Ленивая ссылка на файл в базе данных.
+     * @param path Путь готового файла.
+     * @throws IOException Если не удалось записать файл.
+     */
+    static void write(LazyBlob blob, Path path) throws IOException {
+        var part = path.resolveSibling(path.getFileName() + PART);
+        Files.deleteIfExists(part);
+
+        var options = Set.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        try (var channel = IS_POSIX
+                ? FileChannel.open(part, options, PosixFilePermissions.asFileAttribute(OWNER_FILE))
+                : FileChannel.open(part, options);
+             var outputStream = Channels.newOutputStream(channel)) {
+
+            blob.copyTo(outputStream);
+
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        Files.move(part, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        path.toFile().setReadOnly();
+    }
+
+    private void register(Path path) {
+        if (path.getFileName().toString().endsWith(PART)) {
+            delete(path);
+            return;
+        }
+
+        try {
+
+            var entry = new Entry(Files.size(path), Files.getLastModifiedTime(path));
+            entries.put(path, entry);
+            sizeBytes += entry.size();
+
+        } catch (IOException e) {
+            // Файл удалили, пока папка читалась, учитывать нечего
+        }
+    }
+
+    private void remove(Path path) {
+        var entry = entries.remove(path);
+        if (entry != null) {
+            sizeBytes -= entry.size();
+        }
+        delete(path);
+    }
+
+    // Удаление самых старых файлов, пока кеш больше лимита. Только что открытый файл не удаляется никогда
+    private void evict(Path keep) {
+        var iterator = entries.entrySet().iterator();
+
+        while (sizeBytes > CAPACITY_BYTES && iterator.hasNext()) {
+            var next = iterator.next();
+
+            // Файл может быть открыт в другой программе и не удаляться, тогда он остается до следующего раза
+            if (!next.getKey().equals(keep) && delete(next.getKey())) {
+                sizeBytes -= next.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean delete(Path path) {
+        var file = path.toFile();
+        try {
+            // В Windows файл только для чтения нельзя удалить
+            file.setWritable(true);
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            // Файл остался, поэтому он снова только для чтения, как и все файлы кеша
+            file.setReadOnly();
+            return false;
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // Размер и время изменения файла в момент записи: если они поменялись, файл правили снаружи
+    private record Entry(long size, FileTime modified) {
+
+        boolean matches(Path path) {
+            try {
+                return Files.size(path) == size && Files.getLastModifiedTime(path).equals(modified);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
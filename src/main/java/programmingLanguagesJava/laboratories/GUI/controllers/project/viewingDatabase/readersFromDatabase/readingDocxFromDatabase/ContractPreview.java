@@ -0,0 +1,134 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.readersFromDatabase.readingDocxFromDatabase;
+
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.web.WebView;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing.DocxHtmlRenderer;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.readersFromDatabase.OpenedFileCache;
+
+import java.io.BufferedInputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Класс ContractPreview показывает договор прямо в приложении, не запуская Word.
+ * Договор берется из кеша открытых файлов (OpenedFileCache), в фоне переводится в HTML (DocxHtmlRenderer)
+ * и показывается в WebView. Окно с WebView создается один раз и переиспользуется для всех договоров,
+ * а HTML последних просмотренных договоров запоминается, поэтому повторный просмотр ничего не разбирает.
+ * Открыть договор в Word можно кнопкой в самом окне.
+ * Все методы вызываются из потока JavaFX.
+ */
+class ContractPreview {
+
+    // Сколько последних договоров держать в памяти в виде HTML
+    private static final int CACHED_PREVIEWS = 16;
+
+    private static final String LOADING = "<html><body style=\"font: 14px sans-serif; color: #666\">Загрузка договора...</body></html>";
+
+    // Фоновый поток для перевода договоров в HTML
+    private static final ExecutorService RENDERER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("contract-preview").daemon(true).factory());
+
+    // HTML по файлу в кеше открытых файлов (его имя - хеш содержимого), меняется только в потоке RENDERER
+    private final Map<Path, String> previews = new LinkedHashMap<>(CACHED_PREVIEWS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, String> eldest) {
+            return size() > CACHED_PREVIEWS;
+        }
+    };
+
+    private Stage stage;
+    private WebView webView;
+    private Runnable openExternally;
+
+    // Перевод в HTML, который сейчас выполняется
+    private Task<String> currentTask;
+
+    /**
+     * Метод show() открывает окно просмотра с договором.
+     *
+     * @param owner          Окно, поверх которого показывается просмотр.
+     * @param document       Ленивая ссылка на договор в базе данных.
+     * @param openExternally Открытие договора во внешнем приложении, вызывается кнопкой в окне.
+     */
+    void show(Window owner, LazyBlob document, Runnable openExternally) {
+        if (stage == null) {
+            createStage(owner);
+        }
+
+        this.openExternally = openExternally;
+
+        if (currentTask != null) {
+            currentTask.cancel();
+        }
+
+        var task = new Task<String>() {
+            @Override
+            protected String call() throws Exception {
+                var file = OpenedFileCache.getInstance().materialize(document, ".docx");
+                return previews.computeIfAbsent(file, ContractPreview::render);
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            currentTask = null;
+            webView.getEngine().loadContent(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            currentTask = null;
+            stage.hide();
+            throw new RuntimeException("Не получилось показать договор", task.getException());
+        });
+
+        currentTask = task;
+        webView.getEngine().loadContent(LOADING);
+
+        stage.show();
+        stage.toFront();
+
+        RENDERER.execute(task);
+    }
+
+    private void createStage(Window owner) {
+        webView = new WebView();
+        webView.setContextMenuEnabled(false);
+
+        var openButton = new Button("Открыть в Word");
+        openButton.setOnAction(event -> openExternally.run());
+
+        var buttons = new HBox(openButton);
+        buttons.setAlignment(Pos.CENTER_RIGHT);
+        buttons.setPadding(new Insets(8));
+
+        stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Договор");
+        stage.setScene(new Scene(new BorderPane(webView, null, null, buttons, null), 900, 900));
+    }
+
+    private static String render(Path file) {
+        try (var doc = new XWPFDocument(new BufferedInputStream(Files.newInputStream(file)))) {
+
+            var writer = new StringWriter();
+            DocxHtmlRenderer.render(doc, writer);
+            return writer.toString();
+
+        } catch (Exception e) {
+            throw new RuntimeException("Не получилось перевести договор в HTML: " + file, e);
+        }
+    }
+}
@@ -8,9 +8,12 @@ import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingData
 /**
  * Класс, который описывает считыватель файла из БД.
  * Он позволяет просматривать информацию насчет docx документов.
+ * Договор показывается прямо в приложении (ContractPreview), а в Word открывается кнопкой из окна просмотра.
  */
 public class Reader extends FileOpener {
 
+    private final ContractPreview preview = new ContractPreview();
+
     public Reader(TableView<PersonInfo> customersTableView, Button button) {
         super(customersTableView, button);
     }
@@ -22,7 +25,9 @@ public class Reader extends FileOpener {
     public void event() {
         buttonConfigurator.setupButtonEvent(button, mouseEvent -> {
             PersonInfo selectedPerson = customersTableView.getSelectionModel().getSelectedItem();
-            openFile(selectedPerson.getDocument(), ".docx");
+            var document = selectedPerson.getDocument();
+
+            preview.show(button.getScene().getWindow(), document, () -> openFile(document, ".docx"));
         });
     }
 }
@@ -0,0 +1,84 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy.Transliteration;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.SearchIndex;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy.FuzzySearchStrategy;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy.IndexedSearchStrategy;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Класс AdaptiveSearchEngine ищет по индексу в памяти, пока загруженных людей немного,
+ * и запросом к базе данных, когда индекс занял бы слишком много памяти.
+ * Индекс строится один раз и дальше обновляется только на изменения списка.
+ * Если точный поиск ничего не нашел, запрос, набранный латиницей, ищется еще раз в кириллице,
+ * а затем в ход идет нечеткий поиск, который находит людей с опечатками и написанием на слух.
+ * Класс не потокобезопасный: все методы вызываются из одного потока поиска.
+ */
+public class AdaptiveSearchEngine implements PersonSearchEngine {
+
+    // Сколько людей держать в индексе в памяти, можно поменять через -D при запуске
+    private static final int INDEX_THRESHOLD = Integer.getInteger("search.index.threshold", 300_000);
+
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final PersonSearchEngine indexedEngine = new IndexedSearchStrategy(searchIndex);
+    private final PersonSearchEngine databaseEngine = new DatabaseSearchEngine();
+    private final FuzzySearchStrategy fuzzyEngine = new FuzzySearchStrategy();
+    private boolean isIndexed;
+
+    /**
+     * Метод reset() строит индекс заново по всему списку людей.
+     *
+     * @param personInfos Все загруженные люди.
+     */
+    public void reset(List<PersonInfo> personInfos) {
+        searchIndex.clear();
+        fuzzyEngine.clear();
+        fuzzyEngine.addAll(personInfos);
+        isIndexed = personInfos.size() <= INDEX_THRESHOLD;
+
+        if (isIndexed) {
+            searchIndex.addAll(personInfos);
+        }
+    }
+
+    /**
+     * Метод update() применяет к индексу изменение списка людей.
+     *
+     * @param removed Удаленные люди.
+     * @param added   Добавленные люди.
+     */
+    public void update(List<PersonInfo> removed, List<PersonInfo> added) {
+        removed.forEach(fuzzyEngine::remove);
+        added.forEach(fuzzyEngine::add);
+
+        if (!isIndexed) {
+            return;
+        }
+
+        removed.forEach(searchIndex::remove);
+        added.forEach(searchIndex::add);
+
+        if (searchIndex.size() > INDEX_THRESHOLD) {
+            searchIndex.clear();
+            isIndexed = false;
+        }
+    }
+
+    @Override
+    public List<PersonInfo> search(String keyword, int limit) {
+        var exactEngine = isIndexed ? indexedEngine : databaseEngine;
+        var found = exactEngine.search(keyword, limit);
+
+        if (found.isEmpty()) {
+            var cyrillic = Transliteration.toCyrillic(keyword);
+            if (!cyrillic.equals(keyword.toLowerCase(Locale.ROOT))) {
+                found = exactEngine.search(cyrillic, limit);
+            }
+        }
+
+        return found.isEmpty() ? fuzzyEngine.search(keyword, limit) : found;
+    }
+}
@@ -0,0 +1,18 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.List;
+
+/**
+ * Класс DatabaseSearchEngine ищет людей запросом к базе данных через индексы,
+ * поэтому скорость поиска не зависит от того, сколько людей загружено в таблицу.
+ */
+public class DatabaseSearchEngine implements PersonSearchEngine {
+
+    @Override
+    public List<PersonInfo> search(String keyword, int limit) {
+        return DataBaseSQLite.getInstance().searchPersonInfos(keyword, 0, limit);
+    }
+}
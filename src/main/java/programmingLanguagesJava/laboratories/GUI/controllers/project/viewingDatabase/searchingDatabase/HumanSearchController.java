@@ -1,25 +1,27 @@
 /**
  * Здесь реализован поиск в TextField.
  * Делал по гайду: https://youtu.be/2M0L6w3tMOY?si=kHdAuUkam6kUVjXG
+ * Потом поиск переехал в базу данных: перебирать каждую строку на каждое нажатие клавиши слишком долго.
  */
 
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase;
 
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.util.Duration;
 import lombok.RequiredArgsConstructor;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.ElementDatabaseView;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy.FirstNameSearchStrategy;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy.LastNameSearchStrategy;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy.PatronymicSearchStrategy;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy.SearchStrategy;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase.PersonSorting;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Класс HumanSearchController реализует интерфейс ElementDatabaseView и предоставляет функциональность для поиска людей в базе данных.
@@ -28,6 +30,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class HumanSearchController implements ElementDatabaseView {
 
+    // Пауза после последнего нажатия клавиши, после которой запускается поиск
+    private static final Duration DEBOUNCE = Duration.millis(150);
+
+    // Сколько найденных людей показывать в таблице
+    private static final int RESULT_LIMIT = 500;
+
+    // Один фоновый поток на все поиски: новый поиск отменяет предыдущий, поэтому больше не нужно
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("person-search").daemon(true).factory());
+
     // TableView для отображения информации о людях
     private final TableView<PersonInfo> customersTableView;
 
@@ -37,40 +49,89 @@ public class HumanSearchController implements ElementDatabaseView {
     // TextField для ввода ключевых слов для поиска
     private final TextField keywordTextField;
 
-    // Список стратегий поиска для выполнения поиска
-    private final List<SearchStrategy> searchStrategies = Arrays.asList(new FirstNameSearchStrategy(), new LastNameSearchStrategy(), new PatronymicSearchStrategy());
+    // Общий порядок сортировки таблицы
+    private final PersonSorting personSorting;
+
+    // Поиск по индексу загруженных людей или по базе данных, если их слишком много.
+    // Индекс меняется только в потоке поиска, поэтому обновления и поиски не пересекаются
+    private final AdaptiveSearchEngine searchEngine = new AdaptiveSearchEngine();
+
+    // Найденные люди, список живет все время и только перезаполняется
+    private final ObservableList<PersonInfo> foundPersonInfos = FXCollections.observableArrayList();
+
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+
+    // Поиск, который сейчас выполняется, его отменяет следующий
+    private Task<List<PersonInfo>> currentSearch;
 
     /**
-     * Метод event() слушает изменения в поле keywordTextField и обновляет отфильтрованные данные в соответствии
-     * с введенным ключевым словом.
-     * Если ключевое слово пустое, метод возвращает все данные.
-     * В противном случае он возвращает только те данные, которые соответствуют хотя бы одной из стратегий поиска.
-     * После фильтрации данных метод связывает comparator SortedList с comparator TableView и устанавливает
-     * отсортированные данные в TableView.
+     * Метод event() слушает изменения в поле keywordTextField и показывает в таблице найденных людей.
+     * Поиск запускается, когда пользователь перестал печатать на DEBOUNCE, и выполняется в фоне,
+     * а результат устаревшего поиска отбрасывается.
+     * Если ключевое слово пустое, в таблице показываются все данные.
+     * Индекс строится в потоке поиска и дальше обновляется только на изменения personInfos,
+     * после которых открытый поиск повторяется.
+     * Таблица показывает данные через списки PersonSorting, поэтому сортировка по столбцам работает
+     * и для всех данных, и для найденных.
      */
     @Override
     public void event() {
-        // Создание FilteredList из ObservableList
-        var filteredData = new FilteredList<>(personInfos);
+        var allData = personSorting.sorted(personInfos);
+        var foundData = personSorting.sorted(foundPersonInfos);
 
-        keywordTextField.textProperty().addListener((observable, oldValue, newValue) ->
-                filteredData.setPredicate(personInfo -> {
+        var snapshot = List.copyOf(personInfos);
+        SEARCH_EXECUTOR.execute(() -> searchEngine.reset(snapshot));
 
-                    if (newValue.isEmpty() || newValue.isBlank()) {
-                        return true;
-                    }
+        personInfos.addListener((ListChangeListener<PersonInfo>) change -> {
+            while (change.next()) {
+                var removed = List.<PersonInfo>copyOf(change.getRemoved());
+                var added = List.<PersonInfo>copyOf(change.getAddedSubList());
+                SEARCH_EXECUTOR.execute(() -> searchEngine.update(removed, added));
+            }
 
-                    return searchStrategies.stream().anyMatch(strategy -> strategy.matches(personInfo, newValue));
-                }));
+            // Найденные люди могли измениться, поэтому поиск повторяется уже по обновленному индексу
+            var keyword = keywordTextField.getText();
+            if (keyword != null && !keyword.isBlank()) {
+                debounce.playFromStart();
+            }
+        });
 
-        // Создание SortedList из FilteredList
-        var sortedData = new SortedList<>(filteredData);
+        debounce.setOnFinished(event -> search(keywordTextField.getText(), allData, foundData));
 
-        // Привязка компаратора SortedList к компаратору TableView
-        sortedData.comparatorProperty().bind(customersTableView.comparatorProperty());
+        keywordTextField.textProperty().addListener((observable, oldValue, newValue) -> debounce.playFromStart());
 
-        // Установка SortedList в качестве элементов TableView
-        customersTableView.setItems(sortedData);
+        customersTableView.setItems(allData);
     }
-}
 
+    private void search(String keyword, ObservableList<PersonInfo> allData, ObservableList<PersonInfo> foundData) {
+
+        if (currentSearch != null) {
+            currentSearch.cancel();
+        }
+
+        if (keyword == null || keyword.isBlank()) {
+            currentSearch = null;
+            customersTableView.setItems(allData);
+            return;
+        }
+
+        var task = new Task<List<PersonInfo>>() {
+            @Override
+            protected List<PersonInfo> call() {
+                return searchEngine.search(keyword.strip(), RESULT_LIMIT);
+            }
+        };
+
+        // Обработчики вызываются в потоке JavaFX и только если поиск не был отменен
+        task.setOnSucceeded(event -> {
+            foundPersonInfos.setAll(task.getValue());
+            customersTableView.setItems(foundData);
+        });
+        task.setOnFailed(event -> {
+            throw new RuntimeException("Ошибка при поиске людей", task.getException());
+        });
+
+        currentSearch = task;
+        SEARCH_EXECUTOR.execute(task);
+    }
+}
@@ -0,0 +1,22 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.List;
+
+/**
+ * Интерфейс PersonSearchEngine определяет поиск людей, который возвращает сразу готовую страницу результатов,
+ * а не проверяет каждую строку таблицы по отдельности, как SearchStrategy.
+ */
+public interface PersonSearchEngine {
+
+    /**
+     * Метод search() ищет людей по строке поиска.
+     * Может вызываться не из потока JavaFX, поэтому не должен трогать интерфейс.
+     *
+     * @param keyword Строка поиска, не пустая.
+     * @param limit   Максимальное количество результатов.
+     * @return Найденные люди.
+     */
+    List<PersonInfo> search(String keyword, int limit);
+}
@@ -0,0 +1,154 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Класс BkTree - BK-дерево по расстоянию Левенштейна: находит все ключи не дальше заданного расстояния,
+ * обходя только ветки, которые по неравенству треугольника могут их содержать.
+ * К каждому ключу привязан список значений. Удаленные значения убираются из списка, а сам узел остается,
+ * потому что без него развалится структура дерева; пустые узлы при поиске пропускаются.
+ * Класс не потокобезопасный.
+ *
+ * @param <T> Тип значений, привязанных к ключам.
+ */
+public class BkTree<T> {
+
+    private final Map<String, Node<T>> nodes = new HashMap<>();
+    private final Levenshtein levenshtein = new Levenshtein();
+    private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+    private Node<T> root;
+
+    /**
+     * Метод add() привязывает значение к ключу, добавляя ключ в дерево, если его еще нет.
+     */
+    public void add(String key, T value) {
+        var node = nodes.get(key);
+
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+            insert(node);
+        }
+
+        node.values.add(value);
+    }
+
+    /**
+     * Метод remove() отвязывает значение от ключа. Значения сравниваются по ссылке.
+     */
+    public void remove(String key, T value) {
+        var node = nodes.get(key);
+
+        if (node != null) {
+            node.values.removeIf(existing -> existing == value);
+        }
+    }
+
+    /**
+     * Метод clear() очищает дерево.
+     */
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    /**
+     * Метод search() передает в consumer значения всех ключей не дальше tolerance от query вместе с расстоянием.
+     *
+     * @param query     Искомый ключ.
+     * @param tolerance Наибольшее расстояние Левенштейна.
+     * @param consumer  Получает каждое значение и расстояние его ключа до query.
+     */
+    public void search(String query, int tolerance, ObjIntConsumer<T> consumer) {
+        if (root == null) {
+            return;
+        }
+
+        stack.clear();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            var node = stack.pop();
+            var distance = levenshtein.distance(query, node.key);
+
+            if (distance <= tolerance) {
+                for (var value : node.values) {
+                    consumer.accept(value, distance);
+                }
+            }
+
+            // Ключи в ветке с ребром d находятся на расстоянии d от узла, значит, от query не ближе |d - distance|
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.edges[i] - distance) <= tolerance) {
+                    stack.push(node.childAt(i));
+                }
+            }
+        }
+    }
+
+    private void insert(Node<T> node) {
+        if (root == null) {
+            root = node;
+            return;
+        }
+
+        var current = root;
+
+        while (true) {
+            var distance = levenshtein.distance(node.key, current.key);
+            var child = current.child(distance);
+
+            if (child == null) {
+                current.addChild(distance, node);
+                return;
+            }
+
+            current = child;
+        }
+    }
+
+    private static final class Node<T> {
+        private final String key;
+        private final List<T> values = new ArrayList<>(1);
+
+        // Дети хранятся парой массивов: ключей мало, и поиск по массиву дешевле карты.
+        // Массив обобщенного типа создать нельзя, поэтому дети берутся через childAt()
+        private int[] edges = new int[2];
+        private Node<?>[] children = new Node<?>[2];
+        private int childCount;
+
+        private Node(String key) {
+            this.key = key;
+        }
+
+        private Node<T> child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (edges[i] == distance) {
+                    return childAt(i);
+                }
+            }
+            return null;
+        }
+
+        // В children попадают только Node<T> через addChild()
+        @SuppressWarnings("unchecked")
+        private Node<T> childAt(int i) {
+            return (Node<T>) children[i];
+        }
+
+        private void addChild(int distance, Node<T> child) {
+            if (childCount == edges.length) {
+                edges = Arrays.copyOf(edges, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            edges[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy;
+
+/**
+ * Класс Levenshtein считает расстояние Левенштейна двумя переиспользуемыми строками матрицы,
+ * поэтому при поиске не создает массивов на каждое сравнение. Не потокобезопасный.
+ */
+public final class Levenshtein {
+
+    private int[] previous = new int[32];
+    private int[] current = new int[32];
+
+    /**
+     * Метод distance() считает расстояние, но прекращает счет, как только оно точно больше max.
+     *
+     * @param first  Первая строка.
+     * @param second Вторая строка.
+     * @param max    Наибольшее интересное расстояние.
+     * @return Расстояние или max + 1, если оно больше max.
+     */
+    public int distance(CharSequence first, CharSequence second, int max) {
+        if (Math.abs(first.length() - second.length()) > max) {
+            return max + 1;
+        }
+
+        if (previous.length <= second.length()) {
+            previous = new int[second.length() * 2 + 1];
+            current = new int[second.length() * 2 + 1];
+        }
+
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            var rowMin = i;
+
+            for (int j = 1; j <= second.length(); j++) {
+                var cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > max) {
+                return max + 1;
+            }
+
+            var swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return Math.min(previous[second.length()], max + 1);
+    }
+
+    /**
+     * @return Точное расстояние Левенштейна.
+     */
+    public int distance(CharSequence first, CharSequence second) {
+        return distance(first, second, Math.max(first.length(), second.length()));
+    }
+}
@@ -0,0 +1,62 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy;
+
+/**
+ * Класс PhoneticKey строит фонетический ключ русского имени по мотивам русского Metaphone:
+ * имена, которые звучат одинаково (Иванов/Ивонов, Дмитриев/Дмитреев, Шукшин/Щукшин), получают один ключ.
+ * Безударные гласные сводятся к трем (а, у, и), звонкие согласные заменяются глухими,
+ * ь и ъ отбрасываются, повторяющиеся звуки схлопываются.
+ */
+public final class PhoneticKey {
+
+    private PhoneticKey() {
+    }
+
+    /**
+     * @param name Имя кириллицей (регистр не важен).
+     * @return Фонетический ключ, пустой, если в имени нет русских букв.
+     */
+    public static String of(String name) {
+        var key = new StringBuilder(name.length());
+
+        for (int i = 0; i < name.length(); i++) {
+            var c = Character.toLowerCase(name.charAt(i));
+
+            // тс и дс звучат как ц (Братсков, Гродский)
+            if ((c == 'т' || c == 'д') && i + 1 < name.length() && Character.toLowerCase(name.charAt(i + 1)) == 'с') {
+                append(key, 'ц');
+                i++;
+                continue;
+            }
+
+            var sound = sound(c);
+            if (sound != 0) {
+                append(key, sound);
+            }
+        }
+
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, char sound) {
+        if (key.isEmpty() || key.charAt(key.length() - 1) != sound) {
+            key.append(sound);
+        }
+    }
+
+    // Звук буквы или 0, если буква не влияет на звучание
+    private static char sound(char c) {
+        return switch (c) {
+            case 'а', 'о', 'ы', 'я' -> 'а';
+            case 'у', 'ю' -> 'у';
+            case 'е', 'ё', 'э', 'и', 'й' -> 'и';
+            case 'б' -> 'п';
+            case 'в' -> 'ф';
+            case 'г' -> 'к';
+            case 'д' -> 'т';
+            case 'ж', 'щ' -> 'ш';
+            case 'з' -> 'с';
+            case 'к', 'л', 'м', 'н', 'п', 'р', 'с', 'т', 'ф', 'х', 'ц', 'ч', 'ш' -> c;
+            default -> 0;
+        };
+    }
+}
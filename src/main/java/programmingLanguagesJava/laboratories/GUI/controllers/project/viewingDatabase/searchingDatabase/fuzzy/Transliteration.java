@@ -0,0 +1,69 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy;
+
+import com.ibm.icu.text.Transliterator;
+
+import java.util.Locale;
+
+/**
+ * Класс Transliteration переводит имена, набранные латиницей, в кириллицу, чтобы сравнивать их с базой.
+ * Сначала заменяются буквосочетания из принятых в России схем (shch, zh, kh, ya...), которые ICU
+ * разбирает по одной букве, остальное переводит ICU4J (Latin-Cyrillic), в том числе буквы с диакритикой (š, ž).
+ */
+public final class Transliteration {
+
+    // Буквосочетания от длинных к коротким, чтобы shch не разобралось как sh + ch
+    private static final String[][] DIGRAPHS = {
+            {"shch", "щ"}, {"sch", "щ"},
+            {"zh", "ж"}, {"kh", "х"}, {"ts", "ц"}, {"tz", "ц"}, {"ch", "ч"}, {"sh", "ш"},
+            {"yo", "ё"}, {"jo", "ё"}, {"yu", "ю"}, {"ju", "ю"}, {"iu", "ю"},
+            {"ya", "я"}, {"ja", "я"}, {"ia", "я"}, {"ye", "е"},
+            {"iy", "ий"}, {"yi", "ый"}, {"ey", "ей"}, {"ay", "ай"}, {"oy", "ой"},
+            {"x", "кс"}, {"w", "в"}, {"q", "к"}, {"c", "к"}, {"h", "х"}, {"y", "ы"}, {"j", "й"}
+    };
+
+    private static final Transliterator LATIN_TO_CYRILLIC = Transliterator.getInstance("Latin-Cyrillic");
+
+    private Transliteration() {
+    }
+
+    /**
+     * Метод toCyrillic() приводит строку к нижнему регистру и переводит латиницу в кириллицу.
+     * Строки без латиницы только приводятся к нижнему регистру.
+     *
+     * @param text Имя или его часть.
+     * @return Имя кириллицей в нижнем регистре.
+     */
+    public static String toCyrillic(String text) {
+        var lower = text.toLowerCase(Locale.ROOT);
+
+        if (!hasLatin(lower)) {
+            return lower;
+        }
+
+        var builder = new StringBuilder(lower.length());
+        var position = 0;
+
+        outer:
+        while (position < lower.length()) {
+            for (var digraph : DIGRAPHS) {
+                if (lower.startsWith(digraph[0], position)) {
+                    builder.append(digraph[1]);
+                    position += digraph[0].length();
+                    continue outer;
+                }
+            }
+            builder.append(lower.charAt(position++));
+        }
+
+        return LATIN_TO_CYRILLIC.transliterate(builder.toString());
+    }
+
+    private static boolean hasLatin(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.UnicodeScript.of(text.charAt(i)) == Character.UnicodeScript.LATIN) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией: ключ - триграмма (упакованная в long), значение - отсортированный
+ * список номеров документов. Ключи и списки хранятся в примитивных массивах, без Long и Integer.
+ */
+final class PostingsMap {
+
+    private static final long EMPTY = -1;
+
+    private long[] keys = new long[1024];
+    private int[][] lists = new int[1024][];
+    private int[] sizes = new int[1024];
+    private int count;
+
+    PostingsMap() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Метод add() добавляет документ в список триграммы.
+     * Номера документов только растут, поэтому список остается отсортированным без сортировки.
+     */
+    void add(long key, int document) {
+        var slot = slot(key);
+
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            lists[slot] = new int[4];
+            count++;
+        } else if (sizes[slot] > 0 && lists[slot][sizes[slot] - 1] == document) {
+            // Триграмма повторяется в одном поле
+            return;
+        }
+
+        if (sizes[slot] == lists[slot].length) {
+            lists[slot] = Arrays.copyOf(lists[slot], sizes[slot] * 2);
+        }
+        lists[slot][sizes[slot]++] = document;
+
+        if (count * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * @return Слот триграммы или -1, если ее нет.
+     */
+    int find(long key) {
+        var slot = slot(key);
+        return keys[slot] == EMPTY ? -1 : slot;
+    }
+
+    int[] postings(int slot) {
+        return lists[slot];
+    }
+
+    int size(int slot) {
+        return sizes[slot];
+    }
+
+    void clear() {
+        keys = new long[1024];
+        lists = new int[1024][];
+        sizes = new int[1024];
+        count = 0;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    // Линейное пробирование от перемешанного хеша ключа
+    private int slot(long key) {
+        var mask = keys.length - 1;
+        var slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldLists = lists;
+        var oldSizes = sizes;
+
+        keys = new long[oldKeys.length * 2];
+        lists = new int[keys.length][];
+        sizes = new int[keys.length];
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                var slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                lists[slot] = oldLists[i];
+                sizes[slot] = oldSizes[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.function.Function;
+
+/**
+ * Поля PersonInfo, по которым идет поиск.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SearchField {
+    LAST_NAME(PersonInfo::getLastName),
+    FIRST_NAME(PersonInfo::getFirstName),
+    PATRONYMIC(PersonInfo::getPatronymic);
+
+    private final Function<PersonInfo, String> extractor;
+}
@@ -0,0 +1,329 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс SearchIndex - инвертированный индекс по триграммам ФИО загруженных людей.
+ * Для каждой триграммы каждого поля хранится отсортированный список документов, где она встречается.
+ * Поиск пересекает списки триграмм ключевого слова, начиная с самого короткого, и проверяет только
+ * оставшихся кандидатов, поэтому просматривается малая часть людей, а не все.
+ * Поля приводятся к нижнему регистру и ё/е один раз при добавлении, поиск новых строк не создает.
+ * Удаленные документы помечаются и вычищаются перестройкой, когда их становится много.
+ * Класс не потокобезопасный: все методы должны вызываться из одного потока.
+ */
+public class SearchIndex {
+
+    private static final int TRIGRAM = 3;
+    private static final int FIELDS = SearchField.values().length;
+
+    private final List<PersonInfo> documents = new ArrayList<>();
+    private final List<char[][]> foldedFields = new ArrayList<>();
+    private final Map<Integer, Integer> documentByPersonId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+
+    private final PostingsMap postings = new PostingsMap();
+
+    // Рабочие массивы поиска, переиспользуются между запросами
+    private int[] slots = new int[16];
+    private int[] cursors = new int[16];
+    private int[] seen = new int[64];
+    private int stamp;
+
+
+    /**
+     * Метод add() добавляет человека в индекс. Если человек с таким id уже есть, он заменяется.
+     *
+     * @param personInfo Человек.
+     */
+    public void add(PersonInfo personInfo) {
+        remove(personInfo);
+
+        var document = documents.size();
+        var fields = new char[FIELDS][];
+
+        for (var field : SearchField.values()) {
+            var value = field.getExtractor().apply(personInfo);
+            var folded = value == null ? new char[0] : TextFolding.fold(value);
+            fields[field.ordinal()] = folded;
+
+            for (int i = 0; i + TRIGRAM <= folded.length; i++) {
+                postings.add(key(field.ordinal(), folded[i], folded[i + 1], folded[i + 2]), document);
+            }
+        }
+
+        documents.add(personInfo);
+        foldedFields.add(fields);
+        documentByPersonId.put(personInfo.getId(), document);
+    }
+
+    /**
+     * Метод addAll() добавляет людей в индекс.
+     *
+     * @param personInfos Люди.
+     */
+    public void addAll(Collection<PersonInfo> personInfos) {
+        personInfos.forEach(this::add);
+    }
+
+    /**
+     * Метод remove() убирает человека из индекса.
+     *
+     * @param personInfo Человек.
+     */
+    public void remove(PersonInfo personInfo) {
+        var document = documentByPersonId.remove(personInfo.getId());
+
+        if (document == null) {
+            return;
+        }
+
+        deleted.set(document);
+        deletedCount++;
+
+        // Списки триграмм не чистятся сразу, поэтому при большом количестве удаленных индекс перестраивается
+        if (deletedCount > 1024 && deletedCount * 4 > documents.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Метод clear() удаляет из индекса всех людей.
+     */
+    public void clear() {
+        documents.clear();
+        foldedFields.clear();
+        documentByPersonId.clear();
+        deleted.clear();
+        deletedCount = 0;
+        postings.clear();
+    }
+
+    /**
+     * @return Сколько людей в индексе.
+     */
+    public int size() {
+        return documents.size() - deletedCount;
+    }
+
+    /**
+     * Метод matches() проверяет одного человека без учета регистра и ё/е.
+     * Для людей из индекса используются уже приведенные поля.
+     *
+     * @param personInfo Человек.
+     * @param keyword    Ключевое слово.
+     * @return true, если хотя бы одно поле содержит ключевое слово.
+     */
+    public boolean matches(PersonInfo personInfo, CharSequence keyword) {
+        var document = documentByPersonId.get(personInfo.getId());
+
+        for (var field : SearchField.values()) {
+            var found = document != null
+                    ? TextFolding.contains(foldedFields.get(document)[field.ordinal()], keyword)
+                    : TextFolding.contains(field.getExtractor().apply(personInfo), keyword);
+
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Метод search() ищет людей, у которых хотя бы одно поле содержит ключевое слово.
+     *
+     * @param keyword Ключевое слово.
+     * @param limit   Максимальное количество результатов.
+     * @return Найденные люди, сгруппированные по полю: сначала совпавшие по фамилии, затем по имени,
+     * затем по отчеству, внутри группы - в порядке добавления в индекс. Для ключевого слова короче триграммы
+     * индекс не используется, и люди идут просто в порядке добавления.
+     */
+    public List<PersonInfo> search(CharSequence keyword, int limit) {
+        var found = new int[limit];
+        var count = search(keyword, found);
+
+        var result = new ArrayList<PersonInfo>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(documents.get(found[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Метод search() ищет людей и записывает номера найденных документов в переданный массив.
+     * Кроме роста рабочих массивов под большой индекс, ничего не создает.
+     * Порядок номеров тот же, что у search(keyword, limit).
+     *
+     * @param keyword Ключевое слово.
+     * @param found   Массив для номеров документов, его длина - максимум результатов.
+     * @return Сколько документов найдено.
+     */
+    public int search(CharSequence keyword, int[] found) {
+        nextStamp();
+
+        if (keyword.length() < TRIGRAM) {
+            return scan(keyword, found);
+        }
+
+        var count = 0;
+        for (int field = 0; field < FIELDS && count < found.length; field++) {
+            count = searchField(field, keyword, found, count);
+        }
+        return count;
+    }
+
+    /**
+     * @param document Номер документа из search().
+     * @return Человек.
+     */
+    public PersonInfo get(int document) {
+        return documents.get(document);
+    }
+
+    // Пересечение списков всех триграмм ключевого слова в одном поле и проверка кандидатов
+    private int searchField(int field, CharSequence keyword, int[] found, int count) {
+        var trigrams = keyword.length() - TRIGRAM + 1;
+        ensureTrigramCapacity(trigrams);
+
+        var shortest = -1;
+        for (int i = 0; i < trigrams; i++) {
+            var slot = postings.find(key(field,
+                    TextFolding.fold(keyword.charAt(i)),
+                    TextFolding.fold(keyword.charAt(i + 1)),
+                    TextFolding.fold(keyword.charAt(i + 2))));
+
+            if (slot < 0) {
+                // Какой-то триграммы нет вообще - в этом поле совпадений нет
+                return count;
+            }
+
+            slots[i] = slot;
+            cursors[i] = 0;
+
+            if (shortest < 0 || postings.size(slot) < postings.size(slots[shortest])) {
+                shortest = i;
+            }
+        }
+
+        var candidates = postings.postings(slots[shortest]);
+        var candidatesSize = postings.size(slots[shortest]);
+
+        candidates:
+        for (int c = 0; c < candidatesSize; c++) {
+            var document = candidates[c];
+
+            for (int i = 0; i < trigrams; i++) {
+                if (i == shortest) {
+                    continue;
+                }
+
+                var list = postings.postings(slots[i]);
+                var size = postings.size(slots[i]);
+                cursors[i] = advance(list, size, cursors[i], document);
+
+                if (cursors[i] == size) {
+                    // Один из списков закончился, дальше пересечение пустое
+                    return count;
+                }
+                if (list[cursors[i]] != document) {
+                    continue candidates;
+                }
+            }
+
+            // Все триграммы есть, но не обязательно подряд, поэтому строка проверяется целиком
+            if (!deleted.get(document) && seen[document] != stamp
+                    && TextFolding.contains(foldedFields.get(document)[field], keyword)) {
+
+                seen[document] = stamp;
+                found[count++] = document;
+
+                if (count == found.length) {
+                    return count;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    // Для одного-двух символов триграмм нет, поэтому просматриваются все люди до первых found.length совпадений
+    private int scan(CharSequence keyword, int[] found) {
+        var count = 0;
+
+        for (int document = 0; document < documents.size() && count < found.length; document++) {
+            if (deleted.get(document)) {
+                continue;
+            }
+
+            for (var folded : foldedFields.get(document)) {
+                if (TextFolding.contains(folded, keyword)) {
+                    found[count++] = document;
+                    break;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    // Первая позиция в отсортированном списке, где значение не меньше document: экспоненциальный, затем двоичный поиск
+    private static int advance(int[] list, int size, int from, int document) {
+        if (from >= size || list[from] >= document) {
+            return from;
+        }
+
+        var step = 1;
+        while (from + step < size && list[from + step] < document) {
+            step *= 2;
+        }
+
+        var position = Arrays.binarySearch(list, from + step / 2, Math.min(from + step + 1, size), document);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void nextStamp() {
+        if (seen.length < documents.size()) {
+            seen = new int[Math.max(documents.size(), seen.length * 2)];
+            stamp = 0;
+        }
+
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+    }
+
+    private void ensureTrigramCapacity(int trigrams) {
+        if (slots.length < trigrams) {
+            slots = new int[trigrams * 2];
+            cursors = new int[trigrams * 2];
+        }
+    }
+
+    // Перестройка индекса без удаленных документов
+    private void rebuild() {
+        var alive = new ArrayList<PersonInfo>(size());
+
+        for (int document = 0; document < documents.size(); document++) {
+            if (!deleted.get(document)) {
+                alive.add(documents.get(document));
+            }
+        }
+
+        clear();
+        addAll(alive);
+    }
+
+    // Поле и три символа (по 16 бит) в одном long
+    private static long key(int field, char first, char second, char third) {
+        return (long) field << 48 | (long) first << 32 | (long) second << 16 | third;
+    }
+}
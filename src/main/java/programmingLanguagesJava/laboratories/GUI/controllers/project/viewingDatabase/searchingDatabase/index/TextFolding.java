@@ -0,0 +1,76 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index;
+
+/**
+ * Класс TextFolding приводит символы к одному виду для поиска: нижний регистр и ё как е.
+ * Работает посимвольно, поэтому сравнение строк не создает новых строк.
+ */
+public final class TextFolding {
+
+    private TextFolding() {
+    }
+
+    /**
+     * @param c Символ.
+     * @return Символ в нижнем регистре, ё заменяется на е.
+     */
+    public static char fold(char c) {
+        var lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    /**
+     * @param text Строка.
+     * @return Массив символов строки, приведенных через fold().
+     */
+    public static char[] fold(String text) {
+        var folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return folded;
+    }
+
+    /**
+     * Метод contains() проверяет, содержит ли строка ключевое слово без учета регистра и ё/е.
+     *
+     * @param text    Строка, в которой ищется слово.
+     * @param keyword Ключевое слово.
+     * @return true, если слово найдено.
+     */
+    public static boolean contains(CharSequence text, CharSequence keyword) {
+        var last = text.length() - keyword.length();
+
+        for (int start = 0; start <= last; start++) {
+            int i = 0;
+            while (i < keyword.length() && fold(text.charAt(start + i)) == fold(keyword.charAt(i))) {
+                i++;
+            }
+            if (i == keyword.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * То же, что contains(), но для уже приведенной строки: у нее fold() вызывается только для слова.
+     *
+     * @param folded  Строка, приведенная через fold().
+     * @param keyword Ключевое слово.
+     * @return true, если слово найдено.
+     */
+    public static boolean contains(char[] folded, CharSequence keyword) {
+        var last = folded.length - keyword.length();
+
+        for (int start = 0; start <= last; start++) {
+            int i = 0;
+            while (i < keyword.length() && folded[start + i] == fold(keyword.charAt(i))) {
+                i++;
+            }
+            if (i == keyword.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -5,6 +5,7 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy;
 
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.TextFolding;
 
 /**
  * Класс FirstNameSearchStrategy реализует интерфейс SearchStrategy и предоставляет стратегию поиска по имени.
@@ -13,7 +14,7 @@ public class FirstNameSearchStrategy implements SearchStrategy {
 
     /**
      * Метод matches проверяет, соответствует ли информация о человеке заданному ключевому слову.
-     * Он сравнивает имя человека (в нижнем регистре) с ключевым словом (также в нижнем регистре).
+     * Он сравнивает имя человека с ключевым словом без учета регистра и ё/е, не создавая новых строк.
      *
      * @param personInfo Информация о человеке, которую нужно проверить.
      * @param keyword Ключевое слово, используемое для поиска.
@@ -21,6 +22,6 @@ public class FirstNameSearchStrategy implements SearchStrategy {
      */
     @Override
     public boolean matches(PersonInfo personInfo, String keyword) {
-        return personInfo.getFirstName().toLowerCase().contains(keyword.toLowerCase());
+        return TextFolding.contains(personInfo.getFirstName(), keyword);
     }
 }
@@ -0,0 +1,227 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.PersonSearchEngine;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy.BkTree;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy.Levenshtein;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy.PhoneticKey;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.fuzzy.Transliteration;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.SearchField;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс FuzzySearchStrategy реализует нечеткий поиск по фамилии, имени и отчеству:
+ * находит людей при опечатках (Ивонов), при написании на слух (Щукин/Шукин) и латиницей (Ivanov, Shchukin).
+ * Имена и запрос переводятся в кириллицу и в фонетические ключи, ключи лежат в BK-дереве,
+ * а найденные люди сортируются по близости к запросу: сначала совпадения по началу слова,
+ * затем по фонетическому расстоянию и расстоянию Левенштейна между самими именами.
+ * Имена в кириллице и их фонетические ключи считаются один раз при добавлении человека,
+ * поэтому при поиске кандидаты только сравниваются, а не переводятся заново.
+ * Класс не потокобезопасный: все методы вызываются из одного потока поиска.
+ */
+public class FuzzySearchStrategy implements SearchStrategy, PersonSearchEngine {
+
+    // Во сколько раз фонетическое расстояние весит больше буквенного при ранжировании
+    private static final int PHONETIC_WEIGHT = 4;
+    // Буквенное расстояние больше этого при ранжировании уже не различается
+    private static final int MAX_SPELLING_DISTANCE = 4;
+
+    private final BkTree<Names> keys = new BkTree<>();
+    // Подготовленные имена людей, которые уже есть в поиске (по ссылке на PersonInfo)
+    private final Map<PersonInfo, Names> indexed = new IdentityHashMap<>();
+    private final Levenshtein levenshtein = new Levenshtein();
+
+    /**
+     * Метод add() добавляет человека в поиск.
+     */
+    public void add(PersonInfo personInfo) {
+        var names = indexed.computeIfAbsent(personInfo, Names::of);
+
+        for (var key : names.keys()) {
+            if (!key.isEmpty()) {
+                keys.add(key, names);
+            }
+        }
+    }
+
+    /**
+     * Метод addAll() добавляет в поиск всех людей из списка.
+     */
+    public void addAll(List<PersonInfo> personInfos) {
+        personInfos.forEach(this::add);
+    }
+
+    /**
+     * Метод remove() убирает человека из поиска. Люди сравниваются по ссылке.
+     */
+    public void remove(PersonInfo personInfo) {
+        var names = indexed.remove(personInfo);
+        if (names == null) {
+            return;
+        }
+
+        for (var key : names.keys()) {
+            keys.remove(key, names);
+        }
+    }
+
+    /**
+     * Метод clear() убирает из поиска всех людей.
+     */
+    public void clear() {
+        keys.clear();
+        indexed.clear();
+    }
+
+    /**
+     * Метод matches проверяет, похоже ли каждое слово запроса на фамилию, имя или отчество человека.
+     *
+     * @param personInfo Информация о человеке, которую нужно проверить.
+     * @param keyword Ключевое слово, используемое для поиска.
+     * @return Возвращает true, если каждое слово совпадает с началом одного из полей или похоже на него на слух.
+     */
+    @Override
+    public boolean matches(PersonInfo personInfo, String keyword) {
+        var words = Query.parse(keyword);
+        if (words.isEmpty()) {
+            return false;
+        }
+
+        var names = indexed.get(personInfo);
+        return score(names != null ? names : Names.of(personInfo), words) >= 0;
+    }
+
+    /**
+     * Метод search() ищет людей, похожих на запрос, и возвращает самых близких первыми.
+     * Кандидаты берутся из BK-дерева по самому длинному слову запроса, остальные слова проверяются у каждого кандидата.
+     */
+    @Override
+    public List<PersonInfo> search(String keyword, int limit) {
+        var words = Query.parse(keyword);
+
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        var pivot = words.getFirst();
+        for (var word : words) {
+            if (word.key().length() > pivot.key().length()) {
+                pivot = word;
+            }
+        }
+
+        var scores = new IdentityHashMap<PersonInfo, Integer>();
+
+        keys.search(pivot.key(), pivot.tolerance(), (names, distance) -> {
+            if (!scores.containsKey(names.personInfo())) {
+                scores.put(names.personInfo(), score(names, words));
+            }
+        });
+
+        return scores.entrySet().stream()
+                .filter(entry -> entry.getValue() >= 0)
+                .sorted(Map.Entry.<PersonInfo, Integer>comparingByValue()
+                        .thenComparing(entry -> entry.getKey().getLastName(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Сумма расстояний всех слов запроса до ближайших полей человека или -1, если какое-то слово ни на что не похоже
+    private int score(Names names, List<Query> words) {
+        var total = 0;
+
+        for (var word : words) {
+            var best = -1;
+
+            for (int i = 0; i < names.texts().length; i++) {
+                var name = names.texts()[i];
+                if (name == null) {
+                    continue;
+                }
+
+                int cost;
+
+                if (name.startsWith(word.text())) {
+                    cost = 0;
+                } else {
+                    var phonetic = levenshtein.distance(word.key(), names.keys()[i], word.tolerance());
+                    if (phonetic > word.tolerance()) {
+                        continue;
+                    }
+                    cost = phonetic * PHONETIC_WEIGHT + levenshtein.distance(word.text(), name, MAX_SPELLING_DISTANCE);
+                }
+
+                if (best < 0 || cost < best) {
+                    best = cost;
+                }
+            }
+
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+
+        return total;
+    }
+
+    private static String normalize(String text) {
+        return Transliteration.toCyrillic(text).replace('ё', 'е');
+    }
+
+    /**
+     * Фамилия, имя и отчество человека (в порядке SearchField), уже переведенные в кириллицу, и их фонетические ключи.
+     * Пустое поле хранится как null с пустым ключом.
+     */
+    private record Names(PersonInfo personInfo, String[] texts, String[] keys) {
+
+        private static Names of(PersonInfo personInfo) {
+            var fields = SearchField.values();
+            var texts = new String[fields.length];
+            var keys = new String[fields.length];
+
+            for (int i = 0; i < fields.length; i++) {
+                var value = fields[i].getExtractor().apply(personInfo);
+                texts[i] = value == null ? null : normalize(value);
+                keys[i] = value == null ? "" : PhoneticKey.of(texts[i]);
+            }
+
+            return new Names(personInfo, texts, keys);
+        }
+    }
+
+    /**
+     * Слово запроса, уже переведенное в кириллицу, вместе с фонетическим ключом и допустимым расстоянием.
+     */
+    private record Query(String text, String key, int tolerance) {
+
+        private static List<Query> parse(String keyword) {
+            var words = new ArrayList<Query>();
+
+            for (var part : keyword.trim().split("\\s+")) {
+                var text = normalize(part);
+                var key = PhoneticKey.of(text);
+
+                if (!key.isEmpty()) {
+                    words.add(new Query(text, key, tolerance(key)));
+                }
+            }
+
+            return words;
+        }
+
+        // Короткие ключи почти все на расстоянии 1-2 друг от друга, поэтому для них допуск меньше
+        private static int tolerance(String key) {
+            if (key.length() <= 2) {
+                return 0;
+            }
+            return key.length() <= 5 ? 1 : 2;
+        }
+    }
+}
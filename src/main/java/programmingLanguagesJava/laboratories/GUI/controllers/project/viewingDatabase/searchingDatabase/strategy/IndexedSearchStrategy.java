@@ -0,0 +1,37 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy;
+
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.PersonSearchEngine;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.SearchIndex;
+
+import java.util.List;
+
+/**
+ * Класс IndexedSearchStrategy реализует интерфейс SearchStrategy через триграммный индекс SearchIndex.
+ * Проверяет сразу фамилию, имя и отчество, а кроме проверки одного человека умеет сразу находить всех
+ * подходящих людей пересечением списков индекса, не перебирая таблицу.
+ */
+@RequiredArgsConstructor
+public class IndexedSearchStrategy implements SearchStrategy, PersonSearchEngine {
+
+    private final SearchIndex searchIndex;
+
+    /**
+     * Метод matches проверяет, соответствует ли информация о человеке заданному ключевому слову.
+     * Сравнение идет без учета регистра и ё/е и без создания новых строк.
+     *
+     * @param personInfo Информация о человеке, которую нужно проверить.
+     * @param keyword Ключевое слово, используемое для поиска.
+     * @return Возвращает true, если фамилия, имя или отчество содержит ключевое слово.
+     */
+    @Override
+    public boolean matches(PersonInfo personInfo, String keyword) {
+        return searchIndex.matches(personInfo, keyword);
+    }
+
+    @Override
+    public List<PersonInfo> search(String keyword, int limit) {
+        return searchIndex.search(keyword, limit);
+    }
+}
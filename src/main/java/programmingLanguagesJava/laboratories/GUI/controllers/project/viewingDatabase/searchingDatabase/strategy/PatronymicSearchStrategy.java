@@ -1,6 +1,7 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy;
 
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.TextFolding;
 
 /**
  * Класс PatronymicSearchStrategy реализует интерфейс SearchStrategy и предоставляет стратегию поиска по отчеству.
@@ -9,7 +10,7 @@ public class PatronymicSearchStrategy implements SearchStrategy {
 
     /**
      * Метод matches проверяет, соответствует ли информация о человеке заданному ключевому слову.
-     * Он сравнивает отчество человека (в нижнем регистре) с ключевым словом (также в нижнем регистре).
+     * Он сравнивает отчество человека с ключевым словом без учета регистра и ё/е, не создавая новых строк.
      *
      * @param personInfo Информация о человеке, которую нужно проверить.
      * @param keyword Ключевое слово, используемое для поиска.
@@ -17,6 +18,6 @@ public class PatronymicSearchStrategy implements SearchStrategy {
      */
     @Override
     public boolean matches(PersonInfo personInfo, String keyword) {
-        return personInfo.getPatronymic().toLowerCase().contains(keyword.toLowerCase());
+        return TextFolding.contains(personInfo.getPatronymic(), keyword);
     }
 }
@@ -0,0 +1,249 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase;
+
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.TransformationList;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Класс CollatedSortedList показывает людей из исходного списка в порядке сортировки таблицы.
+ * В отличие от SortedList, который сортирует сам и сравнивает строки на каждом шаге, полная пересортировка
+ * здесь идет через CollationSortEngine, а изменения исходного списка не пересортировывают все:
+ * несколько людей вставляются на свои места, а большая пачка сортируется отдельно и сливается с уже отсортированными.
+ * Пока порядок сортировки пустой, люди идут в порядке поступления.
+ * Методы вызываются из потока JavaFX.
+ */
+public final class CollatedSortedList extends TransformationList<PersonInfo, PersonInfo> {
+
+    // До какого размера изменения люди вставляются и удаляются по одному, больше - одним проходом по списку
+    private static final int SINGLE_CHANGE_LIMIT = 64;
+
+    private final CollationSortEngine engine;
+
+    private List<PersonInfo> sorted;
+    private List<SortColumn> columns = List.of();
+    private Comparator<PersonInfo> comparator;
+
+    /**
+     * @param source    Исходный список людей.
+     * @param engine    Сортировка.
+     * @param sortOrder Порядок сортировки, при его изменении список пересортировывается.
+     */
+    public CollatedSortedList(ObservableList<PersonInfo> source, CollationSortEngine engine,
+                              ObservableValue<List<SortColumn>> sortOrder) {
+        super(source);
+        this.engine = engine;
+        this.sorted = new ArrayList<>(source);
+
+        sortOrder.addListener((observable, oldValue, newValue) -> resort(newValue));
+        resort(sortOrder.getValue());
+    }
+
+    @Override
+    public PersonInfo get(int index) {
+        return sorted.get(index);
+    }
+
+    @Override
+    public int size() {
+        return sorted.size();
+    }
+
+    /**
+     * Поиск по всему исходному списку, таблица этот метод не использует.
+     */
+    @Override
+    public int getSourceIndex(int index) {
+        return indexOfSame(getSource(), sorted.get(index));
+    }
+
+    /**
+     * Поиск по всему отсортированному списку, таблица этот метод не использует.
+     */
+    @Override
+    public int getViewIndex(int index) {
+        return indexOfSame(sorted, getSource().get(index));
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends PersonInfo> change) {
+        beginChange();
+
+        while (change.next()) {
+            // Порядок исходного списка и обновления внутри людей на порядок здесь не влияют
+            if (change.wasPermutated() || change.wasUpdated()) {
+                continue;
+            }
+            if (change.wasRemoved()) {
+                removeAll(change.getRemoved());
+            }
+            if (change.wasAdded()) {
+                addAll(change.getAddedSubList());
+            }
+        }
+
+        endChange();
+    }
+
+    // Полная пересортировка, таблица получает одну перестановку, поэтому выделение не сбрасывается
+    private void resort(List<SortColumn> sortOrder) {
+        columns = sortOrder == null ? List.of() : List.copyOf(sortOrder);
+        comparator = columns.isEmpty() ? null : engine.comparator(columns);
+
+        if (comparator == null || sorted.size() < 2) {
+            return;
+        }
+
+        var order = engine.order(sorted, columns);
+        var reordered = new ArrayList<PersonInfo>(order.length);
+        var permutation = new int[order.length];
+
+        for (int i = 0; i < order.length; i++) {
+            reordered.add(sorted.get(order[i]));
+            permutation[order[i]] = i;
+        }
+
+        sorted = reordered;
+
+        beginChange();
+        nextPermutation(0, permutation.length, permutation);
+        endChange();
+    }
+
+    private void removeAll(List<? extends PersonInfo> removed) {
+        if (removed.size() <= SINGLE_CHANGE_LIMIT) {
+            for (var personInfo : removed) {
+                var index = indexOf(personInfo);
+                if (index >= 0) {
+                    sorted.remove(index);
+                    nextRemove(index, personInfo);
+                }
+            }
+            return;
+        }
+
+        Set<PersonInfo> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        toRemove.addAll(removed);
+
+        // С конца, чтобы индексы еще не удаленных людей не сдвигались
+        var kept = new ArrayList<PersonInfo>(Math.max(sorted.size() - removed.size(), 0));
+
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            var personInfo = sorted.get(i);
+
+            if (toRemove.remove(personInfo)) {
+                nextRemove(i, personInfo);
+            } else {
+                kept.add(personInfo);
+            }
+        }
+
+        Collections.reverse(kept);
+        sorted = kept;
+    }
+
+    private void addAll(List<? extends PersonInfo> added) {
+        if (comparator == null) {
+            var from = sorted.size();
+            sorted.addAll(added);
+            nextAdd(from, sorted.size());
+            return;
+        }
+
+        if (added.size() <= SINGLE_CHANGE_LIMIT) {
+            for (var personInfo : added) {
+                var index = upperBound(personInfo);
+                sorted.add(index, personInfo);
+                nextAdd(index, index + 1);
+            }
+            return;
+        }
+
+        merge(engine.sort(List.copyOf(added), columns));
+    }
+
+    // Слияние отсортированной пачки с уже отсортированными людьми, равные по сортировке новые люди идут после старых
+    private void merge(List<PersonInfo> batch) {
+        var merged = new ArrayList<PersonInfo>(sorted.size() + batch.size());
+        var addedAt = new int[batch.size()];
+        int i = 0, j = 0;
+
+        while (i < sorted.size() || j < batch.size()) {
+            if (j < batch.size() && (i == sorted.size() || comparator.compare(batch.get(j), sorted.get(i)) < 0)) {
+                addedAt[j] = merged.size();
+                merged.add(batch.get(j++));
+            } else {
+                merged.add(sorted.get(i++));
+            }
+        }
+
+        sorted = merged;
+
+        // Подряд стоящие новые люди сообщаются одним добавлением
+        for (int from = 0; from < addedAt.length; ) {
+            var to = from + 1;
+            while (to < addedAt.length && addedAt[to] == addedAt[to - 1] + 1) {
+                to++;
+            }
+            nextAdd(addedAt[from], addedAt[to - 1] + 1);
+            from = to;
+        }
+    }
+
+    // Позиция после всех людей, равных по сортировке данному
+    private int upperBound(PersonInfo personInfo) {
+        int low = 0, high = sorted.size();
+
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (comparator.compare(sorted.get(middle), personInfo) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    // Индекс именно этого объекта: двоичный поиск по сортировке, затем просмотр равных по сортировке людей
+    private int indexOf(PersonInfo personInfo) {
+        if (comparator != null) {
+            int low = 0, high = sorted.size();
+
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (comparator.compare(sorted.get(middle), personInfo) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            for (int i = low; i < sorted.size() && comparator.compare(sorted.get(i), personInfo) == 0; i++) {
+                if (sorted.get(i) == personInfo) {
+                    return i;
+                }
+            }
+        }
+
+        return indexOfSame(sorted, personInfo);
+    }
+
+    private static int indexOfSame(List<? extends PersonInfo> list, PersonInfo personInfo) {
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.get(i) == personInfo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
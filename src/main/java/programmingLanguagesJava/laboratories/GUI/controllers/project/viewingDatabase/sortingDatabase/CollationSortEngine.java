@@ -0,0 +1,240 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase;
+
+import com.ibm.icu.text.CollationKey;
+import com.ibm.icu.text.Collator;
+import com.ibm.icu.util.ULocale;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс CollationSortEngine сортирует людей по нескольким столбцам по правилам русского алфавита (ICU Collator),
+ * без учета регистра. String.CASE_INSENSITIVE_ORDER сравнивает коды символов, поэтому, например, Ё оказывалась после Я.
+ * Сравнивать строки через Collator на каждом шаге сортировки слишком долго, поэтому ключ сравнения (CollationKey)
+ * считается один раз на каждое разное значение и хранится в кеше. Перед сортировкой каждому значению столбца
+ * выдается номер по порядку его ключа, номера всех столбцов и позиция строки упаковываются в одно число long,
+ * и сортируется массив long (для больших списков параллельно). Позиция в младших битах делает сортировку устойчивой.
+ * Если номера не помещаются в 63 бита, сортируются объекты с теми же номерами, это медленнее, но порядок тот же.
+ * Класс можно использовать из нескольких потоков.
+ */
+public class CollationSortEngine {
+
+    // С какого размера списка сортировать параллельно
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    // Сколько ключей держать в кеше, дальше он очищается и заполняется заново
+    private static final int KEY_CACHE_LIMIT = 1_000_000;
+
+    // Замороженный Collator потокобезопасен
+    private final Collator collator;
+    private final Map<String, CollationKey> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Сортировка по правилам русского языка.
+     */
+    public CollationSortEngine() {
+        this(new ULocale("ru"));
+    }
+
+    /**
+     * @param locale Язык, по правилам которого сравниваются строки.
+     */
+    public CollationSortEngine(ULocale locale) {
+        var localeCollator = Collator.getInstance(locale);
+        localeCollator.setStrength(Collator.SECONDARY);
+        this.collator = localeCollator.freeze();
+    }
+
+    /**
+     * Метод order() находит порядок людей по столбцам, сам список не меняется.
+     * Люди, равные по всем столбцам, остаются в том порядке, в котором были в списке.
+     *
+     * @param rows    Люди.
+     * @param columns Столбцы сортировки, первый - главный.
+     * @return Массив, где i-й элемент - индекс в rows человека, который должен стоять на i-м месте.
+     */
+    public int[] order(List<PersonInfo> rows, List<SortColumn> columns) {
+        var size = rows.size();
+        var isParallel = size >= PARALLEL_THRESHOLD;
+
+        var ranks = new int[columns.size()][];
+        var bits = new int[columns.size()];
+        var totalBits = bitsFor(size - 1);
+
+        for (int c = 0; c < columns.size(); c++) {
+            ranks[c] = ranks(rows, columns.get(c), isParallel);
+            bits[c] = bitsFor(Arrays.stream(ranks[c]).max().orElse(0));
+            totalBits += bits[c];
+        }
+
+        return totalBits < Long.SIZE
+                ? packedOrder(ranks, bits, size, isParallel)
+                : objectOrder(ranks, size, isParallel);
+    }
+
+    /**
+     * Метод sort() возвращает людей, отсортированных по столбцам.
+     *
+     * @param rows    Люди.
+     * @param columns Столбцы сортировки, первый - главный.
+     * @return Новый отсортированный список.
+     */
+    public List<PersonInfo> sort(List<PersonInfo> rows, List<SortColumn> columns) {
+        return Arrays.stream(order(rows, columns)).mapToObj(rows::get).toList();
+    }
+
+    /**
+     * Метод comparator() возвращает сравнение двух людей в том же порядке, что и order().
+     * Подходит, чтобы вставить в уже отсортированный список немного новых людей.
+     *
+     * @param columns Столбцы сортировки, первый - главный.
+     * @return Сравнение по ключам из кеша (равные по всем столбцам люди считаются равными).
+     */
+    public Comparator<PersonInfo> comparator(List<SortColumn> columns) {
+        Comparator<PersonInfo> result = (first, second) -> 0;
+
+        for (var column : columns) {
+            var extractor = column.field().getExtractor();
+            Comparator<PersonInfo> byColumn = Comparator.comparing(
+                    person -> key(extractor.apply(person)), Comparator.nullsFirst(Comparator.naturalOrder()));
+
+            result = result.thenComparing(column.ascending() ? byColumn : byColumn.reversed());
+        }
+
+        return result;
+    }
+
+    /**
+     * @param value Строка.
+     * @return Ключ сравнения строки, null для null.
+     */
+    public CollationKey key(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        var key = keys.get(value);
+        if (key == null) {
+            if (keys.size() >= KEY_CACHE_LIMIT) {
+                keys.clear();
+            }
+            key = collator.getCollationKey(value);
+            keys.put(value, key);
+        }
+        return key;
+    }
+
+    // Номер значения столбца для каждой строки: равные по Collator значения получают один номер, null - самый меньший
+    private int[] ranks(List<PersonInfo> rows, SortColumn column, boolean isParallel) {
+        var extractor = column.field().getExtractor();
+
+        // Разных значений намного меньше, чем людей (фамилии и имена повторяются), поэтому ключи считаются для них
+        var slotByValue = new HashMap<String, Integer>();
+        var rowSlots = new int[rows.size()];
+
+        for (int i = 0; i < rowSlots.length; i++) {
+            rowSlots[i] = slotByValue.computeIfAbsent(extractor.apply(rows.get(i)), value -> slotByValue.size());
+        }
+
+        var slotKeys = new CollationKey[slotByValue.size()];
+        var values = new String[slotKeys.length];
+        slotByValue.forEach((value, slot) -> values[slot] = value);
+
+        if (isParallel) {
+            Arrays.parallelSetAll(slotKeys, slot -> key(values[slot]));
+        } else {
+            Arrays.setAll(slotKeys, slot -> key(values[slot]));
+        }
+
+        var slotsInOrder = new Integer[slotKeys.length];
+        Arrays.setAll(slotsInOrder, slot -> slot);
+        Arrays.sort(slotsInOrder, Comparator.comparing(slot -> slotKeys[slot], Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        var slotRanks = new int[slotKeys.length];
+        var rank = 0;
+
+        for (int i = 1; i < slotsInOrder.length; i++) {
+            if (!equal(slotKeys[slotsInOrder[i]], slotKeys[slotsInOrder[i - 1]])) {
+                rank++;
+            }
+            slotRanks[slotsInOrder[i]] = rank;
+        }
+
+        var maxRank = rank;
+        var rowRanks = new int[rowSlots.length];
+
+        for (int i = 0; i < rowRanks.length; i++) {
+            var slotRank = slotRanks[rowSlots[i]];
+            rowRanks[i] = column.ascending() ? slotRank : maxRank - slotRank;
+        }
+
+        return rowRanks;
+    }
+
+    // Сортировка чисел long: номера столбцов в старших битах, позиция строки в младших
+    private static int[] packedOrder(int[][] ranks, int[] bits, int size, boolean isParallel) {
+        var positionBits = bitsFor(size - 1);
+        var packed = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            long value = 0;
+            for (int c = 0; c < ranks.length; c++) {
+                value = (value << bits[c]) | ranks[c][i];
+            }
+            packed[i] = (value << positionBits) | i;
+        }
+
+        if (isParallel) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+
+        var positionMask = (1L << positionBits) - 1;
+        var order = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) (packed[i] & positionMask);
+        }
+
+        return order;
+    }
+
+    // Запасной путь для очень большого количества разных значений: сортировка объектов (тоже устойчивая)
+    private static int[] objectOrder(int[][] ranks, int size, boolean isParallel) {
+        var positions = new Integer[size];
+        Arrays.setAll(positions, i -> i);
+
+        Comparator<Integer> byRanks = (first, second) -> {
+            for (var columnRanks : ranks) {
+                var result = Integer.compare(columnRanks[first], columnRanks[second]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+
+        if (isParallel) {
+            Arrays.parallelSort(positions, byRanks);
+        } else {
+            Arrays.sort(positions, byRanks);
+        }
+
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static boolean equal(CollationKey first, CollationKey second) {
+        return first == null ? second == null : second != null && first.compareTo(second) == 0;
+    }
+
+    // Сколько бит нужно, чтобы записать число от 0 до value
+    private static int bitsFor(int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(value, 0));
+    }
+}
@@ -0,0 +1,33 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
+import lombok.Getter;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.List;
+
+/**
+ * Класс PersonSorting - общий порядок сортировки окна и сортировка, по которой он применяется.
+ * Порядок задает таблица (радиокнопки и заголовки столбцов), а все списки, созданные через sorted(),
+ * пересортировываются, когда он меняется. Один общий кеш ключей на все списки.
+ */
+@Getter
+public class PersonSorting {
+
+    private final CollationSortEngine engine = new CollationSortEngine();
+
+    // Столбцы сортировки, первый - главный, пустой список - без сортировки
+    private final ObjectProperty<List<SortColumn>> sortOrder = new SimpleObjectProperty<>(List.of());
+
+    /**
+     * Метод sorted() создает список, который показывает людей из source в общем порядке сортировки.
+     *
+     * @param source Исходный список людей.
+     * @return Отсортированное представление source.
+     */
+    public CollatedSortedList sorted(ObservableList<PersonInfo> source) {
+        return new CollatedSortedList(source, engine, sortOrder);
+    }
+}
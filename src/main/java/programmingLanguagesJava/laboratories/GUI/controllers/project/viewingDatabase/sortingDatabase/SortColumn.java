@@ -0,0 +1,12 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.SearchField;
+
+/**
+ * Один столбец сортировки: поле человека и направление.
+ *
+ * @param field     Поле, по которому сортируются люди.
+ * @param ascending true - по возрастанию, false - по убыванию.
+ */
+public record SortColumn(SearchField field, boolean ascending) {
+}
@@ -1,51 +1,68 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.scene.control.RadioButton;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import lombok.RequiredArgsConstructor;
 import programmingLanguagesJava.laboratories.GUI.config.ButtonConfigurator;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.ElementDatabaseView;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.SearchField;
 
-import java.util.Comparator;
-import java.util.function.Function;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Класс, который сортирует таблицу динамически в зависимости от нажатой кнопки.
+ * Сортирует не сам список людей, а задает общий порядок сортировки (PersonSorting), поэтому порядок сохраняется,
+ * когда в список приходят новые или измененные люди.
+ * Таблица сортируется не своими comparator столбцов, а через CollationSortEngine: по правилам русского алфавита
+ * и по нескольким столбцам сразу. Это относится и к нажатию на заголовки столбцов.
  */
 @RequiredArgsConstructor
 public class SorterTableView implements ElementDatabaseView {
 
     private final ButtonConfigurator buttonConfigurator = ButtonConfigurator.getInstance();
     private final RadioButton lastNameRadioButton, firstNameRadioButton, patronymicRadioButton;
-    private final ObservableList<PersonInfo> personInfoList;
+    private final TableView<PersonInfo> customersTableView;
+    private final TableColumn<PersonInfo, String> surnameColumn, nameColumn, patronymicColumn;
+    private final PersonSorting personSorting;
 
     /**
      * Метод event() настраивает обработчики событий для радиокнопок.
-     * Когда выбрана радиокнопка, данные в TableView сортируются по соответствующему полю.
+     * Когда выбрана радиокнопка, таблица сортируется по соответствующему столбцу,
+     * а люди с одинаковым значением в нем - по остальным столбцам ФИО.
      */
     @Override
     public void event() {
-        setupSortingRadioButton(lastNameRadioButton, personInfoList, PersonInfo::getLastName);
-        setupSortingRadioButton(firstNameRadioButton, personInfoList, PersonInfo::getFirstName);
-        setupSortingRadioButton(patronymicRadioButton, personInfoList, PersonInfo::getPatronymic);
+        var fields = Map.of(
+                surnameColumn, SearchField.LAST_NAME,
+                nameColumn, SearchField.FIRST_NAME,
+                patronymicColumn, SearchField.PATRONYMIC);
+
+        // Столбцы без поля (план, договор) в сортировке не участвуют
+        customersTableView.setSortPolicy(table -> {
+            personSorting.getSortOrder().set(table.getSortOrder().stream()
+                    .filter(fields::containsKey)
+                    .map(column -> new SortColumn(fields.get(column), column.getSortType() == TableColumn.SortType.ASCENDING))
+                    .toList());
+            return true;
+        });
+
+        setupSortingRadioButton(lastNameRadioButton, List.of(surnameColumn, nameColumn, patronymicColumn));
+        setupSortingRadioButton(firstNameRadioButton, List.of(nameColumn, surnameColumn, patronymicColumn));
+        setupSortingRadioButton(patronymicRadioButton, List.of(patronymicColumn, surnameColumn, nameColumn));
     }
 
     /**
      * Метод настраивает обработчик событий для указанной радиокнопки.
-     * Когда радиокнопка выбрана, данные сортируются по значению, извлеченному с помощью valueExtractor.
+     * Когда радиокнопка выбрана, таблица сортируется по возрастанию по главному столбцу, затем по остальным.
      */
-    private void setupSortingRadioButton(RadioButton radioButton,
-                                         ObservableList<PersonInfo> data,
-                                         Function<PersonInfo, String> valueExtractor) {
-
-        buttonConfigurator.setupButtonEvent(
-                radioButton,
-                event -> FXCollections.sort(data, Comparator.comparing(valueExtractor, String.CASE_INSENSITIVE_ORDER))
-        );
-    }
-
-
+    private void setupSortingRadioButton(RadioButton radioButton, List<TableColumn<PersonInfo, String>> sortOrder) {
 
+        buttonConfigurator.setupButtonEvent(radioButton, event -> {
+            sortOrder.forEach(column -> column.setSortType(TableColumn.SortType.ASCENDING));
+            customersTableView.getSortOrder().setAll(sortOrder);
+        });
+    }
 }
@@ -3,22 +3,24 @@ package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDat
 import javafx.scene.control.Button;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.deleteRowFromTableView.Deleter;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.TableViewContext;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.tableViewStart.PersonTableModel;
 import lombok.RequiredArgsConstructor;
 
 /**
- * Настройка для удаления выбранного элемента из TableView
+ * Настройка для удаления выбранных людей из TableView и базы данных
  */
 @RequiredArgsConstructor
 public class DeleteRowActionViewingDatabase implements ActionViewingDatabase {
 
     private final TableViewContext context;
     private final Button button;
+    private final PersonTableModel tableModel;
 
     /**
      * Точка запуска
      */
     @Override
     public void execute() {
-        new Deleter(context.customersTableView(), button).event();
+        new Deleter(context.customersTableView(), button, tableModel).event();
     }
 }
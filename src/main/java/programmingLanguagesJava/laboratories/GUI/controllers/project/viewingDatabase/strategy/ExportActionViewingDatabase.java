@@ -0,0 +1,26 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategy;
+
+import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase.Exporter;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.TableViewContext;
+
+/**
+ * Конфигурация выгрузки людей из таблицы в файл при нажатии на кнопку.
+ */
+@RequiredArgsConstructor
+public class ExportActionViewingDatabase implements ActionViewingDatabase {
+
+    private final TableViewContext context;
+    private final Button button;
+    private final ProgressBar progressBar;
+
+    /**
+     * Точка запуска
+     */
+    @Override
+    public void execute() {
+        new Exporter(context.customersTableView(), button, progressBar).event();
+    }
+}
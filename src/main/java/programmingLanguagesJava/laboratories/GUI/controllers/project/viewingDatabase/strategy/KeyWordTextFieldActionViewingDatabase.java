@@ -4,6 +4,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.control.TextField;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.HumanSearchController;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase.PersonSorting;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.TableViewContext;
 import lombok.RequiredArgsConstructor;
 
@@ -16,12 +17,13 @@ public class KeyWordTextFieldActionViewingDatabase implements ActionViewingDatab
     private final ObservableList<PersonInfo> personInfos;
     private final TableViewContext context;
     private final TextField keywordTextField;
+    private final PersonSorting personSorting;
 
     /**
      * Точка запуска
      */
     @Override
     public void execute() {
-        new HumanSearchController(context.customersTableView(), personInfos, keywordTextField).event();
+        new HumanSearchController(context.customersTableView(), personInfos, keywordTextField, personSorting).event();
     }
 }
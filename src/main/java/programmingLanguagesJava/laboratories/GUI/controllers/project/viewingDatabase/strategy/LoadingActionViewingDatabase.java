@@ -0,0 +1,36 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategy;
+
+import javafx.scene.control.ProgressBar;
+import lombok.RequiredArgsConstructor;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.TableViewContext;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.tableViewStart.PersonTableModel;
+
+/**
+ * Класс, который конфигурирует фоновую загрузку людей в таблицу.
+ * Окно создается при запуске приложения, но загрузка начинается, только когда его открывают,
+ * останавливается, когда с него уходят, и продолжается с того же места при возвращении.
+ */
+@RequiredArgsConstructor
+public class LoadingActionViewingDatabase implements ActionViewingDatabase {
+
+    private final PersonTableModel tableModel;
+    private final TableViewContext context;
+    private final ProgressBar loadingProgressBar;
+
+    /**
+     * Точка запуска
+     */
+    @Override
+    public void execute() {
+        loadingProgressBar.progressProperty().bind(tableModel.progressProperty());
+        loadingProgressBar.visibleProperty().bind(tableModel.loadingProperty());
+
+        controller.getStage().sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null && newScene == context.customersTableView().getScene()) {
+                tableModel.resume();
+            } else {
+                tableModel.cancelLoading();
+            }
+        });
+    }
+}
@@ -1,10 +1,10 @@
 package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategy;
 
-import javafx.collections.ObservableList;
-import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase.PersonSorting;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase.SorterTableView;
 import lombok.RequiredArgsConstructor;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.RadioButtonContext;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.strategyContext.TableViewContext;
 
 /**
  * Класс, который конфигурирует radio Button
@@ -12,8 +12,9 @@ import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingData
 @RequiredArgsConstructor
 public class RadioButtonsActionViewingDatabase implements ActionViewingDatabase {
 
-    private final ObservableList<PersonInfo> personInfos;
+    private final TableViewContext context;
     private final RadioButtonContext radioButtonContext;
+    private final PersonSorting personSorting;
 
     /**
      * Точка запуска этого кода.
@@ -25,6 +26,10 @@ public class RadioButtonsActionViewingDatabase implements ActionViewingDatabase
                 radioButtonContext.lastNameRadioButton(),
                 radioButtonContext.firstNameRadioButton(),
                 radioButtonContext.patronymicRadioButton(),
-                personInfos).event();
+                context.customersTableView(),
+                context.surnameColumn(),
+                context.nameColumn(),
+                context.patronymicColumn(),
+                personSorting).event();
     }
 }
@@ -0,0 +1,369 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.tableViewStart;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import lombok.Getter;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PeopleChanges;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Класс PersonTableModel хранит людей для таблицы в одном списке, который живет все время, пока открыто окно.
+ * На этот список один раз подписываются таблица, поиск и сортировка, а обновление таблицы не создает новый список,
+ * а применяет к нему только изменения из журнала базы данных: добавляет, заменяет и удаляет строки по id.
+ * Порядок строк в списке не важен (таблица сортирует их сама), поэтому удаление переносит на место удаленной
+ * строки последнюю и не сдвигает весь список.
+ * Люди загружаются в фоне страницами: первая страница появляется в таблице сразу, остальные дописываются следом,
+ * а загрузку можно приостановить и продолжить с того же места.
+ * Удаление и восстановление людей идут через базу данных и попадают в таблицу тем же путем, что и любые изменения.
+ * Все методы вызываются из потока JavaFX.
+ */
+public class PersonTableModel {
+
+    // Первая страница маленькая, чтобы таблица заполнилась сразу, дальше страницы крупнее, чтобы было меньше событий
+    private static final int FIRST_PAGE_SIZE = 500;
+    private static final int PAGE_SIZE = 5_000;
+
+    // Фоновый поток для загрузки страниц
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("person-loader").daemon(true).factory());
+
+    // Отдельный поток для обновлений, удалений и восстановлений, чтобы они не ждали долгую загрузку,
+    // но выполнялись между собой в том порядке, в каком были запрошены
+    private static final ExecutorService UPDATER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("person-updater").daemon(true).factory());
+
+    // Единственный список людей, на который подписана таблица
+    @Getter
+    private final ObservableList<PersonInfo> personInfos = FXCollections.observableArrayList();
+
+    // Позиция каждого человека в personInfos по его id
+    private final Map<Integer, Integer> indexById = new HashMap<>();
+
+    // Люди, удаленные до того, как до них дошла загрузка: страница, прочитанная раньше удаления, не должна их вернуть
+    private final Set<Integer> deletedBeforeLoaded = new HashSet<>();
+
+    // Доля загруженных людей от 0 до 1, -1 пока общее количество неизвестно
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(-1);
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper();
+
+    // Номер последнего примененного изменения из журнала базы данных, -1 пока загрузка его не запомнила
+    private long lastChange = -1;
+
+    // ID последнего загруженного человека: с него продолжается прерванная загрузка
+    private int loadedUpToId;
+    private boolean isFullyLoaded;
+    private int total;
+
+    // Загрузка, которая сейчас выполняется
+    private PageLoader currentLoader;
+
+    /**
+     * Метод load() перечитывает всех людей из базы данных заново.
+     */
+    public void load() {
+        cancelLoading();
+
+        indexById.clear();
+        deletedBeforeLoaded.clear();
+        personInfos.clear();
+        lastChange = -1;
+        loadedUpToId = 0;
+        isFullyLoaded = false;
+        progress.set(-1);
+
+        resume();
+    }
+
+    /**
+     * Метод resume() запускает загрузку или продолжает прерванную с последнего загруженного человека.
+     * Если все уже загружено, ничего не делает.
+     */
+    public void resume() {
+        if (isFullyLoaded || currentLoader != null) {
+            return;
+        }
+
+        var loader = new PageLoader(loadedUpToId, lastChange < 0);
+
+        loader.setOnSucceeded(event -> finishLoading(loader, true));
+        loader.setOnCancelled(event -> finishLoading(loader, false));
+        loader.setOnFailed(event -> {
+            finishLoading(loader, false);
+            throw new RuntimeException("Не получилось загрузить людей из базы данных", loader.getException());
+        });
+
+        currentLoader = loader;
+        loading.set(true);
+        LOADER.execute(loader);
+    }
+
+    /**
+     * Метод cancelLoading() останавливает загрузку, например когда пользователь ушел с окна.
+     * Уже загруженные люди остаются в таблице, resume() продолжит с того же места.
+     */
+    public void cancelLoading() {
+        if (currentLoader != null) {
+            currentLoader.cancel();
+            finishLoading(currentLoader, false);
+        }
+    }
+
+    /**
+     * Метод refresh() подтягивает изменения людей с прошлой загрузки.
+     * Изменения читаются в фоне (не дожидаясь загрузки), а применяются в потоке JavaFX.
+     * Если журнал изменений уже не хранит все нужные записи, таблица перечитывается целиком.
+     */
+    public void refresh() {
+        if (lastChange < 0) {
+            // Загрузка еще не запомнила номер изменения, все изменения и так попадут в таблицу
+            return;
+        }
+
+        var afterChange = lastChange;
+
+        var task = new Task<PeopleChanges>() {
+            @Override
+            protected PeopleChanges call() {
+                return DataBaseSQLite.getInstance().loadPersonChanges(afterChange);
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            var changes = task.getValue();
+
+            if (changes.complete()) {
+                apply(changes);
+            } else {
+                load();
+            }
+        });
+        task.setOnFailed(event -> {
+            throw new RuntimeException("Не получилось обновить таблицу", task.getException());
+        });
+
+        UPDATER.execute(task);
+    }
+
+    /**
+     * Метод delete() удаляет людей из базы данных (удаление можно отменить через restore()) и затем из таблицы.
+     *
+     * @param ids ID людей.
+     */
+    public void delete(List<Integer> ids) {
+        updateThenRefresh(() -> DataBaseSQLite.getInstance().deletePersonInfos(ids), "Не получилось удалить людей");
+    }
+
+    /**
+     * Метод restore() отменяет удаление людей и возвращает их в таблицу.
+     *
+     * @param ids ID людей.
+     */
+    public void restore(List<Integer> ids) {
+        updateThenRefresh(() -> DataBaseSQLite.getInstance().restorePersonInfos(ids), "Не получилось вернуть людей");
+    }
+
+    /**
+     * Метод apply() применяет изменения к списку людей.
+     * Измененный человек заменяется на месте и только если в нем действительно что-то поменялось,
+     * новые люди добавляются одним вызовом, чтобы подписчики получили одно событие, а не по одному на строку.
+     *
+     * @param changes Изменения из базы данных.
+     */
+    public void apply(PeopleChanges changes) {
+        changes.deletedIds().forEach(this::remove);
+
+        var added = new ArrayList<PersonInfo>();
+
+        for (var personInfo : changes.changed()) {
+            deletedBeforeLoaded.remove(personInfo.getId());
+            var index = indexById.get(personInfo.getId());
+
+            if (index == null) {
+                indexById.put(personInfo.getId(), personInfos.size() + added.size());
+                added.add(personInfo);
+            } else if (!personInfos.get(index).equals(personInfo)) {
+                personInfos.set(index, personInfo);
+            }
+        }
+
+        personInfos.addAll(added);
+        lastChange = changes.lastChange();
+    }
+
+    /**
+     * @return Доля загруженных людей от 0 до 1 или -1, пока общее количество неизвестно.
+     */
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    /**
+     * @return true, пока идет загрузка.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    // Добавление загруженной страницы. Люди, которые уже пришли через refresh(), второй раз не добавляются
+    private void appendPage(PageLoader loader, List<PersonInfo> page) {
+        if (loader != currentLoader) {
+            return;
+        }
+
+        var added = new ArrayList<PersonInfo>(page.size());
+
+        for (var personInfo : page) {
+            if (!indexById.containsKey(personInfo.getId()) && !deletedBeforeLoaded.contains(personInfo.getId())) {
+                indexById.put(personInfo.getId(), personInfos.size() + added.size());
+                added.add(personInfo);
+            }
+        }
+
+        personInfos.addAll(added);
+
+        if (!page.isEmpty()) {
+            loadedUpToId = page.getLast().getId();
+        }
+        if (total > 0) {
+            progress.set(Math.min(1.0, (double) personInfos.size() / total));
+        }
+    }
+
+    private void finishLoading(PageLoader loader, boolean isCompleted) {
+        if (loader != currentLoader) {
+            return;
+        }
+
+        currentLoader = null;
+        loading.set(false);
+
+        if (isCompleted) {
+            isFullyLoaded = true;
+            deletedBeforeLoaded.clear();
+            progress.set(1);
+        }
+    }
+
+    // Изменение базы данных в фоне, после которого таблица подтягивает изменения
+    private void updateThenRefresh(Runnable update, String errorMessage) {
+        var task = new Task<Void>() {
+            @Override
+            protected Void call() {
+                update.run();
+                return null;
+            }
+        };
+
+        task.setOnSucceeded(event -> refresh());
+        task.setOnFailed(event -> {
+            throw new RuntimeException(errorMessage, task.getException());
+        });
+
+        UPDATER.execute(task);
+    }
+
+    // Удаление без сдвига списка: на место удаленной строки встает последняя
+    private void remove(int id) {
+        var index = indexById.remove(id);
+        if (index == null) {
+            if (!isFullyLoaded) {
+                deletedBeforeLoaded.add(id);
+            }
+            return;
+        }
+
+        var lastIndex = personInfos.size() - 1;
+
+        // Сначала убирается последняя строка, иначе на время замены она окажется в списке дважды
+        var last = personInfos.remove(lastIndex);
+
+        if (index != lastIndex) {
+            personInfos.set(index, last);
+            indexById.put(last.getId(), index);
+        }
+    }
+
+    /**
+     * Фоновая загрузка людей страницами по id (keyset-пагинация).
+     * Каждая страница передается в поток JavaFX, и следующая читается только после того, как предыдущая добавлена,
+     * поэтому загрузка не заваливает поток JavaFX событиями и останавливается сразу после отмены.
+     */
+    private final class PageLoader extends Task<Void> {
+
+        private final int afterId;
+        private final boolean isChangeNeeded;
+
+        private PageLoader(int afterId, boolean isChangeNeeded) {
+            this.afterId = afterId;
+            this.isChangeNeeded = isChangeNeeded;
+        }
+
+        @Override
+        protected Void call() throws InterruptedException, ExecutionException {
+            var dataBase = DataBaseSQLite.getInstance();
+
+            // Номер изменения запоминается до чтения, поэтому изменения во время загрузки придут при следующем refresh()
+            if (isChangeNeeded) {
+                var change = dataBase.lastPersonChange();
+                runOnFxThread(() -> {
+                    if (this == currentLoader) {
+                        lastChange = change;
+                    }
+                });
+            }
+
+            var lastId = afterId;
+            var pageSize = FIRST_PAGE_SIZE;
+
+            while (!isCancelled()) {
+                var page = dataBase.loadPersonInfosPage(lastId, pageSize);
+
+                runOnFxThread(() -> appendPage(this, page));
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+
+                // Общее количество нужно только для индикатора, поэтому считается после первой страницы, чтобы ее не задерживать
+                if (pageSize == FIRST_PAGE_SIZE) {
+                    var count = dataBase.countPersonInfos();
+                    runOnFxThread(() -> total = count);
+                }
+
+                lastId = page.getLast().getId();
+                pageSize = PAGE_SIZE;
+            }
+
+            return null;
+        }
+
+        // Выполнение действия в потоке JavaFX с ожиданием, пока оно закончится
+        private void runOnFxThread(Runnable action) throws InterruptedException, ExecutionException {
+            if (isCancelled()) {
+                throw new InterruptedException("Загрузка людей отменена");
+            }
+
+            var future = new FutureTask<Void>(action, null);
+            Platform.runLater(future);
+            future.get();
+        }
+    }
+}
@@ -2,17 +2,16 @@ package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDat
 
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
 import lombok.RequiredArgsConstructor;
 import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.ElementDatabaseView;
-
-import java.util.List;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails.ThumbnailLoader;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails.ThumbnailTableCell;
 
 /**
  * Данный класс реализует паттерн строитель, используя библиотеку Lombok
@@ -46,43 +45,13 @@ public class TableViewManager implements ElementDatabaseView {
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("firstName"));
         patronymicColumn.setCellValueFactory(new PropertyValueFactory<>("patronymic"));
 
-        // Установка изображений для столбцов таблицы
-        planColumn.setCellFactory(column -> createImageCell(personInfos, IMAGES.RVT_JPG));
-        pactColumn.setCellFactory(column -> createImageCell(personInfos, IMAGES.WORD_PNG));
+        // Уменьшенные копии планов и договоров, пока копия строится - значок типа файла
+        var thumbnailLoader = new ThumbnailLoader();
+        planColumn.setCellFactory(column -> new ThumbnailTableCell(thumbnailLoader, BlobColumn.PLAN_OF_HOUSE, IMAGES.RVT_JPG));
+        pactColumn.setCellFactory(column -> new ThumbnailTableCell(thumbnailLoader, BlobColumn.DOCUMENT, IMAGES.WORD_PNG));
 
         // Установка данных в таблицу
         customersTableView.setItems(personInfos);
     }
 
-    /**
-     * Метод для создания ячейки с изображением.
-     *
-     * @param personInfos Список информации о людях.
-     * @param image Изображение для отображения в ячейке.
-     * @return TableCell - ячейка таблицы с изображением.
-     */
-    private TableCell<PersonInfo, Image> createImageCell(List<PersonInfo> personInfos,
-                                                         Image image) {
-        return new TableCell<>() {
-            private final ImageView imageView = new ImageView();
-
-            @Override
-            protected void updateItem(Image item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || getIndex() >= personInfos.size()) {
-
-                    setGraphic(null);
-
-                } else {
-
-                    imageView.setImage(image);
-                    imageView.setFitHeight(50);
-                    imageView.setFitWidth(50);
-                    setGraphic(imageView);
-
-                }
-            }
-        };
-    }
-
 }
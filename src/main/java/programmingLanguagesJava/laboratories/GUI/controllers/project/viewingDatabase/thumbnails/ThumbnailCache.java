@@ -0,0 +1,59 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails;
+
+import javafx.scene.image.Image;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Класс ThumbnailCache хранит уменьшенные копии в памяти и выбрасывает те, что дольше всех не показывались,
+ * когда их общий размер превышает лимит. Размер считается по пикселям (4 байта на пиксель), а не по количеству,
+ * поэтому лимит не зависит от размера копий.
+ * Методы вызываются из потока JavaFX.
+ */
+class ThumbnailCache {
+
+    private final long capacityBytes;
+    private long sizeBytes;
+
+    // Порядок доступа: первой идет копия, которую дольше всех не запрашивали
+    private final LinkedHashMap<ThumbnailKey, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param capacityBytes Сколько байт пикселей можно держать в памяти.
+     */
+    ThumbnailCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * @param key Файл.
+     * @return Копия или null, если ее нет в памяти.
+     */
+    Image get(ThumbnailKey key) {
+        return images.get(key);
+    }
+
+    /**
+     * Метод put() кладет копию в память и выбрасывает самые старые копии, если места не хватает.
+     *
+     * @param key   Файл.
+     * @param image Копия.
+     */
+    void put(ThumbnailKey key, Image image) {
+        var previous = images.put(key, image);
+        if (previous != null) {
+            sizeBytes -= weight(previous);
+        }
+        sizeBytes += weight(image);
+
+        var iterator = images.values().iterator();
+        while (sizeBytes > capacityBytes && iterator.hasNext()) {
+            sizeBytes -= weight(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static long weight(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+}
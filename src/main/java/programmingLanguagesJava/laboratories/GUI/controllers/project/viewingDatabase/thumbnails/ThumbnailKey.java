@@ -0,0 +1,12 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+
+/**
+ * Файл, для которого строится уменьшенная копия: строка Remaining_info и столбец.
+ *
+ * @param remainingInfoId ID строки в таблице Remaining_info.
+ * @param column          Столбец с файлом.
+ */
+public record ThumbnailKey(int remainingInfoId, BlobColumn column) {
+}
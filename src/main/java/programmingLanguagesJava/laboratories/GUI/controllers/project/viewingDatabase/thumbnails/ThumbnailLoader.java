@@ -0,0 +1,159 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.DataBaseSQLite;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Класс ThumbnailLoader выдает ячейкам таблицы уменьшенные копии планов и договоров.
+ * Поток JavaFX только берет готовые копии из памяти, все остальное идет в фоне:
+ * сначала копия ищется в таблице Thumbnails, и только если ее там нет, файл потоком читается из базы данных,
+ * разбирается, уменьшается до SIZE и сохраняется в Thumbnails, чтобы больше его не разбирать.
+ * Запросы делают только видимые ячейки. Новые запросы выполняются раньше старых,
+ * а запрос ячейки, которая ушла с экрана до начала работы, отменяется. Поэтому при быстрой прокрутке
+ * фон не разбирает файлы строк, которые пользователь уже пролистал.
+ * Методы вызываются из потока JavaFX.
+ */
+public class ThumbnailLoader {
+
+    // Размер копии в пикселях по большей стороне, с запасом для экранов с высокой плотностью пикселей
+    public static final int SIZE = 96;
+
+    // Сколько памяти занимают копии, можно поменять через -D при запуске
+    private static final long CACHE_BYTES = Long.getLong("thumbnails.cacheMib", 64) * 1024 * 1024;
+
+    // Фоновые потоки. Очередь работает как стек: последними запрошены ячейки, которые видны сейчас
+    private static final ExecutorService WORKERS = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingDeque<>() {
+                @Override
+                public boolean offer(Runnable task) {
+                    return offerFirst(task);
+                }
+            },
+            Thread.ofPlatform().name("thumbnail-loader-", 0).daemon(true).factory());
+
+    private final ThumbnailCache cache = new ThumbnailCache(CACHE_BYTES);
+    private final ThumbnailRenderer renderer = new ThumbnailRenderer(SIZE);
+
+    // Копии, которые сейчас строятся: одну копию могут ждать несколько ячеек
+    private final Map<ThumbnailKey, Request> requests = new HashMap<>();
+
+    // Файлы, которые не удалось разобрать, чтобы не разбирать их заново при каждой прокрутке
+    private final Set<ThumbnailKey> failed = new HashSet<>();
+
+    /**
+     * @param key Файл.
+     * @return Копия из памяти или null, если ее там нет.
+     */
+    public Image cached(ThumbnailKey key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Метод load() строит копию в фоне и передает ее в onLoaded в потоке JavaFX.
+     * Если файл не удалось разобрать, onLoaded не вызывается.
+     *
+     * @param key      Файл.
+     * @param onLoaded Что сделать с готовой копией.
+     * @return Отмена запроса, ее нужно вызвать, когда ячейка начинает показывать другую строку.
+     */
+    public Runnable load(ThumbnailKey key, Consumer<Image> onLoaded) {
+        if (failed.contains(key)) {
+            return () -> {
+            };
+        }
+
+        var request = requests.computeIfAbsent(key, this::submit);
+        request.consumers.add(onLoaded);
+
+        return () -> {
+            request.consumers.remove(onLoaded);
+
+            if (request.consumers.isEmpty() && requests.get(key) == request) {
+                requests.remove(key);
+                request.future.cancel(false);
+            }
+        };
+    }
+
+    private Request submit(ThumbnailKey key) {
+        var request = new Request();
+
+        request.future = WORKERS.submit(() -> {
+            Image image = null;
+
+            try {
+                image = produce(key);
+            } catch (RuntimeException e) {
+                // Иначе исключение осталось бы в Future, которую никто не читает
+                var thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread,
+                        new RuntimeException("Не получилось построить уменьшенную копию файла " + key, e));
+            }
+
+            var result = image;
+            Platform.runLater(() -> finish(key, request, result));
+        });
+
+        return request;
+    }
+
+    // Готовая копия запоминается, даже если ее уже никто не ждет: работа сделана, а строку могут пролистать обратно
+    private void finish(ThumbnailKey key, Request request, Image image) {
+        if (requests.get(key) == request) {
+            requests.remove(key);
+        }
+
+        if (image == null) {
+            failed.add(key);
+            return;
+        }
+
+        cache.put(key, image);
+        List.copyOf(request.consumers).forEach(consumer -> consumer.accept(image));
+    }
+
+    // Выполняется в фоне: копия из Thumbnails или из самого файла
+    private Image produce(ThumbnailKey key) {
+        var dataBase = DataBaseSQLite.getInstance();
+
+        // Старые файлы, которые лежат прямо в строке, не имеют ID в Blobs, их копии живут только в памяти
+        var blobId = dataBase.blobId(key.remainingInfoId(), key.column());
+        var png = blobId != 0 ? dataBase.loadThumbnail(blobId, SIZE) : null;
+
+        if (png == null) {
+            // Файл разбирается прямо из частей в базе данных, пока открыт поток, а не загружается целиком
+            png = dataBase.readBlob(key.remainingInfoId(), key.column(), file -> renderer.render(key.column(), file));
+
+            if (png == null) {
+                return null;
+            }
+            if (blobId != 0) {
+                dataBase.saveThumbnail(blobId, SIZE, png);
+            }
+        }
+
+        // Конструктор Image без фоновой загрузки разбирает картинку сразу, в этом потоке
+        var image = new Image(new ByteArrayInputStream(png));
+        return image.isError() ? null : image;
+    }
+
+    private static final class Request {
+        private final List<Consumer<Image>> consumers = new ArrayList<>();
+        private Future<?> future;
+    }
+}
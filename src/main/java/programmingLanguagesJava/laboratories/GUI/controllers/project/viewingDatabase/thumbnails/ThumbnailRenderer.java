@@ -0,0 +1,225 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Класс ThumbnailRenderer строит уменьшенные копии файлов: план здания - уменьшенная картинка,
+ * договор - первая страница .docx. Работает без JavaFX (через AWT), поэтому вызывается из фоновых потоков.
+ * Apache POI не умеет раскладывать документ по страницам, поэтому первая страница рисуется упрощенно:
+ * текст абзацев и таблиц с полями и переносами строк на листе A4, пока лист не закончится.
+ */
+class ThumbnailRenderer {
+
+    // Лист A4 в пунктах и поля страницы
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int PAGE_MARGIN = 56;
+    private static final int DEFAULT_FONT_SIZE = 11;
+
+    private final int size;
+
+    /**
+     * @param size Размер копии в пикселях по большей стороне.
+     */
+    ThumbnailRenderer(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Метод render() строит уменьшенную копию файла.
+     *
+     * @param column Столбец, откуда файл: от него зависит, картинка это или документ.
+     * @param file   Поток с содержимым файла, читается один раз от начала до конца. Не закрывается.
+     * @return PNG-изображение или null, если файл пустой или его не удалось разобрать.
+     * @throws IOException Если файл поврежден.
+     */
+    byte[] render(BlobColumn column, InputStream file) throws IOException {
+        var buffered = new BufferedInputStream(file);
+        buffered.mark(1);
+        if (buffered.read() < 0) {
+            return null;
+        }
+        buffered.reset();
+
+        var image = column == BlobColumn.PLAN_OF_HOUSE ? renderImage(buffered) : renderDocument(buffered);
+
+        if (image == null) {
+            return null;
+        }
+
+        var outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    // Картинка читается из потока с прореживанием пикселей, поэтому ни файл, ни большой план не лежат в памяти целиком
+    private BufferedImage renderImage(InputStream file) throws IOException {
+        try (var input = ImageIO.createImageInputStream(file)) {
+
+            var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            var reader = readers.next();
+
+            try {
+                reader.setInput(input, true, true);
+
+                // Читается примерно вдвое больше пикселей, чем нужно, чтобы после сглаживания копия осталась четкой
+                var step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / (size * 2));
+                var param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                return scale(reader.read(0, param));
+
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        var ratio = Math.min((double) size / source.getWidth(), (double) size / source.getHeight());
+        var width = Math.max(1, (int) Math.round(source.getWidth() * Math.min(ratio, 1)));
+        var height = Math.max(1, (int) Math.round(source.getHeight() * Math.min(ratio, 1)));
+
+        var result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        var graphics = result.createGraphics();
+
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return result;
+    }
+
+    // Лист рисуется в пунктах и уменьшается до размера копии одним масштабом
+    private BufferedImage renderDocument(InputStream file) throws IOException {
+        try (var document = new XWPFDocument(file)) {
+
+            var scale = (double) size / PAGE_HEIGHT;
+            var result = new BufferedImage(
+                    Math.max(1, (int) Math.round(PAGE_WIDTH * scale)), size, BufferedImage.TYPE_INT_RGB);
+            var graphics = result.createGraphics();
+
+            try {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, result.getWidth(), result.getHeight());
+                graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                graphics.scale(scale, scale);
+                graphics.setColor(Color.DARK_GRAY);
+
+                drawFirstPage(graphics, document);
+
+            } finally {
+                graphics.dispose();
+            }
+
+            return result;
+        }
+    }
+
+    private void drawFirstPage(Graphics2D graphics, XWPFDocument document) {
+        var y = PAGE_MARGIN;
+
+        for (var element : document.getBodyElements()) {
+
+            if (element instanceof XWPFParagraph paragraph) {
+                if (paragraph.isPageBreak() && y > PAGE_MARGIN) {
+                    return;
+                }
+                y = drawText(graphics, paragraph.getText(), fontSize(paragraph), y);
+
+            } else if (element instanceof XWPFTable table) {
+                for (var row : table.getRows()) {
+                    var text = row.getTableCells().stream()
+                            .map(cell -> cell.getText().strip())
+                            .collect(Collectors.joining("   "));
+                    y = drawText(graphics, text, DEFAULT_FONT_SIZE, y);
+                }
+            }
+
+            if (y >= PAGE_HEIGHT - PAGE_MARGIN) {
+                return;
+            }
+        }
+    }
+
+    // Текст с переносом по словам, возвращает высоту, с которой начинается следующий абзац
+    private int drawText(Graphics2D graphics, String text, int fontSize, int y) {
+        graphics.setFont(new Font(Font.SERIF, Font.PLAIN, fontSize));
+        var metrics = graphics.getFontMetrics();
+        var lineHeight = metrics.getHeight();
+
+        for (var line : wrap(text, metrics::stringWidth, PAGE_WIDTH - 2 * PAGE_MARGIN)) {
+            if (y + lineHeight > PAGE_HEIGHT - PAGE_MARGIN) {
+                return PAGE_HEIGHT;
+            }
+            y += lineHeight;
+            graphics.drawString(line, PAGE_MARGIN, y - metrics.getDescent());
+        }
+
+        // Пустой абзац - пустая строка, как в Word
+        return text.isBlank() ? y + lineHeight : y + lineHeight / 3;
+    }
+
+    private static List<String> wrap(String text, ToIntFunction<String> width, int maxWidth) {
+        var lines = new ArrayList<String>();
+        var line = new StringBuilder();
+
+        for (var word : text.strip().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (!line.isEmpty() && width.applyAsInt(line + " " + word) > maxWidth) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            if (!line.isEmpty()) {
+                line.append(' ');
+            }
+            line.append(word);
+        }
+
+        if (!line.isEmpty()) {
+            lines.add(line.toString());
+        }
+
+        return lines;
+    }
+
+    // Размер шрифта первого фрагмента абзаца (заголовки заметно крупнее), по умолчанию 11
+    private static int fontSize(XWPFParagraph paragraph) {
+        var runs = paragraph.getRuns();
+        if (runs.isEmpty()) {
+            return DEFAULT_FONT_SIZE;
+        }
+
+        var fontSize = runs.getFirst().getFontSizeAsDouble();
+        return fontSize == null ? DEFAULT_FONT_SIZE : (int) Math.round(fontSize);
+    }
+}
@@ -0,0 +1,90 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails;
+
+import javafx.scene.control.TableCell;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+/**
+ * Ячейка таблицы с уменьшенной копией плана или договора.
+ * Пока копия строится, показывается значок типа файла, он же остается, если файл не удалось разобрать.
+ * TableView создает ячейки только для видимых строк и переиспользует их при прокрутке,
+ * поэтому ячейка отменяет запрос прошлой строки, когда начинает показывать другую.
+ */
+public class ThumbnailTableCell extends TableCell<PersonInfo, Image> {
+
+    private static final int VIEW_SIZE = 50;
+
+    private final ImageView imageView = new ImageView();
+    private final ThumbnailLoader loader;
+    private final BlobColumn column;
+    private final Image placeholder;
+
+    // Файл, который показывает ячейка, и отмена его запроса
+    private ThumbnailKey shownKey;
+    private Runnable cancelRequest;
+
+    /**
+     * @param loader      Загрузчик копий, общий для всей таблицы.
+     * @param column      Столбец Remaining_info, файл из которого показывает ячейка.
+     * @param placeholder Значок типа файла.
+     */
+    public ThumbnailTableCell(ThumbnailLoader loader, BlobColumn column, Image placeholder) {
+        this.loader = loader;
+        this.column = column;
+        this.placeholder = placeholder;
+
+        imageView.setFitWidth(VIEW_SIZE);
+        imageView.setFitHeight(VIEW_SIZE);
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+    }
+
+    @Override
+    protected void updateItem(Image item, boolean empty) {
+        super.updateItem(item, empty);
+
+        var personInfo = empty || getTableRow() == null ? null : getTableRow().getItem();
+
+        if (personInfo == null) {
+            cancelRequest();
+            shownKey = null;
+            setGraphic(null);
+            return;
+        }
+
+        var key = new ThumbnailKey(personInfo.getRemainingInfoId(), column);
+
+        if (key.equals(shownKey)) {
+            return;
+        }
+
+        cancelRequest();
+        shownKey = key;
+
+        var cached = loader.cached(key);
+        show(cached != null ? cached : placeholder);
+
+        if (cached == null) {
+            cancelRequest = loader.load(key, image -> {
+                cancelRequest = null;
+                if (key.equals(shownKey)) {
+                    show(image);
+                }
+            });
+        }
+    }
+
+    private void show(Image image) {
+        imageView.setImage(image);
+        setGraphic(imageView);
+    }
+
+    private void cancelRequest() {
+        if (cancelRequest != null) {
+            cancelRequest.run();
+            cancelRequest = null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchContractGeneratorTest {
+
+    /**
+     * Когда запись договоров на диск зависла, тогда в работу берется не больше IN_FLIGHT_PER_WORKER договоров
+     * на поток сборки, а после освобождения записи генерируются все договоры.
+     */
+    @Test
+    void whenWritingIsStuckThenInFlightContractsMustBeLimited() throws Exception {
+        var started = new AtomicInteger();
+        var writing = new CountDownLatch(1);
+
+        var generator = new BatchContractGenerator(null, 1, 5, progress -> { },
+                client -> new byte[0],
+                document -> {
+                    started.incrementAndGet();
+                    try {
+                        writing.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "contract.docx";
+                });
+
+        var report = CompletableFuture.supplyAsync(() -> generator.generate(clients(20)));
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.get() < BatchContractGenerator.IN_FLIGHT_PER_WORKER && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Время на то, чтобы лишний договор успел бы попасть в работу, если бы ограничения не было
+        Thread.sleep(200);
+
+        assertEquals(BatchContractGenerator.IN_FLIGHT_PER_WORKER, started.get());
+
+        writing.countDown();
+
+        assertEquals(20, report.get(5, TimeUnit.SECONDS).progress().generated());
+        assertEquals(20, started.get());
+    }
+
+    /**
+     * Когда людей клиента не получилось разобрать или пачку не получилось записать в базу данных,
+     * тогда эти клиенты попадают в отчет с номерами, а остальные записываются.
+     */
+    @Test
+    void whenClientOrBatchFailsThenErrorsMustNameClients() {
+        var saved = Collections.synchronizedList(new ArrayList<ClientRecord>());
+        var batches = new AtomicInteger();
+
+        var clients = new ArrayList<>(clients(4));
+        clients.set(1, Map.of("mainPerson", "Иванов", "allPeople", "Иванов", "buildingPlan", "plan.png"));
+
+        // Вторая пачка (клиенты 4) не записывается
+        var generator = new BatchContractGenerator(records -> {
+            if (batches.incrementAndGet() == 2) {
+                throw new RuntimeException("база данных занята");
+            }
+            saved.addAll(records);
+        }, 1, 2, progress -> { }, client -> new byte[0], document -> "contract.docx");
+
+        var report = generator.generate(clients);
+
+        assertEquals(4, report.progress().generated());
+        assertEquals(2, report.progress().saved());
+        assertEquals(2, report.progress().failed());
+        assertEquals(2, saved.size());
+
+        assertEquals(2, report.errors().size(), report.errors().toString());
+        assertTrue(report.errors().get(0).startsWith("Клиент 2: договор записан в contract.docx, но люди не разобраны"),
+                report.errors().get(0));
+        assertTrue(report.errors().get(1).startsWith("Клиенты 4 не записаны в базу данных"), report.errors().get(1));
+        assertTrue(report.errors().get(1).endsWith("база данных занята"), report.errors().get(1));
+    }
+
+    /**
+     * Когда считается процентиль, тогда берется ближайший ранг: наименьшее значение, не меньше которого
+     * нужная доля всех значений.
+     */
+    @Test
+    void whenPercentileIsTakenThenNearestRankMustBeUsed() {
+        var sorted = new long[]{10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+
+        assertEquals(50, BatchContractGenerator.percentile(sorted, 0.50));
+        assertEquals(100, BatchContractGenerator.percentile(sorted, 0.95));
+        assertEquals(100, BatchContractGenerator.percentile(sorted, 1.0));
+        assertEquals(10, BatchContractGenerator.percentile(sorted, 0.0));
+        assertEquals(7, BatchContractGenerator.percentile(new long[]{7}, 0.99));
+        assertEquals(0, BatchContractGenerator.percentile(new long[0], 0.50));
+    }
+
+    private static List<Map<String, String>> clients(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Map.of(
+                        "mainPerson", "Иванов Иван Иванович",
+                        "allPeople", "Иванов Иван Иванович",
+                        "buildingPlan", "plan.png"))
+                .toList();
+    }
+}
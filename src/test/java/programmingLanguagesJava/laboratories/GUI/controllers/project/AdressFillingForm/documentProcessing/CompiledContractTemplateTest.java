@@ -0,0 +1,65 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.SequencedMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledContractTemplateTest {
+    private final CompiledContractTemplate template = CompiledContractTemplate.compile(DocxProcessor.PATH_BLANK);
+
+    /**
+     * Когда договор собран из скомпилированного бланка, тогда все пропуски заполнены значениями по порядку,
+     * а символы, особые для XML, не ломают документ.
+     */
+    @Test
+    void whenContractIsGeneratedThenAllBlanksMustBeFilled() throws IOException {
+        var values = new LinkedHashMap<String, String>();
+        values.put("city", "Москва");
+        values.put("year", "2024");
+        values.put("mainPerson", "Иванов <Иван> & сыновья");
+        values.put("addressField", "ул. \"Ленина\", 1");
+        values.put("cost", "50000 тыс. рублей");
+
+        var text = generate(values);
+
+        values.values().forEach(value -> assertTrue(text.contains(value), value));
+        assertFalse(text.contains("__"));
+    }
+
+    /**
+     * Когда значений меньше, чем пропусков в бланке, тогда оставшиеся пропуски остаются в договоре,
+     * а заполненные не сдвигаются.
+     */
+    @Test
+    void whenValuesAreMissingThenBlanksMustStayVisible() throws IOException {
+        assertEquals(5, template.getSlots().size());
+
+        var values = new LinkedHashMap<String, String>();
+        values.put("city", "Москва");
+
+        var text = generate(values);
+
+        assertTrue(text.contains("Г. Москва ___"));
+        assertTrue(text.contains("составляет ___"));
+    }
+
+    private String generate(SequencedMap<String, String> values) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        template.generate(values, outputStream);
+
+        try (var doc = new XWPFDocument(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            return doc.getParagraphs().stream()
+                    .map(XWPFParagraph::getText)
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocxProcessorTest {
+    private static final Pattern COST = Pattern.compile("\\d+ тыс\\. рублей");
+
+    /**
+     * Когда один DocxProcessor собирает договор дважды, тогда в обоих договорах одна и та же стоимость,
+     * хотя она выбирается случайно.
+     */
+    @Test
+    void whenDocumentIsRenderedTwiceThenCostMustBeTheSame() throws IOException {
+        var processor = new DocxProcessor(Map.of(
+                "addressField", "1, ул. Ленина, Центральный, Москва, Москва, Россия",
+                "mainPerson", "Иванов Иван Иванович"));
+
+        var cost = COST.matcher(text(processor));
+        assertTrue(cost.find());
+        assertTrue(text(processor).contains(cost.group()));
+    }
+
+    private static String text(DocxProcessor processor) throws IOException {
+        var document = new ByteArrayOutputStream();
+        processor.render(document);
+
+        try (var doc = new XWPFDocument(new ByteArrayInputStream(document.toByteArray()));
+             var extractor = new XWPFWordExtractor(doc)) {
+            return extractor.getText();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.documentProcessing;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceholderReplacerTest {
+
+    /**
+     * Когда подчеркивание разбито на несколько фрагментов текста, тогда оно заменяется целиком одним значением,
+     * и следующее подчеркивание получает следующее значение, а не сдвигается.
+     */
+    @Test
+    void whenBlankIsSplitAcrossRunsThenLaterBlanksMustNotShift() throws IOException {
+        try (var doc = new XWPFDocument()) {
+            var paragraph = paragraph(doc, "Г. ___", "____ ", "____", "_ года");
+
+            new PlaceholderReplacer(values()).replaceUnderlines(doc);
+
+            assertEquals("Г. Москва 2025 года", paragraph.getText());
+        }
+    }
+
+    /**
+     * Когда пропуск именованный, тогда он заполняется по имени в абзацах, таблицах и колонтитулах,
+     * а пропуск с неизвестным именем остается как есть.
+     */
+    @Test
+    void whenPlaceholderIsNamedThenItMustBeFilledEverywhere() throws IOException {
+        try (var doc = new XWPFDocument()) {
+            var paragraph = paragraph(doc, "Заказчик {{main", "Person}} и {{unknown}}");
+
+            var cell = doc.createTable(1, 1).getRow(0).getCell(0).getParagraphs().getFirst();
+            cell.createRun().setText("Город {{ city }}");
+
+            var header = doc.createHeader(HeaderFooterType.DEFAULT).createParagraph();
+            header.createRun().setText("Год {{year}}");
+
+            new PlaceholderReplacer(values()).replaceUnderlines(doc);
+
+            assertEquals("Заказчик Иванов И.И. и {{unknown}}", paragraph.getText());
+            assertEquals("Город Москва", cell.getText());
+            assertEquals("Год 2025", header.getText());
+        }
+    }
+
+    private static XWPFParagraph paragraph(XWPFDocument doc, String... runs) {
+        var paragraph = doc.createParagraph();
+        for (var run : runs) {
+            paragraph.createRun().setText(run);
+        }
+        return paragraph;
+    }
+
+    private static LinkedHashMap<String, String> values() {
+        var values = new LinkedHashMap<String, String>();
+        values.put("city", "Москва");
+        values.put("year", "2025");
+        values.put("mainPerson", "Иванов И.И.");
+        return values;
+    }
+}
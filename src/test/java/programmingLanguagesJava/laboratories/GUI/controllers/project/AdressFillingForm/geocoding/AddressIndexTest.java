@@ -0,0 +1,40 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.AddressRecord;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressIndexTest {
+    private final AddressIndex index = new AddressIndex(List.of(
+            new AddressRecord("10, проспект Ленина, Томск", 56.48140, 84.94860),
+            new AddressRecord("100, проспект Ленина, Томск", 56.47000, 84.95150),
+            new AddressRecord("3, улица Пушкина, Томск", 56.49090, 84.96310),
+            new AddressRecord("12, улица Учёбная, Томск", 56.45510, 84.97280)
+    ), 150);
+
+    /**
+     * Когда кликают рядом с домом, тогда находится ближайший дом, а далеко от домов адреса нет.
+     */
+    @Test
+    void whenClickIsNearHouseThenNearestAddressMustBeFound() {
+        assertEquals("10, проспект Ленина, Томск", index.nearest(56.48150, 84.94870));
+        assertEquals("3, улица Пушкина, Томск", index.nearest(56.49080, 84.96300));
+        assertNull(index.nearest(56.50000, 84.90000));
+    }
+
+    /**
+     * Когда адрес ищут с опечаткой, в другом порядке слов или через "е" вместо "ё",
+     * тогда находится нужный дом, а не похожий.
+     */
+    @Test
+    void whenQueryIsInexactThenAddressMustBeFound() {
+        assertEquals("56.4814 84.9486", index.find("Ленина 10"));
+        assertEquals("56.47 84.9515", index.find("пр. Ленина, 100"));
+        assertEquals("56.4909 84.9631", index.find("Пушкено 3"));
+        assertEquals("56.4551 84.9728", index.find("учебная 12"));
+        assertNull(index.find("Кремлевская набережная"));
+    }
+}
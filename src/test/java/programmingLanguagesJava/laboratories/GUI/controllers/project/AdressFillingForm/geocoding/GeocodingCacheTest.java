@@ -0,0 +1,62 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeocodingCacheTest {
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final GeocodingCache cache = new GeocodingCache(null, 2, 8, Duration.ofMinutes(1), now::get);
+
+    /**
+     * Когда считается геохеш известной точки, тогда он совпадает с эталонным.
+     */
+    @Test
+    void whenKnownPointIsEncodedThenGeohashMustMatch() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", Geohash.encode(42.6, -5.6, 5));
+    }
+
+    /**
+     * Когда кликают по тому же зданию в паре метров от прошлого клика, тогда адрес берется из кеша,
+     * а для места в соседнем квартале адреса нет.
+     */
+    @Test
+    void whenClickIsInSameBuildingThenAddressMustBeCached() {
+        cache.putAddress(55.75580, 37.61730, "Красная площадь, 1");
+
+        assertEquals("Красная площадь, 1", cache.findAddress(55.75581, 37.61731));
+        assertNull(cache.findAddress(55.75800, 37.62000));
+    }
+
+    /**
+     * Когда ответ старше срока жизни, тогда его нет в кеше.
+     */
+    @Test
+    void whenEntryIsExpiredThenItMustBeMissing() {
+        cache.putPlace("Москва,  Тверская 1", "55.7 37.6");
+        assertEquals("55.7 37.6", cache.findPlace("москва, тверская 1"));
+
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+
+        assertNull(cache.findPlace("москва, тверская 1"));
+    }
+
+    /**
+     * Когда ответов больше, чем помещается в память, тогда выбрасывается тот, что дольше всех не запрашивали.
+     */
+    @Test
+    void whenCapacityIsExceededThenLeastRecentlyUsedMustBeEvicted() {
+        cache.putPlace("a", "1 1");
+        cache.putPlace("b", "2 2");
+        cache.findPlace("a");
+        cache.putPlace("c", "3 3");
+
+        assertEquals("1 1", cache.findPlace("a"));
+        assertNull(cache.findPlace("b"));
+        assertEquals("3 3", cache.findPlace("c"));
+    }
+}
@@ -0,0 +1,108 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NominatimClientTest {
+    private static final String ADDRESS = "{\"display_name\": \"Москва, Красная площадь, 1\"}";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private HttpServer server;
+    private NominatimClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/reverse", this::handle);
+        server.start();
+
+        client = new NominatimClient("http://127.0.0.1:" + server.getAddress().getPort(), 1_000, 2,
+                Duration.ofMillis(10), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    /**
+     * Когда такой же запрос уже выполняется, тогда второй запрос получает его ответ, а сервис вызывается один раз.
+     */
+    @Test
+    void whenSameRequestIsInFlightThenItMustBeCoalesced() {
+        var first = client.reverse(55.7558, 37.6173);
+        var second = client.reverse(55.7558, 37.6173);
+        release.countDown();
+
+        assertEquals("Москва, Красная площадь, 1", first.join());
+        assertEquals("Москва, Красная площадь, 1", second.join());
+        assertEquals(1, requests.get());
+        assertEquals(1, client.getMetrics().coalesced());
+    }
+
+    /**
+     * Когда сервис временно отвечает 503, тогда запрос повторяется и получает ответ.
+     */
+    @Test
+    void whenServiceIsUnavailableThenRequestMustBeRetried() {
+        release.countDown();
+        failuresLeft.set(2);
+
+        assertEquals("Москва, Красная площадь, 1", client.reverse(55.7558, 37.6173).join());
+        assertEquals(3, requests.get());
+        assertEquals(2, client.getMetrics().retries());
+    }
+
+    /**
+     * Когда запросы идут чаще разрешенного, тогда каждый следующий ждет своей очереди.
+     */
+    @Test
+    void whenBucketIsEmptyThenRequestsMustBeSpaced() {
+        var now = new AtomicLong();
+        var bucket = new TokenBucket(2, 1, now::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), bucket.reserve());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, bucket.reserve());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        var isFailure = failuresLeft.getAndDecrement() > 0;
+        var body = (isFailure ? "{}" : ADDRESS).getBytes(StandardCharsets.UTF_8);
+
+        exchange.sendResponseHeaders(isFailure ? 503 : 200, body.length);
+        try (var outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.processingEventsOnMap;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding.GeocodingCache;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.AdressFillingForm.geocoding.NominatimClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReverseGeocodingTest {
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private ReverseGeocoding geocoding;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/reverse", exchange -> {
+            requests.incrementAndGet();
+
+            var body = "{\"display_name\": \"Москва, Красная площадь, 1\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (var outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+
+        var cache = new GeocodingCache(null, 100, 8, Duration.ofDays(1), System::currentTimeMillis);
+        var client = new NominatimClient("http://127.0.0.1:" + server.getAddress().getPort(), 100, 0,
+                Duration.ofMillis(10), Duration.ofSeconds(5));
+        geocoding = new ReverseGeocoding(client, cache);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Когда второй клик попадает в то же здание, тогда адрес берется из кеша и сервис второй раз не вызывается.
+     */
+    @Test
+    void whenSameBuildingIsClickedTwiceThenServiceMustBeCalledOnce() {
+        assertEquals("Москва, Красная площадь, 1", geocoding.addressByCoordinates(55.75580, 37.61730));
+        assertEquals("Москва, Красная площадь, 1", geocoding.addressByCoordinates(55.75581, 37.61731));
+
+        assertEquals(1, requests.get());
+    }
+}
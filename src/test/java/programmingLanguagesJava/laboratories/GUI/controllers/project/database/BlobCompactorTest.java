@@ -0,0 +1,70 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobCompactorTest {
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+    private BlobDAO blobDAO;
+
+    @BeforeEach
+    void createDataBase() throws SQLException {
+        pool = TestDataBase.create(directory);
+        blobDAO = new BlobDAO(pool);
+    }
+
+    @AfterEach
+    void closeDataBase() throws SQLException {
+        pool.close();
+    }
+
+    /**
+     * Когда дубликат слит с оригиналом, тогда освобождение одной ссылки до пересчета счетчиков
+     * не удаляет оригинал, на который ссылается вторая строка.
+     */
+    @Test
+    void whenReleasedBetweenMergeAndRecountThenOriginalMustSurvive() throws SQLException {
+        var content = new byte[]{7, 7, 7};
+
+        // Файл, записанный до дедупликации: без хеша
+        var duplicateId = blobDAO.write(new ByteArrayInputStream(content));
+        execute("UPDATE Blobs SET hash = NULL WHERE id = " + duplicateId);
+        var originalId = blobDAO.write(new ByteArrayInputStream(content));
+        assertNotEquals(duplicateId, originalId);
+
+        execute("INSERT INTO Remaining_info (document_blob) VALUES (" + originalId + ")");
+        execute("INSERT INTO Remaining_info (document_blob) VALUES (" + duplicateId + ")");
+
+        assertEquals(1, new BlobCompactor(pool, blobDAO).mergeDuplicates());
+
+        // Удаление первой строки, например очисткой удаленных людей, до deleteOrphans()
+        execute("DELETE FROM Remaining_info WHERE id = (SELECT min(id) FROM Remaining_info)");
+        blobDAO.release(originalId);
+
+        var copy = new ByteArrayOutputStream();
+        blobDAO.copyTo(originalId, copy);
+        assertArrayEquals(content, copy.toByteArray());
+    }
+
+    private void execute(String query) throws SQLException {
+        pool.inTransaction(connection -> {
+            try (var statement = connection.createStatement()) {
+                statement.executeUpdate(query);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec.BlobCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobDAOTest {
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+    private BlobDAO blobDAO;
+
+    @BeforeEach
+    void createDataBase() throws SQLException {
+        pool = TestDataBase.create(directory);
+        blobDAO = new BlobDAO(pool);
+    }
+
+    @AfterEach
+    void closeDataBase() throws SQLException {
+        pool.close();
+    }
+
+    /**
+     * Когда файл подготовлен заранее, тогда хеш и способ сжатия известны до писателя,
+     * а такой же файл писатель уже не читает, только добавляет ссылку на имеющийся.
+     */
+    @Test
+    void whenFileIsPreparedThenWriterMustNotReadDuplicate() throws IOException {
+        var first = Files.writeString(directory.resolve("plan.txt"), "план первого этажа");
+        var second = Files.writeString(directory.resolve("copy.txt"), "план первого этажа");
+
+        var prepared = BlobDAO.prepare(first.toString());
+        var duplicate = BlobDAO.prepare(second.toString());
+
+        assertEquals(prepared.hash(), duplicate.hash());
+        assertEquals(BlobCodec.DEFLATE, prepared.codec());
+
+        int firstId, secondId;
+        try (var writer = blobDAO.openWriter()) {
+            firstId = writer.write(prepared);
+
+            Files.delete(second);
+            secondId = writer.write(duplicate);
+        }
+
+        assertEquals(firstId, secondId);
+
+        var content = new ByteArrayOutputStream();
+        blobDAO.copyTo(firstId, content);
+        assertEquals("план первого этажа", content.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Когда файла нет, тогда ошибка появляется уже при подготовке, до писателя.
+     */
+    @Test
+    void whenFileIsMissingThenPrepareMustFail() {
+        var error = assertThrows(RuntimeException.class,
+                () -> BlobDAO.prepare(directory.resolve("missing.png").toString()));
+
+        assertTrue(error.getMessage().contains("missing.png"));
+    }
+}
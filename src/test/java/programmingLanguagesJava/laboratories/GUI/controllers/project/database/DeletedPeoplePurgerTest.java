@@ -0,0 +1,97 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeletedPeoplePurgerTest {
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+    private PeoplesDAO peoplesDAO;
+    private RemainingInfoDAO remainingInfoDAO;
+    private DeletedPeoplePurger purger;
+
+    @BeforeEach
+    void createDataBase() throws SQLException {
+        pool = TestDataBase.create(directory);
+        peoplesDAO = new PeoplesDAO(pool);
+        remainingInfoDAO = new RemainingInfoDAO(pool, new BlobDAO(pool));
+        purger = new DeletedPeoplePurger(pool, peoplesDAO, remainingInfoDAO);
+    }
+
+    @AfterEach
+    void closeDataBase() throws SQLException {
+        pool.close();
+    }
+
+    private int insertClient(String lastName, String content) throws IOException {
+        var contract = Files.writeString(Files.createTempFile(directory, "contract-", ".docx"), content);
+        var plan = Files.writeString(Files.createTempFile(directory, "plan-", ".png"), "план " + content);
+        var remainingInfoId = remainingInfoDAO.insert(contract.toString(), plan.toString());
+
+        peoplesDAO.insert(List.of(new Person(lastName, "Иван", "Иванович", 1)), remainingInfoId);
+        return remainingInfoId;
+    }
+
+    private List<PersonInfo> people() {
+        return peoplesDAO.loadPage(0, 10);
+    }
+
+    /**
+     * Когда удаление одного человека отменено, а другого нет, тогда окончательное удаление
+     * убирает только второго вместе с его файлами, а первый остается со своими файлами.
+     */
+    @Test
+    void whenDeleteIsUndoneThenPurgeMustKeepPersonAndFiles() throws IOException {
+        var keptInfo = insertClient("Иванов", "договор Иванова");
+        var purgedInfo = insertClient("Петров", "договор Петрова");
+
+        var ids = people().stream().map(PersonInfo::getId).toList();
+
+        assertEquals(2, peoplesDAO.markDeleted(ids, 1_000));
+        assertTrue(people().isEmpty());
+
+        assertEquals(1, peoplesDAO.restore(List.of(ids.getFirst())));
+        assertEquals(1, purger.purge(2_000));
+
+        assertEquals(List.of("Иванов"), people().stream().map(PersonInfo::getLastName).toList());
+        assertEquals("договор Иванова", new String(remainingInfoDAO.loadBlob(keptInfo, BlobColumn.DOCUMENT), StandardCharsets.UTF_8));
+        assertEquals(0, remainingInfoDAO.blobId(purgedInfo, BlobColumn.DOCUMENT));
+        assertEquals(0, remainingInfoDAO.blobId(purgedInfo, BlobColumn.PLAN_OF_HOUSE));
+
+        // Вернуть окончательно удаленного уже нельзя, а повторное удаление ничего не находит
+        assertEquals(0, peoplesDAO.restore(List.of(ids.getLast())));
+        assertEquals(0, purger.purge(2_000));
+    }
+
+    /**
+     * Когда время удаления позже границы, тогда человек еще не удаляется окончательно и его можно вернуть.
+     */
+    @Test
+    void whenUndoWindowIsNotOverThenPurgeMustKeepPerson() throws IOException {
+        insertClient("Сидоров", "договор Сидорова");
+        var ids = people().stream().map(PersonInfo::getId).toList();
+
+        peoplesDAO.markDeleted(ids, 5_000);
+
+        assertEquals(0, purger.purge(4_999));
+        assertEquals(1, peoplesDAO.restore(ids));
+        assertEquals(List.of("Сидоров"), people().stream().map(PersonInfo::getLastName).toList());
+    }
+}
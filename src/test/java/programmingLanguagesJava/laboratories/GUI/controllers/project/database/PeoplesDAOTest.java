@@ -0,0 +1,76 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.Person;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeoplesDAOTest {
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+    private PeoplesDAO peoplesDAO;
+
+    @BeforeEach
+    void createDataBase() throws SQLException, IOException {
+        pool = TestDataBase.create(directory);
+        peoplesDAO = new PeoplesDAO(pool);
+
+        var contract = Files.write(directory.resolve("contract.docx"), new byte[]{1, 2, 3});
+        var plan = Files.write(directory.resolve("plan.png"), new byte[]{4, 5, 6});
+        var remainingInfoId = new RemainingInfoDAO(pool, new BlobDAO(pool)).insert(contract.toString(), plan.toString());
+
+        peoplesDAO.insert(List.of(
+                new Person("Семёнов", "Пётр", "Алексеевич", 1),
+                new Person("Елкин", "Иван", "Сергеевич", 0),
+                new Person("Петров", "Сергей", "Иванович", 0)
+        ), remainingInfoId);
+    }
+
+    @AfterEach
+    void closeDataBase() throws SQLException {
+        pool.close();
+    }
+
+    private List<String> lastNames(String keyword) {
+        return peoplesDAO.search(keyword, 0, 10).stream().map(PersonInfo::getLastName).toList();
+    }
+
+    /**
+     * Когда ищут через е, а в базе ё (и наоборот), тогда человек все равно находится,
+     * и по подстроке через полнотекстовый индекс, и по короткому началу ФИО.
+     */
+    @Test
+    void whenKeywordDiffersByYoThenPersonMustBeFound() {
+        assertEquals(List.of("Семёнов"), lastNames("Семенов"));
+        assertEquals(List.of("Семёнов"), lastNames("семёнов"));
+        assertEquals(List.of("Семёнов"), lastNames("Петр Алексеевич"));
+        assertEquals(List.of("Елкин"), lastNames("Ёлкин"));
+        assertEquals(List.of("Семёнов"), lastNames("Пе").subList(0, 1));
+        assertEquals(List.of("Елкин"), lastNames("Ё"));
+    }
+
+    /**
+     * Когда короткое начало ФИО ищется с е и с ё, тогда каждый человек попадает в страницу один раз и по порядку id.
+     */
+    @Test
+    void whenPrefixHasYoVariantsThenPageMustBeMergedById() {
+        var found = peoplesDAO.search("Пе", 0, 10);
+
+        assertEquals(List.of("Семёнов", "Петров"), found.stream().map(PersonInfo::getLastName).toList());
+        assertTrue(found.get(0).getId() < found.get(1).getId());
+        assertEquals(List.of("Се", "Сё"), PeoplesDAO.yoVariants("Се"));
+    }
+}
@@ -0,0 +1,53 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.migration.MigrationRunner;
+
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Временная база данных для тестов DAO: исходные таблицы, как в файле базы данных приложения,
+ * и все шаги MigrationRunner поверх них.
+ */
+final class TestDataBase {
+
+    private TestDataBase() {
+    }
+
+    /**
+     * @param directory Папка, где создается файл базы данных.
+     * @return Пул соединений с базой данных последней версии.
+     */
+    static ConnectionPool create(Path directory) throws SQLException {
+        var url = "jdbc:sqlite:" + directory.resolve("test.db");
+
+        try (var connection = DriverManager.getConnection(url);
+             var statement = connection.createStatement()) {
+
+            statement.execute("""
+                    CREATE TABLE Peoples (
+                        id             INTEGER NOT NULL UNIQUE,
+                        first_name     TEXT    NOT NULL,
+                        last_name      TEXT    NOT NULL,
+                        patronymic     TEXT    NOT NULL,
+                        post           INTEGER NOT NULL,
+                        remaining_info INTEGER NOT NULL,
+                        PRIMARY KEY (id AUTOINCREMENT)
+                    )
+                    """);
+            statement.execute("""
+                    CREATE TABLE Remaining_info (
+                        id            INTEGER NOT NULL UNIQUE,
+                        document      BLOB,
+                        plan_of_house BLOB,
+                        PRIMARY KEY (id AUTOINCREMENT)
+                    )
+                    """);
+        }
+
+        new MigrationRunner(url).migrate();
+
+        return new ConnectionPool(url, 2, 1_000);
+    }
+}
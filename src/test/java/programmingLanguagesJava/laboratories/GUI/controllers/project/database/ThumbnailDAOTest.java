@@ -0,0 +1,63 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailDAOTest {
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+    private BlobDAO blobDAO;
+    private ThumbnailDAO thumbnailDAO;
+
+    @BeforeEach
+    void createDataBase() throws SQLException {
+        pool = TestDataBase.create(directory);
+        blobDAO = new BlobDAO(pool);
+        thumbnailDAO = new ThumbnailDAO(pool);
+    }
+
+    @AfterEach
+    void closeDataBase() throws SQLException {
+        pool.close();
+    }
+
+    /**
+     * Когда копия сохранена, тогда она находится только для своего размера, а повторное сохранение ее заменяет.
+     */
+    @Test
+    void whenThumbnailIsSavedThenItMustBeFoundBySize() {
+        var blobId = blobDAO.write(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        assertNull(thumbnailDAO.find(blobId, 96));
+
+        thumbnailDAO.save(blobId, 96, new byte[]{10});
+        thumbnailDAO.save(blobId, 96, new byte[]{11});
+
+        assertArrayEquals(new byte[]{11}, thumbnailDAO.find(blobId, 96));
+        assertNull(thumbnailDAO.find(blobId, 48));
+    }
+
+    /**
+     * Когда на файл не осталось ссылок и он удален, тогда его копии удаляются вместе с ним.
+     */
+    @Test
+    void whenBlobIsReleasedThenThumbnailsMustBeDeleted() {
+        var blobId = blobDAO.write(new ByteArrayInputStream(new byte[]{4, 5, 6}));
+        thumbnailDAO.save(blobId, 96, new byte[]{12});
+
+        blobDAO.release(blobId);
+
+        assertNull(thumbnailDAO.find(blobId, 96));
+    }
+}
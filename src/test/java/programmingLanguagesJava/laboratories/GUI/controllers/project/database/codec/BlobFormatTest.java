@@ -0,0 +1,106 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobFormatTest {
+
+    private static byte[] encode(byte[] content, BlobCodec codec) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        try (var encoder = BlobFormat.encode(outputStream, codec)) {
+            encoder.write(content);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] decode(byte[] stored) throws IOException {
+        try (var decoder = BlobFormat.decode(new ByteArrayInputStream(stored))) {
+            return decoder.readAllBytes();
+        }
+    }
+
+    // Повторяющийся текст с шумом и длина больше одного блока LZ
+    private static byte[] sampleContent() {
+        var random = new Random(42);
+        var content = new byte[3 * LzBlockCompressor.BLOCK_SIZE + 123];
+        var pattern = "План этажа, помещение 101; ".getBytes();
+
+        for (int i = 0; i < content.length; i++) {
+            content[i] = random.nextInt(20) == 0 ? (byte) random.nextInt() : pattern[i % pattern.length];
+        }
+        return content;
+    }
+
+    /**
+     * Когда файл сжат любым способом, тогда после распаковки он должен совпасть с исходным.
+     */
+    @Test
+    void whenEncodedWithAnyCodecThenDecodedContentMustBeEqual() throws IOException {
+        var content = sampleContent();
+
+        for (var codec : BlobCodec.values()) {
+            assertArrayEquals(content, decode(encode(content, codec)), codec.name());
+        }
+    }
+
+    /**
+     * Когда данные повторяются, тогда LZ должен их сжать.
+     */
+    @Test
+    void whenContentRepeatsThenLzMustCompressIt() throws IOException {
+        var content = sampleContent();
+        assertTrue(encode(content, BlobCodec.LZ).length < content.length / 2);
+    }
+
+    /**
+     * Когда данные случайные, тогда LZ хранит блоки как есть и тоже распаковывает их без потерь.
+     */
+    @Test
+    void whenContentIsRandomThenLzMustStoreItAsIs() throws IOException {
+        var content = new byte[LzBlockCompressor.BLOCK_SIZE + 7];
+        new Random(7).nextBytes(content);
+
+        var stored = encode(content, BlobCodec.LZ);
+
+        assertTrue(stored.length < content.length + 32);
+        assertArrayEquals(content, decode(stored));
+    }
+
+    /**
+     * Старые файлы записаны без заголовка, тогда они должны читаться как есть.
+     */
+    @Test
+    void whenThereIsNoHeaderThenContentMustBeReadAsIs() throws IOException {
+        var content = new byte[]{'P', 'K', 3, 4, 1, 2, 3};
+        assertArrayEquals(content, decode(content));
+        assertArrayEquals(new byte[0], decode(new byte[0]));
+    }
+
+    /**
+     * Когда несжатый файл сам начинается с сигнатуры заголовка, тогда он все равно должен читаться без изменений.
+     */
+    @Test
+    void whenUncompressedContentStartsWithMagicThenItMustBeReadAsIs() throws IOException {
+        var content = new byte[]{0, 'B', 'L', 'C', 2, 'P', 'K', 3, 4};
+        assertArrayEquals(content, decode(encode(content, BlobCodec.NONE)));
+    }
+
+    /**
+     * Когда сжатый блок испорчен, тогда должно быть исключение, а не мусор.
+     */
+    @Test
+    void whenLzBlockIsCorruptedThenIOExceptionMustBeThrown() throws IOException {
+        var stored = encode(sampleContent(), BlobCodec.LZ);
+        // После заголовка (5 байт) идет размер первого блока, уменьшим его на один байт
+        stored[7] = (byte) 0xFF;
+        stored[6] = 0;
+
+        assertThrows(IOException.class, () -> decode(stored));
+    }
+}
@@ -0,0 +1,109 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.database.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.ClientRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+
+    @TempDir
+    Path directory;
+
+    // Разборщик, которому не нравится ни одна строка: до базы данных дело не доходит
+    private static class RejectingParser implements ClientLineParser {
+        private final AtomicBoolean isFirst = new AtomicBoolean(true);
+
+        @Override
+        public ClientRecord parse(String line, Path baseDir) {
+            // Первая пачка разбирается долго, чтобы читатель успел заполнить очередь
+            if (isFirst.getAndSet(false)) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            throw new IllegalArgumentException("не клиент");
+        }
+    }
+
+    /**
+     * Когда чтение файла падает при полной очереди пачек, тогда импорт должен завершиться ошибкой, а не зависнуть.
+     */
+    @Test
+    void whenReaderFailsWhileQueueIsFullThenImportMustFail() throws Exception {
+        // Строки по 30 байт: три пачки по 80 строк помещаются в первый буфер чтения (8192 байта),
+        // а испорченный байт UTF-8 попадает во второй, пока читается четвертая пачка
+        var content = new ByteArrayOutputStream();
+        for (int i = 0; i < 290; i++) {
+            content.write(String.format("line-%04d;padding-padding-pad\n", i).getBytes());
+        }
+        content.write(new byte[]{(byte) 0xFF, (byte) 0xFE, '\n'});
+
+        var file = directory.resolve("clients.csv");
+        Files.write(file, content.toByteArray());
+
+        var importer = new BulkImporter(null, 80, 1, progress -> { });
+
+        var error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(RuntimeException.class, () -> importer.importFile(file, new RejectingParser())));
+
+        assertInstanceOf(MalformedInputException.class, error.getCause());
+    }
+
+    /**
+     * Когда разборщик падает с непроверяемым исключением в потоке чтения, тогда импорт должен завершиться ошибкой.
+     */
+    @Test
+    void whenReaderThrowsRuntimeExceptionThenImportMustFail() throws Exception {
+        var file = directory.resolve("clients.csv");
+        Files.writeString(file, "address;allPeople\n");
+
+        var parser = new RejectingParser() {
+            @Override
+            public boolean isHeader(String line) {
+                throw new IllegalStateException("сломанный заголовок");
+            }
+        };
+
+        var importer = new BulkImporter(null, 10, 1, progress -> { });
+
+        var error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(RuntimeException.class, () -> importer.importFile(file, parser)));
+
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    /**
+     * Когда файла клиента нет, тогда это ошибка одной строки при разборе, а не всей пачки при записи.
+     */
+    @Test
+    void whenClientFileIsMissingThenLineMustFailWhileParsing() throws Exception {
+        var file = directory.resolve("clients.csv");
+        Files.writeString(file, "line\n");
+
+        var parser = new ClientLineParser() {
+            @Override
+            public ClientRecord parse(String line, Path baseDir) {
+                return new ClientRecord(baseDir.resolve("missing.docx").toString(),
+                        baseDir.resolve("missing.png").toString(), List.of());
+            }
+        };
+
+        var report = new BulkImporter(null, 10, 1, progress -> { }).importFile(file, parser);
+
+        assertEquals(1, report.errors().size());
+        assertTrue(report.errors().getFirst().startsWith("Строка 1: "), report.errors().getFirst());
+        assertEquals(0, report.progress().imported());
+    }
+}
@@ -0,0 +1,48 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.exportingDatabase;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTableWriterTest {
+
+    /**
+     * Когда в поле есть разделитель, кавычка или перевод строки, тогда поле берется в кавычки, а кавычка удваивается.
+     */
+    @Test
+    void whenCellHasSpecialCharactersThenCellMustBeQuoted() throws IOException {
+        var csv = write(List.of("Иванов", "Анна; Мария", "\"Петровна\"", "две\nстроки"));
+
+        assertEquals("Иванов;\"Анна; Мария\";\"\"\"Петровна\"\"\";\"две\nстроки\"\r\n", csv);
+    }
+
+    /**
+     * Когда поле пустое или null, тогда в строке остается только разделитель, и количество полей не меняется.
+     */
+    @Test
+    void whenCellIsNullThenRowMustKeepColumnsCount() throws IOException {
+        var csv = write(Arrays.asList("1", null, "", "Иванов"));
+
+        assertEquals("1;;;Иванов\r\n", csv);
+    }
+
+    // Запись одной строки без BOM в начале
+    private static String write(List<String> cells) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+
+        try (var writer = new CsvTableWriter(outputStream)) {
+            writer.writeRow(cells);
+        }
+
+        var csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertEquals('\uFEFF', csv.charAt(0));
+
+        return csv.substring(1);
+    }
+}
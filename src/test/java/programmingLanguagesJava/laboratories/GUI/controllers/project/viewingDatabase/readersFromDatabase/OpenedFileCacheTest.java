@@ -0,0 +1,74 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.readersFromDatabase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.LazyBlob;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OpenedFileCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void onlyPosix() {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    }
+
+    /**
+     * Когда папки кеша нет, тогда она создается только для владельца, и записанный файл тоже только его.
+     */
+    @Test
+    void whenCacheIsCreatedThenOnlyOwnerMustHaveAccess() throws IOException {
+        var cache = directory.resolve("documents");
+        OpenedFileCache.createPrivateDirectory(cache);
+
+        var file = cache.resolve("contract.docx");
+        OpenedFileCache.write(blobOf("договор"), file);
+
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cache)));
+        assertEquals("r--------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        assertEquals("договор", Files.readString(file));
+    }
+
+    /**
+     * Когда папка кеша уже есть и открыта всем, тогда ее права сужаются до владельца,
+     * а ссылка вместо папки не используется.
+     */
+    @Test
+    void whenCacheDirectoryIsSharedOrLinkThenItMustNotBeTrusted() throws IOException {
+        var shared = Files.createDirectory(directory.resolve("shared"));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        OpenedFileCache.createPrivateDirectory(shared);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(shared)));
+
+        var link = Files.createSymbolicLink(directory.resolve("link"), shared);
+        assertThrows(IOException.class, () -> OpenedFileCache.createPrivateDirectory(link));
+    }
+
+    private static LazyBlob blobOf(String content) {
+        return new LazyBlob(1, BlobColumn.DOCUMENT) {
+            @Override
+            public void copyTo(OutputStream outputStream) {
+                try {
+                    outputStream.write(content.getBytes());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
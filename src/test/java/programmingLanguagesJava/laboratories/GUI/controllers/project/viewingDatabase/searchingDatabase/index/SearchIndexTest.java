@@ -0,0 +1,70 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+    private SearchIndex searchIndex;
+
+    private final PersonInfo ivanov = new PersonInfo(1, 1, "Иван", "Иванов", "Петрович");
+    private final PersonInfo fedorov = new PersonInfo(2, 2, "Пётр", "Фёдоров", "Иванович");
+    private final PersonInfo smirnova = new PersonInfo(3, 3, "Ольга", "Смирнова", "Сергеевна");
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex();
+        searchIndex.addAll(List.of(ivanov, fedorov, smirnova));
+    }
+
+    /**
+     * Когда ищем подстроку в другом регистре, тогда находятся все люди, у которых она есть в любом поле.
+     */
+    @Test
+    void whenSearchedIgnoringCaseThenAllFieldsMustBeChecked() {
+        assertEquals(List.of(ivanov, fedorov), searchIndex.search("ИВАН", 10));
+    }
+
+    /**
+     * Когда ищем через е, тогда находятся и фамилии с ё.
+     */
+    @Test
+    void whenSearchedWithEThenYoMustBeFound() {
+        assertEquals(List.of(fedorov), searchIndex.search("федор", 10));
+        assertTrue(searchIndex.search("пе", 10).contains(fedorov));
+    }
+
+    /**
+     * Когда все триграммы есть, но не подряд, тогда человек не должен находиться.
+     */
+    @Test
+    void whenTrigramsAreNotAdjacentThenPersonMustNotBeFound() {
+        assertTrue(searchIndex.search("ивов", 10).isEmpty());
+    }
+
+    /**
+     * Когда человек удален или заменен, тогда индекс должен это учитывать.
+     */
+    @Test
+    void whenPersonRemovedOrReplacedThenIndexMustBeUpdated() {
+        searchIndex.remove(ivanov);
+        assertEquals(List.of(fedorov), searchIndex.search("иван", 10));
+
+        searchIndex.add(new PersonInfo(3, 3, "Ольга", "Кузнецова", "Сергеевна"));
+        assertTrue(searchIndex.search("смирн", 10).isEmpty());
+        assertEquals(1, searchIndex.search("кузн", 10).size());
+        assertEquals(2, searchIndex.size());
+    }
+
+    /**
+     * Когда результатов больше лимита, тогда возвращается не больше лимита.
+     */
+    @Test
+    void whenThereAreMoreResultsThanLimitThenLimitMustBeRespected() {
+        assertEquals(1, searchIndex.search("ов", 1).size());
+    }
+}
@@ -0,0 +1,62 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.strategy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzySearchStrategyTest {
+    private FuzzySearchStrategy fuzzySearch;
+
+    private final PersonInfo ivanov = new PersonInfo(1, 1, "Иван", "Иванов", "Петрович");
+    private final PersonInfo shchukin = new PersonInfo(2, 2, "Пётр", "Щукин", "Ильич");
+    private final PersonInfo dmitrieva = new PersonInfo(3, 3, "Анна", "Дмитриева", "Сергеевна");
+
+    @BeforeEach
+    void setUp() {
+        fuzzySearch = new FuzzySearchStrategy();
+        fuzzySearch.addAll(List.of(ivanov, shchukin, dmitrieva));
+    }
+
+    /**
+     * Когда в фамилии опечатка или она записана на слух, тогда человек все равно находится.
+     */
+    @Test
+    void whenNameIsMisspelledThenPersonMustBeFound() {
+        assertEquals(List.of(ivanov), fuzzySearch.search("Ивонов", 10));
+        assertEquals(List.of(shchukin), fuzzySearch.search("Шукин", 10));
+        assertEquals(List.of(dmitrieva), fuzzySearch.search("Дмитреева", 10));
+    }
+
+    /**
+     * Когда имя набрано латиницей, тогда оно сравнивается с кириллическим.
+     */
+    @Test
+    void whenNameIsTypedInLatinThenPersonMustBeFound() {
+        assertEquals(List.of(ivanov), fuzzySearch.search("ivanov", 10));
+        assertEquals(List.of(shchukin), fuzzySearch.search("Shchukin", 10));
+    }
+
+    /**
+     * Когда в запросе несколько слов, тогда каждое должно быть похоже на какое-то поле человека.
+     */
+    @Test
+    void whenQueryHasSeveralWordsThenEachMustMatch() {
+        assertEquals(List.of(ivanov), fuzzySearch.search("Иванов Петрович", 10));
+        assertTrue(fuzzySearch.search("Иванов Сергеевна", 10).isEmpty());
+        assertTrue(fuzzySearch.matches(dmitrieva, "dmitrieva anna"));
+    }
+
+    /**
+     * Когда человек удален, тогда он больше не находится.
+     */
+    @Test
+    void whenPersonIsRemovedThenPersonMustNotBeFound() {
+        fuzzySearch.remove(ivanov);
+
+        assertTrue(fuzzySearch.search("Иванов", 10).isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.sortingDatabase;
+
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.PersonInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.searchingDatabase.index.SearchField.*;
+
+class CollationSortEngineTest {
+    private final CollationSortEngine engine = new CollationSortEngine();
+
+    private final List<SortColumn> byFullName = List.of(
+            new SortColumn(LAST_NAME, true),
+            new SortColumn(FIRST_NAME, true),
+            new SortColumn(PATRONYMIC, true));
+
+    /**
+     * Когда фамилии начинаются на Ё и отличаются регистром, тогда порядок как в русском алфавите, а не по кодам символов.
+     */
+    @Test
+    void whenNamesAreCyrillicThenOrderMustFollowAlphabet() {
+        var yolkin = new PersonInfo(1, 1, "Яков", "Ёлкин", "Петрович");
+        var zhukov = new PersonInfo(2, 2, "Анна", "жуков", "Ильич");
+        var abramov = new PersonInfo(3, 3, "Иван", "Абрамов", "Ильич");
+        var yakovlev = new PersonInfo(4, 4, "Анна", "Яковлев", "Ильич");
+
+        assertEquals(List.of(abramov, yolkin, zhukov, yakovlev),
+                engine.sort(List.of(yakovlev, zhukov, yolkin, abramov), byFullName));
+    }
+
+    /**
+     * Когда главный столбец совпадает, тогда люди сортируются по следующим, а полностью равные остаются в исходном порядке.
+     */
+    @Test
+    void whenMainColumnIsEqualThenNextColumnsAndInputOrderMustDecide() {
+        var first = new PersonInfo(1, 1, "Иван", "Иванов", "Петрович");
+        var second = new PersonInfo(2, 2, "Анна", "ИВАНОВ", "Ильич");
+        var third = new PersonInfo(3, 3, "Иван", "иванов", "Петрович");
+
+        assertEquals(List.of(second, first, third), engine.sort(List.of(first, second, third), byFullName));
+        assertEquals(List.of(second, third, first), engine.sort(List.of(third, first, second), byFullName));
+    }
+
+    /**
+     * Когда столбец по убыванию, тогда пустые значения идут в конце.
+     */
+    @Test
+    void whenColumnIsDescendingThenNullsMustBeLast() {
+        var anna = new PersonInfo(1, 1, "Анна", "Иванова", null);
+        var yakov = new PersonInfo(2, 2, "Яков", "Иванов", null);
+        var unnamed = new PersonInfo(3, 3, null, "Петров", null);
+
+        assertEquals(List.of(yakov, anna, unnamed),
+                engine.sort(List.of(unnamed, anna, yakov), List.of(new SortColumn(FIRST_NAME, false))));
+    }
+
+    /**
+     * Когда список большой (параллельная сортировка), тогда порядок совпадает с comparator().
+     */
+    @Test
+    void whenListIsLargeThenOrderMustMatchComparator() {
+        var names = new String[]{"Ёж", "еж", "Ель", "Як", "ад", "Ад", null, "Щука"};
+        var random = new Random(42);
+        var rows = new ArrayList<PersonInfo>();
+
+        for (int i = 0; i < 50_000; i++) {
+            rows.add(new PersonInfo(i, i, names[random.nextInt(names.length)],
+                    names[random.nextInt(names.length)], names[random.nextInt(names.length)]));
+        }
+
+        var columns = List.of(new SortColumn(FIRST_NAME, false), new SortColumn(LAST_NAME, true));
+        var expected = new ArrayList<>(rows);
+        expected.sort(engine.comparator(columns));
+
+        assertEquals(expected, engine.sort(rows, columns));
+    }
+}
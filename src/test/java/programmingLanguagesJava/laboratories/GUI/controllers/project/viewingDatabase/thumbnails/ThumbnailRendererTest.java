@@ -0,0 +1,63 @@
+package programmingLanguagesJava.laboratories.GUI.controllers.project.viewingDatabase.thumbnails;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import programmingLanguagesJava.laboratories.GUI.controllers.project.database.utils.BlobColumn;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailRendererTest {
+    private final ThumbnailRenderer renderer = new ThumbnailRenderer(96);
+
+    private static BufferedImage read(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    /**
+     * Когда план здания больше копии, тогда он уменьшается до размера копии по большей стороне с сохранением пропорций.
+     */
+    @Test
+    void whenPlanIsLargeThenThumbnailMustKeepAspectRatio() throws IOException {
+        var plan = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+        var file = new ByteArrayOutputStream();
+        ImageIO.write(plan, "png", file);
+
+        var thumbnail = read(renderer.render(BlobColumn.PLAN_OF_HOUSE, new ByteArrayInputStream(file.toByteArray())));
+
+        assertEquals(96, thumbnail.getWidth());
+        assertEquals(48, thumbnail.getHeight());
+    }
+
+    /**
+     * Когда договор в формате docx, тогда копия - это лист A4 высотой в размер копии.
+     */
+    @Test
+    void whenDocumentIsDocxThenThumbnailMustBeA4Page() throws IOException {
+        var file = new ByteArrayOutputStream();
+        try (var document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("Договор на оказание охранных услуг");
+            document.write(file);
+        }
+
+        var thumbnail = read(renderer.render(BlobColumn.DOCUMENT, new ByteArrayInputStream(file.toByteArray())));
+
+        assertEquals(96, thumbnail.getHeight());
+        assertEquals(68, thumbnail.getWidth());
+    }
+
+    /**
+     * Когда файл пустой или это не картинка, тогда копии нет, а исключения нет.
+     */
+    @Test
+    void whenFileIsEmptyOrUnknownThenThereMustBeNoThumbnail() throws IOException {
+        assertNull(renderer.render(BlobColumn.DOCUMENT, InputStream.nullInputStream()));
+        assertNull(renderer.render(BlobColumn.PLAN_OF_HOUSE, new ByteArrayInputStream("не картинка".getBytes())));
+    }
+}